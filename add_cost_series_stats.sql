@@ -0,0 +1,16 @@
+-- Add streaming statistics for billing cost anomaly detection
+USE aws_governance_db;
+
+-- One row per user and service: exponentially weighted mean and variance of the
+-- daily cost, and the last day folded into them
+CREATE TABLE cost_series_stats (
+    user_id INT NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    last_day DATE NOT NULL,
+    observations INT NOT NULL DEFAULT 0,
+    ewma_mean DOUBLE NOT NULL DEFAULT 0.0,
+    ewma_variance DOUBLE NOT NULL DEFAULT 0.0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, service_name),
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
@@ -0,0 +1,36 @@
+-- Add tables for local AWS Cost and Usage Report (CUR) ingestion
+USE aws_governance_db;
+
+-- Line items aggregated by service, resource id, usage type and day
+-- item_hash identifies (source_file, service, resource, usage type) so that the
+-- unique key stays short even for long resource ARNs
+CREATE TABLE billing_line_items (
+    line_item_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id INT NOT NULL,
+    source_file VARCHAR(255) NOT NULL,
+    usage_date DATE NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    resource_id VARCHAR(1024) NOT NULL DEFAULT '',
+    usage_type VARCHAR(255) NOT NULL DEFAULT '',
+    usage_amount DOUBLE DEFAULT 0.0,
+    cost_amount DECIMAL(16, 6) DEFAULT 0.0,
+    item_hash BINARY(16) AS (UNHEX(MD5(CONCAT_WS('|', source_file, service_name, resource_id, usage_type)))) STORED,
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+    UNIQUE KEY unique_line_item (user_id, usage_date, item_hash)
+);
+
+CREATE INDEX idx_line_items_service ON billing_line_items(user_id, service_name, usage_date);
+CREATE INDEX idx_line_items_source ON billing_line_items(user_id, source_file);
+
+-- Per-file ingestion checkpoints for crash-safe resume
+CREATE TABLE cur_ingestion_checkpoints (
+    user_id INT NOT NULL,
+    file_path VARCHAR(512) NOT NULL,
+    file_size BIGINT NOT NULL,
+    last_modified BIGINT NOT NULL,
+    byte_offset BIGINT NOT NULL DEFAULT 0,
+    completed BOOLEAN DEFAULT FALSE,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, file_path),
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
@@ -0,0 +1,60 @@
+-- Add a per-user summary read model for the dashboard header
+USE aws_governance_db;
+
+-- Alerts are owned by the user of the resource (or billing account) they were raised for
+ALTER TABLE alerts ADD COLUMN user_id INT NULL AFTER rule_id;
+ALTER TABLE alerts ADD CONSTRAINT fk_alerts_user FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE;
+
+UPDATE alerts a JOIN ec2_instances r ON r.instance_id = a.resource_id
+SET a.user_id = r.user_id WHERE a.resource_type = 'EC2' AND a.user_id IS NULL;
+UPDATE alerts a JOIN rds_instances r ON r.db_instance_identifier = a.resource_id
+SET a.user_id = r.user_id WHERE a.resource_type = 'RDS' AND a.user_id IS NULL;
+UPDATE alerts a JOIN ecs_services r ON r.service_name = a.resource_id
+SET a.user_id = r.user_id WHERE a.resource_type = 'ECS' AND a.user_id IS NULL;
+UPDATE alerts a JOIN sagemaker_endpoints r ON r.endpoint_name = a.resource_id
+SET a.user_id = r.user_id WHERE a.resource_type = 'SageMaker' AND a.user_id IS NULL;
+
+-- One row per user: resource counts are refreshed after each sync and idle detection pass,
+-- open alert counts are adjusted by every alert write
+CREATE TABLE dashboard_summary (
+    user_id INT PRIMARY KEY,
+    ec2_count INT NOT NULL DEFAULT 0,
+    ec2_idle INT NOT NULL DEFAULT 0,
+    rds_count INT NOT NULL DEFAULT 0,
+    rds_idle INT NOT NULL DEFAULT 0,
+    ecs_count INT NOT NULL DEFAULT 0,
+    ecs_idle INT NOT NULL DEFAULT 0,
+    sagemaker_count INT NOT NULL DEFAULT 0,
+    sagemaker_idle INT NOT NULL DEFAULT 0,
+    open_alerts_high INT NOT NULL DEFAULT 0,
+    open_alerts_medium INT NOT NULL DEFAULT 0,
+    open_alerts_low INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_alerts_user_open ON alerts(user_id, is_resolved, severity);
+CREATE INDEX idx_ec2_user_idle ON ec2_instances(user_id, is_idle);
+CREATE INDEX idx_rds_user_idle ON rds_instances(user_id, is_idle);
+CREATE INDEX idx_ecs_user_idle ON ecs_services(user_id, is_idle);
+CREATE INDEX idx_sagemaker_user_idle ON sagemaker_endpoints(user_id, is_idle);
+
+-- Build the summary of existing users (later rows are rebuilt on demand when missing)
+INSERT INTO dashboard_summary (user_id, ec2_count, ec2_idle, rds_count, rds_idle, ecs_count, ecs_idle,
+                               sagemaker_count, sagemaker_idle, open_alerts_high, open_alerts_medium, open_alerts_low)
+SELECT u.user_id,
+    (SELECT COUNT(*) FROM ec2_instances r WHERE r.user_id = u.user_id),
+    (SELECT COUNT(*) FROM ec2_instances r WHERE r.user_id = u.user_id AND r.is_idle = TRUE),
+    (SELECT COUNT(*) FROM rds_instances r WHERE r.user_id = u.user_id),
+    (SELECT COUNT(*) FROM rds_instances r WHERE r.user_id = u.user_id AND r.is_idle = TRUE),
+    (SELECT COUNT(*) FROM ecs_services r WHERE r.user_id = u.user_id),
+    (SELECT COUNT(*) FROM ecs_services r WHERE r.user_id = u.user_id AND r.is_idle = TRUE),
+    (SELECT COUNT(*) FROM sagemaker_endpoints r WHERE r.user_id = u.user_id),
+    (SELECT COUNT(*) FROM sagemaker_endpoints r WHERE r.user_id = u.user_id AND r.is_idle = TRUE),
+    (SELECT COUNT(*) FROM alerts a WHERE a.user_id = u.user_id AND a.is_resolved = FALSE
+        AND UPPER(a.severity) IN ('HIGH', 'CRITICAL')),
+    (SELECT COUNT(*) FROM alerts a WHERE a.user_id = u.user_id AND a.is_resolved = FALSE
+        AND COALESCE(UPPER(a.severity), 'MEDIUM') NOT IN ('HIGH', 'CRITICAL', 'LOW')),
+    (SELECT COUNT(*) FROM alerts a WHERE a.user_id = u.user_id AND a.is_resolved = FALSE
+        AND UPPER(a.severity) = 'LOW')
+FROM users u;
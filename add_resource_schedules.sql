@@ -0,0 +1,40 @@
+-- Off-hours start/stop schedules for EC2 instances, RDS instances and ECS services
+USE aws_governance_db;
+
+-- Cron expressions (minute hour day-of-month month day-of-week) evaluated in the schedule's
+-- time zone, e.g. stop '0 20 * * MON-FRI' and start '0 7 * * MON-FRI'; a NULL cron never fires
+CREATE TABLE IF NOT EXISTS resource_schedules (
+    schedule_id INT PRIMARY KEY AUTO_INCREMENT,
+    schedule_name VARCHAR(100) NOT NULL,
+    resource_type VARCHAR(50) NOT NULL,
+    stop_cron VARCHAR(100) NULL,
+    start_cron VARCHAR(100) NULL,
+    time_zone VARCHAR(50) NOT NULL DEFAULT 'UTC',
+    is_active BOOLEAN DEFAULT TRUE,
+    created_by INT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (created_by) REFERENCES users(user_id)
+);
+
+-- What a schedule applies to: one resource (EC2 instance id, RDS identifier or
+-- 'cluster/service' for ECS), or every resource carrying a tag (tag_value NULL = any value)
+CREATE TABLE IF NOT EXISTS schedule_targets (
+    target_id INT PRIMARY KEY AUTO_INCREMENT,
+    schedule_id INT NOT NULL,
+    resource_id VARCHAR(255) NULL,
+    tag_key VARCHAR(128) NULL,
+    tag_value VARCHAR(256) NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (schedule_id) REFERENCES resource_schedules(schedule_id) ON DELETE CASCADE,
+    INDEX idx_schedule_targets_schedule (schedule_id)
+);
+
+-- Desired count of ECS services stopped by a schedule, restored when the schedule starts them
+CREATE TABLE IF NOT EXISTS schedule_ecs_capacity (
+    cluster_name VARCHAR(255) NOT NULL,
+    service_name VARCHAR(255) NOT NULL,
+    desired_count INT NOT NULL,
+    saved_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (cluster_name, service_name)
+);
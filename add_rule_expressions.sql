@@ -0,0 +1,6 @@
+-- Allow compound rule conditions
+USE aws_governance_db;
+
+-- Optional condition over several metrics, e.g. "CPU < 5 AND NetworkIn < 1000000";
+-- when NULL the rule's condition is condition_metric / condition_operator / condition_value
+ALTER TABLE rules ADD COLUMN condition_expression VARCHAR(500) NULL AFTER duration_unit;
@@ -0,0 +1,10 @@
+-- Give each rule its own evaluation cadence for the rule scheduler
+USE aws_governance_db;
+
+-- Minutes between evaluations, and the random spread (+/- percent of the interval)
+-- applied to each run so rules with the same cadence do not hit CloudWatch together
+ALTER TABLE rules ADD COLUMN evaluation_interval_minutes INT NOT NULL DEFAULT 15 AFTER duration_unit;
+ALTER TABLE rules ADD COLUMN jitter_percent INT NOT NULL DEFAULT 10 AFTER evaluation_interval_minutes;
+
+-- Idle and cost rules look at days of data; checking them hourly is plenty
+UPDATE rules SET evaluation_interval_minutes = 60 WHERE condition_duration >= 7;
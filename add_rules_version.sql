@@ -0,0 +1,11 @@
+-- Version row for the in-memory rule caches
+USE aws_governance_db;
+
+-- Bumped in the same transaction as every rule insert, update, delete and status toggle;
+-- the application and daemon re-read rules only when it changes
+CREATE TABLE IF NOT EXISTS rules_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT IGNORE INTO rules_version (id, version) VALUES (1, 0);
@@ -0,0 +1,34 @@
+-- Add indexes for the keyset-paginated resource and alert tables
+-- Every sortable column is indexed; InnoDB appends the primary key to secondary
+-- indexes, which serves the (column, record id) tie-break of each page
+USE aws_governance_db;
+
+CREATE INDEX idx_ec2_last_checked ON ec2_instances(last_checked);
+CREATE INDEX idx_ec2_state ON ec2_instances(instance_state);
+CREATE INDEX idx_ec2_cpu ON ec2_instances(cpu_utilization);
+CREATE INDEX idx_ec2_idle ON ec2_instances(is_idle);
+
+CREATE INDEX idx_rds_last_checked ON rds_instances(last_checked);
+CREATE INDEX idx_rds_status ON rds_instances(db_instance_status);
+CREATE INDEX idx_rds_cpu ON rds_instances(cpu_utilization);
+CREATE INDEX idx_rds_connections ON rds_instances(database_connections);
+CREATE INDEX idx_rds_idle ON rds_instances(is_idle);
+
+CREATE INDEX idx_ecs_last_checked ON ecs_services(last_checked);
+CREATE INDEX idx_ecs_cluster ON ecs_services(cluster_name);
+CREATE INDEX idx_ecs_service_name ON ecs_services(service_name);
+CREATE INDEX idx_ecs_status ON ecs_services(status);
+CREATE INDEX idx_ecs_cpu ON ecs_services(cpu_utilization);
+CREATE INDEX idx_ecs_idle ON ecs_services(is_idle);
+
+CREATE INDEX idx_sagemaker_last_checked ON sagemaker_endpoints(last_checked);
+CREATE INDEX idx_sagemaker_name ON sagemaker_endpoints(endpoint_name);
+CREATE INDEX idx_sagemaker_status ON sagemaker_endpoints(endpoint_status);
+CREATE INDEX idx_sagemaker_invocations ON sagemaker_endpoints(invocations);
+CREATE INDEX idx_sagemaker_idle ON sagemaker_endpoints(is_idle);
+
+CREATE INDEX idx_alerts_created ON alerts(created_at);
+CREATE INDEX idx_alerts_open_created ON alerts(is_resolved, created_at);
+CREATE INDEX idx_alerts_type ON alerts(resource_type);
+CREATE INDEX idx_alerts_severity ON alerts(severity);
+CREATE INDEX idx_alerts_open_severity ON alerts(is_resolved, severity);
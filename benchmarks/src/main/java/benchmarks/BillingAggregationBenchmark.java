@@ -0,0 +1,123 @@
+package benchmarks;
+
+import aws.AWSClientFactory;
+import aws.BillingService;
+import models.BillingRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.costexplorer.CostExplorerClient;
+import software.amazon.awssdk.services.costexplorer.model.DateInterval;
+import software.amazon.awssdk.services.costexplorer.model.GetCostAndUsageRequest;
+import software.amazon.awssdk.services.costexplorer.model.GetCostAndUsageResponse;
+import software.amazon.awssdk.services.costexplorer.model.Group;
+import software.amazon.awssdk.services.costexplorer.model.MetricValue;
+import software.amazon.awssdk.services.costexplorer.model.ResultByTime;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BillingAggregationBenchmark - BillingService.getCostAndUsage over a canned Cost Explorer response
+ * The Cost Explorer client is replaced by an in-process fake returning one group per
+ * service and record type per day (usage, credit and tax), so the time is the response
+ * parsing and per-service aggregation. Console output of the service is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillingAggregationBenchmark {
+    private static final String[] RECORD_TYPES = {"Usage", "Credit", "Tax"};
+
+    @Param({"31", "365"})
+    public int days;
+
+    @Param({"20", "200"})
+    public int services;
+
+    private BillingService billingService;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        startDate = LocalDate.of(2025, 1, 1);
+        endDate = startDate.plusDays(days - 1L);
+
+        Random random = new Random(42);
+        List<ResultByTime> results = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            LocalDate date = startDate.plusDays(day);
+            List<Group> groups = new ArrayList<>(services * RECORD_TYPES.length);
+            for (int service = 0; service < services; service++) {
+                for (String recordType : RECORD_TYPES) {
+                    groups.add(Group.builder()
+                        .keys("AWS Service " + service, recordType)
+                        .metrics(Map.of("UnblendedCost", MetricValue.builder()
+                            .amount(String.format("%.10f", random.nextDouble() * 25))
+                            .unit("USD")
+                            .build()))
+                        .build());
+                }
+            }
+            results.add(ResultByTime.builder()
+                .timePeriod(DateInterval.builder().start(date.toString()).end(date.plusDays(1).toString()).build())
+                .groups(groups)
+                .build());
+        }
+        GetCostAndUsageResponse response = GetCostAndUsageResponse.builder().resultsByTime(results).build();
+
+        CostExplorerClient fakeClient = new CostExplorerClient() {
+            @Override
+            public GetCostAndUsageResponse getCostAndUsage(GetCostAndUsageRequest request) {
+                return response;
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Field clientField = AWSClientFactory.class.getDeclaredField("costExplorerClient");
+        clientField.setAccessible(true);
+        clientField.set(AWSClientFactory.getInstance(), fakeClient);
+        billingService = new BillingService();
+
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public List<BillingRecord> getCostAndUsage() {
+        return billingService.getCostAndUsage(startDate, endDate, 1);
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks;
+
+import dao.AlertDAO;
+import dao.BillingDAO;
+import dao.EC2DAO;
+import models.Alert;
+import models.BillingRecord;
+import models.EC2Instance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DaoMappingBenchmark - Reading result sets into models through the DAOs' mapResultSetTo* methods
+ * The DAOs run unchanged against a FakeDatabase holding the rows, so the time is the row
+ * loop and mapping (plus the fake's per-column cost), with no network or MySQL parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoMappingBenchmark {
+    private static final String[] EC2_COLUMNS = {
+        "record_id", "instance_id", "instance_type", "instance_state", "availability_zone", "launch_time",
+        "cpu_utilization", "network_in", "network_out", "is_idle", "last_checked", "user_id"
+    };
+    private static final String[] ALERT_COLUMNS = {
+        "alert_id", "resource_id", "resource_type", "alert_type", "severity", "message", "rule_id", "user_id",
+        "is_resolved", "created_at", "resolved_at"
+    };
+    private static final String[] BILLING_COLUMNS = {
+        "record_id", "user_id", "service_name", "cost_amount", "currency", "start_date", "end_date",
+        "record_type", "created_at"
+    };
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private EC2DAO ec2DAO;
+    private AlertDAO alertDAO;
+    private BillingDAO billingDAO;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2026, 1, 15, 12, 0));
+        Date today = Date.valueOf(LocalDate.of(2026, 1, 15));
+
+        List<Object[]> instances = new ArrayList<>(rows);
+        List<Object[]> alerts = new ArrayList<>(rows);
+        List<Object[]> records = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            instances.add(new Object[] {
+                i, String.format("i-%017x", i), "t3.medium", i % 4 == 0 ? "stopped" : "running", "us-east-1a", now,
+                random.nextDouble() * 100, random.nextDouble() * 1e7, random.nextDouble() * 1e7, i % 7 == 0, now, 1
+            });
+            alerts.add(new Object[] {
+                i, String.format("i-%017x", i), "EC2", "RULE_VIOLATION", "medium",
+                "EC2 instance matches CPU < 5 for 24 hours (CPU=3.20)", i % 50, 1, false, now, null
+            });
+            records.add(new Object[] {
+                i, 1, "Amazon Elastic Compute Cloud - Compute", random.nextDouble() * 500, "USD", today, today,
+                "daily", now
+            });
+        }
+
+        FakeDatabase database = new FakeDatabase();
+        database.setRows("ec2_instances", EC2_COLUMNS, instances);
+        database.setRows("alerts", ALERT_COLUMNS, alerts);
+        database.setRows("billing_records", BILLING_COLUMNS, records);
+        database.install();
+
+        ec2DAO = new EC2DAO();
+        alertDAO = new AlertDAO();
+        billingDAO = new BillingDAO();
+    }
+
+    @Benchmark
+    public List<EC2Instance> ec2Instances() {
+        return ec2DAO.getAllEC2Instances();
+    }
+
+    @Benchmark
+    public List<Alert> alerts() {
+        return alertDAO.getAllAlerts();
+    }
+
+    @Benchmark
+    public List<BillingRecord> billingRecords() {
+        return billingDAO.getBillingRecordsByUser(1);
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import models.Alert;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.EmailService;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EmailRenderingBenchmark - Rendering the HTML body of an alert email
+ * Calls EmailService's private body builder directly; nothing is sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRenderingBenchmark {
+
+    @Param({"low", "medium", "high", "critical"})
+    public String severity;
+
+    private MethodHandle buildEmailBody;
+    private EmailService emailService;
+    private Alert alert;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        emailService = EmailService.getInstance();
+        buildEmailBody = MethodHandles.privateLookupIn(EmailService.class, MethodHandles.lookup())
+            .findVirtual(EmailService.class, "buildEmailBody", MethodType.methodType(String.class, Alert.class));
+
+        alert = new Alert();
+        alert.setAlertId(1042);
+        alert.setResourceId("i-0123456789abcdef0");
+        alert.setResourceType("EC2");
+        alert.setAlertType("RULE_VIOLATION");
+        alert.setSeverity(severity);
+        alert.setMessage("EC2 instance i-0123456789abcdef0 matches CPU < 5 AND NetworkIn < 1000000 for 24 hours "
+            + "(CPU=2.31, NetworkIn=48211.00)");
+        alert.setRuleId(7);
+        alert.setUserId(1);
+        alert.setCreatedAt(LocalDateTime.of(2026, 1, 15, 12, 0));
+    }
+
+    @Benchmark
+    public String render() throws Throwable {
+        return (String) buildEmailBody.invoke(emailService, alert);
+    }
+}
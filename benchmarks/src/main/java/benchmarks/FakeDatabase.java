@@ -0,0 +1,180 @@
+package benchmarks;
+
+import database.DBConnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * FakeDatabase - In-memory stand-in for the MySQL connection used by the DAOs
+ * Installed as the DBConnection singleton's connection, so DAOs run unchanged: a query
+ * returns the rows registered for the first table it reads (whatever its WHERE clause),
+ * and updates do nothing. Only what the DAOs call is implemented. Reading a column goes
+ * through a dynamic proxy, so the mapping benchmarks include a small fixed cost per column.
+ */
+final class FakeDatabase {
+    private static final Pattern TABLE = Pattern.compile("\\bFROM\\s+`?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Rows of one table: column names and one value array per row
+     */
+    private static final class Table {
+        private final Map<String, Integer> columns = new HashMap<>();
+        private final List<Object[]> rows;
+
+        Table(String[] columnNames, List<Object[]> rows) {
+            for (int i = 0; i < columnNames.length; i++) {
+                columns.put(columnNames[i].toLowerCase(Locale.ROOT), i);
+            }
+            this.rows = rows;
+        }
+
+        Integer column(String name) {
+            Integer column = columns.get(name);
+            return column != null ? column : columns.get(name.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private final Map<String, Table> tables = new HashMap<>();
+
+    /**
+     * Replace the rows of a table
+     */
+    void setRows(String table, String[] columns, List<Object[]> rows) {
+        tables.put(table, new Table(columns, rows));
+    }
+
+    /**
+     * Make DBConnection hand out this database (without connecting to MySQL)
+     */
+    void install() {
+        DBConnection.useConnection(proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "createStatement":
+                    return statement(Statement.class, null);
+                case "prepareStatement":
+                    return statement(PreparedStatement.class, (String) args[0]);
+                case "isClosed":
+                case "isReadOnly":
+                    return false;
+                case "getAutoCommit":
+                case "isValid":
+                    return true;
+                default:
+                    return defaultValue(method);
+            }
+        }));
+    }
+
+    private Object statement(Class<? extends Statement> type, String preparedSql) {
+        return proxy(type, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeQuery":
+                    return resultSet(args != null && args.length > 0 ? (String) args[0] : preparedSql);
+                case "executeUpdate":
+                    return 1;
+                case "executeBatch":
+                    return new int[0];
+                case "getGeneratedKeys":
+                    return resultSet(null);
+                default:
+                    return defaultValue(method);
+            }
+        });
+    }
+
+    private ResultSet resultSet(String sql) {
+        Table table = null;
+        if (sql != null) {
+            Matcher matcher = TABLE.matcher(sql);
+            if (matcher.find()) {
+                table = tables.get(matcher.group(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        Table rows = table != null ? table : new Table(new String[0], new ArrayList<>());
+        return proxy(ResultSet.class, new InvocationHandler() {
+            private int row = -1;
+            private boolean wasNull;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("next")) {
+                    return ++row < rows.rows.size();
+                }
+                if (name.equals("wasNull")) {
+                    return wasNull;
+                }
+                if (!name.startsWith("get") || args == null || args.length != 1) {
+                    return defaultValue(method);
+                }
+                Integer column = args[0] instanceof String ? rows.column((String) args[0]) : Integer.valueOf((Integer) args[0] - 1);
+                Object value = column != null ? rows.rows.get(row)[column] : null;
+                wasNull = value == null;
+                return convert(value, method.getReturnType());
+            }
+        });
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (type == String.class) {
+            return value != null ? value.toString() : null;
+        }
+        if (type == int.class) {
+            return value instanceof Number ? ((Number) value).intValue() : 0;
+        }
+        if (type == long.class) {
+            return value instanceof Number ? ((Number) value).longValue() : 0L;
+        }
+        if (type == double.class) {
+            return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+        }
+        if (type == boolean.class) {
+            return value instanceof Boolean ? value : Boolean.FALSE;
+        }
+        if (type == BigDecimal.class) {
+            return value instanceof Number ? BigDecimal.valueOf(((Number) value).doubleValue()) : null;
+        }
+        if (type == Timestamp.class || type == Date.class) {
+            return type.isInstance(value) ? value : null;
+        }
+        return value;
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeDatabase.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.CPUBasedIdleStrategy;
+import services.CombinedIdleStrategy;
+import services.FractionIdleStrategy;
+import services.IdleDetectionStrategy;
+import services.MaxOverWindowIdleStrategy;
+import services.MetricSeries;
+import services.NetworkBasedIdleStrategy;
+import services.PercentileIdleStrategy;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IdleStrategyBenchmark - Idle strategies over CPU and network series of one resource
+ * 336 points is 14 days of hourly datapoints, 4032 the same window at 5 minutes. The
+ * CPU series sits below the threshold with a spike about every 50 points, the shape of
+ * a mostly idle instance running a periodic job.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdleStrategyBenchmark {
+    private static final double THRESHOLD = 5.0;
+
+    @Param({"cpu", "network", "combined", "fraction", "max-window", "percentile"})
+    public String strategy;
+
+    @Param({"336", "4032"})
+    public int points;
+
+    private IdleDetectionStrategy idleStrategy;
+    private MetricSeries cpu;
+    private MetricSeries network;
+
+    @Setup
+    public void setUp() {
+        switch (strategy) {
+            case "cpu":
+                idleStrategy = new CPUBasedIdleStrategy();
+                break;
+            case "network":
+                idleStrategy = new NetworkBasedIdleStrategy();
+                break;
+            case "combined":
+                idleStrategy = new CombinedIdleStrategy();
+                break;
+            case "fraction":
+                idleStrategy = new FractionIdleStrategy();
+                break;
+            case "max-window":
+                idleStrategy = new MaxOverWindowIdleStrategy();
+                break;
+            case "percentile":
+                idleStrategy = new PercentileIdleStrategy();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        }
+
+        Random random = new Random(42);
+        long step = TimeUnit.DAYS.toMillis(14) / points;
+        long start = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(14);
+        cpu = new MetricSeries(points);
+        network = new MetricSeries(points);
+        for (int i = 0; i < points; i++) {
+            long timestamp = start + i * step;
+            cpu.add(timestamp, random.nextInt(50) == 0 ? 20 + random.nextDouble() * 60 : random.nextDouble() * 4);
+            network.add(timestamp, random.nextDouble() * 5e5);
+        }
+    }
+
+    @Benchmark
+    public boolean isIdle() {
+        return idleStrategy.isIdle(cpu, network, THRESHOLD);
+    }
+}
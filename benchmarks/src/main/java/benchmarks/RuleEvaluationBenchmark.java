@@ -0,0 +1,92 @@
+package benchmarks;
+
+import models.Rule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import services.CompiledRule;
+import services.RuleCompiler;
+import services.RuleMetric;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RuleEvaluationBenchmark - One compiled rule checked against a synthetic EC2 inventory
+ * Mirrors RuleEvaluationService's per-resource loop with the metric values already
+ * fetched: fill the reused value buffer with the metrics the rule reads, test the
+ * condition, and build the alert message for matches. About 10% of the resources match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEvaluationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int resources;
+
+    @Param({"CPU < 10", "CPU < 10 AND NetworkIn < 1000000", "NOT (CPU >= 10 OR NetworkIn >= 1000000) OR CPU = 0"})
+    public String condition;
+
+    private CompiledRule rule;
+    private RuleMetric[] metrics;
+    private String[] resourceIds;
+    // Metric values per resource, indexed by RuleMetric.slot()
+    private double[][] inventory;
+
+    @Setup
+    public void setUp() {
+        Rule source = new Rule();
+        source.setRuleId(1);
+        source.setRuleName("Idle EC2 instances");
+        source.setRuleType("IDLE_DETECTION");
+        source.setResourceType("EC2");
+        source.setConditionExpression(condition);
+        source.setConditionDuration(24);
+        source.setDurationUnit("hours");
+        source.setActionType("ALERT");
+        rule = RuleCompiler.compile(source);
+        metrics = rule.getMetrics();
+
+        Random random = new Random(42);
+        resourceIds = new String[resources];
+        inventory = new double[resources][RuleMetric.COUNT];
+        for (int i = 0; i < resources; i++) {
+            resourceIds[i] = String.format("i-%017x", i);
+            boolean idle = random.nextInt(10) == 0;
+            inventory[i][RuleMetric.CPU.slot()] = idle ? random.nextDouble() * 10 : 10 + random.nextDouble() * 90;
+            inventory[i][RuleMetric.NETWORK_IN.slot()] = idle ? random.nextDouble() * 1e6 : 1e6 + random.nextDouble() * 1e8;
+        }
+    }
+
+    @Benchmark
+    public int evaluate(Blackhole blackhole) {
+        double[] values = rule.newValueBuffer();
+        int matches = 0;
+        for (int i = 0; i < resources; i++) {
+            double[] fetched = inventory[i];
+            for (RuleMetric metric : metrics) {
+                values[metric.slot()] = fetched[metric.slot()];
+            }
+            if (rule.matches(values)) {
+                matches++;
+                // Same message as RuleEvaluationService.alertIfMatches
+                blackhole.consume(String.format("%s %s matches %s for %s (%s)", "EC2 instance", resourceIds[i],
+                    rule.getExpressionText(), rule.getDurationText(), rule.describe(values)));
+            }
+        }
+        return matches;
+    }
+}
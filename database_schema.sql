@@ -43,6 +43,9 @@ CREATE TABLE rules (
     condition_value DOUBLE,
     condition_duration INT,
     duration_unit VARCHAR(20) DEFAULT 'hours',
+    condition_expression VARCHAR(500),
+    evaluation_interval_minutes INT NOT NULL DEFAULT 15,
+    jitter_percent INT NOT NULL DEFAULT 10,
     action_type VARCHAR(50),
     is_active BOOLEAN DEFAULT TRUE,
     created_by INT,
@@ -60,10 +63,12 @@ CREATE TABLE alerts (
     severity VARCHAR(20) DEFAULT 'medium',
     message TEXT NOT NULL,
     rule_id INT,
+    user_id INT NULL,
     is_resolved BOOLEAN DEFAULT FALSE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     resolved_at TIMESTAMP NULL,
-    FOREIGN KEY (rule_id) REFERENCES rules(rule_id) ON DELETE SET NULL
+    FOREIGN KEY (rule_id) REFERENCES rules(rule_id) ON DELETE SET NULL,
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
 );
 
 -- EC2 Instances table
@@ -144,7 +149,7 @@ CREATE TABLE billing_records (
     record_id INT PRIMARY KEY AUTO_INCREMENT,
     user_id INT NOT NULL,
     service_name VARCHAR(100),
-    cost_amount DECIMAL(10, 2),
+    cost_amount DECIMAL(16, 6),
     currency VARCHAR(10) DEFAULT 'USD',
     start_date DATE,
     end_date DATE,
@@ -153,6 +158,110 @@ CREATE TABLE billing_records (
     FOREIGN KEY (user_id) REFERENCES users(user_id)
 );
 
+-- Billing line items aggregated from local Cost and Usage Report files
+CREATE TABLE billing_line_items (
+    line_item_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id INT NOT NULL,
+    source_file VARCHAR(512) NOT NULL,
+    usage_date DATE NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    resource_id VARCHAR(1024) NOT NULL DEFAULT '',
+    usage_type VARCHAR(255) NOT NULL DEFAULT '',
+    usage_amount DOUBLE DEFAULT 0.0,
+    cost_amount DECIMAL(16, 6) DEFAULT 0.0,
+    item_hash BINARY(16) AS (UNHEX(MD5(CONCAT_WS('|', source_file, service_name, resource_id, usage_type)))) STORED,
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+    UNIQUE KEY unique_line_item (user_id, usage_date, item_hash)
+);
+
+-- Cost and Usage Report ingestion checkpoints
+CREATE TABLE cur_ingestion_checkpoints (
+    user_id INT NOT NULL,
+    file_path VARCHAR(512) NOT NULL,
+    file_size BIGINT NOT NULL,
+    last_modified BIGINT NOT NULL,
+    byte_offset BIGINT NOT NULL DEFAULT 0,
+    completed BOOLEAN DEFAULT FALSE,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, file_path),
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+-- Streaming daily cost statistics for anomaly detection
+CREATE TABLE cost_series_stats (
+    user_id INT NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    last_day DATE NOT NULL,
+    observations INT NOT NULL DEFAULT 0,
+    ewma_mean DOUBLE NOT NULL DEFAULT 0.0,
+    ewma_variance DOUBLE NOT NULL DEFAULT 0.0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, service_name),
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+-- Per-user dashboard header counts (resources refreshed per sync, open alerts adjusted per alert write)
+CREATE TABLE dashboard_summary (
+    user_id INT PRIMARY KEY,
+    ec2_count INT NOT NULL DEFAULT 0,
+    ec2_idle INT NOT NULL DEFAULT 0,
+    rds_count INT NOT NULL DEFAULT 0,
+    rds_idle INT NOT NULL DEFAULT 0,
+    ecs_count INT NOT NULL DEFAULT 0,
+    ecs_idle INT NOT NULL DEFAULT 0,
+    sagemaker_count INT NOT NULL DEFAULT 0,
+    sagemaker_idle INT NOT NULL DEFAULT 0,
+    open_alerts_high INT NOT NULL DEFAULT 0,
+    open_alerts_medium INT NOT NULL DEFAULT 0,
+    open_alerts_low INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+-- Version of the rules table, bumped by every rule write so rule caches can poll one row
+CREATE TABLE rules_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO rules_version (id, version) VALUES (1, 0);
+
+-- Off-hours start/stop schedules (cron fields: minute hour day-of-month month day-of-week)
+CREATE TABLE resource_schedules (
+    schedule_id INT PRIMARY KEY AUTO_INCREMENT,
+    schedule_name VARCHAR(100) NOT NULL,
+    resource_type VARCHAR(50) NOT NULL,
+    stop_cron VARCHAR(100) NULL,
+    start_cron VARCHAR(100) NULL,
+    time_zone VARCHAR(50) NOT NULL DEFAULT 'UTC',
+    is_active BOOLEAN DEFAULT TRUE,
+    created_by INT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (created_by) REFERENCES users(user_id)
+);
+
+-- Resources (ECS: 'cluster/service') or tag selectors a schedule applies to
+CREATE TABLE schedule_targets (
+    target_id INT PRIMARY KEY AUTO_INCREMENT,
+    schedule_id INT NOT NULL,
+    resource_id VARCHAR(255) NULL,
+    tag_key VARCHAR(128) NULL,
+    tag_value VARCHAR(256) NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (schedule_id) REFERENCES resource_schedules(schedule_id) ON DELETE CASCADE,
+    INDEX idx_schedule_targets_schedule (schedule_id)
+);
+
+-- Desired count of ECS services stopped by a schedule, restored on start
+CREATE TABLE schedule_ecs_capacity (
+    cluster_name VARCHAR(255) NOT NULL,
+    service_name VARCHAR(255) NOT NULL,
+    desired_count INT NOT NULL,
+    saved_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (cluster_name, service_name)
+);
+
 -- Insert sample users
 INSERT INTO users (username, password, email, full_name, role) VALUES
 ('admin', 'admin123', 'admin@awsgovernance.com', 'System Administrator', 'admin'),
@@ -165,12 +274,12 @@ INSERT INTO aws_credentials (user_id, access_key, secret_key, region, validated)
 (2, 'AKIAIOSFODNN7EXAMPLE2', 'wJalrXUtnFEMI/K7MDENG/bPxRfiCYEXAMPLEKEY2', 'us-west-2', FALSE);
 
 -- Insert sample governance rules
-INSERT INTO rules (rule_name, rule_type, resource_type, condition_metric, condition_operator, condition_value, condition_duration, action_type, is_active, created_by) VALUES
-('Idle EC2 Detection', 'resource_optimization', 'EC2', 'CPU', '<', 5.0, 7, 'ALERT', TRUE, 1),
-('High CPU Alert', 'performance', 'EC2', 'CPU', '>', 90.0, 1, 'ALERT', TRUE, 1),
-('Unused RDS Detection', 'cost_optimization', 'RDS', 'Connections', '<', 2, 7, 'ALERT', TRUE, 1),
-('Idle SageMaker Endpoint', 'cost_optimization', 'SageMaker', 'Invocations', '<', 10, 7, 'STOP', TRUE, 1),
-('ECS Service Underutilization', 'resource_optimization', 'ECS', 'CPU', '<', 10.0, 5, 'ALERT', TRUE, 1);
+INSERT INTO rules (rule_name, rule_type, resource_type, condition_metric, condition_operator, condition_value, condition_duration, evaluation_interval_minutes, action_type, is_active, created_by) VALUES
+('Idle EC2 Detection', 'resource_optimization', 'EC2', 'CPU', '<', 5.0, 7, 60, 'ALERT', TRUE, 1),
+('High CPU Alert', 'performance', 'EC2', 'CPU', '>', 90.0, 1, 15, 'ALERT', TRUE, 1),
+('Unused RDS Detection', 'cost_optimization', 'RDS', 'Connections', '<', 2, 7, 60, 'ALERT', TRUE, 1),
+('Idle SageMaker Endpoint', 'cost_optimization', 'SageMaker', 'Invocations', '<', 10, 7, 60, 'STOP', TRUE, 1),
+('ECS Service Underutilization', 'resource_optimization', 'ECS', 'CPU', '<', 10.0, 5, 15, 'ALERT', TRUE, 1);
 
 -- Insert sample EC2 instances
 INSERT INTO ec2_instances (instance_id, instance_type, instance_state, availability_zone, launch_time, cpu_utilization, network_in, network_out, is_idle, user_id) VALUES
@@ -194,11 +303,11 @@ INSERT INTO sagemaker_endpoints (endpoint_name, endpoint_arn, endpoint_status, m
 ('test-ml-endpoint', 'arn:aws:sagemaker:us-east-1:123456789012:endpoint/test-ml-endpoint', 'InService', 'test-model', 'ml.t3.medium', 1, 3, 120.5, TRUE, '2025-09-15 11:30:00', 1);
 
 -- Insert sample alerts
-INSERT INTO alerts (resource_id, resource_type, alert_type, severity, message, rule_id, is_resolved) VALUES
-('i-0123456789abcdef0', 'EC2', 'IDLE_RESOURCE', 'medium', 'EC2 instance has CPU utilization below 5% for 7 days', 1, FALSE),
-('mydb-instance-2', 'RDS', 'IDLE_RESOURCE', 'high', 'RDS instance has no database connections for 7 days', 3, FALSE),
-('test-ml-endpoint', 'SageMaker', 'IDLE_RESOURCE', 'high', 'SageMaker endpoint has minimal invocations', 4, FALSE),
-('i-0123456789abcdef1', 'EC2', 'HIGH_CPU', 'high', 'EC2 instance CPU utilization exceeded 90%', 2, TRUE);
+INSERT INTO alerts (resource_id, resource_type, alert_type, severity, message, rule_id, user_id, is_resolved) VALUES
+('i-0123456789abcdef0', 'EC2', 'IDLE_RESOURCE', 'medium', 'EC2 instance has CPU utilization below 5% for 7 days', 1, 1, FALSE),
+('mydb-instance-2', 'RDS', 'IDLE_RESOURCE', 'high', 'RDS instance has no database connections for 7 days', 3, 1, FALSE),
+('test-ml-endpoint', 'SageMaker', 'IDLE_RESOURCE', 'high', 'SageMaker endpoint has minimal invocations', 4, 1, FALSE),
+('i-0123456789abcdef1', 'EC2', 'HIGH_CPU', 'high', 'EC2 instance CPU utilization exceeded 90%', 2, 1, TRUE);
 
 -- Insert sample billing records
 INSERT INTO billing_records (user_id, service_name, cost_amount, start_date, end_date, record_type) VALUES
@@ -217,6 +326,38 @@ CREATE INDEX idx_alerts_resource ON alerts(resource_id, resource_type);
 CREATE INDEX idx_alerts_resolved ON alerts(is_resolved);
 CREATE INDEX idx_rules_active ON rules(is_active);
 CREATE INDEX idx_billing_dates ON billing_records(start_date, end_date);
+CREATE INDEX idx_line_items_service ON billing_line_items(user_id, service_name, usage_date);
+CREATE INDEX idx_line_items_source ON billing_line_items(user_id, source_file);
+CREATE INDEX idx_alerts_user_open ON alerts(user_id, is_resolved, severity);
+CREATE INDEX idx_ec2_user_idle ON ec2_instances(user_id, is_idle);
+CREATE INDEX idx_rds_user_idle ON rds_instances(user_id, is_idle);
+CREATE INDEX idx_ecs_user_idle ON ecs_services(user_id, is_idle);
+CREATE INDEX idx_sagemaker_user_idle ON sagemaker_endpoints(user_id, is_idle);
+CREATE INDEX idx_ec2_last_checked ON ec2_instances(last_checked);
+CREATE INDEX idx_ec2_state ON ec2_instances(instance_state);
+CREATE INDEX idx_ec2_cpu ON ec2_instances(cpu_utilization);
+CREATE INDEX idx_ec2_idle ON ec2_instances(is_idle);
+CREATE INDEX idx_rds_last_checked ON rds_instances(last_checked);
+CREATE INDEX idx_rds_status ON rds_instances(db_instance_status);
+CREATE INDEX idx_rds_cpu ON rds_instances(cpu_utilization);
+CREATE INDEX idx_rds_connections ON rds_instances(database_connections);
+CREATE INDEX idx_rds_idle ON rds_instances(is_idle);
+CREATE INDEX idx_ecs_last_checked ON ecs_services(last_checked);
+CREATE INDEX idx_ecs_cluster ON ecs_services(cluster_name);
+CREATE INDEX idx_ecs_service_name ON ecs_services(service_name);
+CREATE INDEX idx_ecs_status ON ecs_services(status);
+CREATE INDEX idx_ecs_cpu ON ecs_services(cpu_utilization);
+CREATE INDEX idx_ecs_idle ON ecs_services(is_idle);
+CREATE INDEX idx_sagemaker_last_checked ON sagemaker_endpoints(last_checked);
+CREATE INDEX idx_sagemaker_name ON sagemaker_endpoints(endpoint_name);
+CREATE INDEX idx_sagemaker_status ON sagemaker_endpoints(endpoint_status);
+CREATE INDEX idx_sagemaker_invocations ON sagemaker_endpoints(invocations);
+CREATE INDEX idx_sagemaker_idle ON sagemaker_endpoints(is_idle);
+CREATE INDEX idx_alerts_created ON alerts(created_at);
+CREATE INDEX idx_alerts_open_created ON alerts(is_resolved, created_at);
+CREATE INDEX idx_alerts_type ON alerts(resource_type);
+CREATE INDEX idx_alerts_severity ON alerts(severity);
+CREATE INDEX idx_alerts_open_severity ON alerts(is_resolved, severity);
 
 -- Display summary
 SELECT 'Database schema created successfully!' AS Status;
@@ -0,0 +1,12 @@
+-- Key CUR line items and checkpoints by the report path relative to the CUR root
+USE aws_governance_db;
+
+-- CUR reuses file names such as <report>-00001.csv.gz in every billing-period folder,
+-- so line items keyed by the bare file name were deleted and merged across months.
+-- Relative paths can be longer than a file name.
+ALTER TABLE billing_line_items MODIFY COLUMN source_file VARCHAR(512) NOT NULL;
+
+-- Existing rows use the old keys and would be counted twice on the next ingestion:
+-- clear them so every report file is ingested again under its new key
+DELETE FROM billing_line_items;
+DELETE FROM cur_ingestion_checkpoints;
@@ -3,27 +3,28 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import aws.LifecycleWaiter;
 import database.DBConnection;
 import services.AlertService;
+import services.ChangeDrivenRuleEvaluator;
 import services.ConsoleAlertObserver;
+import services.ResourceEventBus;
+import services.RuleScheduler;
+import utils.BackgroundTaskRunner;
 
 public class App extends Application {
 
     @Override
     public void start(Stage primaryStage) {
         try {
-            // Test database connection
-            if (DBConnection.testConnection()) {
-                System.out.println("Database connection successful!");
-            } else {
-                System.err.println("Failed to connect to database. Check DBConnection configuration.");
-            }
-            
             // Initialize AlertService with observer pattern
             AlertService alertService = AlertService.getInstance();
             alertService.registerObserver(new ConsoleAlertObserver());
             System.out.println("Alert service initialized with console observer");
             
+            // Rules are re-checked for the resources each sync changes
+            ResourceEventBus.getInstance().subscribe(ChangeDrivenRuleEvaluator.getInstance());
+            
             // Load SPLASH SCREEN FXML view instead of login
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/splash.fxml"));
             Parent root = loader.load();
@@ -39,7 +40,7 @@ public class App extends Application {
             primaryStage.show();
             
             System.out.println("Application started successfully!");
-            System.out.println("  Splash screen will display for 5 seconds...");
+            System.out.println("  Splash screen will display while the application warms up...");
             System.out.println("  Login with: admin / admin123");
             
         } catch (Exception e) {
@@ -52,6 +53,11 @@ public class App extends Application {
     public void stop() {
         // Cleanup on application close
         try {
+            // Stop background work before the database connection goes away
+            RuleScheduler.getInstance().stop(5);
+            BackgroundTaskRunner.getInstance().shutdown();
+            LifecycleWaiter.getInstance().shutdown();
+            
             DBConnection.closeConnection();
             System.out.println("Database connection closed gracefully");
         } catch (Exception e) {
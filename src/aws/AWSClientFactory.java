@@ -1,5 +1,6 @@
 package aws;
 
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
@@ -10,6 +11,10 @@ import software.amazon.awssdk.services.sagemaker.SageMakerClient;
 import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
 import software.amazon.awssdk.services.costexplorer.CostExplorerClient;
 import software.amazon.awssdk.services.sts.StsClient;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+
+import java.util.List;
 
 /**
  * AWSClientFactory - Factory Pattern for AWS Client Creation
@@ -17,6 +22,10 @@ import software.amazon.awssdk.services.sts.StsClient;
  */
 public class AWSClientFactory {
     private static AWSClientFactory instance;
+    // Every client records its API calls in the metrics registry
+    private static final ClientOverrideConfiguration METERED = ClientOverrideConfiguration.builder()
+            .addExecutionInterceptor(new MetricsInterceptor())
+            .build();
     
     private String accessKey;
     private String secretKey;
@@ -73,6 +82,7 @@ public class AWSClientFactory {
             ec2Client = Ec2Client.builder()
                     .region(region)
                     .credentialsProvider(getCredentialsProvider())
+                    .overrideConfiguration(METERED)
                     .build();
         }
         return ec2Client;
@@ -86,6 +96,7 @@ public class AWSClientFactory {
             rdsClient = RdsClient.builder()
                     .region(region)
                     .credentialsProvider(getCredentialsProvider())
+                    .overrideConfiguration(METERED)
                     .build();
         }
         return rdsClient;
@@ -99,6 +110,7 @@ public class AWSClientFactory {
             ecsClient = EcsClient.builder()
                     .region(region)
                     .credentialsProvider(getCredentialsProvider())
+                    .overrideConfiguration(METERED)
                     .build();
         }
         return ecsClient;
@@ -112,6 +124,7 @@ public class AWSClientFactory {
             sageMakerClient = SageMakerClient.builder()
                     .region(region)
                     .credentialsProvider(getCredentialsProvider())
+                    .overrideConfiguration(METERED)
                     .build();
         }
         return sageMakerClient;
@@ -125,6 +138,7 @@ public class AWSClientFactory {
             cloudWatchClient = CloudWatchClient.builder()
                     .region(region)
                     .credentialsProvider(getCredentialsProvider())
+                    .overrideConfiguration(METERED)
                     .build();
         }
         return cloudWatchClient;
@@ -139,6 +153,7 @@ public class AWSClientFactory {
             costExplorerClient = CostExplorerClient.builder()
                     .region(Region.US_EAST_1)
                     .credentialsProvider(getCredentialsProvider())
+                    .overrideConfiguration(METERED)
                     .build();
         }
         return costExplorerClient;
@@ -152,6 +167,7 @@ public class AWSClientFactory {
             stsClient = StsClient.builder()
                     .region(region)
                     .credentialsProvider(getCredentialsProvider())
+                    .overrideConfiguration(METERED)
                     .build();
         }
         return stsClient;
@@ -172,6 +188,28 @@ public class AWSClientFactory {
         }
     }
     
+    /**
+     * Build and close one client of each service without credentials or network calls
+     * The first client of a service is the slow one to build (SDK classes, service models,
+     * endpoint rules, HTTP client); doing this at startup makes the clients built after
+     * login cheap.
+     */
+    public static void warmUp() {
+        long start = System.currentTimeMillis();
+        AnonymousCredentialsProvider anonymous = AnonymousCredentialsProvider.create();
+        List<SdkClient> clients = List.of(
+            Ec2Client.builder().region(Region.US_EAST_1).credentialsProvider(anonymous).build(),
+            RdsClient.builder().region(Region.US_EAST_1).credentialsProvider(anonymous).build(),
+            EcsClient.builder().region(Region.US_EAST_1).credentialsProvider(anonymous).build(),
+            SageMakerClient.builder().region(Region.US_EAST_1).credentialsProvider(anonymous).build(),
+            CloudWatchClient.builder().region(Region.US_EAST_1).credentialsProvider(anonymous).build(),
+            CostExplorerClient.builder().region(Region.US_EAST_1).credentialsProvider(anonymous).build(),
+            StsClient.builder().region(Region.US_EAST_1).credentialsProvider(anonymous).build()
+        );
+        clients.forEach(SdkClient::close);
+        System.out.println("AWS SDK clients warmed up in " + (System.currentTimeMillis() - start) + " ms");
+    }
+    
     /**
      * Close all AWS clients
      */
@@ -206,6 +244,14 @@ public class AWSClientFactory {
         }
     }
     
+    /**
+     * Check if the factory already holds these credentials (switching would recreate the clients)
+     */
+    public boolean hasCredentials(String accessKey, String secretKey, String regionStr) {
+        return isInitialized() && this.accessKey.equals(accessKey) && this.secretKey.equals(secretKey)
+            && region.id().equals(regionStr);
+    }
+    
     /**
      * Check if credentials are initialized
      */
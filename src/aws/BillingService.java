@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.TreeMap;
 
 /**
  * BillingService - AWS Cost Explorer operations wrapper
@@ -29,70 +30,13 @@ public class BillingService {
         List<BillingRecord> records = new ArrayList<>();
         
         try {
-            // AWS Cost Explorer end date is EXCLUSIVE, so add 1 day to include the end date
-            LocalDate apiEndDate = endDate.plusDays(1);
-            
-            System.out.println("Fetching costs from " + startDate.format(formatter) + " to " + endDate.format(formatter));
-            System.out.println("AWS API call: start=" + startDate.format(formatter) + ", end=" + apiEndDate.format(formatter) + " (exclusive)");
-            
-            DateInterval dateInterval = DateInterval.builder()
-                    .start(startDate.format(formatter))
-                    .end(apiEndDate.format(formatter))
-                    .build();
-            
-            // Group by both SERVICE and RECORD_TYPE to filter actual usage costs
-            GroupDefinition serviceGroupDefinition = GroupDefinition.builder()
-                    .type(GroupDefinitionType.DIMENSION)
-                    .key("SERVICE")
-                    .build();
-            
-            GroupDefinition recordTypeGroupDefinition = GroupDefinition.builder()
-                    .type(GroupDefinitionType.DIMENSION)
-                    .key("RECORD_TYPE")
-                    .build();
-            
-            // Use DAILY granularity and aggregate ourselves to get accurate month-to-date totals
-            GetCostAndUsageRequest request = GetCostAndUsageRequest.builder()
-                    .timePeriod(dateInterval)
-                    .granularity(Granularity.DAILY)
-                    .metrics("UnblendedCost")
-                    .groupBy(serviceGroupDefinition, recordTypeGroupDefinition)
-                    .build();
-            
-            GetCostAndUsageResponse response = costExplorerClient.getCostAndUsage(request);
-            
-            System.out.println("AWS returned " + response.resultsByTime().size() + " time periods");
-            
+            Map<LocalDate, Map<String, Double>> dailyCosts = fetchDailyUsageCosts(startDate, endDate);
             
+            // Aggregate the daily costs ourselves to get accurate month-to-date totals
             Map<String, Double> serviceCostMap = new HashMap<>();
-            LocalDate periodStart = startDate;
-            LocalDate periodEnd = endDate;
-            
-            for (ResultByTime resultByTime : response.resultsByTime()) {
-                System.out.println("Processing time period: " + resultByTime.timePeriod().start() + " to " + resultByTime.timePeriod().end());
-                System.out.println("  Number of groups: " + resultByTime.groups().size());
-                
-                for (Group group : resultByTime.groups()) {
-                    // group.keys() contains [SERVICE_NAME, RECORD_TYPE]
-                    String serviceName = group.keys().get(0);
-                    String recordType = group.keys().size() > 1 ? group.keys().get(1) : "Unknown";
-                    
-                    // Debug: Print all available metrics
-                    System.out.println("  Service: " + serviceName + ", RecordType: " + recordType);
-                    System.out.println("    Available metrics: " + group.metrics().keySet());
-                    
-                    // Only count "Usage" costs (actual usage, excluding credits, refunds, etc.)
-                    double cost = 0.0;
-                    if ("Usage".equalsIgnoreCase(recordType) && group.metrics().containsKey("UnblendedCost")) {
-                        String costStr = group.metrics().get("UnblendedCost").amount();
-                        cost = Double.parseDouble(costStr);
-                        System.out.println("    Actual Usage Cost: " + costStr + " -> parsed: " + cost);
-                        
-                        serviceCostMap.put(serviceName, 
-                            serviceCostMap.getOrDefault(serviceName, 0.0) + cost);
-                    } else {
-                        System.out.println("    Skipping non-usage record type: " + recordType);
-                    }
+            for (Map<String, Double> dayCosts : dailyCosts.values()) {
+                for (Map.Entry<String, Double> entry : dayCosts.entrySet()) {
+                    serviceCostMap.merge(entry.getKey(), entry.getValue(), Double::sum);
                 }
             }
             
@@ -104,8 +48,8 @@ public class BillingService {
                 record.setUserId(userId);
                 record.setServiceName(entry.getKey());
                 record.setCostAmount(entry.getValue());
-                record.setStartDate(periodStart);
-                record.setEndDate(periodEnd);
+                record.setStartDate(startDate);
+                record.setEndDate(endDate);
                 record.setCurrency("USD");
                 record.setRecordType("monthly");
                 
@@ -122,6 +66,92 @@ public class BillingService {
         return records;
     }
     
+    /**
+     * Get cost and usage for a date range as one record per service per day
+     */
+    public List<BillingRecord> getDailyCostAndUsage(LocalDate startDate, LocalDate endDate, int userId) {
+        List<BillingRecord> records = new ArrayList<>();
+        
+        try {
+            Map<LocalDate, Map<String, Double>> dailyCosts = fetchDailyUsageCosts(startDate, endDate);
+            
+            for (Map.Entry<LocalDate, Map<String, Double>> day : dailyCosts.entrySet()) {
+                for (Map.Entry<String, Double> entry : day.getValue().entrySet()) {
+                    BillingRecord record = new BillingRecord(userId, entry.getKey(), entry.getValue(), day.getKey(), day.getKey());
+                    record.setRecordType("daily");
+                    records.add(record);
+                }
+            }
+            
+            System.out.println("Retrieved " + records.size() + " daily billing records from AWS");
+        } catch (Exception e) {
+            System.err.println("Error retrieving daily billing data: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return records;
+    }
+    
+    /**
+     * Fetch DAILY usage costs grouped by service from Cost Explorer
+     * Only "Usage" record types are counted (credits, refunds, etc. are excluded)
+     */
+    private Map<LocalDate, Map<String, Double>> fetchDailyUsageCosts(LocalDate startDate, LocalDate endDate) {
+        // AWS Cost Explorer end date is EXCLUSIVE, so add 1 day to include the end date
+        LocalDate apiEndDate = endDate.plusDays(1);
+        
+        System.out.println("Fetching costs from " + startDate.format(formatter) + " to " + endDate.format(formatter));
+        System.out.println("AWS API call: start=" + startDate.format(formatter) + ", end=" + apiEndDate.format(formatter) + " (exclusive)");
+        
+        DateInterval dateInterval = DateInterval.builder()
+                .start(startDate.format(formatter))
+                .end(apiEndDate.format(formatter))
+                .build();
+        
+        // Group by both SERVICE and RECORD_TYPE to filter actual usage costs
+        GroupDefinition serviceGroupDefinition = GroupDefinition.builder()
+                .type(GroupDefinitionType.DIMENSION)
+                .key("SERVICE")
+                .build();
+        
+        GroupDefinition recordTypeGroupDefinition = GroupDefinition.builder()
+                .type(GroupDefinitionType.DIMENSION)
+                .key("RECORD_TYPE")
+                .build();
+        
+        GetCostAndUsageRequest request = GetCostAndUsageRequest.builder()
+                .timePeriod(dateInterval)
+                .granularity(Granularity.DAILY)
+                .metrics("UnblendedCost")
+                .groupBy(serviceGroupDefinition, recordTypeGroupDefinition)
+                .build();
+        
+        GetCostAndUsageResponse response = costExplorerClient.getCostAndUsage(request);
+        
+        System.out.println("AWS returned " + response.resultsByTime().size() + " time periods");
+        
+        Map<LocalDate, Map<String, Double>> dailyCosts = new TreeMap<>();
+        
+        for (ResultByTime resultByTime : response.resultsByTime()) {
+            LocalDate day = LocalDate.parse(resultByTime.timePeriod().start(), formatter);
+            Map<String, Double> dayCosts = dailyCosts.computeIfAbsent(day, d -> new HashMap<>());
+            
+            for (Group group : resultByTime.groups()) {
+                // group.keys() contains [SERVICE_NAME, RECORD_TYPE]
+                String serviceName = group.keys().get(0);
+                String recordType = group.keys().size() > 1 ? group.keys().get(1) : "Unknown";
+                
+                // Only count "Usage" costs (actual usage, excluding credits, refunds, etc.)
+                if ("Usage".equalsIgnoreCase(recordType) && group.metrics().containsKey("UnblendedCost")) {
+                    double cost = Double.parseDouble(group.metrics().get("UnblendedCost").amount());
+                    dayCosts.merge(serviceName, cost, Double::sum);
+                }
+            }
+        }
+        
+        return dailyCosts;
+    }
+    
     /**
      * Get total cost for a date range
      */
@@ -396,12 +426,15 @@ public class BillingService {
     /**
      * Sync billing data from AWS to database
      * Business logic method that orchestrates: fetch from AWS, save to DB, count results
+     * Costs are stored as one record per service per day so that re-syncing overlapping
+     * date ranges updates rows in place instead of double counting them
      */
     public int syncFromAWS(LocalDate startDate, LocalDate endDate, int userId) {
         System.out.println("Syncing billing data from AWS...");
         
         dao.BillingDAO billingDAO = new dao.BillingDAO();
-        List<BillingRecord> awsRecords = getCostAndUsage(startDate, endDate, userId);
+        services.CostCube costCube = services.CostCube.getInstance();
+        List<BillingRecord> awsRecords = getDailyCostAndUsage(startDate, endDate, userId);
         
         if (awsRecords.isEmpty()) {
             System.out.println("WARNING: No records returned from AWS Cost Explorer");
@@ -410,13 +443,21 @@ public class BillingService {
         
         int savedCount = 0;
         for (BillingRecord record : awsRecords) {
-            System.out.println("Syncing: " + record.getServiceName() + " - $" + String.format("%.6f", record.getCostAmount()));
             if (billingDAO.upsertBillingRecord(record)) {
+                // Keep the in-memory cost cube in step with the database
+                costCube.applyRecord(record);
                 savedCount++;
             }
         }
         
         System.out.println("Synced " + savedCount + " billing records from AWS");
+
+        // Fold the newly completed days into the per-service cost baselines
+        services.CostAnomalyDetector.getInstance().observeDailyCosts(userId, startDate, endDate, awsRecords);
+        
+        // Advance the cached forecast models with the same days
+        services.CostForecastService.getInstance().update(userId);
+
         return savedCount;
     }
 }
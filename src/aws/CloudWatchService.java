@@ -1,16 +1,30 @@
 package aws;
 
+import models.ECSService;
+import services.MetricSeries;
 import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
 import software.amazon.awssdk.services.cloudwatch.model.*;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * CloudWatchService - AWS CloudWatch operations wrapper
  * Used for fetching metrics for idle resource detection
  */
 public class CloudWatchService {
+    // GetMetricData accepts at most 500 queries per request
+    private static final int MAX_QUERIES_PER_REQUEST = 500;
+    /**
+     * Resolution of metric series (basic monitoring publishes every 5 minutes)
+     */
+    public static final int SERIES_PERIOD_SECONDS = 300;
+    
     private final CloudWatchClient cloudWatchClient;
     
     public CloudWatchService() {
@@ -206,4 +220,272 @@ public class CloudWatchService {
         }
         return 0;
     }
+    
+    /**
+     * Get the EC2 CPU utilization datapoints of the last days, 5 minutes apart
+     * @param series cleared and filled in ascending time order
+     * @return false if the datapoints could not be fetched
+     */
+    public boolean getEC2CPUSeries(String instanceId, int daysBack, MetricSeries series) {
+        return getMetricSeries("AWS/EC2", "CPUUtilization", "InstanceId", instanceId, daysBack, series);
+    }
+    
+    /**
+     * Get the EC2 Network In datapoints of the last days, 5 minutes apart
+     * @param series cleared and filled in ascending time order
+     * @return false if the datapoints could not be fetched
+     */
+    public boolean getEC2NetworkInSeries(String instanceId, int daysBack, MetricSeries series) {
+        return getMetricSeries("AWS/EC2", "NetworkIn", "InstanceId", instanceId, daysBack, series);
+    }
+    
+    private boolean getMetricSeries(String namespace, String metricName, String dimensionName, String dimensionValue,
+                                    int daysBack, MetricSeries series) {
+        SeriesQuery query = new SeriesQuery(namespace, metricName, "Average", SERIES_PERIOD_SECONDS, series,
+            dimensionName, dimensionValue);
+        return getMetricSeries(List.of(query), daysBack) >= 0;
+    }
+    
+    /**
+     * One metric of one resource to fetch with getMetricSeries(List, int)
+     */
+    public static class SeriesQuery {
+        private final String namespace;
+        private final String metricName;
+        private final String stat;
+        private final int periodSeconds;
+        private final List<Dimension> dimensions;
+        private final MetricSeries series;
+        
+        /**
+         * @param dimensions dimension names and values, alternating
+         */
+        public SeriesQuery(String namespace, String metricName, String stat, int periodSeconds, MetricSeries series,
+                           String... dimensions) {
+            this.namespace = namespace;
+            this.metricName = metricName;
+            this.stat = stat;
+            this.periodSeconds = periodSeconds;
+            this.series = series;
+            List<Dimension> list = new ArrayList<>();
+            for (int i = 0; i + 1 < dimensions.length; i += 2) {
+                list.add(Dimension.builder().name(dimensions[i]).value(dimensions[i + 1]).build());
+            }
+            this.dimensions = list;
+        }
+        
+        public MetricSeries getSeries() {
+            return series;
+        }
+    }
+    
+    /**
+     * Fetch many metric series in as few GetMetricData requests as possible
+     * Up to 500 series go in one request; each series is cleared and filled in ascending
+     * time order. A batch that fails leaves its series empty.
+     * @return number of requests made, or -1 if any batch failed
+     */
+    public int getMetricSeries(List<SeriesQuery> queries, int daysBack) {
+        Instant endTime = Instant.now();
+        Instant startTime = endTime.minus(daysBack, ChronoUnit.DAYS);
+        int requests = 0;
+        boolean failed = false;
+        
+        for (SeriesQuery query : queries) {
+            query.series.clear();
+        }
+        
+        for (int from = 0; from < queries.size(); from += MAX_QUERIES_PER_REQUEST) {
+            int to = Math.min(from + MAX_QUERIES_PER_REQUEST, queries.size());
+            List<MetricDataQuery> batch = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                SeriesQuery query = queries.get(i);
+                batch.add(MetricDataQuery.builder()
+                        .id("q" + i)
+                        .metricStat(MetricStat.builder()
+                                .metric(Metric.builder()
+                                        .namespace(query.namespace)
+                                        .metricName(query.metricName)
+                                        .dimensions(query.dimensions)
+                                        .build())
+                                .period(query.periodSeconds)
+                                .stat(query.stat)
+                                .build())
+                        .build());
+            }
+            
+            try {
+                String nextToken = null;
+                do {
+                    GetMetricDataResponse response = cloudWatchClient.getMetricData(GetMetricDataRequest.builder()
+                            .metricDataQueries(batch)
+                            .startTime(startTime)
+                            .endTime(endTime)
+                            .scanBy(ScanBy.TIMESTAMP_ASCENDING)
+                            .nextToken(nextToken)
+                            .build());
+                    requests++;
+                    
+                    for (MetricDataResult result : response.metricDataResults()) {
+                        MetricSeries series = queries.get(Integer.parseInt(result.id().substring(1))).series;
+                        List<Instant> timestamps = result.timestamps();
+                        List<Double> values = result.values();
+                        for (int i = 0; i < values.size(); i++) {
+                            Double value = values.get(i);
+                            if (value != null && !value.isNaN()) {
+                                series.add(timestamps.get(i).toEpochMilli(), value);
+                            }
+                        }
+                    }
+                    nextToken = response.nextToken();
+                } while (nextToken != null);
+            } catch (Exception e) {
+                System.err.println("Error getting batched metric series: " + e.getMessage());
+                failed = true;
+            }
+        }
+        return failed ? -1 : requests;
+    }
+    
+    /**
+     * Get average CPU and memory utilization (%) of ECS services
+     * All services are queried together in batched GetMetricData requests. Service metrics
+     * come from AWS/ECS; services without them fall back to Container Insights (utilized
+     * over reserved), for clusters that have it enabled.
+     * @return {cpu, memory} for each service that reported metrics (NaN for a metric without data)
+     */
+    public Map<ECSService, double[]> getECSServiceUtilization(List<ECSService> services, int daysBack) {
+        Map<ECSService, double[]> utilization = new IdentityHashMap<>();
+        if (services.isEmpty()) {
+            return utilization;
+        }
+        
+        Instant endTime = Instant.now();
+        Instant startTime = endTime.minus(daysBack, ChronoUnit.DAYS);
+        
+        List<MetricDataQuery> queries = new ArrayList<>();
+        for (int i = 0; i < services.size(); i++) {
+            List<Dimension> dimensions = ecsDimensions(services.get(i));
+            queries.add(statQuery("cpu" + i, "AWS/ECS", "CPUUtilization", dimensions, true));
+            queries.add(statQuery("mem" + i, "AWS/ECS", "MemoryUtilization", dimensions, true));
+        }
+        Map<String, Double> averages = getAverages(queries, 2, startTime, endTime);
+        
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < services.size(); i++) {
+            if (!addUtilization(utilization, services.get(i), averages, i)) {
+                missing.add(i);
+            }
+        }
+        
+        if (!missing.isEmpty()) {
+            queries.clear();
+            for (int i : missing) {
+                List<Dimension> dimensions = ecsDimensions(services.get(i));
+                queries.add(statQuery("cu" + i, "ECS/ContainerInsights", "CpuUtilized", dimensions, false));
+                queries.add(statQuery("cr" + i, "ECS/ContainerInsights", "CpuReserved", dimensions, false));
+                queries.add(expressionQuery("cpu" + i, "100 * cu" + i + " / cr" + i));
+                queries.add(statQuery("mu" + i, "ECS/ContainerInsights", "MemoryUtilized", dimensions, false));
+                queries.add(statQuery("mr" + i, "ECS/ContainerInsights", "MemoryReserved", dimensions, false));
+                queries.add(expressionQuery("mem" + i, "100 * mu" + i + " / mr" + i));
+            }
+            averages = getAverages(queries, 6, startTime, endTime);
+            for (int i : missing) {
+                addUtilization(utilization, services.get(i), averages, i);
+            }
+        }
+        
+        System.out.println("Fetched utilization of " + utilization.size() + " of " + services.size() + " ECS services");
+        return utilization;
+    }
+    
+    private boolean addUtilization(Map<ECSService, double[]> utilization, ECSService service,
+                                   Map<String, Double> averages, int index) {
+        double cpu = averages.getOrDefault("cpu" + index, Double.NaN);
+        double memory = averages.getOrDefault("mem" + index, Double.NaN);
+        if (Double.isNaN(cpu) && Double.isNaN(memory)) {
+            return false;
+        }
+        utilization.put(service, new double[] {cpu, memory});
+        return true;
+    }
+    
+    private List<Dimension> ecsDimensions(ECSService service) {
+        return List.of(
+            Dimension.builder().name("ClusterName").value(service.getClusterName()).build(),
+            Dimension.builder().name("ServiceName").value(service.getServiceName()).build()
+        );
+    }
+    
+    private MetricDataQuery statQuery(String id, String namespace, String metricName, List<Dimension> dimensions,
+                                      boolean returnData) {
+        return MetricDataQuery.builder()
+                .id(id)
+                .metricStat(MetricStat.builder()
+                        .metric(Metric.builder()
+                                .namespace(namespace)
+                                .metricName(metricName)
+                                .dimensions(dimensions)
+                                .build())
+                        .period(86400)
+                        .stat("Average")
+                        .build())
+                .returnData(returnData)
+                .build();
+    }
+    
+    private MetricDataQuery expressionQuery(String id, String expression) {
+        return MetricDataQuery.builder()
+                .id(id)
+                .expression(expression)
+                .returnData(true)
+                .build();
+    }
+    
+    /**
+     * Run metric queries in as few GetMetricData requests as possible and average the
+     * datapoints of each returned query
+     * @param groupSize queries that must stay in the same request (metric math refers to its inputs)
+     */
+    private Map<String, Double> getAverages(List<MetricDataQuery> queries, int groupSize,
+                                            Instant startTime, Instant endTime) {
+        Map<String, double[]> totals = new HashMap<>();
+        int batchSize = (MAX_QUERIES_PER_REQUEST / groupSize) * groupSize;
+        
+        for (int from = 0; from < queries.size(); from += batchSize) {
+            List<MetricDataQuery> batch = queries.subList(from, Math.min(from + batchSize, queries.size()));
+            try {
+                String nextToken = null;
+                do {
+                    GetMetricDataResponse response = cloudWatchClient.getMetricData(GetMetricDataRequest.builder()
+                            .metricDataQueries(batch)
+                            .startTime(startTime)
+                            .endTime(endTime)
+                            .nextToken(nextToken)
+                            .build());
+                    
+                    for (MetricDataResult result : response.metricDataResults()) {
+                        double[] total = totals.computeIfAbsent(result.id(), id -> new double[2]);
+                        for (Double value : result.values()) {
+                            if (value != null && !value.isNaN() && !value.isInfinite()) {
+                                total[0] += value;
+                                total[1]++;
+                            }
+                        }
+                    }
+                    nextToken = response.nextToken();
+                } while (nextToken != null);
+            } catch (Exception e) {
+                System.err.println("Error getting batched metrics: " + e.getMessage());
+            }
+        }
+        
+        Map<String, Double> averages = new HashMap<>();
+        for (Map.Entry<String, double[]> entry : totals.entrySet()) {
+            if (entry.getValue()[1] > 0) {
+                averages.put(entry.getKey(), entry.getValue()[0] / entry.getValue()[1]);
+            }
+        }
+        return averages;
+    }
 }
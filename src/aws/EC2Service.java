@@ -1,18 +1,32 @@
 package aws;
 
 import models.EC2Instance;
+import services.ResourceChangeEvent;
+import services.ResourceEventBus;
 import software.amazon.awssdk.services.ec2.Ec2Client;
 import software.amazon.awssdk.services.ec2.model.*;
 
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * EC2Service - AWS EC2 operations wrapper
  */
 public class EC2Service {
+    // Instance ids per DescribeInstances filter when polling states
+    private static final int STATE_POLL_BATCH_SIZE = 200;
+    private static final long STATE_POLL_INTERVAL_MILLIS = 5_000;
+    private static final long TRANSITION_TIMEOUT_MILLIS = 10 * 60_000;
+    
     private final Ec2Client ec2Client;
+    private LifecycleWaiter.BatchPoller<String, String> statePoller;
     
     public EC2Service() {
         this.ec2Client = AWSClientFactory.getInstance().getEC2Client();
@@ -112,6 +126,193 @@ public class EC2Service {
         return false;
     }
     
+    /**
+     * Start several EC2 instances in one StartInstances call
+     * All-or-nothing like stopInstances(Collection).
+     * @return ids of the instances that are starting or running
+     */
+    public Set<String> startInstances(Collection<String> instanceIds) {
+        Set<String> accepted = new HashSet<>();
+        if (instanceIds.isEmpty()) {
+            return accepted;
+        }
+        try {
+            StartInstancesRequest request = StartInstancesRequest.builder()
+                    .instanceIds(instanceIds)
+                    .build();
+            
+            for (InstanceStateChange change : ec2Client.startInstances(request).startingInstances()) {
+                accepted.add(change.instanceId());
+            }
+            System.out.println("Started " + accepted.size() + " EC2 instances");
+        } catch (Exception e) {
+            System.err.println("Error starting " + instanceIds.size() + " instances: " + e.getMessage());
+        }
+        return accepted;
+    }
+    
+    /**
+     * Ids of the instances in a state that carry a tag, using server-side filters
+     * @param tagValue required tag value, or null for any value
+     * @param state instance state (e.g. "running")
+     */
+    public List<String> findInstanceIdsByTag(String tagKey, String tagValue, String state) {
+        List<String> instanceIds = new ArrayList<>();
+        try {
+            Filter tagFilter = tagValue != null
+                ? Filter.builder().name("tag:" + tagKey).values(tagValue).build()
+                : Filter.builder().name("tag-key").values(tagKey).build();
+            DescribeInstancesRequest request = DescribeInstancesRequest.builder()
+                    .filters(tagFilter, Filter.builder().name("instance-state-name").values(state).build())
+                    .build();
+            
+            for (DescribeInstancesResponse response : ec2Client.describeInstancesPaginator(request)) {
+                for (Reservation reservation : response.reservations()) {
+                    for (Instance instance : reservation.instances()) {
+                        instanceIds.add(instance.instanceId());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error finding instances tagged " + tagKey + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return instanceIds;
+    }
+    
+    /**
+     * Stop several EC2 instances in one StopInstances call
+     * The call is all-or-nothing: if any id is rejected (e.g. it no longer exists), nothing
+     * is stopped and the result is empty, so callers can retry the ids one by one.
+     * @return ids of the instances that are stopping or stopped
+     */
+    public Set<String> stopInstances(Collection<String> instanceIds) {
+        Set<String> accepted = new HashSet<>();
+        if (instanceIds.isEmpty()) {
+            return accepted;
+        }
+        try {
+            StopInstancesRequest request = StopInstancesRequest.builder()
+                    .instanceIds(instanceIds)
+                    .build();
+            
+            for (InstanceStateChange change : ec2Client.stopInstances(request).stoppingInstances()) {
+                accepted.add(change.instanceId());
+            }
+            System.out.println("Stopped " + accepted.size() + " EC2 instances");
+        } catch (Exception e) {
+            System.err.println("Error stopping " + instanceIds.size() + " instances: " + e.getMessage());
+        }
+        return accepted;
+    }
+    
+    /**
+     * Terminate several EC2 instances in one TerminateInstances call
+     * All-or-nothing like stopInstances(Collection).
+     * @return ids of the instances that are shutting down or terminated
+     */
+    public Set<String> terminateInstances(Collection<String> instanceIds) {
+        Set<String> accepted = new HashSet<>();
+        if (instanceIds.isEmpty()) {
+            return accepted;
+        }
+        try {
+            TerminateInstancesRequest request = TerminateInstancesRequest.builder()
+                    .instanceIds(instanceIds)
+                    .build();
+            
+            for (InstanceStateChange change : ec2Client.terminateInstances(request).terminatingInstances()) {
+                accepted.add(change.instanceId());
+            }
+            System.out.println("Terminated " + accepted.size() + " EC2 instances");
+        } catch (Exception e) {
+            System.err.println("Error terminating " + instanceIds.size() + " instances: " + e.getMessage());
+        }
+        return accepted;
+    }
+    
+    /**
+     * Start an instance; the future completes once it is running
+     * Completes exceptionally if the start call fails, the instance terminates instead, or
+     * it is not running within 10 minutes.
+     */
+    public CompletableFuture<String> startInstanceAsync(String instanceId) {
+        if (!startInstance(instanceId)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Failed to start instance " + instanceId));
+        }
+        return awaitInstanceState(instanceId, "running");
+    }
+    
+    /**
+     * Stop an instance; the future completes once it is stopped
+     */
+    public CompletableFuture<String> stopInstanceAsync(String instanceId) {
+        if (!stopInstance(instanceId)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Failed to stop instance " + instanceId));
+        }
+        return awaitInstanceState(instanceId, "stopped");
+    }
+    
+    /**
+     * Terminate an instance; the future completes once it is terminated
+     */
+    public CompletableFuture<String> terminateInstanceAsync(String instanceId) {
+        if (!terminateInstance(instanceId)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Failed to terminate instance " + instanceId));
+        }
+        return awaitInstanceState(instanceId, "terminated");
+    }
+    
+    /**
+     * Wait until an instance reaches a state (e.g. "running")
+     * All instances waited on through this service are polled together, one
+     * DescribeInstances call per 200 instances every 5 seconds.
+     * @return future completing with the state, or exceptionally when the instance is
+     *         terminated before reaching it or the wait times out
+     */
+    public CompletableFuture<String> awaitInstanceState(String instanceId, String targetState) {
+        boolean awaitingTermination = "terminated".equals(targetState);
+        return getStatePoller().await(instanceId,
+            // Terminated instances eventually disappear from DescribeInstances
+            state -> targetState.equals(state) || (awaitingTermination && state == null),
+            state -> !awaitingTermination && ("terminated".equals(state) || "shutting-down".equals(state)),
+            TRANSITION_TIMEOUT_MILLIS);
+    }
+    
+    private synchronized LifecycleWaiter.BatchPoller<String, String> getStatePoller() {
+        if (statePoller == null) {
+            statePoller = LifecycleWaiter.getInstance().newBatchPoller("EC2 instance",
+                this::describeInstanceStates, STATE_POLL_INTERVAL_MILLIS);
+        }
+        return statePoller;
+    }
+    
+    /**
+     * Current state of each instance; instances that no longer exist are left out
+     * An instance-id filter (rather than instanceIds) so one unknown id does not fail the call.
+     */
+    private Map<String, String> describeInstanceStates(Set<String> instanceIds) {
+        Map<String, String> states = new HashMap<>();
+        List<String> ids = new ArrayList<>(instanceIds);
+        for (int from = 0; from < ids.size(); from += STATE_POLL_BATCH_SIZE) {
+            DescribeInstancesRequest request = DescribeInstancesRequest.builder()
+                    .filters(Filter.builder()
+                        .name("instance-id")
+                        .values(ids.subList(from, Math.min(ids.size(), from + STATE_POLL_BATCH_SIZE)))
+                        .build())
+                    .build();
+            
+            for (DescribeInstancesResponse response : ec2Client.describeInstancesPaginator(request)) {
+                for (Reservation reservation : response.reservations()) {
+                    for (Instance instance : reservation.instances()) {
+                        states.put(instance.instanceId(), instance.state().nameAsString());
+                    }
+                }
+            }
+        }
+        return states;
+    }
+    
     /**
      * Get instance state
      */
@@ -142,6 +343,12 @@ public class EC2Service {
         
         dao.EC2DAO ec2DAO = new dao.EC2DAO();
         CloudWatchService cloudWatchService = new CloudWatchService();
+        ResourceEventBus eventBus = ResourceEventBus.getInstance();
+        
+        Map<String, EC2Instance> stored = new HashMap<>();
+        for (EC2Instance instance : ec2DAO.getAllEC2Instances()) {
+            stored.put(instance.getInstanceId(), instance);
+        }
         
         List<EC2Instance> instances = getAllInstances();
         
@@ -160,13 +367,24 @@ public class EC2Service {
                 instance.setUserId(userId);
                 
                 // Save to database
-                ec2DAO.saveOrUpdateEC2Instance(instance);
+                if (ec2DAO.saveOrUpdateEC2Instance(instance)) {
+                    EC2Instance previous = stored.get(instance.getInstanceId());
+                    Set<String> changedMetrics = new HashSet<>();
+                    if (previous != null && previous.getCpuUtilization() != instance.getCpuUtilization()) {
+                        changedMetrics.add("CPU");
+                    }
+                    eventBus.publish(ResourceChangeEvent.between("EC2", instance.getInstanceId(), userId, instance,
+                        previous != null, previous != null ? previous.getInstanceState() : null,
+                        instance.getInstanceState(), changedMetrics));
+                }
                 
             } catch (Exception e) {
                 System.err.println("Error syncing instance " + instance.getInstanceId() + ": " + e.getMessage());
             }
         }
         
+        new dao.DashboardSummaryDAO().refreshResourceCounts(userId);
+        
         System.out.println("Synced " + instances.size() + " EC2 instances from AWS");
         return instances.size();
     }
@@ -1,16 +1,27 @@
 package aws;
 
 import models.ECSService;
+import services.ResourceChangeEvent;
+import services.ResourceEventBus;
 import software.amazon.awssdk.services.ecs.EcsClient;
 import software.amazon.awssdk.services.ecs.model.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 /**
  * ECSService - AWS ECS operations wrapper
  */
 public class ECSAWSService {
+    private static final long TRANSITION_TIMEOUT_MILLIS = 10 * 60_000;
+    
     private final EcsClient ecsClient;
     
     public ECSAWSService() {
@@ -82,17 +93,7 @@ public class ECSAWSService {
                     DescribeServicesResponse response = ecsClient.describeServices(request);
                     
                     for (Service service : response.services()) {
-                        ECSService ecsService = new ECSService();
-                        ecsService.setClusterName(clusterName);
-                        ecsService.setServiceName(service.serviceName());
-                        ecsService.setServiceArn(service.serviceArn());
-                        ecsService.setStatus(service.status());
-                        ecsService.setDesiredCount(service.desiredCount());
-                        ecsService.setRunningCount(service.runningCount());
-                        ecsService.setPendingCount(service.pendingCount());
-                        ecsService.setTaskDefinition(service.taskDefinition());
-                        
-                        services.add(ecsService);
+                        services.add(toECSService(service, clusterName));
                     }
                 }
             }
@@ -106,6 +107,94 @@ public class ECSAWSService {
         return services;
     }
     
+    /**
+     * Current state of services given as "cluster/service" keys
+     * Services are described per cluster, 10 per call (the DescribeServices limit); keys
+     * ECS does not know are left out.
+     */
+    public List<ECSService> getServices(Collection<String> serviceKeys) {
+        List<ECSService> services = new ArrayList<>();
+        Map<String, List<String>> byCluster = new HashMap<>();
+        for (String key : serviceKeys) {
+            int slash = key.indexOf('/');
+            if (slash <= 0) {
+                System.err.println("Invalid ECS service key (expected cluster/service): " + key);
+                continue;
+            }
+            byCluster.computeIfAbsent(key.substring(0, slash), cluster -> new ArrayList<>()).add(key.substring(slash + 1));
+        }
+        
+        try {
+            for (Map.Entry<String, List<String>> entry : byCluster.entrySet()) {
+                for (Service service : describeServices(entry.getKey(), entry.getValue(), false)) {
+                    services.add(toECSService(service, entry.getKey()));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error describing ECS services: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return services;
+    }
+    
+    /**
+     * Services in any cluster that carry a tag
+     * @param tagValue required tag value, or null for any value
+     */
+    public List<ECSService> findServicesByTag(String tagKey, String tagValue) {
+        List<ECSService> services = new ArrayList<>();
+        try {
+            for (String clusterArn : getAllClusters()) {
+                String clusterName = extractNameFromArn(clusterArn);
+                List<String> serviceArns = new ArrayList<>();
+                for (ListServicesResponse response : ecsClient.listServicesPaginator(
+                        ListServicesRequest.builder().cluster(clusterArn).build())) {
+                    serviceArns.addAll(response.serviceArns());
+                }
+                
+                for (Service service : describeServices(clusterArn, serviceArns, true)) {
+                    for (Tag tag : service.tags()) {
+                        if (tagKey.equals(tag.key()) && (tagValue == null || tagValue.equals(tag.value()))) {
+                            services.add(toECSService(service, clusterName));
+                            break;
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error finding ECS services tagged " + tagKey + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return services;
+    }
+    
+    private List<Service> describeServices(String cluster, List<String> serviceNames, boolean includeTags) {
+        List<Service> services = new ArrayList<>();
+        for (int from = 0; from < serviceNames.size(); from += 10) {
+            DescribeServicesRequest.Builder request = DescribeServicesRequest.builder()
+                    .cluster(cluster)
+                    .services(serviceNames.subList(from, Math.min(serviceNames.size(), from + 10)));
+            if (includeTags) {
+                request.include(ServiceField.TAGS);
+            }
+            services.addAll(ecsClient.describeServices(request.build()).services());
+        }
+        return services;
+    }
+    
+    private ECSService toECSService(Service service, String clusterName) {
+        ECSService ecsService = new ECSService();
+        ecsService.setClusterName(clusterName);
+        ecsService.setServiceName(service.serviceName());
+        ecsService.setServiceArn(service.serviceArn());
+        ecsService.setStatus(service.status());
+        ecsService.setDesiredCount(service.desiredCount());
+        ecsService.setRunningCount(service.runningCount());
+        ecsService.setPendingCount(service.pendingCount());
+        ecsService.setTaskDefinition(service.taskDefinition());
+        return ecsService;
+    }
+    
     /**
      * Update service desired count
      */
@@ -141,17 +230,66 @@ public class ECSAWSService {
         return updateServiceDesiredCount(clusterName, serviceName, desiredCount);
     }
     
+    /**
+     * Stop a service; the future completes once its tasks have stopped
+     * Completes exceptionally if the update fails, the service goes away, or tasks are
+     * still running after 10 minutes.
+     */
+    public CompletableFuture<Service> stopServiceAsync(String clusterName, String serviceName) {
+        if (!stopService(clusterName, serviceName)) {
+            return CompletableFuture.failedFuture(
+                new IllegalStateException("Failed to stop ECS service " + serviceName));
+        }
+        return awaitService(clusterName, serviceName,
+            service -> service != null && service.runningCount() == 0 && service.pendingCount() == 0,
+            service -> service == null || "INACTIVE".equals(service.status()));
+    }
+    
+    /**
+     * Delete a service gracefully: scale to 0, wait for the tasks to drain, delete, and
+     * complete once ECS reports the service INACTIVE
+     */
+    public CompletableFuture<Service> deleteServiceAsync(String clusterName, String serviceName) {
+        return stopServiceAsync(clusterName, serviceName)
+            .thenCompose(drained -> {
+                if (!deleteService(clusterName, serviceName)) {
+                    return CompletableFuture.failedFuture(
+                        new IllegalStateException("Failed to delete ECS service " + serviceName));
+                }
+                return awaitService(clusterName, serviceName,
+                    service -> service == null || "INACTIVE".equals(service.status()),
+                    null);
+            });
+    }
+    
+    private CompletableFuture<Service> awaitService(String clusterName, String serviceName,
+                                                    Predicate<Service> reached, Predicate<Service> failed) {
+        return LifecycleWaiter.getInstance().await("ECS service " + clusterName + "/" + serviceName,
+            () -> describeService(clusterName, serviceName),
+            reached, failed, TRANSITION_TIMEOUT_MILLIS);
+    }
+    
+    /**
+     * Current service description, or null if ECS no longer knows the service
+     */
+    private Service describeService(String clusterName, String serviceName) {
+        DescribeServicesResponse response = ecsClient.describeServices(DescribeServicesRequest.builder()
+                .cluster(clusterName)
+                .services(serviceName)
+                .build());
+        return response.services().isEmpty() ? null : response.services().get(0);
+    }
+    
     /**
      * Delete ECS service
+     * Scales the service to 0 and force-deletes it; ECS drains the remaining tasks in the
+     * background. Use deleteServiceAsync to wait until they are gone.
      */
     public boolean deleteService(String clusterName, String serviceName) {
         try {
             // First, set desired count to 0
             updateServiceDesiredCount(clusterName, serviceName, 0);
             
-            // Wait a moment for tasks to stop
-            Thread.sleep(2000);
-            
             DeleteServiceRequest request = DeleteServiceRequest.builder()
                     .cluster(clusterName)
                     .service(serviceName)
@@ -186,13 +324,47 @@ public class ECSAWSService {
         System.out.println("Syncing ECS services from AWS...");
         
         dao.ECSDAO ecsDAO = new dao.ECSDAO();
+        ResourceEventBus eventBus = ResourceEventBus.getInstance();
+        
+        Map<String, ECSService> stored = new HashMap<>();
+        for (ECSService service : ecsDAO.getAllECSServices()) {
+            stored.put(service.getServiceName(), service);
+        }
+        
         List<ECSService> services = getAllECSServices();
         
+        // One batched CloudWatch pass for all services instead of a request per service
+        Map<ECSService, double[]> utilization = new CloudWatchService().getECSServiceUtilization(services, 7);
+        
         for (ECSService service : services) {
             service.setUserId(userId);
-            ecsDAO.saveOrUpdateECSService(service);
+            double[] metrics = utilization.get(service);
+            if (metrics != null) {
+                if (!Double.isNaN(metrics[0])) {
+                    service.setCpuUtilization(metrics[0]);
+                }
+                if (!Double.isNaN(metrics[1])) {
+                    service.setMemoryUtilization(metrics[1]);
+                }
+            }
+            
+            if (ecsDAO.saveOrUpdateECSService(service)) {
+                String id = service.getServiceName();
+                ECSService previous = stored.get(id);
+                Set<String> changedMetrics = new HashSet<>();
+                if (previous != null && previous.getCpuUtilization() != service.getCpuUtilization()) {
+                    changedMetrics.add("CPU");
+                }
+                if (previous != null && previous.getMemoryUtilization() != service.getMemoryUtilization()) {
+                    changedMetrics.add("Memory");
+                }
+                eventBus.publish(ResourceChangeEvent.between("ECS", id, userId, service, previous != null,
+                    previous != null ? previous.getStatus() : null, service.getStatus(), changedMetrics));
+            }
         }
         
+        new dao.DashboardSummaryDAO().refreshResourceCounts(userId);
+        
         System.out.println("Synced " + services.size() + " ECS services from AWS");
         return services.size();
     }
@@ -0,0 +1,257 @@
+package aws;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * LifecycleWaiter - Futures that complete when an AWS resource reaches a state
+ * Singleton. Instead of a thread sleeping per transition, each in-flight transition is a
+ * scheduled poll on a small shared scheduler: a poll describes the resource, completes the
+ * future once the target state is reached (or a failure state, or the timeout), and
+ * otherwise schedules the next poll. Between polls no thread is held, so any number of
+ * transitions can be tracked at once.
+ *
+ * Polls of one resource back off from 2s to 30s. A BatchPoller describes all resources it
+ * is waiting on in one call per tick, for APIs that describe many ids at once (EC2).
+ * A poll that throws is logged and retried on the next tick.
+ */
+public final class LifecycleWaiter {
+    private static LifecycleWaiter instance;
+    private static final long INITIAL_DELAY_MILLIS = 2_000;
+    private static final long MAX_DELAY_MILLIS = 30_000;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private LifecycleWaiter() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "lifecycle-waiter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized LifecycleWaiter getInstance() {
+        if (instance == null) {
+            instance = new LifecycleWaiter();
+        }
+        return instance;
+    }
+
+    /**
+     * Poll one resource until it reaches a state
+     * @param description resource for messages (e.g. "RDS instance db-1")
+     * @param poll returns the current state (null if unknown); may throw
+     * @param reached whether the state is the target
+     * @param failed whether the state means the target will not be reached
+     * @param timeoutMillis how long to wait
+     * @return future completing with the target state, or exceptionally with an
+     *         IllegalStateException (failure state) or TimeoutException
+     */
+    public <T> CompletableFuture<T> await(String description, Callable<T> poll, Predicate<T> reached,
+                                          Predicate<T> failed, long timeoutMillis) {
+        CompletableFuture<T> future = track(new CompletableFuture<>());
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        schedule(new Runnable() {
+            private long delay = INITIAL_DELAY_MILLIS;
+
+            @Override
+            public void run() {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    T state = poll.call();
+                    if (settle(future, description, state, reached, failed)) {
+                        return;
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error polling " + description + ": " + e.getMessage());
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    future.completeExceptionally(new TimeoutException(description + " did not reach the state in time"));
+                    return;
+                }
+                delay = Math.min(MAX_DELAY_MILLIS, delay * 2);
+                schedule(this, delay, future);
+            }
+        }, INITIAL_DELAY_MILLIS, future);
+        return future;
+    }
+
+    /**
+     * Poller that waits on many resources of one kind with one describe call per tick
+     * @param description kind of resource for messages (e.g. "EC2 instance")
+     * @param poll returns the current state of each requested id (ids it does not
+     *             return get a null state); may throw
+     * @param intervalMillis time between ticks
+     */
+    public <K, T> BatchPoller<K, T> newBatchPoller(String description, Function<Set<K>, Map<K, T>> poll,
+                                                   long intervalMillis) {
+        return new BatchPoller<>(description, poll, intervalMillis);
+    }
+
+    /**
+     * Transitions currently being waited on
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Stop polling; futures still waiting are cancelled
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (CompletableFuture<?> future : new ArrayList<>(inFlight)) {
+            future.cancel(false);
+        }
+    }
+
+    private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        inFlight.add(future);
+        future.whenComplete((state, error) -> inFlight.remove(future));
+        return future;
+    }
+
+    private void schedule(Runnable poll, long delayMillis, CompletableFuture<?> future) {
+        try {
+            scheduler.schedule(poll, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Complete the future if the state is final
+     * @return whether the future was completed
+     */
+    private static <T> boolean settle(CompletableFuture<T> future, String description, T state,
+                                      Predicate<T> reached, Predicate<T> failed) {
+        if (reached.test(state)) {
+            future.complete(state);
+            return true;
+        }
+        if (failed != null && failed.test(state)) {
+            future.completeExceptionally(new IllegalStateException(description + " is " + state));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * BatchPoller - Waits on many resources of one kind with a shared describe call
+     * Ticks run only while something is being waited on.
+     */
+    public final class BatchPoller<K, T> {
+        private final String description;
+        private final Function<Set<K>, Map<K, T>> poll;
+        private final long intervalMillis;
+        private final Queue<Waiting<K, T>> waiting = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private BatchPoller(String description, Function<Set<K>, Map<K, T>> poll, long intervalMillis) {
+            this.description = description;
+            this.poll = poll;
+            this.intervalMillis = intervalMillis;
+        }
+
+        /**
+         * Wait until the resource reaches a state
+         * @return future as for LifecycleWaiter.await
+         */
+        public CompletableFuture<T> await(K id, Predicate<T> reached, Predicate<T> failed, long timeoutMillis) {
+            CompletableFuture<T> future = track(new CompletableFuture<>());
+            waiting.add(new Waiting<>(id, reached, failed, System.currentTimeMillis() + timeoutMillis, future));
+            scheduleTick();
+            return future;
+        }
+
+        private void scheduleTick() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    scheduler.schedule(this::tick, intervalMillis, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    for (Waiting<K, T> entry : waiting) {
+                        entry.future.cancel(false);
+                    }
+                    waiting.clear();
+                }
+            }
+        }
+
+        private void tick() {
+            waiting.removeIf(entry -> entry.future.isDone());
+            List<Waiting<K, T>> entries = new ArrayList<>(waiting);
+            if (!entries.isEmpty()) {
+                Set<K> ids = new HashSet<>();
+                for (Waiting<K, T> entry : entries) {
+                    ids.add(entry.id);
+                }
+                Map<K, T> states = Collections.emptyMap();
+                boolean polled = false;
+                try {
+                    states = poll.apply(ids);
+                    polled = true;
+                } catch (Exception e) {
+                    System.err.println("Error polling " + ids.size() + " " + description + "s: " + e.getMessage());
+                }
+                long now = System.currentTimeMillis();
+                for (Waiting<K, T> entry : entries) {
+                    String label = description + " " + entry.id;
+                    if (polled && settle(entry.future, label, states.get(entry.id), entry.reached, entry.failed)) {
+                        waiting.remove(entry);
+                    } else if (now >= entry.deadline) {
+                        entry.future.completeExceptionally(new TimeoutException(label + " did not reach the state in time"));
+                        waiting.remove(entry);
+                    }
+                }
+            }
+            scheduled.set(false);
+            if (!waiting.isEmpty()) {
+                scheduleTick();
+            }
+        }
+    }
+
+    private static final class Waiting<K, T> {
+        private final K id;
+        private final Predicate<T> reached;
+        private final Predicate<T> failed;
+        private final long deadline;
+        private final CompletableFuture<T> future;
+
+        private Waiting(K id, Predicate<T> reached, Predicate<T> failed, long deadline, CompletableFuture<T> future) {
+            this.id = id;
+            this.reached = reached;
+            this.failed = failed;
+            this.deadline = deadline;
+            this.future = future;
+        }
+    }
+}
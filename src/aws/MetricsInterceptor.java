@@ -0,0 +1,104 @@
+package aws;
+
+import metrics.AwsCallEvent;
+import metrics.MetricsRegistry;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.util.Optional;
+
+/**
+ * MetricsInterceptor - Records the latency and outcome of every AWS API call per operation
+ * Added to each client built by AWSClientFactory. The duration covers the whole call,
+ * including the SDK's retries; the attempts counter shows how many HTTP requests it took.
+ * While a JFR recording has the governance.AwsCall event enabled, each call is also
+ * recorded as an AwsCallEvent with its attempts and request / response sizes.
+ */
+class MetricsInterceptor implements ExecutionInterceptor {
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("GovernanceMetricsStartNanos");
+    private static final ExecutionAttribute<AwsCallEvent> EVENT = new ExecutionAttribute<>("GovernanceAwsCallEvent");
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes attributes) {
+        attributes.putAttribute(START_NANOS, System.nanoTime());
+        AwsCallEvent event = new AwsCallEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            attributes.putAttribute(EVENT, event);
+        }
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes attributes) {
+        MetricsRegistry.getInstance().counter("governance_aws_api_attempts", "HTTP requests sent to AWS, retries included",
+            "service", service(attributes), "operation", operation(attributes)).inc();
+        AwsCallEvent event = attributes.getAttribute(EVENT);
+        if (event != null) {
+            event.attempts++;
+            event.requestBytes += contentLength(context.httpRequest().firstMatchingHeader("Content-Length"));
+        }
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes attributes) {
+        AwsCallEvent event = attributes.getAttribute(EVENT);
+        if (event != null) {
+            event.responseBytes += contentLength(context.httpResponse().firstMatchingHeader("Content-Length"));
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes attributes) {
+        record(attributes, "success");
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes attributes) {
+        record(attributes, "error");
+    }
+
+    private static void record(ExecutionAttributes attributes, String outcome) {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        String service = service(attributes);
+        String operation = operation(attributes);
+        registry.counter("governance_aws_api_calls", "AWS API calls by outcome",
+            "service", service, "operation", operation, "outcome", outcome).inc();
+        Long start = attributes.getAttribute(START_NANOS);
+        if (start != null) {
+            registry.histogram("governance_aws_api_call_duration_seconds", "AWS API call latency, retries included",
+                "service", service, "operation", operation).observeNanos(System.nanoTime() - start);
+        }
+
+        AwsCallEvent event = attributes.getAttribute(EVENT);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.service = service;
+                event.operation = operation;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private static long contentLength(Optional<String> header) {
+        try {
+            return header.map(Long::parseLong).orElse(0L);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String service(ExecutionAttributes attributes) {
+        String service = attributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME);
+        return service != null ? service : "unknown";
+    }
+
+    private static String operation(ExecutionAttributes attributes) {
+        String operation = attributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        return operation != null ? operation : "unknown";
+    }
+}
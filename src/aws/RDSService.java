@@ -1,16 +1,25 @@
 package aws;
 
 import models.RDSInstance;
+import services.ResourceChangeEvent;
+import services.ResourceEventBus;
 import software.amazon.awssdk.services.rds.RdsClient;
 import software.amazon.awssdk.services.rds.model.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * RDSService - AWS RDS operations wrapper
  */
 public class RDSService {
+    // Starting and stopping a DB instance commonly takes several minutes
+    private static final long TRANSITION_TIMEOUT_MILLIS = 30 * 60_000;
+    
     private final RdsClient rdsClient;
     
     public RDSService() {
@@ -121,6 +130,92 @@ public class RDSService {
         return false;
     }
     
+    /**
+     * Identifiers of the DB instances in a status that carry a tag
+     * @param tagValue required tag value, or null for any value
+     * @param status instance status (e.g. "available")
+     */
+    public List<String> findDBInstanceIdsByTag(String tagKey, String tagValue, String status) {
+        List<String> identifiers = new ArrayList<>();
+        try {
+            for (DescribeDbInstancesResponse response : rdsClient.describeDBInstancesPaginator(
+                    DescribeDbInstancesRequest.builder().build())) {
+                for (DBInstance dbInstance : response.dbInstances()) {
+                    if (!status.equals(dbInstance.dbInstanceStatus())) {
+                        continue;
+                    }
+                    for (Tag tag : dbInstance.tagList()) {
+                        if (tagKey.equals(tag.key()) && (tagValue == null || tagValue.equals(tag.value()))) {
+                            identifiers.add(dbInstance.dbInstanceIdentifier());
+                            break;
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error finding RDS instances tagged " + tagKey + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return identifiers;
+    }
+    
+    /**
+     * Start an RDS instance; the future completes once it is available
+     * Completes exceptionally if the start call fails, the instance ends up in a failure
+     * status, or it is not available within 30 minutes.
+     */
+    public CompletableFuture<String> startDBInstanceAsync(String dbInstanceIdentifier) {
+        if (!startDBInstance(dbInstanceIdentifier)) {
+            return CompletableFuture.failedFuture(
+                new IllegalStateException("Failed to start RDS instance " + dbInstanceIdentifier));
+        }
+        return awaitDBInstanceStatus(dbInstanceIdentifier, "available");
+    }
+    
+    /**
+     * Stop an RDS instance; the future completes once it is stopped
+     */
+    public CompletableFuture<String> stopDBInstanceAsync(String dbInstanceIdentifier) {
+        if (!stopDBInstance(dbInstanceIdentifier)) {
+            return CompletableFuture.failedFuture(
+                new IllegalStateException("Failed to stop RDS instance " + dbInstanceIdentifier));
+        }
+        return awaitDBInstanceStatus(dbInstanceIdentifier, "stopped");
+    }
+    
+    /**
+     * Wait until an RDS instance reaches a status (e.g. "available")
+     * @return future completing with the status, or exceptionally when the instance is
+     *         deleted or fails before reaching it, or the wait times out
+     */
+    public CompletableFuture<String> awaitDBInstanceStatus(String dbInstanceIdentifier, String targetStatus) {
+        return LifecycleWaiter.getInstance().await("RDS instance " + dbInstanceIdentifier,
+            () -> describeStatus(dbInstanceIdentifier),
+            targetStatus::equals,
+            RDSService::isFailureStatus,
+            TRANSITION_TIMEOUT_MILLIS);
+    }
+    
+    /**
+     * Current status, or "deleted" once the instance no longer exists
+     */
+    private String describeStatus(String dbInstanceIdentifier) {
+        try {
+            DescribeDbInstancesResponse response = rdsClient.describeDBInstances(DescribeDbInstancesRequest.builder()
+                    .dbInstanceIdentifier(dbInstanceIdentifier)
+                    .build());
+            return response.dbInstances().isEmpty() ? "deleted" : response.dbInstances().get(0).dbInstanceStatus();
+        } catch (DbInstanceNotFoundException e) {
+            return "deleted";
+        }
+    }
+    
+    private static boolean isFailureStatus(String status) {
+        return "failed".equals(status) || "deleting".equals(status) || "deleted".equals(status)
+            || "inaccessible-encryption-credentials".equals(status)
+            || (status != null && status.startsWith("incompatible-"));
+    }
+    
     /**
      * Delete RDS instance
      */
@@ -154,13 +249,26 @@ public class RDSService {
         System.out.println("Syncing RDS instances from AWS...");
         
         dao.RDSDAO rdsDAO = new dao.RDSDAO();
+        ResourceEventBus eventBus = ResourceEventBus.getInstance();
+        
+        Map<String, String> storedStatus = new HashMap<>();
+        for (RDSInstance instance : rdsDAO.getAllRDSInstances()) {
+            storedStatus.put(instance.getDbInstanceIdentifier(), instance.getDbInstanceStatus());
+        }
+        
         List<RDSInstance> instances = getAllDBInstances();
         
         for (RDSInstance instance : instances) {
             instance.setUserId(userId);
-            rdsDAO.saveOrUpdateRDSInstance(instance);
+            if (rdsDAO.saveOrUpdateRDSInstance(instance)) {
+                String id = instance.getDbInstanceIdentifier();
+                eventBus.publish(ResourceChangeEvent.between("RDS", id, userId, instance, storedStatus.containsKey(id),
+                    storedStatus.get(id), instance.getDbInstanceStatus(), Collections.emptySet()));
+            }
         }
         
+        new dao.DashboardSummaryDAO().refreshResourceCounts(userId);
+        
         System.out.println("Synced " + instances.size() + " RDS instances from AWS");
         return instances.size();
     }
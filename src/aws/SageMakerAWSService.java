@@ -1,12 +1,17 @@
 package aws;
 
 import models.SageMakerEndpoint;
+import services.ResourceChangeEvent;
+import services.ResourceEventBus;
 import software.amazon.awssdk.services.sagemaker.SageMakerClient;
 import software.amazon.awssdk.services.sagemaker.model.*;
 
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * SageMakerService - AWS SageMaker operations wrapper
@@ -221,6 +226,13 @@ public class SageMakerAWSService {
         System.out.println("Syncing SageMaker endpoints from AWS...");
         
         dao.SageMakerDAO sageMakerDAO = new dao.SageMakerDAO();
+        ResourceEventBus eventBus = ResourceEventBus.getInstance();
+        
+        Map<String, String> storedStatus = new HashMap<>();
+        for (SageMakerEndpoint endpoint : sageMakerDAO.getAllEndpoints()) {
+            storedStatus.put(endpoint.getEndpointName(), endpoint.getEndpointStatus());
+        }
+        
         List<SageMakerEndpoint> endpoints = getAllEndpoints();
         
         int savedCount = 0;
@@ -228,9 +240,15 @@ public class SageMakerAWSService {
             endpoint.setUserId(userId);
             if (sageMakerDAO.saveOrUpdateEndpoint(endpoint)) {
                 savedCount++;
+                String id = endpoint.getEndpointName();
+                eventBus.publish(ResourceChangeEvent.between("SageMaker", id, userId, endpoint,
+                    storedStatus.containsKey(id), storedStatus.get(id), endpoint.getEndpointStatus(),
+                    Collections.emptySet()));
             }
         }
         
+        new dao.DashboardSummaryDAO().refreshResourceCounts(userId);
+        
         System.out.println("Synced " + savedCount + " SageMaker endpoints from AWS");
         return savedCount;
     }
@@ -3,23 +3,26 @@ package controllers;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.util.Duration;
 import models.Alert;
 import models.User;
 import services.AlertService;
+import utils.BackgroundTaskRunner;
+import utils.PagedTableLoader;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 /**
  * AlertController - Controller for alerts view
  */
-public class AlertController {
+public class AlertController implements ManagedView {
     @FXML
     private TableView<Alert> alertTable;
     
+    @FXML
+    private TextField filterField;
+    
     @FXML
     private TableColumn<Alert, String> resourceIdColumn;
     
@@ -44,25 +47,35 @@ public class AlertController {
     @FXML
     private CheckBox showResolvedCheckBox;
     
+    // New alerts are raised by background evaluation, so the open view keeps itself current
+    private static final Duration AUTO_REFRESH_INTERVAL = Duration.seconds(30);
+    
     private User currentUser;
     private AlertService alertService;
-    private ObservableList<Alert> alertData;
+    private PagedTableLoader<Alert> alertPager;
+    private volatile boolean showResolved;
+    private BackgroundTaskRunner taskRunner;
     
     public AlertController() {
         this.alertService = AlertService.getInstance();
-        this.alertData = FXCollections.observableArrayList();
+        this.taskRunner = BackgroundTaskRunner.getInstance();
     }
     
     @FXML
     private void initialize() {
         setupTableColumns();
-        loadAlerts();
     }
     
+    @Override
     public void setCurrentUser(User user) {
         this.currentUser = user;
     }
     
+    @Override
+    public void refreshView() {
+        loadAlerts(null);
+    }
+    
     private void setupTableColumns() {
         resourceIdColumn.setCellValueFactory(new PropertyValueFactory<>("resourceId"));
         resourceTypeColumn.setCellValueFactory(new PropertyValueFactory<>("resourceType"));
@@ -87,32 +100,39 @@ public class AlertController {
             }
         });
         
-        alertTable.setItems(alertData);
+        alertPager = new PagedTableLoader<>(alertTable, "alerts", "createdAt", false,
+            request -> alertService.getAlertPage(!showResolved, request));
+        alertPager
+            .keyedBy(Alert::getAlertId, Alert::isResolved)
+            .autoRefresh(AUTO_REFRESH_INTERVAL)
+            .sortable(resourceIdColumn, "resourceId")
+            .sortable(resourceTypeColumn, "resourceType")
+            .sortable(severityColumn, "severity")
+            .sortable(createdAtColumn, "createdAt")
+            .install();
     }
     
     @FXML
     private void handleRefresh() {
-        loadAlerts();
-        showInfo("Alerts refreshed!");
+        loadAlerts(() -> showInfo("Alerts refreshed!"));
     }
     
     private void loadAlerts() {
-        try {
-            List<Alert> alerts;
-            if (showResolvedCheckBox.isSelected()) {
-                alerts = alertService.getAllAlerts();
-            } else {
-                alerts = alertService.getUnresolvedAlerts();
-            }
-            
-            alertData.clear();
-            alertData.addAll(alerts);
-            
-            System.out.println("Loaded " + alerts.size() + " alerts");
-        } catch (Exception e) {
-            System.err.println("Error loading alerts: " + e.getMessage());
-            showError("Error loading alerts");
-        }
+        loadAlerts(null);
+    }
+    
+    /**
+     * Refresh the loaded alerts in the background (only changed rows are touched), then run
+     * onLoaded (if any). Further pages are fetched as the table is scrolled.
+     */
+    private void loadAlerts(Runnable onLoaded) {
+        showResolved = showResolvedCheckBox.isSelected();
+        alertPager.refresh(onLoaded);
+    }
+    
+    @FXML
+    private void handleFilter() {
+        alertPager.setFilter(filterField.getText(), null);
     }
     
     @FXML
@@ -128,13 +148,17 @@ public class AlertController {
             return;
         }
         
-        boolean success = alertService.resolveAlert(selected.getAlertId());
-        if (success) {
-            showInfo("Alert resolved successfully");
-            loadAlerts();
-        } else {
-            showError("Failed to resolve alert");
-        }
+        taskRunner.submit("Resolving alert",
+            task -> alertService.resolveAlert(selected.getAlertId()),
+            success -> {
+                if (success) {
+                    showInfo("Alert resolved successfully");
+                    loadAlerts();
+                } else {
+                    showError("Failed to resolve alert");
+                }
+            },
+            error -> showError("Failed to resolve alert"));
     }
     
     @FXML
@@ -151,13 +175,17 @@ public class AlertController {
         confirmation.setContentText("Are you sure you want to delete this alert?");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            boolean success = alertService.deleteAlert(selected.getAlertId());
-            if (success) {
-                showInfo("Alert deleted successfully");
-                loadAlerts();
-            } else {
-                showError("Failed to delete alert");
-            }
+            taskRunner.submit("Deleting alert",
+                task -> alertService.deleteAlert(selected.getAlertId()),
+                success -> {
+                    if (success) {
+                        showInfo("Alert deleted successfully");
+                        loadAlerts();
+                    } else {
+                        showError("Failed to delete alert");
+                    }
+                },
+                error -> showError("Failed to delete alert"));
         }
     }
     
@@ -8,11 +8,11 @@ import javafx.collections.ObservableList;
 import javafx.scene.chart.PieChart;
 import models.User;
 import models.BillingRecord;
-import dao.BillingDAO;
 import aws.BillingService;
 import aws.AWSClientFactory;
+import services.CostCube;
+import utils.BackgroundTaskRunner;
 
-import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -20,7 +20,7 @@ import java.util.Map;
 /**
  * BillingController - Controller for billing reports view
  */
-public class BillingController {
+public class BillingController implements ManagedView {
     @FXML
     private TableView<BillingRecord> billingTable;
     
@@ -46,26 +46,44 @@ public class BillingController {
     private PieChart costPieChart;
     
     private User currentUser;
-    private BillingDAO billingDAO;
+    private CostCube costCube;
     private BillingService billingService;
     private ObservableList<BillingRecord> billingData;
+    private BackgroundTaskRunner taskRunner;
     
     public BillingController() {
-        this.billingDAO = new BillingDAO();
+        this.costCube = CostCube.getInstance();
         this.billingService = new BillingService();
         this.billingData = FXCollections.observableArrayList();
+        this.taskRunner = BackgroundTaskRunner.getInstance();
     }
     
     @FXML
     private void initialize() {
         setupTableColumns();
         setupDatePickers();
-        loadBillingRecords();
     }
     
+    @Override
     public void setCurrentUser(User user) {
         this.currentUser = user;
-        loadBillingRecords();
+    }
+    
+    @Override
+    public void refreshView() {
+        int userId = currentUser.getUserId();
+        
+        // Load the cost cube once per session; slices are then answered in memory
+        taskRunner.submit("Loading billing data",
+            () -> costCube.ensureLoaded(userId),
+            () -> {
+                if (costCube.isEmpty()) {
+                    loadBillingRecords();
+                } else {
+                    loadBillingRecordsFromCube();
+                }
+            },
+            error -> showError("Error loading billing data: " + error.getMessage()));
     }
     
     private void setupTableColumns() {
@@ -108,11 +126,17 @@ public class BillingController {
     
     @FXML
     private void handleRefresh() {
-        loadBillingRecords();
-        showInfo("Billing records refreshed from AWS!");
+        loadBillingRecords(() -> showInfo("Billing records refreshed from AWS!"));
     }
     
     private void loadBillingRecords() {
+        loadBillingRecords(null);
+    }
+    
+    /**
+     * Fetch billing records from AWS Cost Explorer in the background, then run onLoaded (if any)
+     */
+    private void loadBillingRecords(Runnable onLoaded) {
         if (currentUser == null) return;
         
         if (!AWSClientFactory.getInstance().isInitialized()) {
@@ -120,48 +144,62 @@ public class BillingController {
             return;
         }
         
-        try {
-            LocalDate startDate = startDatePicker.getValue();
-            LocalDate endDate = endDatePicker.getValue();
-            
-            System.out.println("Loading billing records from AWS for date range: " + startDate + " to " + endDate);
-            
-            // Fetch actual cost data directly from AWS Cost Explorer
-            List<BillingRecord> records = billingService.getCostAndUsage(startDate, endDate, currentUser.getUserId());
-            
-            System.out.println("Received " + records.size() + " records from AWS");
-            
-            billingData.clear();
-            billingData.addAll(records);
-            
-            System.out.println("Table now has " + billingData.size() + " items");
-            
-            // Calculate total cost from AWS records
-            double totalCost = 0.0;
-            for (BillingRecord record : records) {
-                totalCost += record.getCostAmount();
-            }
-            
-            totalCostLabel.setText(String.format("$%.4f", totalCost));
-            
-            // Update pie chart with AWS data
-            updateCostChartFromRecords(records);
-            
-            System.out.println("Loaded " + records.size() + " billing records from AWS with total cost: $" + String.format("%.4f", totalCost));
-        } catch (Exception e) {
-            System.err.println("Error loading billing records from AWS: " + e.getMessage());
-            e.printStackTrace();
-            showError("Error loading billing records from AWS: " + e.getMessage() + "\nNote: AWS Cost Explorer may have a 24-48 hour delay.");
-        }
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        int userId = currentUser.getUserId();
+        
+        System.out.println("Loading billing records from AWS for date range: " + startDate + " to " + endDate);
+        
+        // Fetch actual cost data directly from AWS Cost Explorer
+        taskRunner.submit("Fetching costs from AWS",
+            task -> billingService.getCostAndUsage(startDate, endDate, userId),
+            records -> {
+                System.out.println("Received " + records.size() + " records from AWS");
+                
+                billingData.clear();
+                billingData.addAll(records);
+                
+                // Calculate total cost from AWS records
+                double totalCost = 0.0;
+                for (BillingRecord record : records) {
+                    totalCost += record.getCostAmount();
+                }
+                
+                totalCostLabel.setText(String.format("$%.4f", totalCost));
+                
+                // Update pie chart with AWS data
+                updateCostChartFromRecords(records);
+                
+                System.out.println("Loaded " + records.size() + " billing records from AWS with total cost: $" + String.format("%.4f", totalCost));
+                if (onLoaded != null) {
+                    onLoaded.run();
+                }
+            },
+            error -> showError("Error loading billing records from AWS: " + error.getMessage() + "\nNote: AWS Cost Explorer may have a 24-48 hour delay."));
+    }
+    
+    /**
+     * Load billing records for the selected date range from the in-memory cost cube
+     */
+    private void loadBillingRecordsFromCube() {
+        if (currentUser == null) return;
+        
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        
+        List<BillingRecord> records = costCube.getServiceRecords(startDate, endDate);
+        billingData.clear();
+        billingData.addAll(records);
+        
+        totalCostLabel.setText(String.format("$%.4f", costCube.getTotalCost(startDate, endDate)));
+        updateCostChart(startDate, endDate);
+        
+        System.out.println("Loaded " + records.size() + " billing records from cost cube");
     }
     
     private void updateCostChart(LocalDate startDate, LocalDate endDate) {
         try {
-            Map<String, Double> costByService = billingDAO.getCostByService(
-                currentUser.getUserId(),
-                Date.valueOf(startDate),
-                Date.valueOf(endDate)
-            );
+            Map<String, Double> costByService = costCube.getCostByService(startDate, endDate);
             
             ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
             
@@ -207,38 +245,40 @@ public class BillingController {
             return;
         }
         
-        try {
-            LocalDate startDate = startDatePicker.getValue();
-            LocalDate endDate = endDatePicker.getValue(); // Don't add extra day
-            
-            // Show loading indicator
-            totalCostLabel.setText("Syncing...");
-            
-            System.out.println("Syncing billing data from " + startDate + " to " + endDate);
-            
-           
-            int savedCount = billingService.syncFromAWS(startDate, endDate, currentUser.getUserId());
-            
-       
-            loadBillingRecords();
-            
-            if (savedCount > 0) {
-                showInfo("Successfully synced " + savedCount + " billing records from AWS!");
-            } else {
-                showInfo("No billing data available from AWS. Note: AWS Cost Explorer may have a 24-48 hour delay.");
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error syncing from AWS: " + e.getMessage());
-            e.printStackTrace();
-            showError("Error syncing billing data from AWS: " + e.getMessage());
-            totalCostLabel.setText("$0.00");
-        }
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue(); // Don't add extra day
+        int userId = currentUser.getUserId();
+        
+        // Show loading indicator
+        totalCostLabel.setText("Syncing...");
+        
+        System.out.println("Syncing billing data from " + startDate + " to " + endDate);
+        
+        taskRunner.submit("Syncing billing data from AWS",
+            task -> billingService.syncFromAWS(startDate, endDate, userId),
+            savedCount -> {
+                // Synced records were applied to the cost cube, no need to go back to AWS
+                loadBillingRecordsFromCube();
+                
+                if (savedCount > 0) {
+                    showInfo("Successfully synced " + savedCount + " billing records from AWS!");
+                } else {
+                    showInfo("No billing data available from AWS. Note: AWS Cost Explorer may have a 24-48 hour delay.");
+                }
+            },
+            error -> {
+                showError("Error syncing billing data from AWS: " + error.getMessage());
+                totalCostLabel.setText("$0.00");
+            });
     }
     
     @FXML
     private void handleFilter() {
-        loadBillingRecords();
+        if (costCube.isEmpty()) {
+            loadBillingRecords();
+        } else {
+            loadBillingRecordsFromCube();
+        }
     }
     
     private void showInfo(String message) {
@@ -3,14 +3,26 @@ package controllers;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import models.User;
 import models.AWSCredential;
+import models.DashboardSummary;
 import dao.*;
-import services.AlertService;
+import services.CostForecastService;
+import services.RuleScheduler;
 import services.RuleEvaluationService;
 import aws.AWSClientFactory;
 import aws.BillingService;
+import javafx.application.Platform;
+import javafx.beans.binding.BooleanBinding;
+import utils.BackgroundTaskRunner;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * DashboardController - Main dashboard controller
@@ -56,6 +68,12 @@ public class DashboardController {
     @FXML
     private Label costTrendLabel;
     
+    @FXML
+    private Label projectedCostHeaderLabel;
+    
+    @FXML
+    private Label projectedCostLabel;
+    
     @FXML
     private Label totalCreditsHeaderLabel;
     
@@ -71,6 +89,15 @@ public class DashboardController {
     @FXML
     private VBox contentArea;
     
+    @FXML
+    private Label taskStatusLabel;
+    
+    @FXML
+    private ProgressBar taskProgressBar;
+    
+    @FXML
+    private Button cancelTasksButton;
+    
     // Button references
     @FXML
     private Button ec2Button;
@@ -94,11 +121,9 @@ public class DashboardController {
     private Button billingButton;
     
     private User currentUser;
-    private EC2DAO ec2DAO;
-    private RDSDAO rdsDAO;
-    private ECSDAO ecsDAO;
-    private SageMakerDAO sageMakerDAO;
-    private AlertService alertService;
+    private DashboardSummaryDAO summaryDAO;
+    private BackgroundTaskRunner taskRunner;
+    private ViewCache viewCache;
     
     private Button previousActiveButton;
     private Label previousActiveHeaderLabel;
@@ -108,61 +133,106 @@ public class DashboardController {
     private static final String ACTIVE_HEADER_LABEL_STYLE = "-fx-text-fill: #ED7D27; -fx-font-size: 12px;";
     private static final String INACTIVE_HEADER_LABEL_STYLE = "-fx-text-fill: #FFFFFF; -fx-font-size: 12px;";
     private static final String ACTIVE_HEADER_VALUE_STYLE = "-fx-text-fill: #ED7D27; -fx-font-size: 24px; -fx-font-weight: bold;";
+    // Last value of each header tile (key "userId:tile"), shown while the tile reloads
+    private static final Map<String, Object> TILE_CACHE = new ConcurrentHashMap<>();
+    private static final double STALE_OPACITY = 0.5;
+    private static final long COUNT_TIMEOUT_SECONDS = 10;
+    private static final long COST_TIMEOUT_SECONDS = 30;
+    // Cached views refresh their data when shown after this long
+    private static final long VIEW_STALE_AFTER_MILLIS = 60_000;
+    private static final boolean PRELOAD_VIEWS = Boolean.parseBoolean(System.getProperty("views.preload", "true"));
+    private static final String[] CONTENT_VIEWS = {
+        "/views/ec2.fxml", "/views/rds.fxml", "/views/ecs.fxml", "/views/sagemaker.fxml",
+        "/views/alerts.fxml", "/views/rules.fxml", "/views/billing.fxml"
+    };
     private static final String INACTIVE_HEADER_VALUE_STYLE = "-fx-text-fill: #FFFFFF; -fx-font-size: 24px; -fx-font-weight: bold;";
     
     public DashboardController() {
-        this.ec2DAO = new EC2DAO();
-        this.rdsDAO = new RDSDAO();
-        this.ecsDAO = new ECSDAO();
-        this.sageMakerDAO = new SageMakerDAO();
-        this.alertService = AlertService.getInstance();
+        this.summaryDAO = new DashboardSummaryDAO();
+        this.taskRunner = BackgroundTaskRunner.getInstance();
+        this.viewCache = new ViewCache(controller -> controller.setCurrentUser(currentUser), VIEW_STALE_AFTER_MILLIS);
     }
     
     @FXML
     private void initialize() {
         // Don't load data here - currentUser is not set yet
+        
+        // Status bar follows the most recent background task
+        BooleanBinding busy = taskRunner.activeTaskCountProperty().greaterThan(0);
+        taskStatusLabel.textProperty().bind(taskRunner.statusMessageProperty());
+        taskProgressBar.progressProperty().bind(taskRunner.progressProperty());
+        taskProgressBar.visibleProperty().bind(busy);
+        cancelTasksButton.visibleProperty().bind(busy);
     }
     
     public void setCurrentUser(User user) {
         this.currentUser = user;
         welcomeLabel.setText("Welcome, " + user.getFullName());
         
-        // Load AWS credentials from database
-        loadAWSCredentials();
+        // Counts come from the database and can load right away; cost tiles wait for credentials
+        loadResourceTiles().whenComplete((summary, error) -> StartupWarmup.dashboardReady());
+        loadAWSCredentialsAndCostTiles();
         
-        loadDashboardData();
+        if (PRELOAD_VIEWS) {
+            viewCache.preload(CONTENT_VIEWS);
+        }
     }
     
-    private void loadAWSCredentials() {
-        try {
-            AWSCredentialDAO credentialDAO = new AWSCredentialDAO();
-            AWSCredential credentials = credentialDAO.getActiveCredentials(currentUser.getUserId());
-            
-            if (credentials != null) {
-                // Initialize AWS client factory with credentials
-                AWSClientFactory factory = AWSClientFactory.getInstance();
-                factory.initializeCredentials(
-                    credentials.getAccessKey(),
-                    credentials.getSecretKey(),
-                    credentials.getRegion()
-                );
-                
-                // Validate credentials
-                if (factory.validateCredentials()) {
-                    System.out.println("✓ AWS credentials loaded and validated successfully");
-                    System.out.println("  Region: " + credentials.getRegion());
+    /**
+     * Load and validate AWS credentials in the background, then load the cost tiles
+     */
+    private void loadAWSCredentialsAndCostTiles() {
+        int userId = currentUser.getUserId();
+        taskRunner.submit("Validating AWS credentials",
+            task -> loadAWSCredentials(userId),
+            warning -> {
+                if (warning != null) {
+                    showAlert("Warning", warning);
                 } else {
-                    System.err.println("✗ AWS credentials validation failed");
-                    showAlert("Warning", "AWS credentials could not be validated. Some features may not work.");
+                    // Rules are evaluated on their own cadence, on this user's resources, until
+                    // the application closes or another user logs in
+                    RuleScheduler.getInstance().start(userId);
                 }
-            } else {
-                System.err.println("✗ No AWS credentials found for user");
-                showAlert("Warning", "No AWS credentials configured. Please configure your AWS credentials.");
+                loadCostTiles();
+            },
+            error -> {
+                System.err.println("✗ Error loading AWS credentials: " + error.getMessage());
+                loadCostTiles();
+            });
+    }
+    
+    /**
+     * Initialize the AWS client factory from stored credentials (runs on a background thread)
+     * @return a warning to show the user, or null if the credentials are valid
+     */
+    private String loadAWSCredentials(int userId) {
+        // A scheduler left from a previous session must not evaluate with this user's credentials
+        RuleScheduler.getInstance().stop(5);
+        
+        AWSCredentialDAO credentialDAO = new AWSCredentialDAO();
+        AWSCredential credentials = credentialDAO.getActiveCredentials(userId);
+        
+        if (credentials != null) {
+            // Initialize AWS client factory with credentials
+            AWSClientFactory factory = AWSClientFactory.getInstance();
+            factory.initializeCredentials(
+                credentials.getAccessKey(),
+                credentials.getSecretKey(),
+                credentials.getRegion()
+            );
+            
+            // Validate credentials
+            if (factory.validateCredentials()) {
+                System.out.println("✓ AWS credentials loaded and validated successfully");
+                System.out.println("  Region: " + credentials.getRegion());
+                return null;
             }
-        } catch (Exception e) {
-            System.err.println("✗ Error loading AWS credentials: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("✗ AWS credentials validation failed");
+            return "AWS credentials could not be validated. Some features may not work.";
         }
+        
+        System.err.println("✗ No AWS credentials found for user");
+        return "No AWS credentials configured. Please configure your AWS credentials.";
     }
     
     private void showAlert(String title, String message) {
@@ -174,93 +244,162 @@ public class DashboardController {
     }
     
     private void loadDashboardData() {
-        try {
-            // Check if currentUser is set
-            if (currentUser == null) {
-                System.err.println("Current user is not set yet");
-                return;
+        loadDashboardData(null);
+    }
+    
+    /**
+     * Load every header tile concurrently
+     * Each tile shows its last known value (dimmed) right away and is replaced as soon as
+     * its own query completes, so a slow Cost Explorer call never holds up the counts.
+     */
+    private void loadDashboardData(Runnable onLoaded) {
+        // Check if currentUser is set
+        if (currentUser == null) {
+            System.err.println("Current user is not set yet");
+            return;
+        }
+        
+        CompletableFuture.allOf(loadResourceTiles(), loadCostTiles()).whenComplete((result, error) -> {
+            if (onLoaded != null) {
+                Platform.runLater(onLoaded);
             }
-            
-            // Load resource counts
-            int ec2Count = ec2DAO.getTotalEC2Count();
-            int rdsCount = rdsDAO.getTotalRDSCount();
-            int ecsCount = ecsDAO.getTotalECSCount();
-            int sageMakerCount = sageMakerDAO.getTotalEndpointCount();
-            int alertCount = alertService.getTotalAlertCount(true);
-            
-            // Update labels
-            totalEC2Label.setText(String.valueOf(ec2Count));
-            totalRDSLabel.setText(String.valueOf(rdsCount));
-            totalECSLabel.setText(String.valueOf(ecsCount));
-            totalSageMakerLabel.setText(String.valueOf(sageMakerCount));
-            totalAlertsLabel.setText(String.valueOf(alertCount));
-            
-            // Display credits used this month from AWS
-            double monthlyCreditsUsed = 0.0;
-            double totalCreditsUsed = 0.0;
-            
-            System.out.println("=== Loading Billing Data ===");
-            System.out.println("AWS Client Initialized: " + AWSClientFactory.getInstance().isInitialized());
-            
-            if (AWSClientFactory.getInstance().isInitialized()) {
-                try {
-                    BillingService billingService = new BillingService();
-                    
-                    // Get credits used this month
-                    System.out.println("Fetching month-to-date cost...");
-                    monthlyCreditsUsed = billingService.getMonthToDateCost();
-                    System.out.println("Month-to-date cost returned: $" + monthlyCreditsUsed);
-                    
-                    if (Double.isNaN(monthlyCreditsUsed) || monthlyCreditsUsed < 0) {
-                        monthlyCreditsUsed = 0.0;
-                    }
-                    costTrendLabel.setText(String.format("$%.2f", monthlyCreditsUsed));
-                    
-                    // Get total credits used all time (last 12 months)
-                    System.out.println("Fetching total credits used all time...");
-                    totalCreditsUsed = billingService.getTotalCreditsUsedAllTime();
-                    System.out.println("Total credits used returned: $" + totalCreditsUsed);
-                    
-                    if (Double.isNaN(totalCreditsUsed) || totalCreditsUsed < 0) {
-                        totalCreditsUsed = 0.0;
-                    }
-                    totalCreditsLabel.setText(String.format("$%.2f", totalCreditsUsed));
-                    
-                } catch (Exception e) {
-                    System.err.println("Error fetching credits from AWS: " + e.getMessage());
-                    e.printStackTrace();
-                    costTrendLabel.setText("$0.00");
-                    totalCreditsLabel.setText("$0.00");
-                    monthlyCreditsUsed = 0.0;
-                    totalCreditsUsed = 0.0;
-                }
-            } else {
-                System.out.println("AWS Client not initialized - showing $0.00");
-                costTrendLabel.setText("$0.00");
-                totalCreditsLabel.setText("$0.00");
-                monthlyCreditsUsed = 0.0;
-                totalCreditsUsed = 0.0;
+        });
+    }
+    
+    /**
+     * Load the resource and alert count tiles from the user's dashboard summary
+     * (one primary key lookup)
+     */
+    private CompletableFuture<DashboardSummary> loadResourceTiles() {
+        int userId = currentUser.getUserId();
+        return loadTile("summary", COUNT_TIMEOUT_SECONDS, () -> summaryDAO.getSummary(userId),
+            this::showSummary, totalEC2Label, totalRDSLabel, totalECSLabel, totalSageMakerLabel, totalAlertsLabel);
+    }
+    
+    /**
+     * Show the resource and open alert counts, with idle and severity breakdowns as tooltips
+     */
+    private void showSummary(DashboardSummary summary) {
+        showCount(totalEC2Label, summary.getEc2Count(), summary.getEc2IdleCount() + " idle");
+        showCount(totalRDSLabel, summary.getRdsCount(), summary.getRdsIdleCount() + " idle");
+        showCount(totalECSLabel, summary.getEcsCount(), summary.getEcsIdleCount() + " idle");
+        showCount(totalSageMakerLabel, summary.getSageMakerCount(), summary.getSageMakerIdleCount() + " idle");
+        showCount(totalAlertsLabel, summary.getOpenAlertCount(), String.format("High: %d  Medium: %d  Low: %d",
+            summary.getOpenAlertsHigh(), summary.getOpenAlertsMedium(), summary.getOpenAlertsLow()));
+    }
+    
+    private void showCount(Label label, int count, String details) {
+        label.setText(String.valueOf(count));
+        if (label.getTooltip() == null) {
+            label.setTooltip(new Tooltip(details));
+        } else {
+            label.getTooltip().setText(details);
+        }
+    }
+    
+    /**
+     * Load the cost tiles (Cost Explorer and local forecast)
+     */
+    private CompletableFuture<Void> loadCostTiles() {
+        int userId = currentUser.getUserId();
+        return CompletableFuture.allOf(
+            loadTile("monthCost", COST_TIMEOUT_SECONDS, this::fetchMonthToDateCost,
+                cost -> costTrendLabel.setText(String.format("$%.2f", cost)), costTrendLabel),
+            loadTile("totalCredits", COST_TIMEOUT_SECONDS, this::fetchTotalCreditsUsed,
+                this::showCredits, totalCreditsLabel, remainingCreditsLabel),
+            loadTile("projectedCost", COST_TIMEOUT_SECONDS,
+                () -> CostForecastService.getInstance().getProjectedMonthEnd(userId),
+                cost -> projectedCostLabel.setText(String.format("$%.2f", cost)), projectedCostLabel)
+        );
+    }
+    
+    /**
+     * Load one tile in the background with a timeout
+     * The cached value of the tile (if any) is shown immediately with the labels dimmed;
+     * on success the fresh value is shown and cached, on failure or timeout the stale value stays.
+     */
+    private <T> CompletableFuture<T> loadTile(String tile, long timeoutSeconds, Supplier<T> loader,
+                                              Consumer<T> show, Label... labels) {
+        String cacheKey = currentUser.getUserId() + ":" + tile;
+        
+        @SuppressWarnings("unchecked")
+        T cached = (T) TILE_CACHE.get(cacheKey);
+        if (cached != null) {
+            show.accept(cached);
+        }
+        for (Label label : labels) {
+            label.setOpacity(STALE_OPACITY);
+        }
+        
+        CompletableFuture<T> future = CompletableFuture
+            .supplyAsync(loader, taskRunner.getExecutor())
+            .orTimeout(timeoutSeconds, TimeUnit.SECONDS);
+        
+        future.whenComplete((value, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Dashboard tile '" + tile + "' not refreshed: " + error);
+                return;
             }
-            
-            // Calculate remaining credits: $100 Free Tier - total credits used
-            double remainingCredits = 100.0 - totalCreditsUsed;
-            if (remainingCredits < 0) {
-                remainingCredits = 0.0;
-                // Change color to red if credits exhausted
-                remainingCreditsLabel.setStyle("-fx-text-fill: #FF5252; -fx-font-size: 24px; -fx-font-weight: bold;");
-            } else if (remainingCredits < 20) {
-                // Change color to orange if credits are low
-                remainingCreditsLabel.setStyle("-fx-text-fill: #FFA726; -fx-font-size: 24px; -fx-font-weight: bold;");
-            } else {
-                // Green for healthy credits
-                remainingCreditsLabel.setStyle("-fx-text-fill: #4CAF50; -fx-font-size: 24px; -fx-font-weight: bold;");
+            TILE_CACHE.put(cacheKey, value);
+            show.accept(value);
+            for (Label label : labels) {
+                label.setOpacity(1.0);
             }
-            remainingCreditsLabel.setText(String.format("$%.2f", remainingCredits));
-            
-        } catch (Exception e) {
-            System.err.println("Error loading dashboard data: " + e.getMessage());
-            e.printStackTrace();
+        }));
+        return future;
+    }
+    
+    /**
+     * Month-to-date cost from Cost Explorer (runs on a background thread)
+     */
+    private double fetchMonthToDateCost() {
+        if (!AWSClientFactory.getInstance().isInitialized()) {
+            System.out.println("AWS Client not initialized - showing $0.00");
+            return 0.0;
         }
+        
+        System.out.println("Fetching month-to-date cost...");
+        double monthlyCreditsUsed = new BillingService().getMonthToDateCost();
+        System.out.println("Month-to-date cost returned: $" + monthlyCreditsUsed);
+        
+        return Double.isNaN(monthlyCreditsUsed) || monthlyCreditsUsed < 0 ? 0.0 : monthlyCreditsUsed;
+    }
+    
+    /**
+     * Total credits used in the last 12 months from Cost Explorer (runs on a background thread)
+     */
+    private double fetchTotalCreditsUsed() {
+        if (!AWSClientFactory.getInstance().isInitialized()) {
+            return 0.0;
+        }
+        
+        System.out.println("Fetching total credits used all time...");
+        double totalCreditsUsed = new BillingService().getTotalCreditsUsedAllTime();
+        System.out.println("Total credits used returned: $" + totalCreditsUsed);
+        
+        return Double.isNaN(totalCreditsUsed) || totalCreditsUsed < 0 ? 0.0 : totalCreditsUsed;
+    }
+    
+    /**
+     * Show total credits used and the remaining free tier credits
+     */
+    private void showCredits(double totalCreditsUsed) {
+        totalCreditsLabel.setText(String.format("$%.2f", totalCreditsUsed));
+        
+        // Calculate remaining credits: $100 Free Tier - total credits used
+        double remainingCredits = 100.0 - totalCreditsUsed;
+        if (remainingCredits < 0) {
+            remainingCredits = 0.0;
+            // Change color to red if credits exhausted
+            remainingCreditsLabel.setStyle("-fx-text-fill: #FF5252; -fx-font-size: 24px; -fx-font-weight: bold;");
+        } else if (remainingCredits < 20) {
+            // Change color to orange if credits are low
+            remainingCreditsLabel.setStyle("-fx-text-fill: #FFA726; -fx-font-size: 24px; -fx-font-weight: bold;");
+        } else {
+            // Green for healthy credits
+            remainingCreditsLabel.setStyle("-fx-text-fill: #4CAF50; -fx-font-size: 24px; -fx-font-weight: bold;");
+        }
+        remainingCreditsLabel.setText(String.format("$%.2f", remainingCredits));
     }
     
     private void setActiveButton(Button activeButton) {
@@ -372,49 +511,37 @@ public class DashboardController {
     private void handleRefresh() {
         System.out.println("=== Dashboard Refresh Started ===");
         
-        // Evaluate all active rules and generate alerts
+        // Evaluate all active rules on this user's resources and generate alerts
         System.out.println("Running rule evaluation...");
-        try {
-            RuleEvaluationService ruleEvaluationService = new RuleEvaluationService();
-            ruleEvaluationService.evaluateAllRules();
-        } catch (Exception e) {
-            System.err.println("Error during rule evaluation: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        // Reload dashboard data to reflect any new alerts
-        loadDashboardData();
-        
-        System.out.println("=== Dashboard Refresh Completed ===");
-        showInfo("Dashboard refreshed and rules evaluated successfully!");
+        int userId = currentUser.getUserId();
+        taskRunner.submit("Evaluating rules",
+            () -> new RuleEvaluationService().evaluateAllRules(userId),
+            () -> {
+                // Reload dashboard data to reflect any new alerts
+                viewCache.invalidateAll();
+                loadDashboardData(() -> {
+                    System.out.println("=== Dashboard Refresh Completed ===");
+                    showInfo("Dashboard refreshed and rules evaluated successfully!");
+                });
+            },
+            error -> {
+                showError("Error during rule evaluation: " + error.getMessage());
+                loadDashboardData();
+            });
+    }
+    
+    @FXML
+    private void handleCancelTasks() {
+        taskRunner.cancelAll();
     }
     
+    /**
+     * Show a content view from the view cache (loaded on first use, data refreshed if stale)
+     */
     private void loadView(String fxmlPath, String title) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            VBox view = loader.load();
-            
-            // Pass current user to the loaded controller
-            Object controller = loader.getController();
-            if (controller instanceof EC2Controller) {
-                ((EC2Controller) controller).setCurrentUser(currentUser);
-            } else if (controller instanceof RDSController) {
-                ((RDSController) controller).setCurrentUser(currentUser);
-            } else if (controller instanceof ECSController) {
-                ((ECSController) controller).setCurrentUser(currentUser);
-            } else if (controller instanceof SageMakerController) {
-                ((SageMakerController) controller).setCurrentUser(currentUser);
-            } else if (controller instanceof BillingController) {
-                ((BillingController) controller).setCurrentUser(currentUser);
-            } else if (controller instanceof RuleController) {
-                ((RuleController) controller).setCurrentUser(currentUser);
-            } else if (controller instanceof AlertController) {
-                ((AlertController) controller).setCurrentUser(currentUser);
-            }
-            
-            contentArea.getChildren().clear();
-            contentArea.getChildren().add(view);
-            
+            Parent view = viewCache.show(fxmlPath);
+            contentArea.getChildren().setAll(view);
         } catch (Exception e) {
             System.err.println("Error loading view: " + e.getMessage());
             e.printStackTrace();
@@ -1,26 +1,34 @@
 package controllers;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import models.User;
 import models.EC2Instance;
+import dao.DashboardSummaryDAO;
 import dao.EC2DAO;
 import aws.EC2Service;
+import services.ChangeDrivenRuleEvaluator;
 import services.IdleDetectionService;
 import services.CombinedIdleStrategy;
+import utils.BackgroundTaskRunner;
+import utils.PagedTableLoader;
 
-import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * EC2Controller - Controller for EC2 instances view
  */
-public class EC2Controller {
+public class EC2Controller implements ManagedView {
     @FXML
     private TableView<EC2Instance> ec2Table;
     
+    @FXML
+    private TextField filterField;
+    
     @FXML
     private TableColumn<EC2Instance, String> instanceIdColumn;
     
@@ -56,27 +64,35 @@ public class EC2Controller {
     
     private User currentUser;
     private EC2DAO ec2DAO;
+    private DashboardSummaryDAO summaryDAO;
     private EC2Service ec2Service;
     private IdleDetectionService idleDetectionService;
-    private ObservableList<EC2Instance> ec2Data;
+    private PagedTableLoader<EC2Instance> ec2Pager;
+    private BackgroundTaskRunner taskRunner;
     
     public EC2Controller() {
         this.ec2DAO = new EC2DAO();
+        this.summaryDAO = new DashboardSummaryDAO();
         this.ec2Service = new EC2Service();
         this.idleDetectionService = new IdleDetectionService();
-        this.ec2Data = FXCollections.observableArrayList();
+        this.taskRunner = BackgroundTaskRunner.getInstance();
     }
     
     @FXML
     private void initialize() {
         setupTableColumns();
-        loadEC2Instances();
     }
     
+    @Override
     public void setCurrentUser(User user) {
         this.currentUser = user;
     }
     
+    @Override
+    public void refreshView() {
+        loadEC2Instances(null);
+    }
+    
     private void setupTableColumns() {
         instanceIdColumn.setCellValueFactory(new PropertyValueFactory<>("instanceId"));
         instanceTypeColumn.setCellValueFactory(new PropertyValueFactory<>("instanceType"));
@@ -85,43 +101,46 @@ public class EC2Controller {
         cpuColumn.setCellValueFactory(new PropertyValueFactory<>("cpuUtilization"));
         idleColumn.setCellValueFactory(new PropertyValueFactory<>("idle"));
         
-        ec2Table.setItems(ec2Data);
+        ec2Pager = new PagedTableLoader<>(ec2Table, "EC2 instances", "lastChecked", false,
+            ec2DAO::getEC2InstancePage);
+        ec2Pager
+            .keyedBy(EC2Instance::getRecordId, EC2Instance::getLastChecked)
+            .sortable(instanceIdColumn, "instanceId")
+            .sortable(stateColumn, "instanceState")
+            .sortable(cpuColumn, "cpuUtilization")
+            .sortable(idleColumn, "idle")
+            .install();
     }
     
     @FXML
     private void handleRefresh() {
-        loadEC2Instances();
-        showInfo("EC2 instances refreshed!");
-    }
-    
-    private void loadEC2Instances() {
-        try {
-            // Load from database
-            List<EC2Instance> instances = ec2DAO.getAllEC2Instances();
-            ec2Data.clear();
-            ec2Data.addAll(instances);
-            
-            System.out.println("Loaded " + instances.size() + " EC2 instances");
-        } catch (Exception e) {
-            System.err.println("Error loading EC2 instances: " + e.getMessage());
-            e.printStackTrace();
-            showError("Error loading EC2 instances");
-        }
+        loadEC2Instances(() -> showInfo("EC2 instances refreshed!"));
+    }
+    
+    /**
+     * Refresh the loaded rows in the background (only changed rows are touched), then run
+     * onLoaded (if any). Further pages are fetched as the table is scrolled.
+     */
+    private void loadEC2Instances(Runnable onLoaded) {
+        ec2Pager.refresh(onLoaded);
+    }
+    
+    @FXML
+    private void handleFilter() {
+        ec2Pager.setFilter(filterField.getText(), null);
     }
     
     @FXML
     private void handleSyncFromAWS() {
-        try {
-           
-            int syncedCount = ec2Service.syncFromAWS(currentUser.getUserId());
-            
-        
-            loadEC2Instances();
-            showInfo("Synced " + syncedCount + " EC2 instances from AWS");
-        } catch (Exception e) {
-            System.err.println("Error syncing EC2 instances: " + e.getMessage());
-            showError("Error syncing from AWS: " + e.getMessage());
-        }
+        int userId = currentUser.getUserId();
+        taskRunner.submit("Syncing EC2 instances from AWS",
+            task -> {
+                int synced = ec2Service.syncFromAWS(userId);
+                ChangeDrivenRuleEvaluator.getInstance().evaluatePending();
+                return synced;
+            },
+            syncedCount -> loadEC2Instances(() -> showInfo("Synced " + syncedCount + " EC2 instances from AWS")),
+            error -> showError("Error syncing from AWS: " + error.getMessage()));
     }
     
     @FXML
@@ -132,13 +151,19 @@ public class EC2Controller {
             return;
         }
         
-        boolean success = ec2Service.startInstance(selected.getInstanceId());
-        if (success) {
-            showInfo("Instance " + selected.getInstanceId() + " started");
-            handleRefresh();
-        } else {
-            showError("Failed to start instance");
-        }
+        taskRunner.submit("Starting " + selected.getInstanceId(),
+            task -> ec2Service.startInstance(selected.getInstanceId()),
+            success -> {
+                if (success) {
+                    showInfo("Instance " + selected.getInstanceId() + " is starting");
+                    notifyWhenSettled(ec2Service.awaitInstanceState(selected.getInstanceId(), "running"),
+                        "Instance " + selected.getInstanceId() + " is running");
+                    handleRefresh();
+                } else {
+                    showError("Failed to start instance");
+                }
+            },
+            error -> showError("Failed to start instance"));
     }
     
     @FXML
@@ -155,13 +180,19 @@ public class EC2Controller {
         confirmation.setContentText("Are you sure you want to stop " + selected.getInstanceId() + "?");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            boolean success = ec2Service.stopInstance(selected.getInstanceId());
-            if (success) {
-                showInfo("Instance " + selected.getInstanceId() + " stopped");
-                handleRefresh();
-            } else {
-                showError("Failed to stop instance");
-            }
+            taskRunner.submit("Stopping " + selected.getInstanceId(),
+                task -> ec2Service.stopInstance(selected.getInstanceId()),
+                success -> {
+                    if (success) {
+                        showInfo("Instance " + selected.getInstanceId() + " is stopping");
+                        notifyWhenSettled(ec2Service.awaitInstanceState(selected.getInstanceId(), "stopped"),
+                            "Instance " + selected.getInstanceId() + " is stopped");
+                        handleRefresh();
+                    } else {
+                        showError("Failed to stop instance");
+                    }
+                },
+                error -> showError("Failed to stop instance"));
         }
     }
     
@@ -179,35 +210,58 @@ public class EC2Controller {
         confirmation.setContentText("⚠️ WARNING: This will PERMANENTLY DELETE " + selected.getInstanceId() + "!\nAre you sure?");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            boolean success = ec2Service.terminateInstance(selected.getInstanceId());
-            if (success) {
-                showInfo("Instance " + selected.getInstanceId() + " terminated");
-                handleRefresh();
-            } else {
-                showError("Failed to terminate instance");
-            }
+            int userId = currentUser.getUserId();
+            taskRunner.submit("Terminating " + selected.getInstanceId(),
+                task -> {
+                    boolean deleted = ec2Service.terminateInstance(selected.getInstanceId());
+                    if (deleted) {
+                        // Drop it from the table and the dashboard counts now rather than at the next sync
+                        ec2DAO.deleteEC2Instance(selected.getInstanceId());
+                        summaryDAO.refreshResourceCounts(userId);
+                    }
+                    return deleted;
+                },
+                success -> {
+                    if (success) {
+                        showInfo("Instance " + selected.getInstanceId() + " terminated");
+                        handleRefresh();
+                    } else {
+                        showError("Failed to terminate instance");
+                    }
+                },
+                error -> showError("Failed to terminate instance"));
         }
     }
     
     @FXML
     private void handleDetectIdle() {
-        try{
-            idleDetectionService.setStrategy(new CombinedIdleStrategy());
-           
-            idleDetectionService.detectIdleEC2Instances(7, 5.0);
-            
-           
-            loadEC2Instances();
-            showInfo("Idle detection completed! Check alerts for idle instances.");
-            
-        } catch (IllegalStateException e) {
-            System.err.println("Strategy error: " + e.getMessage());
-            showError("Strategy not properly configured: " + e.getMessage());
-        } catch (Exception e) {
-            System.err.println("Error detecting idle instances: " + e.getMessage());
-            e.printStackTrace();
-            showError("Error detecting idle instances: " + e.getMessage());
-        }
+        idleDetectionService.setStrategy(new CombinedIdleStrategy());
+        
+        taskRunner.submit("Detecting idle EC2 instances",
+            () -> idleDetectionService.detectIdleEC2Instances(7, 5.0),
+            () -> loadEC2Instances(() -> showInfo("Idle detection completed! Check alerts for idle instances.")),
+            error -> {
+                if (error instanceof IllegalStateException) {
+                    showError("Strategy not properly configured: " + error.getMessage());
+                } else {
+                    showError("Error detecting idle instances: " + error.getMessage());
+                }
+            });
+    }
+    
+    /**
+     * Tell the user once a start or stop has taken effect (or did not); the wait does not
+     * hold a thread
+     */
+    private void notifyWhenSettled(CompletableFuture<String> transition, String message) {
+        transition.whenComplete((state, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                showInfo(message);
+            } else if (!(error instanceof CancellationException)) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                showWarning(cause.getMessage());
+            }
+        }));
     }
     
     private void showInfo(String message) {
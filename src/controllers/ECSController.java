@@ -3,22 +3,25 @@ package controllers;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import models.User;
 import models.ECSService;
+import dao.DashboardSummaryDAO;
 import dao.ECSDAO;
 import aws.ECSAWSService;
-
-import java.util.List;
+import services.ChangeDrivenRuleEvaluator;
+import utils.BackgroundTaskRunner;
+import utils.PagedTableLoader;
 
 /**
  * ECSController - Controller for ECS services view
  */
-public class ECSController {
+public class ECSController implements ManagedView {
     @FXML
     private TableView<ECSService> ecsTable;
     
+    @FXML
+    private TextField filterField;
+    
     @FXML
     private TableColumn<ECSService, String> clusterColumn;
     
@@ -42,25 +45,33 @@ public class ECSController {
     
     private User currentUser;
     private ECSDAO ecsDAO;
+    private DashboardSummaryDAO summaryDAO;
     private ECSAWSService ecsAWSService;
-    private ObservableList<ECSService> ecsData;
+    private PagedTableLoader<ECSService> ecsPager;
+    private BackgroundTaskRunner taskRunner;
     
     public ECSController() {
         this.ecsDAO = new ECSDAO();
+        this.summaryDAO = new DashboardSummaryDAO();
         this.ecsAWSService = new ECSAWSService();
-        this.ecsData = FXCollections.observableArrayList();
+        this.taskRunner = BackgroundTaskRunner.getInstance();
     }
     
     @FXML
     private void initialize() {
         setupTableColumns();
-        loadECSServices();
     }
     
+    @Override
     public void setCurrentUser(User user) {
         this.currentUser = user;
     }
     
+    @Override
+    public void refreshView() {
+        loadECSServices(null);
+    }
+    
     private void setupTableColumns() {
         clusterColumn.setCellValueFactory(new PropertyValueFactory<>("clusterName"));
         serviceColumn.setCellValueFactory(new PropertyValueFactory<>("serviceName"));
@@ -70,41 +81,47 @@ public class ECSController {
         cpuColumn.setCellValueFactory(new PropertyValueFactory<>("cpuUtilization"));
         idleColumn.setCellValueFactory(new PropertyValueFactory<>("idle"));
         
-        ecsTable.setItems(ecsData);
+        ecsPager = new PagedTableLoader<>(ecsTable, "ECS services", "lastChecked", false,
+            ecsDAO::getECSServicePage);
+        ecsPager
+            .keyedBy(ECSService::getRecordId, ECSService::getLastChecked)
+            .sortable(clusterColumn, "clusterName")
+            .sortable(serviceColumn, "serviceName")
+            .sortable(statusColumn, "status")
+            .sortable(cpuColumn, "cpuUtilization")
+            .sortable(idleColumn, "idle")
+            .install();
     }
     
     @FXML
     private void handleRefresh() {
-        loadECSServices();
-        showInfo("ECS services refreshed!");
+        loadECSServices(() -> showInfo("ECS services refreshed!"));
     }
     
-    private void loadECSServices() {
-        try {
-            List<ECSService> services = ecsDAO.getAllECSServices();
-            ecsData.clear();
-            ecsData.addAll(services);
-            
-            System.out.println("Loaded " + services.size() + " ECS services");
-        } catch (Exception e) {
-            System.err.println("Error loading ECS services: " + e.getMessage());
-            showError("Error loading ECS services");
-        }
+    /**
+     * Refresh the loaded rows in the background (only changed rows are touched), then run
+     * onLoaded (if any). Further pages are fetched as the table is scrolled.
+     */
+    private void loadECSServices(Runnable onLoaded) {
+        ecsPager.refresh(onLoaded);
+    }
+    
+    @FXML
+    private void handleFilter() {
+        ecsPager.setFilter(filterField.getText(), null);
     }
     
     @FXML
     private void handleSyncFromAWS() {
-        try {
-           
-            int syncedCount = ecsAWSService.syncFromAWS(currentUser.getUserId());
-            
-         
-            loadECSServices();
-            showInfo("Synced " + syncedCount + " ECS services from AWS");
-        } catch (Exception e) {
-            System.err.println("Error syncing ECS services: " + e.getMessage());
-            showError("Error syncing from AWS: " + e.getMessage());
-        }
+        int userId = currentUser.getUserId();
+        taskRunner.submit("Syncing ECS services from AWS",
+            task -> {
+                int synced = ecsAWSService.syncFromAWS(userId);
+                ChangeDrivenRuleEvaluator.getInstance().evaluatePending();
+                return synced;
+            },
+            syncedCount -> loadECSServices(() -> showInfo("Synced " + syncedCount + " ECS services from AWS")),
+            error -> showError("Error syncing from AWS: " + error.getMessage()));
     }
     
     @FXML
@@ -124,13 +141,17 @@ public class ECSController {
         dialog.showAndWait().ifPresent(count -> {
             try {
                 int desiredCount = Integer.parseInt(count);
-                boolean success = ecsAWSService.startService(selected.getClusterName(), selected.getServiceName(), desiredCount);
-                if (success) {
-                    showInfo("ECS service " + selected.getServiceName() + " is starting with " + desiredCount + " tasks");
-                    handleRefresh();
-                } else {
-                    showError("Failed to start ECS service");
-                }
+                taskRunner.submit("Starting " + selected.getServiceName(),
+                    task -> ecsAWSService.startService(selected.getClusterName(), selected.getServiceName(), desiredCount),
+                    success -> {
+                        if (success) {
+                            showInfo("ECS service " + selected.getServiceName() + " is starting with " + desiredCount + " tasks");
+                            handleRefresh();
+                        } else {
+                            showError("Failed to start ECS service");
+                        }
+                    },
+                    error -> showError("Failed to start ECS service"));
             } catch (NumberFormatException e) {
                 showError("Invalid number format");
             }
@@ -151,13 +172,17 @@ public class ECSController {
         confirmation.setContentText("Are you sure you want to stop " + selected.getServiceName() + "? This will set desired count to 0.");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            boolean success = ecsAWSService.stopService(selected.getClusterName(), selected.getServiceName());
-            if (success) {
-                showInfo("ECS service " + selected.getServiceName() + " is stopping");
-                handleRefresh();
-            } else {
-                showError("Failed to stop ECS service");
-            }
+            taskRunner.submit("Stopping " + selected.getServiceName(),
+                task -> ecsAWSService.stopService(selected.getClusterName(), selected.getServiceName()),
+                success -> {
+                    if (success) {
+                        showInfo("ECS service " + selected.getServiceName() + " is stopping");
+                        handleRefresh();
+                    } else {
+                        showError("Failed to stop ECS service");
+                    }
+                },
+                error -> showError("Failed to stop ECS service"));
         }
     }
     
@@ -175,13 +200,26 @@ public class ECSController {
         confirmation.setContentText("⚠️ WARNING: This will PERMANENTLY DELETE " + selected.getServiceName() + "!\nAre you sure?");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            boolean success = ecsAWSService.deleteService(selected.getClusterName(), selected.getServiceName());
-            if (success) {
-                showInfo("ECS service " + selected.getServiceName() + " is being deleted");
-                handleRefresh();
-            } else {
-                showError("Failed to delete ECS service");
-            }
+            int userId = currentUser.getUserId();
+            taskRunner.submit("Deleting " + selected.getServiceName(),
+                task -> {
+                    boolean deleted = ecsAWSService.deleteService(selected.getClusterName(), selected.getServiceName());
+                    if (deleted) {
+                        // Drop it from the table and the dashboard counts now rather than at the next sync
+                        ecsDAO.deleteECSService(selected.getClusterName(), selected.getServiceName());
+                        summaryDAO.refreshResourceCounts(userId);
+                    }
+                    return deleted;
+                },
+                success -> {
+                    if (success) {
+                        showInfo("ECS service " + selected.getServiceName() + " is being deleted");
+                        handleRefresh();
+                    } else {
+                        showError("Failed to delete ECS service");
+                    }
+                },
+                error -> showError("Failed to delete ECS service"));
         }
     }
     
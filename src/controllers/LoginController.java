@@ -7,6 +7,7 @@ import javafx.scene.Scene;
 import javafx.fxml.FXMLLoader;
 import models.User;
 import dao.UserDAO;
+import utils.BackgroundTaskRunner;
 import utils.Validator;
 
 /**
@@ -84,21 +85,34 @@ public class LoginController {
         }
         
         // Authenticate user
-        User user = userDAO.authenticateUser(username, password);
-        
-        if (user != null) {
-            currentUser = user;
-            System.out.println("Login successful: " + user.getUsername());
-            openDashboard();
-        } else {
-            showError("Invalid username or password");
-        }
+        StartupWarmup.loginStarted();
+        loginButton.setDisable(true);
+        BackgroundTaskRunner.getInstance().submit("Signing in",
+            task -> userDAO.authenticateUser(username, password),
+            user -> {
+                loginButton.setDisable(false);
+                if (user != null) {
+                    currentUser = user;
+                    System.out.println("Login successful: " + user.getUsername());
+                    openDashboard();
+                } else {
+                    showError("Invalid username or password");
+                }
+            },
+            error -> {
+                loginButton.setDisable(false);
+                showError("Unable to reach the database. Please try again.");
+            });
     }
     
     private void openDashboard() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/dashboard.fxml"));
-            Scene scene = new Scene(loader.load(), 1400, 900);
+            FXMLLoader loader = StartupWarmup.takePreloaded("/views/dashboard.fxml");
+            if (loader == null) {
+                loader = new FXMLLoader(getClass().getResource("/views/dashboard.fxml"));
+                loader.load();
+            }
+            Scene scene = new Scene(loader.getRoot(), 1400, 900);
             
             DashboardController controller = loader.getController();
             controller.setCurrentUser(currentUser);
@@ -0,0 +1,20 @@
+package controllers;
+
+import models.User;
+
+/**
+ * ManagedView - Controller of a view shown in the dashboard content area
+ * Views are cached by DashboardController and kept alive between visits, so their
+ * data is refreshed on demand instead of by loading the view again. Controllers load no
+ * data in initialize or setCurrentUser: views are preloaded at login, and the first
+ * refreshView call comes when the view is first shown.
+ */
+public interface ManagedView {
+
+    void setCurrentUser(User user);
+
+    /**
+     * Reload the view's data in the background
+     */
+    void refreshView();
+}
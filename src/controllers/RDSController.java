@@ -1,25 +1,33 @@
 package controllers;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import models.User;
 import models.RDSInstance;
+import dao.DashboardSummaryDAO;
 import dao.RDSDAO;
 import aws.RDSService;
+import services.ChangeDrivenRuleEvaluator;
 import services.IdleDetectionService;
+import utils.BackgroundTaskRunner;
+import utils.PagedTableLoader;
 
-import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * RDSController - Controller for RDS instances view
  */
-public class RDSController {
+public class RDSController implements ManagedView {
     @FXML
     private TableView<RDSInstance> rdsTable;
     
+    @FXML
+    private TextField filterField;
+    
     @FXML
     private TableColumn<RDSInstance, String> identifierColumn;
     
@@ -46,27 +54,35 @@ public class RDSController {
     
     private User currentUser;
     private RDSDAO rdsDAO;
+    private DashboardSummaryDAO summaryDAO;
     private RDSService rdsService;
     private IdleDetectionService idleDetectionService;
-    private ObservableList<RDSInstance> rdsData;
+    private PagedTableLoader<RDSInstance> rdsPager;
+    private BackgroundTaskRunner taskRunner;
     
     public RDSController() {
         this.rdsDAO = new RDSDAO();
+        this.summaryDAO = new DashboardSummaryDAO();
         this.rdsService = new RDSService();
         this.idleDetectionService = new IdleDetectionService();
-        this.rdsData = FXCollections.observableArrayList();
+        this.taskRunner = BackgroundTaskRunner.getInstance();
     }
     
     @FXML
     private void initialize() {
         setupTableColumns();
-        loadRDSInstances();
     }
     
+    @Override
     public void setCurrentUser(User user) {
         this.currentUser = user;
     }
     
+    @Override
+    public void refreshView() {
+        loadRDSInstances(null);
+    }
+    
     private void setupTableColumns() {
         identifierColumn.setCellValueFactory(new PropertyValueFactory<>("dbInstanceIdentifier"));
         classColumn.setCellValueFactory(new PropertyValueFactory<>("dbInstanceClass"));
@@ -77,53 +93,55 @@ public class RDSController {
         connectionsColumn.setCellValueFactory(new PropertyValueFactory<>("databaseConnections"));
         idleColumn.setCellValueFactory(new PropertyValueFactory<>("idle"));
         
-        rdsTable.setItems(rdsData);
+        rdsPager = new PagedTableLoader<>(rdsTable, "RDS instances", "lastChecked", false,
+            rdsDAO::getRDSInstancePage);
+        rdsPager
+            .keyedBy(RDSInstance::getRecordId, RDSInstance::getLastChecked)
+            .sortable(identifierColumn, "dbInstanceIdentifier")
+            .sortable(statusColumn, "dbInstanceStatus")
+            .sortable(cpuColumn, "cpuUtilization")
+            .sortable(connectionsColumn, "databaseConnections")
+            .sortable(idleColumn, "idle")
+            .install();
     }
     
     @FXML
     private void handleRefresh() {
-        loadRDSInstances();
-        showInfo("RDS instances refreshed!");
-    }
-    
-    private void loadRDSInstances() {
-        try {
-            List<RDSInstance> instances = rdsDAO.getAllRDSInstances();
-            rdsData.clear();
-            rdsData.addAll(instances);
-            
-            System.out.println("Loaded " + instances.size() + " RDS instances");
-        } catch (Exception e) {
-            System.err.println("Error loading RDS instances: " + e.getMessage());
-            showError("Error loading RDS instances");
-        }
+        loadRDSInstances(() -> showInfo("RDS instances refreshed!"));
+    }
+    
+    /**
+     * Refresh the loaded rows in the background (only changed rows are touched), then run
+     * onLoaded (if any). Further pages are fetched as the table is scrolled.
+     */
+    private void loadRDSInstances(Runnable onLoaded) {
+        rdsPager.refresh(onLoaded);
+    }
+    
+    @FXML
+    private void handleFilter() {
+        rdsPager.setFilter(filterField.getText(), null);
     }
     
     @FXML
     private void handleSyncFromAWS() {
-        try {
-          
-            int syncedCount = rdsService.syncFromAWS(currentUser.getUserId());
-            
-      
-            loadRDSInstances();
-            showInfo("Synced " + syncedCount + " RDS instances from AWS");
-        } catch (Exception e) {
-            System.err.println("Error syncing RDS instances: " + e.getMessage());
-            showError("Error syncing from AWS: " + e.getMessage());
-        }
+        int userId = currentUser.getUserId();
+        taskRunner.submit("Syncing RDS instances from AWS",
+            task -> {
+                int synced = rdsService.syncFromAWS(userId);
+                ChangeDrivenRuleEvaluator.getInstance().evaluatePending();
+                return synced;
+            },
+            syncedCount -> loadRDSInstances(() -> showInfo("Synced " + syncedCount + " RDS instances from AWS")),
+            error -> showError("Error syncing from AWS: " + error.getMessage()));
     }
     
     @FXML
     private void handleDetectIdle() {
-        try {
-            idleDetectionService.detectIdleRDSInstances(7, 2);
-            loadRDSInstances();
-            showInfo("Idle detection completed!");
-        } catch (Exception e) {
-            System.err.println("Error detecting idle instances: " + e.getMessage());
-            showError("Error detecting idle instances");
-        }
+        taskRunner.submit("Detecting idle RDS instances",
+            () -> idleDetectionService.detectIdleRDSInstances(7, 2),
+            () -> loadRDSInstances(() -> showInfo("Idle detection completed!")),
+            error -> showError("Error detecting idle instances"));
     }
     
     @FXML
@@ -139,13 +157,19 @@ public class RDSController {
             return;
         }
         
-        boolean success = rdsService.startDBInstance(selected.getDbInstanceIdentifier());
-        if (success) {
-            showInfo("RDS instance " + selected.getDbInstanceIdentifier() + " is starting");
-            handleRefresh();
-        } else {
-            showError("Failed to start RDS instance");
-        }
+        taskRunner.submit("Starting " + selected.getDbInstanceIdentifier(),
+            task -> rdsService.startDBInstance(selected.getDbInstanceIdentifier()),
+            success -> {
+                if (success) {
+                    showInfo("RDS instance " + selected.getDbInstanceIdentifier() + " is starting");
+                    notifyWhenSettled(rdsService.awaitDBInstanceStatus(selected.getDbInstanceIdentifier(), "available"),
+                        "RDS instance " + selected.getDbInstanceIdentifier() + " is available");
+                    handleRefresh();
+                } else {
+                    showError("Failed to start RDS instance");
+                }
+            },
+            error -> showError("Failed to start RDS instance"));
     }
     
     @FXML
@@ -167,13 +191,19 @@ public class RDSController {
         confirmation.setContentText("Are you sure you want to stop " + selected.getDbInstanceIdentifier() + "?");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            boolean success = rdsService.stopDBInstance(selected.getDbInstanceIdentifier());
-            if (success) {
-                showInfo("RDS instance " + selected.getDbInstanceIdentifier() + " is stopping");
-                handleRefresh();
-            } else {
-                showError("Failed to stop RDS instance");
-            }
+            taskRunner.submit("Stopping " + selected.getDbInstanceIdentifier(),
+                task -> rdsService.stopDBInstance(selected.getDbInstanceIdentifier()),
+                success -> {
+                    if (success) {
+                        showInfo("RDS instance " + selected.getDbInstanceIdentifier() + " is stopping");
+                        notifyWhenSettled(rdsService.awaitDBInstanceStatus(selected.getDbInstanceIdentifier(), "stopped"),
+                            "RDS instance " + selected.getDbInstanceIdentifier() + " is stopped");
+                        handleRefresh();
+                    } else {
+                        showError("Failed to stop RDS instance");
+                    }
+                },
+                error -> showError("Failed to stop RDS instance"));
         }
     }
     
@@ -193,16 +223,44 @@ public class RDSController {
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
             // Create final snapshot before deletion (false = don't skip snapshot)
-            boolean success = rdsService.deleteDBInstance(selected.getDbInstanceIdentifier(), false);
-            if (success) {
-                showInfo("RDS instance " + selected.getDbInstanceIdentifier() + " is being deleted (with final snapshot)");
-                handleRefresh();
-            } else {
-                showError("Failed to delete RDS instance");
-            }
+            int userId = currentUser.getUserId();
+            taskRunner.submit("Deleting " + selected.getDbInstanceIdentifier(),
+                task -> {
+                    boolean deleted = rdsService.deleteDBInstance(selected.getDbInstanceIdentifier(), false);
+                    if (deleted) {
+                        // Drop it from the table and the dashboard counts now rather than at the next sync
+                        rdsDAO.deleteRDSInstance(selected.getDbInstanceIdentifier());
+                        summaryDAO.refreshResourceCounts(userId);
+                    }
+                    return deleted;
+                },
+                success -> {
+                    if (success) {
+                        showInfo("RDS instance " + selected.getDbInstanceIdentifier() + " is being deleted (with final snapshot)");
+                        handleRefresh();
+                    } else {
+                        showError("Failed to delete RDS instance");
+                    }
+                },
+                error -> showError("Failed to delete RDS instance"));
         }
     }
     
+    /**
+     * Tell the user once a start or stop has taken effect (or did not); the wait does not
+     * hold a thread
+     */
+    private void notifyWhenSettled(CompletableFuture<String> transition, String message) {
+        transition.whenComplete((state, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                showInfo(message);
+            } else if (!(error instanceof CancellationException)) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                showWarning(cause.getMessage());
+            }
+        }));
+    }
+    
     private void showInfo(String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Information");
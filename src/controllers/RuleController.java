@@ -8,13 +8,15 @@ import javafx.collections.ObservableList;
 import models.User;
 import models.Rule;
 import dao.RuleDAO;
-
-import java.util.List;
+import services.RuleCompiler;
+import services.RuleRepository;
+import utils.BackgroundTaskRunner;
+import utils.ListDiff;
 
 /**
  * RuleController - Controller for governance rules view
  */
-public class RuleController {
+public class RuleController implements ManagedView {
     @FXML
     private TableView<Rule> ruleTable;
     
@@ -62,24 +64,33 @@ public class RuleController {
     
     private User currentUser;
     private RuleDAO ruleDAO;
+    private RuleRepository ruleRepository;
     private ObservableList<Rule> ruleData;
+    private BackgroundTaskRunner taskRunner;
     
     public RuleController() {
         this.ruleDAO = new RuleDAO();
+        this.ruleRepository = RuleRepository.getInstance();
         this.ruleData = FXCollections.observableArrayList();
+        this.taskRunner = BackgroundTaskRunner.getInstance();
     }
     
     @FXML
     private void initialize() {
         setupTableColumns();
         setupComboBoxes();
-        loadRules();
     }
     
+    @Override
     public void setCurrentUser(User user) {
         this.currentUser = user;
     }
     
+    @Override
+    public void refreshView() {
+        loadRules(null);
+    }
+    
     private void setupTableColumns() {
         ruleNameColumn.setCellValueFactory(new PropertyValueFactory<>("ruleName"));
         ruleTypeColumn.setCellValueFactory(new PropertyValueFactory<>("ruleType"));
@@ -115,21 +126,28 @@ public class RuleController {
     
     @FXML
     private void handleRefresh() {
-        loadRules();
-        showInfo("Rules refreshed!");
+        loadRules(() -> showInfo("Rules refreshed!"));
     }
     
     private void loadRules() {
-        try {
-            List<Rule> rules = ruleDAO.getAllRules();
-            ruleData.clear();
-            ruleData.addAll(rules);
-            
-            System.out.println("Loaded " + rules.size() + " rules");
-        } catch (Exception e) {
-            System.err.println("Error loading rules: " + e.getMessage());
-            showError("Error loading rules");
-        }
+        loadRules(null);
+    }
+    
+    /**
+     * Load rules from the database in the background, then run onLoaded (if any)
+     * Only added, changed and removed rules touch the table.
+     */
+    private void loadRules(Runnable onLoaded) {
+        taskRunner.submit("Loading rules",
+            task -> ruleDAO.getAllRules(),
+            rules -> {
+                ListDiff.apply(ruleData, rules, Rule::getRuleId, Rule::getUpdatedAt);
+                System.out.println("Loaded " + rules.size() + " rules");
+                if (onLoaded != null) {
+                    onLoaded.run();
+                }
+            },
+            error -> showError("Error loading rules"));
     }
     
     @FXML
@@ -153,16 +171,26 @@ public class RuleController {
             rule.setActive(true);
             rule.setCreatedBy(currentUser.getUserId());
             
-            boolean success = ruleDAO.createRule(rule);
-            if (success) {
-                showInfo("Rule created successfully");
-                clearForm();
-                loadRules();
-            } else {
-                showError("Failed to create rule");
-            }
+            // Reject conditions the evaluator could not compile
+            RuleCompiler.compile(rule);
+            
+            taskRunner.submit("Creating rule",
+                task -> ruleDAO.createRule(rule),
+                success -> {
+                    if (success) {
+                        ruleRepository.invalidate();
+                        showInfo("Rule created successfully");
+                        clearForm();
+                        loadRules();
+                    } else {
+                        showError("Failed to create rule");
+                    }
+                },
+                error -> showError("Error creating rule: " + error.getMessage()));
         } catch (NumberFormatException e) {
             showError("Please enter valid numeric values");
+        } catch (IllegalArgumentException e) {
+            showError("Invalid rule condition: " + e.getMessage());
         } catch (Exception e) {
             System.err.println("Error creating rule: " + e.getMessage());
             showError("Error creating rule: " + e.getMessage());
@@ -177,13 +205,18 @@ public class RuleController {
             return;
         }
         
-        boolean success = ruleDAO.toggleRuleStatus(selected.getRuleId());
-        if (success) {
-            showInfo("Rule status updated");
-            loadRules();
-        } else {
-            showError("Failed to update rule status");
-        }
+        taskRunner.submit("Updating rule status",
+            task -> ruleDAO.toggleRuleStatus(selected.getRuleId()),
+            success -> {
+                if (success) {
+                    ruleRepository.invalidate();
+                    showInfo("Rule status updated");
+                    loadRules();
+                } else {
+                    showError("Failed to update rule status");
+                }
+            },
+            error -> showError("Failed to update rule status"));
     }
     
     @FXML
@@ -200,13 +233,18 @@ public class RuleController {
         confirmation.setContentText("Are you sure you want to delete this rule?");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            boolean success = ruleDAO.deleteRule(selected.getRuleId());
-            if (success) {
-                showInfo("Rule deleted successfully");
-                loadRules();
-            } else {
-                showError("Failed to delete rule");
-            }
+            taskRunner.submit("Deleting rule",
+                task -> ruleDAO.deleteRule(selected.getRuleId()),
+                success -> {
+                    if (success) {
+                        ruleRepository.invalidate();
+                        showInfo("Rule deleted successfully");
+                        loadRules();
+                    } else {
+                        showError("Failed to delete rule");
+                    }
+                },
+                error -> showError("Failed to delete rule"));
         }
     }
     
@@ -3,23 +3,26 @@ package controllers;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import models.User;
 import models.SageMakerEndpoint;
+import dao.DashboardSummaryDAO;
 import dao.SageMakerDAO;
 import aws.SageMakerAWSService;
+import services.ChangeDrivenRuleEvaluator;
 import services.IdleDetectionService;
-
-import java.util.List;
+import utils.BackgroundTaskRunner;
+import utils.PagedTableLoader;
 
 /**
  * SageMakerController - Controller for SageMaker endpoints view
  */
-public class SageMakerController {
+public class SageMakerController implements ManagedView {
     @FXML
     private TableView<SageMakerEndpoint> sageMakerTable;
     
+    @FXML
+    private TextField filterField;
+    
     @FXML
     private TableColumn<SageMakerEndpoint, String> endpointNameColumn;
     
@@ -40,27 +43,35 @@ public class SageMakerController {
     
     private User currentUser;
     private SageMakerDAO sageMakerDAO;
+    private DashboardSummaryDAO summaryDAO;
     private SageMakerAWSService sageMakerAWSService;
     private IdleDetectionService idleDetectionService;
-    private ObservableList<SageMakerEndpoint> sageMakerData;
+    private PagedTableLoader<SageMakerEndpoint> sageMakerPager;
+    private BackgroundTaskRunner taskRunner;
     
     public SageMakerController() {
         this.sageMakerDAO = new SageMakerDAO();
+        this.summaryDAO = new DashboardSummaryDAO();
         this.sageMakerAWSService = new SageMakerAWSService();
         this.idleDetectionService = new IdleDetectionService();
-        this.sageMakerData = FXCollections.observableArrayList();
+        this.taskRunner = BackgroundTaskRunner.getInstance();
     }
     
     @FXML
     private void initialize() {
         setupTableColumns();
-        loadSageMakerEndpoints();
     }
     
+    @Override
     public void setCurrentUser(User user) {
         this.currentUser = user;
     }
     
+    @Override
+    public void refreshView() {
+        loadSageMakerEndpoints(null);
+    }
+    
     private void setupTableColumns() {
         endpointNameColumn.setCellValueFactory(new PropertyValueFactory<>("endpointName"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("endpointStatus"));
@@ -69,59 +80,60 @@ public class SageMakerController {
         invocationsColumn.setCellValueFactory(new PropertyValueFactory<>("invocations"));
         idleColumn.setCellValueFactory(new PropertyValueFactory<>("idle"));
         
-        sageMakerTable.setItems(sageMakerData);
+        sageMakerPager = new PagedTableLoader<>(sageMakerTable, "SageMaker endpoints", "lastChecked", false,
+            sageMakerDAO::getEndpointPage);
+        sageMakerPager
+            .keyedBy(SageMakerEndpoint::getRecordId, SageMakerEndpoint::getLastChecked)
+            .sortable(endpointNameColumn, "endpointName")
+            .sortable(statusColumn, "endpointStatus")
+            .sortable(invocationsColumn, "invocations")
+            .sortable(idleColumn, "idle")
+            .install();
     }
     
     @FXML
     private void handleRefresh() {
-        loadSageMakerEndpoints();
-        showInfo("SageMaker endpoints refreshed!");
+        loadSageMakerEndpoints(() -> showInfo("SageMaker endpoints refreshed!"));
     }
     
-    private void loadSageMakerEndpoints() {
-        try {
-            List<SageMakerEndpoint> endpoints = sageMakerDAO.getAllEndpoints();
-            sageMakerData.clear();
-            sageMakerData.addAll(endpoints);
-            
-            System.out.println("Loaded " + endpoints.size() + " SageMaker endpoints");
-        } catch (Exception e) {
-            System.err.println("Error loading SageMaker endpoints: " + e.getMessage());
-            showError("Error loading SageMaker endpoints");
-        }
+    /**
+     * Refresh the loaded rows in the background (only changed rows are touched), then run
+     * onLoaded (if any). Further pages are fetched as the table is scrolled.
+     */
+    private void loadSageMakerEndpoints(Runnable onLoaded) {
+        sageMakerPager.refresh(onLoaded);
+    }
+    
+    @FXML
+    private void handleFilter() {
+        sageMakerPager.setFilter(filterField.getText(), null);
     }
     
     @FXML
     private void handleSyncFromAWS() {
-        try {
-          
-            int syncedCount = sageMakerAWSService.syncFromAWS(currentUser.getUserId());
-            
-          
-            loadSageMakerEndpoints();
-            
-            if (syncedCount > 0) {
-                showInfo("Synced " + syncedCount + " SageMaker endpoints from AWS");
-            } else {
-                showInfo("No SageMaker endpoints found in your AWS account.");
-            }
-        } catch (Exception e) {
-            System.err.println("Error syncing SageMaker endpoints: " + e.getMessage());
-            e.printStackTrace();
-            showError("Error syncing from AWS: " + e.getMessage());
-        }
+        int userId = currentUser.getUserId();
+        taskRunner.submit("Syncing SageMaker endpoints from AWS",
+            task -> {
+                int synced = sageMakerAWSService.syncFromAWS(userId);
+                ChangeDrivenRuleEvaluator.getInstance().evaluatePending();
+                return synced;
+            },
+            syncedCount -> loadSageMakerEndpoints(() -> {
+                if (syncedCount > 0) {
+                    showInfo("Synced " + syncedCount + " SageMaker endpoints from AWS");
+                } else {
+                    showInfo("No SageMaker endpoints found in your AWS account.");
+                }
+            }),
+            error -> showError("Error syncing from AWS: " + error.getMessage()));
     }
     
     @FXML
     private void handleDetectIdle() {
-        try {
-            idleDetectionService.detectIdleSageMakerEndpoints(7, 10);
-            loadSageMakerEndpoints();
-            showInfo("Idle detection completed!");
-        } catch (Exception e) {
-            System.err.println("Error detecting idle endpoints: " + e.getMessage());
-            showError("Error detecting idle endpoints");
-        }
+        taskRunner.submit("Detecting idle SageMaker endpoints",
+            () -> idleDetectionService.detectIdleSageMakerEndpoints(7, 10),
+            () -> loadSageMakerEndpoints(() -> showInfo("Idle detection completed!")),
+            error -> showError("Error detecting idle endpoints"));
     }
     
     @FXML
@@ -133,13 +145,17 @@ public class SageMakerController {
         }
         
         if ("notebook".equals(selected.getResourceType())) {
-            boolean success = sageMakerAWSService.startNotebookInstance(selected.getEndpointName());
-            if (success) {
-                showInfo("Notebook instance " + selected.getEndpointName() + " is starting");
-                handleRefresh();
-            } else {
-                showError("Failed to start notebook instance");
-            }
+            taskRunner.submit("Starting " + selected.getEndpointName(),
+                task -> sageMakerAWSService.startNotebookInstance(selected.getEndpointName()),
+                success -> {
+                    if (success) {
+                        showInfo("Notebook instance " + selected.getEndpointName() + " is starting");
+                        handleRefresh();
+                    } else {
+                        showError("Failed to start notebook instance");
+                    }
+                },
+                error -> showError("Failed to start notebook instance"));
         } else {
             showWarning("Only notebook instances can be started. Endpoints are always running.");
         }
@@ -160,13 +176,17 @@ public class SageMakerController {
             confirmation.setContentText("Are you sure you want to stop " + selected.getEndpointName() + "?");
             
             if (confirmation.showAndWait().get() == ButtonType.OK) {
-                boolean success = sageMakerAWSService.stopNotebookInstance(selected.getEndpointName());
-                if (success) {
-                    showInfo("Notebook instance " + selected.getEndpointName() + " is stopping");
-                    handleRefresh();
-                } else {
-                    showError("Failed to stop notebook instance");
-                }
+                taskRunner.submit("Stopping " + selected.getEndpointName(),
+                    task -> sageMakerAWSService.stopNotebookInstance(selected.getEndpointName()),
+                    success -> {
+                        if (success) {
+                            showInfo("Notebook instance " + selected.getEndpointName() + " is stopping");
+                            handleRefresh();
+                        } else {
+                            showError("Failed to stop notebook instance");
+                        }
+                    },
+                    error -> showError("Failed to stop notebook instance"));
             }
         } else {
             showWarning("Only notebook instances can be stopped. To stop an endpoint, delete it.");
@@ -187,19 +207,29 @@ public class SageMakerController {
         confirmation.setContentText("⚠️ WARNING: This will PERMANENTLY DELETE " + selected.getEndpointName() + "!\nAre you sure?");
         
         if (confirmation.showAndWait().get() == ButtonType.OK) {
-            boolean success;
-            if ("notebook".equals(selected.getResourceType())) {
-                success = sageMakerAWSService.deleteNotebookInstance(selected.getEndpointName());
-            } else {
-                success = sageMakerAWSService.deleteEndpoint(selected.getEndpointName());
-            }
-            
-            if (success) {
-                showInfo("SageMaker resource " + selected.getEndpointName() + " is being deleted");
-                handleRefresh();
-            } else {
-                showError("Failed to delete SageMaker resource");
-            }
+            boolean notebook = "notebook".equals(selected.getResourceType());
+            int userId = currentUser.getUserId();
+            taskRunner.submit("Deleting " + selected.getEndpointName(),
+                task -> {
+                    boolean deleted = notebook
+                        ? sageMakerAWSService.deleteNotebookInstance(selected.getEndpointName())
+                        : sageMakerAWSService.deleteEndpoint(selected.getEndpointName());
+                    if (deleted) {
+                        // Drop it from the table and the dashboard counts now rather than at the next sync
+                        sageMakerDAO.deleteEndpoint(selected.getEndpointName());
+                        summaryDAO.refreshResourceCounts(userId);
+                    }
+                    return deleted;
+                },
+                success -> {
+                    if (success) {
+                        showInfo("SageMaker resource " + selected.getEndpointName() + " is being deleted");
+                        handleRefresh();
+                    } else {
+                        showError("Failed to delete SageMaker resource");
+                    }
+                },
+                error -> showError("Failed to delete SageMaker resource"));
         }
     }
     
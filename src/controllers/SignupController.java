@@ -6,10 +6,13 @@ import javafx.stage.Stage;
 import javafx.scene.Scene;
 import javafx.fxml.FXMLLoader;
 import javafx.collections.FXCollections;
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
 import models.User;
 import models.AWSCredential;
 import dao.UserDAO;
 import dao.AWSCredentialDAO;
+import utils.BackgroundTaskRunner;
 import utils.Validator;
 
 /**
@@ -102,16 +105,43 @@ public class SignupController {
             return;
         }
         
+        signupButton.setDisable(true);
+        BackgroundTaskRunner.getInstance().submit("Creating account",
+            task -> createAccount(fullName, username, email, password, accessKey, secretKey, region),
+            errorMessage -> {
+                if (errorMessage != null) {
+                    signupButton.setDisable(false);
+                    showError(errorMessage);
+                    return;
+                }
+                
+                showSuccess("Account created successfully! Redirecting to login...");
+                
+                // Wait a moment then redirect to login
+                PauseTransition delay = new PauseTransition(Duration.millis(1500));
+                delay.setOnFinished(event -> handleBackToLogin());
+                delay.play();
+            },
+            error -> {
+                signupButton.setDisable(false);
+                showError("Failed to create account. Please try again.");
+            });
+    }
+    
+    /**
+     * Create the user and save their AWS credentials (runs on a background thread)
+     * @return an error message, or null on success
+     */
+    private String createAccount(String fullName, String username, String email, String password,
+                                 String accessKey, String secretKey, String region) {
         // Check if username already exists
         if (userDAO.usernameExists(username)) {
-            showError("Username already exists. Please choose a different username.");
-            return;
+            return "Username already exists. Please choose a different username.";
         }
         
         // Check if AWS credentials already exist
         if (awsCredentialDAO.accessKeyExists(accessKey)) {
-            showError("AWS credentials already registered. Please use different credentials.");
-            return;
+            return "AWS credentials already registered. Please use different credentials.";
         }
         
         // Create new user
@@ -125,31 +155,20 @@ public class SignupController {
         // Insert user into database
         int userId = userDAO.createUserAndGetId(newUser);
         
-        if (userId > 0) {
-            // User created successfully, now save AWS credentials
-            AWSCredential credential = new AWSCredential(userId, accessKey, secretKey, region);
-            credential.setActive(true);
-            credential.setValidated(false);
-            credential.setRemainingCredits(0.0);
-            
-            if (awsCredentialDAO.saveCredentials(credential)) {
-                showSuccess("Account created successfully! Redirecting to login...");
-                
-                // Wait a moment then redirect to login
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(1500);
-                        javafx.application.Platform.runLater(this::handleBackToLogin);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }).start();
-            } else {
-                showError("User created but failed to save AWS credentials. Please contact support.");
-            }
-        } else {
-            showError("Failed to create account. Please try again.");
+        if (userId <= 0) {
+            return "Failed to create account. Please try again.";
+        }
+        
+        // User created successfully, now save AWS credentials
+        AWSCredential credential = new AWSCredential(userId, accessKey, secretKey, region);
+        credential.setActive(true);
+        credential.setValidated(false);
+        credential.setRemainingCredits(0.0);
+        
+        if (!awsCredentialDAO.saveCredentials(credential)) {
+            return "User created but failed to save AWS credentials. Please contact support.";
         }
+        return null;
     }
     
     private boolean validateInputs(String fullName, String username, String email, 
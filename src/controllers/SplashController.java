@@ -7,12 +7,11 @@ import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
 import javafx.fxml.FXMLLoader;
-import javafx.animation.PauseTransition;
-import javafx.util.Duration;
+import javafx.application.Platform;
 
 /**
  * SplashController - Controller for splash screen
- * Displays splash screen for 5 seconds, then transitions to login
+ * Displays the splash screen while the startup warm-up runs, then transitions to login
  */
 public class SplashController {
     @FXML
@@ -32,24 +31,26 @@ public class SplashController {
             // Logo image is optional, continue without it
         }
         
-        // Start the splash screen timer
-        startSplashTimer();
+        startWarmup();
     }
     
-    private void startSplashTimer() {
-        // Create a pause transition for 5 seconds
-        PauseTransition pauseTransition = new PauseTransition(Duration.seconds(5));
-        
-        // Animate progress bar while waiting
-        pauseTransition.setOnFinished(event -> openLoginScreen());
-        
-        pauseTransition.play();
+    /**
+     * Run the startup warm-up and open the login screen as soon as it is done
+     */
+    private void startWarmup() {
+        loadingProgress.setProgress(0);
+        StartupWarmup.start(progress -> Platform.runLater(() -> loadingProgress.setProgress(progress)))
+            .whenComplete((result, error) -> Platform.runLater(this::openLoginScreen));
     }
     
     private void openLoginScreen() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/login.fxml"));
-            Scene scene = new Scene(loader.load(), 900, 700);
+            FXMLLoader loader = StartupWarmup.takePreloaded("/views/login.fxml");
+            if (loader == null) {
+                loader = new FXMLLoader(getClass().getResource("/views/login.fxml"));
+                loader.load();
+            }
+            Scene scene = new Scene(loader.getRoot(), 900, 700);
             
             Stage stage = (Stage) loadingProgress.getScene().getWindow();
             stage.setScene(scene);
@@ -0,0 +1,162 @@
+package controllers;
+
+import aws.AWSClientFactory;
+import database.DBConnection;
+import javafx.fxml.FXMLLoader;
+import utils.BackgroundTaskRunner;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+
+/**
+ * StartupWarmup - Work done while the splash screen is shown
+ * Opens the database connection, builds the AWS SDK clients once, parses the login and
+ * dashboard views and loads the classes used right after login, all in parallel. The
+ * first login and dashboard then reuse the parsed views and find the classes loaded and
+ * the connection open. Also records how long it takes to get to a usable dashboard.
+ */
+class StartupWarmup {
+    private static final long TIMEOUT_SECONDS = 20;
+    private static final String[] PRELOADED_VIEWS = {"/views/login.fxml", "/views/dashboard.fxml"};
+    private static final String[] HOT_CLASSES = {
+        "dao.EC2DAO", "dao.RDSDAO", "dao.ECSDAO", "dao.SageMakerDAO", "dao.AlertDAO", "dao.RuleDAO",
+        "dao.BillingDAO", "dao.DashboardSummaryDAO", "services.RuleEvaluationService",
+        "services.IdleDetectionService", "services.CostCube", "services.CostForecastService",
+        "aws.EC2Service", "aws.RDSService", "aws.ECSAWSService", "aws.SageMakerAWSService",
+        "aws.CloudWatchService", "aws.BillingService", "utils.PagedTableLoader",
+        "javafx.scene.control.TableView", "javafx.scene.control.cell.PropertyValueFactory",
+        "javafx.scene.chart.PieChart"
+    };
+
+    private static final Map<String, FXMLLoader> preloaded = new ConcurrentHashMap<>();
+    private static final AtomicLong loginStartedAt = new AtomicLong();
+    private static final AtomicLong dashboardReadyAt = new AtomicLong();
+
+    private StartupWarmup() {
+    }
+
+    /**
+     * Run the warm-up steps in parallel on the background pool
+     * @param onProgress called (on a pool thread) with the fraction of steps completed
+     * @return completes when every step is done, failed, or the warm-up timed out
+     */
+    static CompletableFuture<Void> start(DoubleConsumer onProgress) {
+        long startedAt = System.currentTimeMillis();
+        List<Runnable> steps = List.of(
+            StartupWarmup::openDatabase,
+            AWSClientFactory::warmUp,
+            StartupWarmup::preloadViews,
+            StartupWarmup::loadHotClasses
+        );
+
+        AtomicInteger completed = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Runnable step : steps) {
+            futures.add(CompletableFuture
+                .runAsync(step, BackgroundTaskRunner.getInstance().getExecutor())
+                .handle((result, error) -> {
+                    if (error != null) {
+                        System.err.println("Startup warm-up step failed: " + error.getMessage());
+                    }
+                    onProgress.accept((double) completed.incrementAndGet() / steps.size());
+                    return null;
+                }));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+            .completeOnTimeout(null, TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .thenRun(() -> System.out.println("Startup warm-up finished in "
+                + (System.currentTimeMillis() - startedAt) + " ms (" + sinceJvmStart() + " ms after JVM start)"));
+    }
+
+    /**
+     * Take a view parsed during warm-up (each is handed out once), or null if there is none
+     */
+    static FXMLLoader takePreloaded(String fxmlPath) {
+        return preloaded.remove(fxmlPath);
+    }
+
+    /**
+     * Record that the user submitted the login form
+     */
+    static void loginStarted() {
+        loginStartedAt.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Record that the dashboard shows its first data (reported once per run)
+     */
+    static void dashboardReady() {
+        long now = System.currentTimeMillis();
+        if (!dashboardReadyAt.compareAndSet(0, now)) {
+            return;
+        }
+        long login = loginStartedAt.get();
+        System.out.println("Dashboard ready " + (login > 0 ? (now - login) + " ms after login, " : "")
+            + sinceJvmStart() + " ms after JVM start");
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /**
+     * Open the shared connection and run one round trip so the driver is fully initialized
+     */
+    private static void openDatabase() {
+        Connection connection = DBConnection.getInstance().getConnection();
+        if (connection == null) {
+            System.err.println("Failed to connect to database. Check DBConnection configuration.");
+            return;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT 1");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            System.out.println("Database connection successful!");
+        } catch (SQLException e) {
+            System.err.println("Database warm-up query failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parse the login and dashboard views (not yet attached to a scene, so this may run
+     * off the JavaFX Application Thread)
+     */
+    private static void preloadViews() {
+        for (String fxmlPath : PRELOADED_VIEWS) {
+            try {
+                FXMLLoader loader = new FXMLLoader(StartupWarmup.class.getResource(fxmlPath));
+                loader.load();
+                preloaded.put(fxmlPath, loader);
+            } catch (Exception e) {
+                System.err.println("Error preloading view " + fxmlPath + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Load and initialize the classes used right after login
+     */
+    private static void loadHotClasses() {
+        ClassLoader classLoader = StartupWarmup.class.getClassLoader();
+        for (String className : HOT_CLASSES) {
+            try {
+                Class.forName(className, true, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                System.err.println("Startup warm-up could not load " + className + ": " + e.getMessage());
+            }
+        }
+    }
+}
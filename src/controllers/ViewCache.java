@@ -0,0 +1,111 @@
+package controllers;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import metrics.MetricsRegistry;
+import utils.BackgroundTaskRunner;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ViewCache - Loaded content views and their controllers, kept alive for a session
+ * A view is parsed and its controller created once; its data is loaded the first time it
+ * is shown, and showing it again is instant and only refreshes its data if it was last
+ * refreshed longer ago than the stale interval. Views can be preloaded in the background:
+ * FXML nodes may be built off the JavaFX Application Thread as long as they are not
+ * attached to a scene yet, and preloading loads no data.
+ *
+ * Accessed from the JavaFX Application Thread only.
+ */
+class ViewCache {
+
+    /**
+     * A loaded view with its controller
+     */
+    private static class CachedView {
+        private final Parent view;
+        private final ManagedView controller;
+        // 0 until the view is first shown
+        private long refreshedAt;
+
+        CachedView(Parent view, ManagedView controller) {
+            this.view = view;
+            this.controller = controller;
+        }
+    }
+
+    private final Map<String, CachedView> views = new HashMap<>();
+    private final Consumer<ManagedView> setup;
+    private final long staleAfterMillis;
+    private final BackgroundTaskRunner taskRunner;
+
+    /**
+     * @param setup called once on each new controller (e.g. to pass the current user)
+     */
+    ViewCache(Consumer<ManagedView> setup, long staleAfterMillis) {
+        this.setup = setup;
+        this.staleAfterMillis = staleAfterMillis;
+        this.taskRunner = BackgroundTaskRunner.getInstance();
+    }
+
+    /**
+     * Get a view, loading it on first use and refreshing its data if it is new or stale
+     */
+    Parent show(String fxmlPath) throws IOException {
+        CachedView cached = views.get(fxmlPath);
+        MetricsRegistry.getInstance().counter("governance_cache_requests", "Cache lookups by result",
+            "cache", "view", "result", cached != null ? "hit" : "miss").inc();
+        if (cached == null) {
+            cached = add(fxmlPath, load(fxmlPath));
+        }
+        if (System.currentTimeMillis() - cached.refreshedAt > staleAfterMillis) {
+            cached.controller.refreshView();
+            cached.refreshedAt = System.currentTimeMillis();
+        }
+        return cached.view;
+    }
+
+    /**
+     * Load views that are not cached yet in the background, one task per view
+     */
+    void preload(String... fxmlPaths) {
+        for (String fxmlPath : fxmlPaths) {
+            if (views.containsKey(fxmlPath)) {
+                continue;
+            }
+            taskRunner.submit("Preloading " + fxmlPath,
+                task -> load(fxmlPath),
+                loaded -> {
+                    // The user may have opened the view while it was preloading
+                    if (!views.containsKey(fxmlPath)) {
+                        add(fxmlPath, loaded);
+                    }
+                },
+                error -> System.err.println("Error preloading view " + fxmlPath + ": " + error.getMessage()));
+        }
+    }
+
+    /**
+     * Mark every cached view stale, so its data is refreshed the next time it is shown
+     */
+    void invalidateAll() {
+        for (CachedView cached : views.values()) {
+            cached.refreshedAt = 0;
+        }
+    }
+
+    private CachedView add(String fxmlPath, CachedView cached) {
+        setup.accept(cached.controller);
+        views.put(fxmlPath, cached);
+        return cached;
+    }
+
+    private CachedView load(String fxmlPath) throws IOException {
+        FXMLLoader loader = new FXMLLoader(ViewCache.class.getResource(fxmlPath));
+        Parent view = loader.load();
+        return new CachedView(view, loader.getController());
+    }
+}
@@ -0,0 +1,295 @@
+package daemon;
+
+import aws.AWSClientFactory;
+import aws.LifecycleWaiter;
+import database.DBConnection;
+import metrics.MetricsRegistry;
+import metrics.MetricsServer;
+import models.ResourceSchedule;
+import services.AlertService;
+import services.CURIngestionService;
+import services.ChangeDrivenRuleEvaluator;
+import services.ConsoleAlertObserver;
+import services.IdleDetectionService;
+import services.OffHoursScheduler;
+import services.ResourceEventBus;
+import services.RuleEvaluationService;
+import services.RuleScheduler;
+import services.ScheduleExecutor;
+import services.ScheduleTransition;
+import services.SyncOrchestrator;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GovernanceDaemon - Headless entry point for scheduled governance
+ * Syncs resources from AWS and detects idle resources on fixed delays, evaluates each rule
+ * on its own cadence through the RuleScheduler, and starts and stops resources on their
+ * off-hours schedules, without the desktop client (no JavaFX classes are loaded). Jobs and
+ * rule evaluations run one at a time, since they share the database connection and the
+ * credentials held by the AWS client factory. Like the sync, idle detection and rule
+ * evaluation run once per account with its credentials, on that user's resources only,
+ * and off-hours schedules run with the credentials of the user who created them
+ * (schedules without an owner are skipped). Cost and Usage Report files delivered to a
+ * local directory (e.g. synced from the CUR S3 bucket) are ingested into the billing line
+ * items of one user; files already ingested are skipped by their checkpoints. Metrics
+ * are served for Prometheus on http://127.0.0.1:9464/metrics; for a detailed profile, run with
+ * -XX:StartFlightRecording=filename=governance.jfr and look at the governance.* events
+ * (sync stages, rule evaluations, AWS calls, SQL statements).
+ *
+ * Settings come from system properties, optionally seeded from a properties file passed
+ * as the first argument:
+ *   daemon.sync.interval.minutes        resource sync interval (default 60, 0 disables)
+ *   daemon.rules.enabled                evaluate rules on their own cadence (default true)
+ *   daemon.schedules.enabled            run off-hours start/stop schedules (default true)
+ *   daemon.idle.interval.minutes        idle detection interval (default 360, 0 disables)
+ *   daemon.cur.directory                CUR root directory to ingest (default none, disables)
+ *   daemon.cur.user.id                  user the CUR line items belong to (required with a directory)
+ *   daemon.cur.interval.minutes         CUR ingestion interval (default 360, 0 disables)
+ *   daemon.initial.delay.seconds        delay before the first run of each job (default 10)
+ *   daemon.shutdown.timeout.seconds     how long shutdown waits for a running job (default 120)
+ *   daemon.stats.interval.minutes       how often rule schedule statistics are logged (default 15)
+ *   daemon.metrics.port                 port of the /metrics endpoint (default 9464, 0 disables)
+ *   daemon.metrics.host                 address the endpoint binds (default 127.0.0.1)
+ *   remediation.*                       STOP / TERMINATE rule actions, see RemediationService
+ *                                       (dry run unless remediation.dry.run=false)
+ *
+ * On SIGTERM / Ctrl+C no new jobs start; a running job is allowed to finish (up to the
+ * shutdown timeout, then interrupted) before the AWS clients and database connection close.
+ */
+public class GovernanceDaemon {
+    private final long syncIntervalMinutes;
+    private final boolean rulesEnabled;
+    private final boolean schedulesEnabled;
+    private final long idleIntervalMinutes;
+    private final String curDirectory;
+    private final int curUserId;
+    private final long curIntervalMinutes;
+    private final long initialDelaySeconds;
+    private final long shutdownTimeoutSeconds;
+    private final long statsIntervalMinutes;
+    private final MetricsServer metricsServer;
+    // Held by every job and rule evaluation: sync switches the AWS credentials per account
+    private final Object awsLock = new Object();
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    public GovernanceDaemon(Properties settings) {
+        this.syncIntervalMinutes = getLong(settings, "daemon.sync.interval.minutes", 60);
+        this.rulesEnabled = Boolean.parseBoolean(System.getProperty("daemon.rules.enabled",
+            settings.getProperty("daemon.rules.enabled", "true")));
+        this.schedulesEnabled = Boolean.parseBoolean(System.getProperty("daemon.schedules.enabled",
+            settings.getProperty("daemon.schedules.enabled", "true")));
+        this.idleIntervalMinutes = getLong(settings, "daemon.idle.interval.minutes", 360);
+        this.curDirectory = System.getProperty("daemon.cur.directory", settings.getProperty("daemon.cur.directory", ""));
+        this.curUserId = (int) getLong(settings, "daemon.cur.user.id", 0);
+        this.curIntervalMinutes = getLong(settings, "daemon.cur.interval.minutes", 360);
+        this.initialDelaySeconds = getLong(settings, "daemon.initial.delay.seconds", 10);
+        this.shutdownTimeoutSeconds = getLong(settings, "daemon.shutdown.timeout.seconds", 120);
+        this.statsIntervalMinutes = getLong(settings, "daemon.stats.interval.minutes", 15);
+        long metricsPort = getLong(settings, "daemon.metrics.port", 9464);
+        this.metricsServer = metricsPort > 0
+            ? new MetricsServer(System.getProperty("daemon.metrics.host",
+                settings.getProperty("daemon.metrics.host", "127.0.0.1")), (int) metricsPort)
+            : null;
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> new Thread(runnable, "governance-daemon"));
+        // After shutdown, pending runs are dropped; only a job already running is drained
+        scheduler.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Schedule the jobs
+     */
+    public void start() {
+        if (!DBConnection.testConnection()) {
+            throw new IllegalStateException("Failed to connect to database. Check DBConnection configuration.");
+        }
+        AlertService.getInstance().registerObserver(new ConsoleAlertObserver());
+        ResourceEventBus.getInstance().subscribe(ChangeDrivenRuleEvaluator.getInstance());
+        if (metricsServer != null) {
+            MetricsRegistry.getInstance().gauge("governance_lifecycle_waits_in_flight",
+                "Resource state transitions being waited on", LifecycleWaiter.getInstance()::getInFlightCount);
+            // Monitoring is optional: the daemon keeps running without the endpoint
+            metricsServer.start();
+        }
+
+        schedule("Resource sync", syncIntervalMinutes, () -> new SyncOrchestrator().syncAllAccounts());
+        schedule("Idle detection", idleIntervalMinutes, () -> new SyncOrchestrator().forEachAccount(
+            userId -> new IdleDetectionService().runCompleteIdleDetection(userId)));
+        if (curDirectory.isBlank()) {
+            System.out.println("CUR ingestion disabled (no daemon.cur.directory)");
+        } else if (curUserId <= 0) {
+            System.err.println("CUR ingestion disabled: set daemon.cur.user.id to the user the reports belong to");
+        } else {
+            schedule("CUR ingestion", curIntervalMinutes,
+                () -> new CURIngestionService().ingestDirectory(curDirectory, curUserId));
+        }
+        if (rulesEnabled) {
+            RuleScheduler.getInstance().start(rule -> {
+                synchronized (awsLock) {
+                    new SyncOrchestrator().forEachAccount(
+                        userId -> new RuleEvaluationService().evaluateRule(rule, userId));
+                }
+            }, 1);
+            schedule("Rule schedule statistics", statsIntervalMinutes,
+                () -> RuleScheduler.getInstance().getStats().forEach(System.out::println));
+        }
+        if (schedulesEnabled) {
+            OffHoursScheduler.getInstance().start(transitions -> {
+                synchronized (awsLock) {
+                    executeByOwner(transitions);
+                }
+            });
+        }
+        System.out.println("Governance daemon started (sync every " + syncIntervalMinutes + " min, idle detection every "
+            + idleIntervalMinutes + " min, rules " + (rulesEnabled ? "on their own cadence" : "disabled")
+            + ", off-hours schedules " + (schedulesEnabled ? "enabled" : "disabled") + ")");
+    }
+
+    /**
+     * Stop scheduling, wait for a running job to finish, then release resources
+     */
+    public void shutdown() {
+        System.out.println("Governance daemon shutting down...");
+        RuleScheduler.getInstance().stop(shutdownTimeoutSeconds);
+        OffHoursScheduler.getInstance().stop(shutdownTimeoutSeconds);
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                System.err.println("Running job did not finish within " + shutdownTimeoutSeconds + "s, interrupting it");
+                scheduler.shutdownNow();
+                scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        LifecycleWaiter.getInstance().shutdown();
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+        AWSClientFactory.getInstance().closeAllClients();
+        DBConnection.closeConnection();
+        System.out.println("Governance daemon stopped");
+        stopped.countDown();
+    }
+
+    /**
+     * Block until the daemon has shut down
+     */
+    public void awaitShutdown() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Execute due transitions grouped by the user who created each schedule, with that
+     * user's credentials
+     */
+    private static void executeByOwner(List<ScheduleTransition> transitions) {
+        Map<Integer, List<ScheduleTransition>> byOwner = new LinkedHashMap<>();
+        for (ScheduleTransition transition : transitions) {
+            ResourceSchedule schedule = transition.getSchedule();
+            if (schedule.getCreatedBy() <= 0) {
+                System.err.println("Skipping schedule '" + schedule.getScheduleName()
+                    + "': it has no owner whose AWS credentials could be used");
+                continue;
+            }
+            byOwner.computeIfAbsent(schedule.getCreatedBy(), owner -> new ArrayList<>()).add(transition);
+        }
+        SyncOrchestrator orchestrator = new SyncOrchestrator();
+        for (Map.Entry<Integer, List<ScheduleTransition>> owner : byOwner.entrySet()) {
+            orchestrator.runAsAccount(owner.getKey(), userId -> new ScheduleExecutor().execute(owner.getValue()));
+        }
+    }
+
+    private void schedule(String name, long intervalMinutes, Runnable job) {
+        if (intervalMinutes <= 0) {
+            System.out.println(name + " disabled");
+            return;
+        }
+        // Fixed delay: a slow run postpones the next one instead of queueing runs behind it
+        scheduler.scheduleWithFixedDelay(() -> runJob(name, job), initialDelaySeconds,
+            TimeUnit.MINUTES.toSeconds(intervalMinutes), TimeUnit.SECONDS);
+    }
+
+    private void runJob(String name, Runnable job) {
+        long start = System.currentTimeMillis();
+        System.out.println(name + " started");
+        String outcome = "success";
+        try {
+            synchronized (awsLock) {
+                job.run();
+            }
+            System.out.println(name + " finished in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            // A failed run must not cancel the schedule
+            System.err.println(name + " failed: " + e.getMessage());
+            e.printStackTrace();
+            outcome = "error";
+        }
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.counter("governance_job_runs", "Daemon job runs by outcome", "job", name, "outcome", outcome).inc();
+        registry.histogram("governance_job_duration_seconds", "Daemon job run time, waiting for the AWS lock included",
+            "job", name).observe((System.currentTimeMillis() - start) / 1000.0);
+    }
+
+    private static long getLong(Properties settings, String key, long defaultValue) {
+        String value = System.getProperty(key, settings.getProperty(key));
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+
+    private static Properties loadSettings(String[] args) {
+        Properties settings = new Properties();
+        if (args.length > 0) {
+            try (InputStream in = new FileInputStream(args[0])) {
+                settings.load(in);
+                System.out.println("Loaded daemon settings from " + args[0]);
+                // RemediationService reads its settings from system properties
+                for (String key : settings.stringPropertyNames()) {
+                    if (key.startsWith("remediation.") && System.getProperty(key) == null) {
+                        System.setProperty(key, settings.getProperty(key));
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading daemon settings " + args[0] + ": " + e.getMessage());
+            }
+        }
+        return settings;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        GovernanceDaemon daemon = new GovernanceDaemon(loadSettings(args));
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::shutdown, "governance-daemon-shutdown"));
+
+        try {
+            daemon.start();
+        } catch (Exception e) {
+            System.err.println("Error starting governance daemon:");
+            e.printStackTrace();
+            System.exit(1);
+        }
+        daemon.awaitShutdown();
+    }
+}
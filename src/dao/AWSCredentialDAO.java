@@ -3,6 +3,8 @@ package dao;
 import database.DBConnection;
 import models.AWSCredential;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * AWSCredentialDAO - Data Access Object for AWS Credential operations
@@ -34,6 +36,26 @@ public class AWSCredentialDAO {
         return null;
     }
     
+    /**
+     * Get the active AWS credentials of every user
+     */
+    public List<AWSCredential> getAllActiveCredentials() {
+        List<AWSCredential> credentials = new ArrayList<>();
+        String query = "SELECT * FROM aws_credentials WHERE is_active = TRUE ORDER BY user_id";
+        
+        try (Statement stmt = connection.createStatement()) {
+            ResultSet rs = stmt.executeQuery(query);
+            
+            while (rs.next()) {
+                credentials.add(mapResultSetToCredential(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting active credentials: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return credentials;
+    }
+    
     /**
      * Save or update AWS credentials
      */
@@ -5,15 +5,27 @@ import models.Alert;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * AlertDAO - Data Access Object for Alert operations
  */
 public class AlertDAO {
+    // Sortable properties of the paged alerts view (each column is indexed)
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery("alerts", "alert_id", "resource_id",
+        "createdAt", false, Map.of(
+            "createdAt", "created_at",
+            "resourceId", "resource_id",
+            "resourceType", "resource_type",
+            "severity", "severity"
+        ));
+    
     private final Connection connection;
+    private final DashboardSummaryDAO summaryDAO;
     
     public AlertDAO() {
         this.connection = DBConnection.getInstance().getConnection();
+        this.summaryDAO = new DashboardSummaryDAO();
     }
     
     /**
@@ -56,6 +68,20 @@ public class AlertDAO {
         return alerts;
     }
     
+    /**
+     * Get one page of alerts (keyset pagination, server-side sort and filter)
+     */
+    public Page<Alert> getAlertPage(boolean unresolvedOnly, PageRequest request) {
+        try {
+            return PAGE_QUERY.fetch(connection, request, unresolvedOnly ? "is_resolved = FALSE" : null,
+                                    this::mapResultSetToAlert);
+        } catch (SQLException e) {
+            System.err.println("Error getting page of alerts: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return new Page<>(new ArrayList<>(), null, 0, false);
+    }
+    
     /**
      * Get alerts by resource type
      */
@@ -97,69 +123,176 @@ public class AlertDAO {
     }
     
     /**
-     * Create new alert
+     * Whether an unresolved alert with the same rule, alert type, resource and user exists
      */
-    public boolean createAlert(Alert alert) {
-        String query = "INSERT INTO alerts (resource_id, resource_type, alert_type, severity, message, rule_id, is_resolved) " +
-                      "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    public boolean hasOpenAlert(Alert alert) {
+        String query = "SELECT 1 FROM alerts WHERE resource_id = ? AND alert_type = ? AND rule_id <=> ? " +
+                      "AND user_id <=> ? AND is_resolved = FALSE LIMIT 1";
         
         try (PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, alert.getResourceId());
-            stmt.setString(2, alert.getResourceType());
-            stmt.setString(3, alert.getAlertType());
-            stmt.setString(4, alert.getSeverity());
-            stmt.setString(5, alert.getMessage());
-            
-            // Handle null or 0 rule_id - set to NULL for database
+            stmt.setString(2, alert.getAlertType());
             if (alert.getRuleId() <= 0) {
-                stmt.setNull(6, java.sql.Types.INTEGER);
+                stmt.setNull(3, java.sql.Types.INTEGER);
+            } else {
+                stmt.setInt(3, alert.getRuleId());
+            }
+            if (alert.getUserId() <= 0) {
+                stmt.setNull(4, java.sql.Types.INTEGER);
             } else {
-                stmt.setInt(6, alert.getRuleId());
+                stmt.setInt(4, alert.getUserId());
+            }
+            ResultSet rs = stmt.executeQuery();
+            return rs.next();
+        } catch (SQLException e) {
+            System.err.println("Error checking for an open alert: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Create new alert
+     * An open alert of a user is counted into their dashboard summary in the same transaction.
+     */
+    public boolean createAlert(Alert alert) {
+        String query = "INSERT INTO alerts (resource_id, resource_type, alert_type, severity, message, rule_id, user_id, is_resolved) " +
+                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                stmt.setString(1, alert.getResourceId());
+                stmt.setString(2, alert.getResourceType());
+                stmt.setString(3, alert.getAlertType());
+                stmt.setString(4, alert.getSeverity());
+                stmt.setString(5, alert.getMessage());
+                
+                // Handle null or 0 rule_id - set to NULL for database
+                if (alert.getRuleId() <= 0) {
+                    stmt.setNull(6, java.sql.Types.INTEGER);
+                } else {
+                    stmt.setInt(6, alert.getRuleId());
+                }
+                
+                // Alerts without an owner are not counted in any dashboard summary
+                if (alert.getUserId() <= 0) {
+                    stmt.setNull(7, java.sql.Types.INTEGER);
+                } else {
+                    stmt.setInt(7, alert.getUserId());
+                }
+                
+                stmt.setBoolean(8, alert.isResolved());
+                
+                if (stmt.executeUpdate() == 0) {
+                    connection.rollback();
+                    return false;
+                }
             }
             
-            stmt.setBoolean(7, alert.isResolved());
+            if (!alert.isResolved()) {
+                summaryDAO.adjustOpenAlerts(alert.getUserId(), alert.getSeverity(), 1);
+            }
             
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+            connection.commit();
+            return true;
         } catch (SQLException e) {
             System.err.println("Error creating alert: " + e.getMessage());
             e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
         }
         return false;
     }
     
     /**
      * Resolve alert
+     * Only the first resolution of an open alert is taken off the dashboard summary.
      */
     public boolean resolveAlert(int alertId) {
         String query = "UPDATE alerts SET is_resolved = TRUE, resolved_at = NOW() WHERE alert_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, alertId);
-            int rowsAffected = stmt.executeUpdate();
+        try {
+            connection.setAutoCommit(false);
+            
+            Alert open = lockOpenAlert(alertId);
+            
+            int rowsAffected;
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                stmt.setInt(1, alertId);
+                rowsAffected = stmt.executeUpdate();
+            }
+            
+            if (open != null) {
+                summaryDAO.adjustOpenAlerts(open.getUserId(), open.getSeverity(), -1);
+            }
+            
+            connection.commit();
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error resolving alert: " + e.getMessage());
             e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
         }
         return false;
     }
     
     /**
      * Delete alert
+     * Deleting an open alert also takes it off the dashboard summary.
      */
     public boolean deleteAlert(int alertId) {
         String query = "DELETE FROM alerts WHERE alert_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, alertId);
-            int rowsAffected = stmt.executeUpdate();
+        try {
+            connection.setAutoCommit(false);
+            
+            Alert open = lockOpenAlert(alertId);
+            
+            int rowsAffected;
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                stmt.setInt(1, alertId);
+                rowsAffected = stmt.executeUpdate();
+            }
+            
+            if (open != null) {
+                summaryDAO.adjustOpenAlerts(open.getUserId(), open.getSeverity(), -1);
+            }
+            
+            connection.commit();
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error deleting alert: " + e.getMessage());
             e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
         }
         return false;
     }
     
+    /**
+     * Lock an unresolved alert row for the current transaction
+     * @return the alert (owner and severity), or null if not found or already resolved
+     */
+    private Alert lockOpenAlert(int alertId) throws SQLException {
+        String query = "SELECT user_id, severity FROM alerts WHERE alert_id = ? AND is_resolved = FALSE FOR UPDATE";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, alertId);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                Alert alert = new Alert();
+                alert.setAlertId(alertId);
+                alert.setUserId(rs.getInt("user_id"));
+                alert.setSeverity(rs.getString("severity"));
+                return alert;
+            }
+        }
+        return null;
+    }
+    
     /**
      * Get total alert count
      */
@@ -188,6 +321,7 @@ public class AlertDAO {
         alert.setSeverity(rs.getString("severity"));
         alert.setMessage(rs.getString("message"));
         alert.setRuleId(rs.getInt("rule_id"));
+        alert.setUserId(rs.getInt("user_id"));
         alert.setResolved(rs.getBoolean("is_resolved"));
         
         Timestamp createdAt = rs.getTimestamp("created_at");
@@ -202,4 +336,20 @@ public class AlertDAO {
         
         return alert;
     }
+    
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+    
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error restoring auto-commit: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,179 @@
+package dao;
+
+import database.DBConnection;
+import models.BillingLineItem;
+import models.CURCheckpoint;
+import java.sql.*;
+import java.util.Collection;
+
+/**
+ * BillingLineItemDAO - Data Access Object for Cost and Usage Report line items
+ * and their ingestion checkpoints
+ */
+public class BillingLineItemDAO {
+    private final Connection connection;
+
+    public BillingLineItemDAO() {
+        this.connection = DBConnection.getInstance().getConnection();
+    }
+
+    /**
+     * Get the ingestion checkpoint of a file, or null if it was never ingested
+     */
+    public CURCheckpoint getCheckpoint(int userId, String filePath) {
+        String query = "SELECT * FROM cur_ingestion_checkpoints WHERE user_id = ? AND file_path = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, filePath);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                CURCheckpoint checkpoint = new CURCheckpoint();
+                checkpoint.setUserId(rs.getInt("user_id"));
+                checkpoint.setFilePath(rs.getString("file_path"));
+                checkpoint.setFileSize(rs.getLong("file_size"));
+                checkpoint.setLastModified(rs.getLong("last_modified"));
+                checkpoint.setByteOffset(rs.getLong("byte_offset"));
+                checkpoint.setCompleted(rs.getBoolean("completed"));
+                return checkpoint;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting CUR checkpoint: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Start (or restart) ingestion of a file
+     * Removes line items previously ingested from the same source file (the checkpoint's
+     * file key), because a re-delivered CUR file is a full restatement, and resets the checkpoint.
+     */
+    public boolean resetFile(CURCheckpoint checkpoint) {
+        String deleteQuery = "DELETE FROM billing_line_items WHERE user_id = ? AND source_file = ?";
+
+        try {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement stmt = connection.prepareStatement(deleteQuery)) {
+                stmt.setInt(1, checkpoint.getUserId());
+                stmt.setString(2, checkpoint.getFilePath());
+                stmt.executeUpdate();
+            }
+
+            checkpoint.setByteOffset(0);
+            checkpoint.setCompleted(false);
+            saveCheckpoint(checkpoint);
+
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error resetting CUR file: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+
+    /**
+     * Add aggregated line items and advance the checkpoint in one transaction
+     * Costs are added to existing rows, so a batch must never be committed twice;
+     * the checkpoint written in the same transaction guarantees that on resume.
+     */
+    public boolean commitBatch(Collection<BillingLineItem> items, CURCheckpoint checkpoint) {
+        String query = "INSERT INTO billing_line_items (user_id, source_file, usage_date, service_name, " +
+                      "resource_id, usage_type, usage_amount, cost_amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                      "ON DUPLICATE KEY UPDATE usage_amount = usage_amount + VALUES(usage_amount), " +
+                      "cost_amount = cost_amount + VALUES(cost_amount)";
+
+        try {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                int pending = 0;
+                for (BillingLineItem item : items) {
+                    stmt.setInt(1, item.getUserId());
+                    stmt.setString(2, item.getSourceFile());
+                    stmt.setDate(3, Date.valueOf(item.getUsageDate()));
+                    stmt.setString(4, item.getServiceName());
+                    stmt.setString(5, item.getResourceId());
+                    stmt.setString(6, item.getUsageType());
+                    stmt.setDouble(7, item.getUsageAmount());
+                    stmt.setDouble(8, item.getCostAmount());
+                    stmt.addBatch();
+
+                    if (++pending % 1000 == 0) {
+                        stmt.executeBatch();
+                    }
+                }
+                stmt.executeBatch();
+            }
+
+            saveCheckpoint(checkpoint);
+
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error committing CUR line items: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+
+    /**
+     * Mark a file as completely ingested
+     */
+    public boolean markCompleted(CURCheckpoint checkpoint) {
+        checkpoint.setCompleted(true);
+        try {
+            saveCheckpoint(checkpoint);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error completing CUR checkpoint: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Insert or update a checkpoint row
+     */
+    private void saveCheckpoint(CURCheckpoint checkpoint) throws SQLException {
+        String query = "INSERT INTO cur_ingestion_checkpoints (user_id, file_path, file_size, last_modified, " +
+                      "byte_offset, completed) VALUES (?, ?, ?, ?, ?, ?) " +
+                      "ON DUPLICATE KEY UPDATE file_size = VALUES(file_size), last_modified = VALUES(last_modified), " +
+                      "byte_offset = VALUES(byte_offset), completed = VALUES(completed)";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, checkpoint.getUserId());
+            stmt.setString(2, checkpoint.getFilePath());
+            stmt.setLong(3, checkpoint.getFileSize());
+            stmt.setLong(4, checkpoint.getLastModified());
+            stmt.setLong(5, checkpoint.getByteOffset());
+            stmt.setBoolean(6, checkpoint.isCompleted());
+            stmt.executeUpdate();
+        }
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error restoring auto-commit: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dao;
+
+import database.DBConnection;
+import models.CostSeriesStats;
+import java.sql.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CostSeriesStatsDAO - Data Access Object for streaming cost statistics
+ */
+public class CostSeriesStatsDAO {
+    private final Connection connection;
+
+    public CostSeriesStatsDAO() {
+        this.connection = DBConnection.getInstance().getConnection();
+    }
+
+    /**
+     * Get the statistics of all services of a user, keyed by service name
+     */
+    public Map<String, CostSeriesStats> getStatsByUser(int userId) {
+        Map<String, CostSeriesStats> statsMap = new HashMap<>();
+        String query = "SELECT * FROM cost_series_stats WHERE user_id = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                CostSeriesStats stats = new CostSeriesStats();
+                stats.setUserId(rs.getInt("user_id"));
+                stats.setServiceName(rs.getString("service_name"));
+                stats.setLastDay(rs.getDate("last_day").toLocalDate());
+                stats.setObservations(rs.getInt("observations"));
+                stats.setMean(rs.getDouble("ewma_mean"));
+                stats.setVariance(rs.getDouble("ewma_variance"));
+                statsMap.put(stats.getServiceName(), stats);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting cost series stats: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return statsMap;
+    }
+
+    /**
+     * Insert or update statistics in one batch
+     */
+    public boolean saveAll(Collection<CostSeriesStats> statsList) {
+        String query = "INSERT INTO cost_series_stats (user_id, service_name, last_day, observations, " +
+                      "ewma_mean, ewma_variance) VALUES (?, ?, ?, ?, ?, ?) " +
+                      "ON DUPLICATE KEY UPDATE last_day = VALUES(last_day), observations = VALUES(observations), " +
+                      "ewma_mean = VALUES(ewma_mean), ewma_variance = VALUES(ewma_variance)";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (CostSeriesStats stats : statsList) {
+                stmt.setInt(1, stats.getUserId());
+                stmt.setString(2, stats.getServiceName());
+                stmt.setDate(3, Date.valueOf(stats.getLastDay()));
+                stmt.setInt(4, stats.getObservations());
+                stmt.setDouble(5, stats.getMean());
+                stmt.setDouble(6, stats.getVariance());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error saving cost series stats: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,164 @@
+package dao;
+
+import database.DBConnection;
+import models.DashboardSummary;
+import java.sql.*;
+
+/**
+ * DashboardSummaryDAO - Data Access Object for the per-user dashboard summary
+ * Resource counts are recounted per user after each sync or idle detection pass (one
+ * statement over the (user_id, is_idle) indexes); open alert counts are adjusted by
+ * AlertDAO in the same transaction as the alert write. A missing row is rebuilt on read.
+ */
+public class DashboardSummaryDAO {
+    private static final String RECOUNT_QUERY =
+        "INSERT INTO dashboard_summary (user_id, ec2_count, ec2_idle, rds_count, rds_idle, ecs_count, ecs_idle, " +
+        "sagemaker_count, sagemaker_idle, open_alerts_high, open_alerts_medium, open_alerts_low) " +
+        "SELECT u.user_id, " +
+        "(SELECT COUNT(*) FROM ec2_instances r WHERE r.user_id = u.user_id), " +
+        "(SELECT COUNT(*) FROM ec2_instances r WHERE r.user_id = u.user_id AND r.is_idle = TRUE), " +
+        "(SELECT COUNT(*) FROM rds_instances r WHERE r.user_id = u.user_id), " +
+        "(SELECT COUNT(*) FROM rds_instances r WHERE r.user_id = u.user_id AND r.is_idle = TRUE), " +
+        "(SELECT COUNT(*) FROM ecs_services r WHERE r.user_id = u.user_id), " +
+        "(SELECT COUNT(*) FROM ecs_services r WHERE r.user_id = u.user_id AND r.is_idle = TRUE), " +
+        "(SELECT COUNT(*) FROM sagemaker_endpoints r WHERE r.user_id = u.user_id), " +
+        "(SELECT COUNT(*) FROM sagemaker_endpoints r WHERE r.user_id = u.user_id AND r.is_idle = TRUE), " +
+        "(SELECT COUNT(*) FROM alerts a WHERE a.user_id = u.user_id AND a.is_resolved = FALSE " +
+        "AND UPPER(a.severity) IN ('HIGH', 'CRITICAL')), " +
+        "(SELECT COUNT(*) FROM alerts a WHERE a.user_id = u.user_id AND a.is_resolved = FALSE " +
+        "AND COALESCE(UPPER(a.severity), 'MEDIUM') NOT IN ('HIGH', 'CRITICAL', 'LOW')), " +
+        "(SELECT COUNT(*) FROM alerts a WHERE a.user_id = u.user_id AND a.is_resolved = FALSE " +
+        "AND UPPER(a.severity) = 'LOW') " +
+        "FROM users u WHERE u.user_id = ? " +
+        "ON DUPLICATE KEY UPDATE ec2_count = VALUES(ec2_count), ec2_idle = VALUES(ec2_idle), " +
+        "rds_count = VALUES(rds_count), rds_idle = VALUES(rds_idle), " +
+        "ecs_count = VALUES(ecs_count), ecs_idle = VALUES(ecs_idle), " +
+        "sagemaker_count = VALUES(sagemaker_count), sagemaker_idle = VALUES(sagemaker_idle)";
+
+    private static final String ALERT_COLUMNS_UPDATE =
+        ", open_alerts_high = VALUES(open_alerts_high), open_alerts_medium = VALUES(open_alerts_medium), " +
+        "open_alerts_low = VALUES(open_alerts_low)";
+
+    private final Connection connection;
+
+    public DashboardSummaryDAO() {
+        this.connection = DBConnection.getInstance().getConnection();
+    }
+
+    /**
+     * Get the summary of a user (rebuilt from the base tables if it does not exist yet)
+     */
+    public DashboardSummary getSummary(int userId) {
+        DashboardSummary summary = findSummary(userId);
+        if (summary == null && rebuild(userId)) {
+            summary = findSummary(userId);
+        }
+        return summary != null ? summary : new DashboardSummary(userId);
+    }
+
+    /**
+     * Recount the resources and idle resources of a user (called once per sync or idle pass)
+     * Open alert counts of an existing row are left alone; a new row gets them counted too.
+     */
+    public boolean refreshResourceCounts(int userId) {
+        return recount(userId, RECOUNT_QUERY);
+    }
+
+    /**
+     * Recount every column of a user's summary from the base tables
+     */
+    public boolean rebuild(int userId) {
+        return recount(userId, RECOUNT_QUERY + ALERT_COLUMNS_UPDATE);
+    }
+
+    /**
+     * Adjust the open alert count of the severity bucket by delta
+     * Runs on the caller's transaction; users without a summary row are skipped since
+     * their row is rebuilt in full on first read.
+     */
+    void adjustOpenAlerts(int userId, String severity, int delta) throws SQLException {
+        if (userId <= 0) {
+            return;
+        }
+        String column = severityColumn(severity);
+        String query = "UPDATE dashboard_summary SET " + column + " = GREATEST(" + column + " + ?, 0) " +
+                      "WHERE user_id = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, delta);
+            stmt.setInt(2, userId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Summary column counting open alerts of a severity (unknown severities count as medium)
+     */
+    static String severityColumn(String severity) {
+        if (severity == null) {
+            return "open_alerts_medium";
+        }
+        switch (severity.toUpperCase()) {
+            case "HIGH":
+            case "CRITICAL":
+                return "open_alerts_high";
+            case "LOW":
+                return "open_alerts_low";
+            default:
+                return "open_alerts_medium";
+        }
+    }
+
+    private boolean recount(int userId, String query) {
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error refreshing dashboard summary: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    private DashboardSummary findSummary(int userId) {
+        String query = "SELECT * FROM dashboard_summary WHERE user_id = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapResultSetToSummary(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting dashboard summary: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Map ResultSet to DashboardSummary object
+     */
+    private DashboardSummary mapResultSetToSummary(ResultSet rs) throws SQLException {
+        DashboardSummary summary = new DashboardSummary();
+        summary.setUserId(rs.getInt("user_id"));
+        summary.setEc2Count(rs.getInt("ec2_count"));
+        summary.setEc2IdleCount(rs.getInt("ec2_idle"));
+        summary.setRdsCount(rs.getInt("rds_count"));
+        summary.setRdsIdleCount(rs.getInt("rds_idle"));
+        summary.setEcsCount(rs.getInt("ecs_count"));
+        summary.setEcsIdleCount(rs.getInt("ecs_idle"));
+        summary.setSageMakerCount(rs.getInt("sagemaker_count"));
+        summary.setSageMakerIdleCount(rs.getInt("sagemaker_idle"));
+        summary.setOpenAlertsHigh(rs.getInt("open_alerts_high"));
+        summary.setOpenAlertsMedium(rs.getInt("open_alerts_medium"));
+        summary.setOpenAlertsLow(rs.getInt("open_alerts_low"));
+
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt != null) {
+            summary.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+        return summary;
+    }
+}
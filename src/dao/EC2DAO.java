@@ -4,12 +4,24 @@ import database.DBConnection;
 import models.EC2Instance;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * EC2DAO - Data Access Object for EC2Instance operations
  */
 public class EC2DAO {
+    // Sortable properties of the paged table view (each column is indexed)
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery("ec2_instances", "record_id", "instance_id",
+        "lastChecked", false, Map.of(
+            "lastChecked", "last_checked",
+            "instanceId", "instance_id",
+            "instanceState", "instance_state",
+            "cpuUtilization", "cpu_utilization",
+            "idle", "is_idle"
+        ));
+    
     private final Connection connection;
     
     public EC2DAO() {
@@ -132,6 +144,40 @@ public class EC2DAO {
         return instances;
     }
     
+    /**
+     * Get the EC2 instances of one user
+     */
+    public List<EC2Instance> getEC2InstancesByUser(int userId) {
+        List<EC2Instance> instances = new ArrayList<>();
+        String query = "SELECT * FROM ec2_instances WHERE user_id = ? ORDER BY last_checked DESC";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                instances.add(mapResultSetToEC2Instance(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting EC2 instances of user " + userId + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return instances;
+    }
+    
+    /**
+     * Get one page of EC2 instances (keyset pagination, server-side sort and filter)
+     */
+    public Page<EC2Instance> getEC2InstancePage(PageRequest request) {
+        try {
+            return PAGE_QUERY.fetch(connection, request, null, this::mapResultSetToEC2Instance);
+        } catch (SQLException e) {
+            System.err.println("Error getting page of EC2 instances: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return new Page<>(new ArrayList<>(), null, 0, false);
+    }
+    
     /**
      * Get EC2 instance by ID
      */
@@ -216,4 +262,77 @@ public class EC2DAO {
         instance.setUserId(rs.getInt("user_id"));
         return instance;
     }
+    
+    /**
+     * Delete a EC2 instance that was deleted in AWS
+     */
+    public boolean deleteEC2Instance(String instanceId) {
+        String query = "DELETE FROM ec2_instances WHERE instance_id = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, instanceId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error deleting EC2 instance: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Write the metrics and idle flags of an idle detection pass in one batched transaction
+     */
+    public boolean updateIdleResults(Collection<EC2Instance> instances) {
+        String query = "UPDATE ec2_instances SET cpu_utilization = ?, network_in = ?, is_idle = ?, last_checked = NOW() " +
+                      "WHERE instance_id = ?";
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                int pending = 0;
+                for (EC2Instance instance : instances) {
+                    stmt.setDouble(1, instance.getCpuUtilization());
+                    stmt.setDouble(2, instance.getNetworkIn());
+                    if (instance.isIdle() != null) {
+                        stmt.setBoolean(3, instance.isIdle());
+                    } else {
+                        stmt.setNull(3, java.sql.Types.BOOLEAN);
+                    }
+                    stmt.setString(4, instance.getInstanceId());
+                    stmt.addBatch();
+                    
+                    if (++pending % 1000 == 0) {
+                        stmt.executeBatch();
+                    }
+                }
+                stmt.executeBatch();
+            }
+            
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error updating idle results of EC2 instances: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+    
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+    
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error restoring auto-commit: " + e.getMessage());
+        }
+    }
 }
@@ -4,12 +4,24 @@ import database.DBConnection;
 import models.ECSService;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ECSDAO - Data Access Object for ECSService operations
  */
 public class ECSDAO {
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery("ecs_services", "record_id", "service_name",
+        "lastChecked", false, Map.of(
+            "lastChecked", "last_checked",
+            "clusterName", "cluster_name",
+            "serviceName", "service_name",
+            "status", "status",
+            "cpuUtilization", "cpu_utilization",
+            "idle", "is_idle"
+        ));
+    
     private final Connection connection;
     
     public ECSDAO() {
@@ -117,6 +129,35 @@ public class ECSDAO {
         return services;
     }
     
+    /**
+     * Get the ECS services of one user
+     */
+    public List<ECSService> getECSServicesByUser(int userId) {
+        List<ECSService> services = new ArrayList<>();
+        String query = "SELECT * FROM ecs_services WHERE user_id = ? ORDER BY last_checked DESC";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                services.add(mapResultSetToECSService(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting ECS services of user " + userId + ": " + e.getMessage());
+        }
+        return services;
+    }
+    
+    public Page<ECSService> getECSServicePage(PageRequest request) {
+        try {
+            return PAGE_QUERY.fetch(connection, request, null, this::mapResultSetToECSService);
+        } catch (SQLException e) {
+            System.err.println("Error getting page of ECS services: " + e.getMessage());
+        }
+        return new Page<>(new ArrayList<>(), null, 0, false);
+    }
+    
     public int getTotalECSCount() {
         String query = "SELECT COUNT(*) FROM ecs_services";
         try (Statement stmt = connection.createStatement();
@@ -153,4 +194,79 @@ public class ECSDAO {
         service.setUserId(rs.getInt("user_id"));
         return service;
     }
+    
+    /**
+     * Delete a ECS service that was deleted in AWS
+     */
+    public boolean deleteECSService(String clusterName, String serviceName) {
+        String query = "DELETE FROM ecs_services WHERE cluster_name = ? AND service_name = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, clusterName);
+            stmt.setString(2, serviceName);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error deleting ECS service: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Write the metrics and idle flags of an idle detection pass in one batched transaction
+     */
+    public boolean updateIdleResults(Collection<ECSService> services) {
+        String query = "UPDATE ecs_services SET cpu_utilization = ?, memory_utilization = ?, is_idle = ?, last_checked = NOW() " +
+                      "WHERE cluster_name = ? AND service_name = ?";
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                int pending = 0;
+                for (ECSService service : services) {
+                    stmt.setDouble(1, service.getCpuUtilization());
+                    stmt.setDouble(2, service.getMemoryUtilization());
+                    if (service.isIdle() != null) {
+                        stmt.setBoolean(3, service.isIdle());
+                    } else {
+                        stmt.setNull(3, java.sql.Types.BOOLEAN);
+                    }
+                    stmt.setString(4, service.getClusterName());
+                    stmt.setString(5, service.getServiceName());
+                    stmt.addBatch();
+                    
+                    if (++pending % 1000 == 0) {
+                        stmt.executeBatch();
+                    }
+                }
+                stmt.executeBatch();
+            }
+            
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error updating idle results of ECS services: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+    
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+    
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error restoring auto-commit: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,127 @@
+package dao;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * KeysetQuery - Builds and runs keyset-paginated queries over one table
+ * Only whitelisted, indexed columns can be sorted on; the record id breaks ties so
+ * the order is total and every row is returned exactly once. NULL sort values come
+ * first in ascending order and last in descending order, as MySQL sorts them.
+ */
+class KeysetQuery {
+
+    /**
+     * Maps the current row of a ResultSet to a model object
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private final String table;
+    private final String idColumn;
+    private final String filterColumn;
+    private final String defaultSortKey;
+    private final boolean defaultAscending;
+    private final Map<String, String> sortColumns;
+
+    /**
+     * @param filterColumn column matched by prefix against the request's filter
+     * @param sortColumns sortable model properties mapped to their (indexed) columns
+     */
+    KeysetQuery(String table, String idColumn, String filterColumn, String defaultSortKey,
+                boolean defaultAscending, Map<String, String> sortColumns) {
+        this.table = table;
+        this.idColumn = idColumn;
+        this.filterColumn = filterColumn;
+        this.defaultSortKey = defaultSortKey;
+        this.defaultAscending = defaultAscending;
+        this.sortColumns = sortColumns;
+    }
+
+    /**
+     * Fetch one page
+     * @param condition fixed SQL condition without parameters (e.g. "is_resolved = FALSE"), or null
+     */
+    <T> Page<T> fetch(Connection connection, PageRequest request, String condition,
+                      RowMapper<T> mapper) throws SQLException {
+        String sortColumn = sortColumns.get(request.getSortKey());
+        boolean ascending = request.isAscending();
+        if (sortColumn == null) {
+            sortColumn = sortColumns.get(defaultSortKey);
+            ascending = defaultAscending;
+        }
+
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (condition != null) {
+            conditions.add(condition);
+        }
+        if (request.getFilter() != null) {
+            conditions.add(filterColumn + " LIKE ?");
+            params.add(escapeLike(request.getFilter()) + "%");
+        }
+        if (!request.isFirstPage()) {
+            conditions.add(keysetCondition(sortColumn, ascending, request.getAfterValue(), params));
+            params.add(request.getAfterId());
+        }
+
+        String direction = ascending ? "ASC" : "DESC";
+        StringBuilder query = new StringBuilder("SELECT * FROM ").append(table);
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        query.append(" ORDER BY ").append(sortColumn).append(' ').append(direction)
+             .append(", ").append(idColumn).append(' ').append(direction)
+             .append(" LIMIT ").append(request.getPageSize() + 1);
+
+        List<T> items = new ArrayList<>();
+        Object lastSortValue = null;
+        long lastId = 0;
+        boolean hasMore = false;
+
+        try (PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                if (items.size() == request.getPageSize()) {
+                    hasMore = true;
+                    break;
+                }
+                items.add(mapper.map(rs));
+                lastSortValue = rs.getObject(sortColumn);
+                lastId = rs.getLong(idColumn);
+            }
+        }
+        return new Page<>(items, lastSortValue, lastId, hasMore);
+    }
+
+    /**
+     * Rows strictly after (value, id) in the page order; the id parameter is bound last
+     */
+    private String keysetCondition(String column, boolean ascending, Object value, List<Object> params) {
+        String idComparison = idColumn + (ascending ? " > ?" : " < ?");
+        if (value == null) {
+            return ascending
+                ? "(" + column + " IS NOT NULL OR (" + column + " IS NULL AND " + idComparison + "))"
+                : "(" + column + " IS NULL AND " + idComparison + ")";
+        }
+
+        params.add(value);
+        params.add(value);
+        String after = column + (ascending ? " > ?" : " < ?");
+        String nulls = ascending ? "" : " OR " + column + " IS NULL";
+        // Keep the id comparison last so its parameter follows the value parameters
+        return "(" + after + nulls + " OR (" + column + " = ? AND " + idComparison + "))";
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,39 @@
+package dao;
+
+import java.util.List;
+
+/**
+ * Page - Rows of one page of a keyset-paginated query, with the cursor of its last row
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final Object lastSortValue;
+    private final long lastId;
+    private final boolean hasMore;
+
+    Page(List<T> items, Object lastSortValue, long lastId, boolean hasMore) {
+        this.items = items;
+        this.lastSortValue = lastSortValue;
+        this.lastId = lastId;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Object getLastSortValue() {
+        return lastSortValue;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * True if at least one more row follows this page
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
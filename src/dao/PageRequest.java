@@ -0,0 +1,72 @@
+package dao;
+
+/**
+ * PageRequest - One page of a keyset-paginated, sorted and filtered table query
+ * The first page has no cursor; each following page starts after the sort value and
+ * record id of the last row of the previous page, so fetching a page costs the same
+ * however deep into the table it is.
+ */
+public class PageRequest {
+    private final String sortKey;
+    private final boolean ascending;
+    private final String filter;
+    private final int pageSize;
+    private final Object afterValue;
+    private final long afterId;
+
+    private PageRequest(String sortKey, boolean ascending, String filter, int pageSize,
+                        Object afterValue, long afterId) {
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+        this.filter = filter;
+        this.pageSize = pageSize;
+        this.afterValue = afterValue;
+        this.afterId = afterId;
+    }
+
+    /**
+     * Request the first page
+     * @param sortKey model property to sort by (unknown keys fall back to the DAO's default order)
+     * @param filter prefix of the identifier column to match, or null/blank for all rows
+     */
+    public static PageRequest first(String sortKey, boolean ascending, String filter, int pageSize) {
+        String trimmed = filter != null && !filter.isBlank() ? filter.trim() : null;
+        return new PageRequest(sortKey, ascending, trimmed, pageSize, null, 0);
+    }
+
+    /**
+     * Request the page following the given page (same sort and filter)
+     */
+    public PageRequest after(Page<?> page) {
+        return new PageRequest(sortKey, ascending, filter, pageSize, page.getLastSortValue(), page.getLastId());
+    }
+
+    public boolean isFirstPage() {
+        return afterId == 0;
+    }
+
+    // Getters
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public Object getAfterValue() {
+        return afterValue;
+    }
+
+    public long getAfterId() {
+        return afterId;
+    }
+}
@@ -4,12 +4,24 @@ import database.DBConnection;
 import models.RDSInstance;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * RDSDAO - Data Access Object for RDSInstance operations
  */
 public class RDSDAO {
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery("rds_instances", "record_id", "db_instance_identifier",
+        "lastChecked", false, Map.of(
+            "lastChecked", "last_checked",
+            "dbInstanceIdentifier", "db_instance_identifier",
+            "dbInstanceStatus", "db_instance_status",
+            "cpuUtilization", "cpu_utilization",
+            "databaseConnections", "database_connections",
+            "idle", "is_idle"
+        ));
+    
     private final Connection connection;
     
     public RDSDAO() {
@@ -120,6 +132,35 @@ public class RDSDAO {
         return instances;
     }
     
+    /**
+     * Get the RDS instances of one user
+     */
+    public List<RDSInstance> getRDSInstancesByUser(int userId) {
+        List<RDSInstance> instances = new ArrayList<>();
+        String query = "SELECT * FROM rds_instances WHERE user_id = ? ORDER BY last_checked DESC";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                instances.add(mapResultSetToRDSInstance(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting RDS instances of user " + userId + ": " + e.getMessage());
+        }
+        return instances;
+    }
+    
+    public Page<RDSInstance> getRDSInstancePage(PageRequest request) {
+        try {
+            return PAGE_QUERY.fetch(connection, request, null, this::mapResultSetToRDSInstance);
+        } catch (SQLException e) {
+            System.err.println("Error getting page of RDS instances: " + e.getMessage());
+        }
+        return new Page<>(new ArrayList<>(), null, 0, false);
+    }
+    
     public int getTotalRDSCount() {
         String query = "SELECT COUNT(*) FROM rds_instances";
         try (Statement stmt = connection.createStatement();
@@ -155,4 +196,77 @@ public class RDSDAO {
         instance.setUserId(rs.getInt("user_id"));
         return instance;
     }
+    
+    /**
+     * Delete a RDS instance that was deleted in AWS
+     */
+    public boolean deleteRDSInstance(String dbInstanceIdentifier) {
+        String query = "DELETE FROM rds_instances WHERE db_instance_identifier = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, dbInstanceIdentifier);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error deleting RDS instance: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Write the metrics and idle flags of an idle detection pass in one batched transaction
+     */
+    public boolean updateIdleResults(Collection<RDSInstance> instances) {
+        String query = "UPDATE rds_instances SET cpu_utilization = ?, database_connections = ?, is_idle = ?, last_checked = NOW() " +
+                      "WHERE db_instance_identifier = ?";
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                int pending = 0;
+                for (RDSInstance instance : instances) {
+                    stmt.setDouble(1, instance.getCpuUtilization());
+                    stmt.setInt(2, instance.getDatabaseConnections());
+                    if (instance.isIdle() != null) {
+                        stmt.setBoolean(3, instance.isIdle());
+                    } else {
+                        stmt.setNull(3, java.sql.Types.BOOLEAN);
+                    }
+                    stmt.setString(4, instance.getDbInstanceIdentifier());
+                    stmt.addBatch();
+                    
+                    if (++pending % 1000 == 0) {
+                        stmt.executeBatch();
+                    }
+                }
+                stmt.executeBatch();
+            }
+            
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error updating idle results of RDS instances: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+    
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+    
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error restoring auto-commit: " + e.getMessage());
+        }
+    }
 }
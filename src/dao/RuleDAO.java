@@ -12,6 +12,14 @@ import java.util.List;
 public class RuleDAO {
     private final Connection connection;
     
+    /**
+     * Sets the parameters of a rule write
+     */
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+    
     public RuleDAO() {
         this.connection = DBConnection.getInstance().getConnection();
     }
@@ -82,10 +90,11 @@ public class RuleDAO {
      */
     public boolean createRule(Rule rule) {
         String query = "INSERT INTO rules (rule_name, rule_type, resource_type, condition_metric, " +
-                      "condition_operator, condition_value, condition_duration, duration_unit, action_type, is_active, created_by) " +
-                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                      "condition_operator, condition_value, condition_duration, duration_unit, condition_expression, " +
+                      "evaluation_interval_minutes, jitter_percent, action_type, is_active, created_by) " +
+                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        return writeAndBumpVersion("creating rule", query, stmt -> {
             stmt.setString(1, rule.getRuleName());
             stmt.setString(2, rule.getRuleType());
             stmt.setString(3, rule.getResourceType());
@@ -94,17 +103,13 @@ public class RuleDAO {
             stmt.setDouble(6, rule.getConditionValue());
             stmt.setInt(7, rule.getConditionDuration());
             stmt.setString(8, rule.getDurationUnit());
-            stmt.setString(9, rule.getActionType());
-            stmt.setBoolean(10, rule.isActive());
-            stmt.setInt(11, rule.getCreatedBy());
-            
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Error creating rule: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return false;
+            stmt.setString(9, rule.getConditionExpression());
+            stmt.setInt(10, rule.getEvaluationIntervalMinutes());
+            stmt.setInt(11, rule.getJitterPercent());
+            stmt.setString(12, rule.getActionType());
+            stmt.setBoolean(13, rule.isActive());
+            stmt.setInt(14, rule.getCreatedBy());
+        });
     }
     
     /**
@@ -113,9 +118,10 @@ public class RuleDAO {
     public boolean updateRule(Rule rule) {
         String query = "UPDATE rules SET rule_name = ?, rule_type = ?, resource_type = ?, " +
                       "condition_metric = ?, condition_operator = ?, condition_value = ?, " +
-                      "condition_duration = ?, action_type = ?, is_active = ? WHERE rule_id = ?";
+                      "condition_duration = ?, condition_expression = ?, evaluation_interval_minutes = ?, " +
+                      "jitter_percent = ?, action_type = ?, is_active = ? WHERE rule_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        return writeAndBumpVersion("updating rule", query, stmt -> {
             stmt.setString(1, rule.getRuleName());
             stmt.setString(2, rule.getRuleType());
             stmt.setString(3, rule.getResourceType());
@@ -123,17 +129,13 @@ public class RuleDAO {
             stmt.setString(5, rule.getConditionOperator());
             stmt.setDouble(6, rule.getConditionValue());
             stmt.setInt(7, rule.getConditionDuration());
-            stmt.setString(8, rule.getActionType());
-            stmt.setBoolean(9, rule.isActive());
-            stmt.setInt(10, rule.getRuleId());
-            
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating rule: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return false;
+            stmt.setString(8, rule.getConditionExpression());
+            stmt.setInt(9, rule.getEvaluationIntervalMinutes());
+            stmt.setInt(10, rule.getJitterPercent());
+            stmt.setString(11, rule.getActionType());
+            stmt.setBoolean(12, rule.isActive());
+            stmt.setInt(13, rule.getRuleId());
+        });
     }
     
     /**
@@ -141,15 +143,7 @@ public class RuleDAO {
      */
     public boolean deleteRule(int ruleId) {
         String query = "DELETE FROM rules WHERE rule_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, ruleId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Error deleting rule: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return false;
+        return writeAndBumpVersion("deleting rule", query, stmt -> stmt.setInt(1, ruleId));
     }
     
     /**
@@ -157,17 +151,76 @@ public class RuleDAO {
      */
     public boolean toggleRuleStatus(int ruleId) {
         String query = "UPDATE rules SET is_active = NOT is_active WHERE rule_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, ruleId);
-            int rowsAffected = stmt.executeUpdate();
+        return writeAndBumpVersion("toggling rule status", query, stmt -> stmt.setInt(1, ruleId));
+    }
+    
+    /**
+     * Current version of the rules table
+     * Increases with every rule write, so caches can tell whether their copy is stale by
+     * reading this single row.
+     * @return the version, or -1 if it could not be read
+     */
+    public long getRulesVersion() {
+        String query = "SELECT version FROM rules_version WHERE id = 1";
+        try (PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return rs.getLong("version");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting rules version: " + e.getMessage());
+        }
+        return -1;
+    }
+    
+    /**
+     * Run a rule write and bump the rules version in one transaction
+     */
+    private boolean writeAndBumpVersion(String action, String query, StatementBinder binder) {
+        try {
+            connection.setAutoCommit(false);
+            
+            int rowsAffected;
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                binder.bind(stmt);
+                rowsAffected = stmt.executeUpdate();
+            }
+            
+            if (rowsAffected > 0) {
+                try (PreparedStatement stmt = connection.prepareStatement(
+                        "UPDATE rules_version SET version = version + 1 WHERE id = 1")) {
+                    stmt.executeUpdate();
+                }
+            }
+            
+            connection.commit();
             return rowsAffected > 0;
         } catch (SQLException e) {
-            System.err.println("Error toggling rule status: " + e.getMessage());
+            System.err.println("Error " + action + ": " + e.getMessage());
             e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
         }
         return false;
     }
     
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+    
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error restoring auto-commit: " + e.getMessage());
+        }
+    }
+    
     /**
      * Map ResultSet to Rule object
      */
@@ -182,6 +235,9 @@ public class RuleDAO {
         rule.setConditionValue(rs.getDouble("condition_value"));
         rule.setConditionDuration(rs.getInt("condition_duration"));
         rule.setDurationUnit(rs.getString("duration_unit"));
+        rule.setConditionExpression(rs.getString("condition_expression"));
+        rule.setEvaluationIntervalMinutes(rs.getInt("evaluation_interval_minutes"));
+        rule.setJitterPercent(rs.getInt("jitter_percent"));
         rule.setActionType(rs.getString("action_type"));
         rule.setActive(rs.getBoolean("is_active"));
         rule.setCreatedBy(rs.getInt("created_by"));
@@ -191,6 +247,11 @@ public class RuleDAO {
             rule.setCreatedAt(createdAt.toLocalDateTime());
         }
         
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt != null) {
+            rule.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+        
         return rule;
     }
 }
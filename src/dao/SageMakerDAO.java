@@ -4,12 +4,23 @@ import database.DBConnection;
 import models.SageMakerEndpoint;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * SageMakerDAO - Data Access Object for SageMakerEndpoint operations
  */
 public class SageMakerDAO {
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery("sagemaker_endpoints", "record_id", "endpoint_name",
+        "lastChecked", false, Map.of(
+            "lastChecked", "last_checked",
+            "endpointName", "endpoint_name",
+            "endpointStatus", "endpoint_status",
+            "invocations", "invocations",
+            "idle", "is_idle"
+        ));
+    
     private final Connection connection;
     
     public SageMakerDAO() {
@@ -120,6 +131,35 @@ public class SageMakerDAO {
         return endpoints;
     }
     
+    /**
+     * Get the SageMaker endpoints of one user
+     */
+    public List<SageMakerEndpoint> getEndpointsByUser(int userId) {
+        List<SageMakerEndpoint> endpoints = new ArrayList<>();
+        String query = "SELECT * FROM sagemaker_endpoints WHERE user_id = ? ORDER BY last_checked DESC";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                endpoints.add(mapResultSetToEndpoint(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting SageMaker endpoints of user " + userId + ": " + e.getMessage());
+        }
+        return endpoints;
+    }
+    
+    public Page<SageMakerEndpoint> getEndpointPage(PageRequest request) {
+        try {
+            return PAGE_QUERY.fetch(connection, request, null, this::mapResultSetToEndpoint);
+        } catch (SQLException e) {
+            System.err.println("Error getting page of SageMaker endpoints: " + e.getMessage());
+        }
+        return new Page<>(new ArrayList<>(), null, 0, false);
+    }
+    
     public int getTotalEndpointCount() {
         String query = "SELECT COUNT(*) FROM sagemaker_endpoints";
         try (Statement stmt = connection.createStatement();
@@ -160,4 +200,76 @@ public class SageMakerDAO {
         endpoint.setUserId(rs.getInt("user_id"));
         return endpoint;
     }
+    
+    /**
+     * Delete a SageMaker endpoint or notebook that was deleted in AWS
+     */
+    public boolean deleteEndpoint(String endpointName) {
+        String query = "DELETE FROM sagemaker_endpoints WHERE endpoint_name = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, endpointName);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error deleting SageMaker endpoint: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Write the metrics and idle flags of an idle detection pass in one batched transaction
+     */
+    public boolean updateIdleResults(Collection<SageMakerEndpoint> endpoints) {
+        String query = "UPDATE sagemaker_endpoints SET invocations = ?, is_idle = ?, last_checked = NOW() " +
+                      "WHERE endpoint_name = ?";
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                int pending = 0;
+                for (SageMakerEndpoint endpoint : endpoints) {
+                    stmt.setInt(1, endpoint.getInvocations());
+                    if (endpoint.isIdle() != null) {
+                        stmt.setBoolean(2, endpoint.isIdle());
+                    } else {
+                        stmt.setNull(2, java.sql.Types.BOOLEAN);
+                    }
+                    stmt.setString(3, endpoint.getEndpointName());
+                    stmt.addBatch();
+                    
+                    if (++pending % 1000 == 0) {
+                        stmt.executeBatch();
+                    }
+                }
+                stmt.executeBatch();
+            }
+            
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error updating idle results of SageMaker endpoints: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+    
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+    
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error restoring auto-commit: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,283 @@
+package dao;
+
+import database.DBConnection;
+import models.ECSService;
+import models.ResourceSchedule;
+import models.ScheduleTarget;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScheduleDAO - Data Access Object for off-hours resource schedules
+ */
+public class ScheduleDAO {
+    private final Connection connection;
+    
+    public ScheduleDAO() {
+        this.connection = DBConnection.getInstance().getConnection();
+    }
+    
+    /**
+     * Get all active schedules with their targets (one query)
+     */
+    public List<ResourceSchedule> getActiveSchedules() {
+        Map<Integer, ResourceSchedule> schedules = new LinkedHashMap<>();
+        String query = "SELECT s.*, t.target_id, t.resource_id, t.tag_key, t.tag_value " +
+                      "FROM resource_schedules s LEFT JOIN schedule_targets t ON t.schedule_id = s.schedule_id " +
+                      "WHERE s.is_active = TRUE ORDER BY s.schedule_id, t.target_id";
+        
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            
+            while (rs.next()) {
+                int scheduleId = rs.getInt("schedule_id");
+                ResourceSchedule schedule = schedules.get(scheduleId);
+                if (schedule == null) {
+                    schedule = mapResultSetToSchedule(rs);
+                    schedules.put(scheduleId, schedule);
+                }
+                int targetId = rs.getInt("target_id");
+                if (!rs.wasNull()) {
+                    ScheduleTarget target = new ScheduleTarget();
+                    target.setTargetId(targetId);
+                    target.setScheduleId(scheduleId);
+                    target.setResourceId(rs.getString("resource_id"));
+                    target.setTagKey(rs.getString("tag_key"));
+                    target.setTagValue(rs.getString("tag_value"));
+                    schedule.getTargets().add(target);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting active schedules: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return new ArrayList<>(schedules.values());
+    }
+    
+    /**
+     * Summary of both schedule tables (row counts and last update times)
+     * Changes whenever a schedule or target is added, removed or edited, so the scheduler
+     * only reloads schedules when this differs from its last load.
+     * @return the fingerprint, or null if it could not be read
+     */
+    public String getSchedulesFingerprint() {
+        String query = "SELECT (SELECT COUNT(*) FROM resource_schedules) AS schedules, " +
+                      "(SELECT MAX(updated_at) FROM resource_schedules) AS schedules_updated, " +
+                      "(SELECT COUNT(*) FROM schedule_targets) AS targets, " +
+                      "(SELECT MAX(updated_at) FROM schedule_targets) AS targets_updated";
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            if (rs.next()) {
+                return rs.getLong("schedules") + "/" + rs.getTimestamp("schedules_updated") + "/"
+                    + rs.getLong("targets") + "/" + rs.getTimestamp("targets_updated");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting schedules fingerprint: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Create a schedule and its targets in one transaction
+     */
+    public boolean createSchedule(ResourceSchedule schedule) {
+        String query = "INSERT INTO resource_schedules (schedule_name, resource_type, stop_cron, start_cron, " +
+                      "time_zone, is_active, created_by) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String targetQuery = "INSERT INTO schedule_targets (schedule_id, resource_id, tag_key, tag_value) " +
+                            "VALUES (?, ?, ?, ?)";
+        try {
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, schedule.getScheduleName());
+                stmt.setString(2, schedule.getResourceType());
+                stmt.setString(3, schedule.getStopCron());
+                stmt.setString(4, schedule.getStartCron());
+                stmt.setString(5, schedule.getTimeZone());
+                stmt.setBoolean(6, schedule.isActive());
+                stmt.setInt(7, schedule.getCreatedBy());
+                stmt.executeUpdate();
+                
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        schedule.setScheduleId(keys.getInt(1));
+                    }
+                }
+            }
+            
+            try (PreparedStatement stmt = connection.prepareStatement(targetQuery)) {
+                for (ScheduleTarget target : schedule.getTargets()) {
+                    target.setScheduleId(schedule.getScheduleId());
+                    stmt.setInt(1, schedule.getScheduleId());
+                    stmt.setString(2, target.getResourceId());
+                    stmt.setString(3, target.getTagKey());
+                    stmt.setString(4, target.getTagValue());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error creating schedule: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+    
+    /**
+     * Activate or deactivate a schedule
+     */
+    public boolean setScheduleActive(int scheduleId, boolean active) {
+        String query = "UPDATE resource_schedules SET is_active = ? WHERE schedule_id = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setBoolean(1, active);
+            stmt.setInt(2, scheduleId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating schedule status: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Delete a schedule (its targets are removed with it)
+     */
+    public boolean deleteSchedule(int scheduleId) {
+        String query = "DELETE FROM resource_schedules WHERE schedule_id = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, scheduleId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error deleting schedule: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Remember the desired counts of ECS services about to be scaled to 0 by a schedule
+     * (one batched upsert)
+     */
+    public boolean saveECSDesiredCounts(Collection<ECSService> services) {
+        if (services.isEmpty()) {
+            return true;
+        }
+        String query = "INSERT INTO schedule_ecs_capacity (cluster_name, service_name, desired_count) " +
+                      "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE desired_count = VALUES(desired_count)";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (ECSService service : services) {
+                stmt.setString(1, service.getClusterName());
+                stmt.setString(2, service.getServiceName());
+                stmt.setInt(3, service.getDesiredCount());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error saving ECS desired counts: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    /**
+     * Desired counts saved by saveECSDesiredCounts, keyed by "cluster/service"
+     */
+    public Map<String, Integer> getECSDesiredCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        String query = "SELECT cluster_name, service_name, desired_count FROM schedule_ecs_capacity";
+        
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            
+            while (rs.next()) {
+                counts.put(rs.getString("cluster_name") + "/" + rs.getString("service_name"), rs.getInt("desired_count"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting ECS desired counts: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return counts;
+    }
+    
+    /**
+     * Forget the saved desired counts of services that were started again
+     */
+    public boolean deleteECSDesiredCounts(Collection<ECSService> services) {
+        if (services.isEmpty()) {
+            return true;
+        }
+        String query = "DELETE FROM schedule_ecs_capacity WHERE cluster_name = ? AND service_name = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (ECSService service : services) {
+                stmt.setString(1, service.getClusterName());
+                stmt.setString(2, service.getServiceName());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error deleting ECS desired counts: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+    
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error restoring auto-commit: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Map ResultSet to ResourceSchedule object (without targets)
+     */
+    private ResourceSchedule mapResultSetToSchedule(ResultSet rs) throws SQLException {
+        ResourceSchedule schedule = new ResourceSchedule();
+        schedule.setScheduleId(rs.getInt("schedule_id"));
+        schedule.setScheduleName(rs.getString("schedule_name"));
+        schedule.setResourceType(rs.getString("resource_type"));
+        schedule.setStopCron(rs.getString("stop_cron"));
+        schedule.setStartCron(rs.getString("start_cron"));
+        schedule.setTimeZone(rs.getString("time_zone"));
+        schedule.setActive(rs.getBoolean("is_active"));
+        schedule.setCreatedBy(rs.getInt("created_by"));
+        
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            schedule.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt != null) {
+            schedule.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+        
+        return schedule;
+    }
+}
@@ -0,0 +1,191 @@
+package database;
+
+import metrics.MetricsRegistry;
+import metrics.SqlStatementEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MeteredConnection - JDBC connection wrapper that times every statement execution
+ * The statements a connection creates are wrapped too; each execute* call records its
+ * latency (and failures) under a label naming the statement by its verb and main table,
+ * e.g. "SELECT ec2_instances", so DAO queries are measured without touching the DAOs.
+ * Labels are derived once per distinct SQL text. While a JFR recording has the
+ * governance.SqlStatement event enabled, each execution is also recorded as an event.
+ */
+final class MeteredConnection {
+    private static final Pattern TABLE = Pattern.compile("\\b(?:FROM|INTO|UPDATE)\\s+`?(\\w+)", Pattern.CASE_INSENSITIVE);
+    // SQL texts with a cached label; texts built with literal values are labelled without caching once full
+    private static final int MAX_CACHED_LABELS = 2_000;
+    private static final Map<String, String> labels = new ConcurrentHashMap<>();
+
+    private MeteredConnection() {
+    }
+
+    /**
+     * Wrap a connection (null stays null)
+     */
+    static Connection wrap(Connection connection) {
+        if (connection == null) {
+            return null;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection));
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = call(target, method, args);
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                    : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {type},
+                    new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        // SQL of a prepared statement, or the last SQL added to a plain statement's batch
+        private String sql;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("addBatch") && args != null && args.length == 1) {
+                sql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                return call(target, method, args);
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            String label = label(executed);
+            SqlStatementEvent event = new SqlStatementEvent();
+            event.begin();
+            long start = System.nanoTime();
+            Object result = null;
+            boolean failed = false;
+            try {
+                result = call(target, method, args);
+                return result;
+            } catch (Throwable e) {
+                failed = true;
+                MetricsRegistry.getInstance().counter("governance_db_statement_errors", "Failed statement executions",
+                    "statement", label).inc();
+                throw e;
+            } finally {
+                MetricsRegistry.getInstance().histogram("governance_db_statement_duration_seconds",
+                    "Statement execution latency (result sets are read afterwards)", "statement", label)
+                    .observeNanos(System.nanoTime() - start);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.statement = label;
+                    event.sql = executed;
+                    event.method = name;
+                    event.rows = rows(result);
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows changed according to an execute* result (update counts), -1 if it has none
+     */
+    private static long rows(Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        return -1;
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Verb and main table of a statement, e.g. "INSERT alerts"
+     */
+    static String label(String sql) {
+        if (sql == null) {
+            return "unknown";
+        }
+        String label = labels.get(sql);
+        if (label == null) {
+            label = describe(sql);
+            if (labels.size() < MAX_CACHED_LABELS) {
+                labels.put(sql, label);
+            }
+        }
+        return label;
+    }
+
+    private static String describe(String sql) {
+        String trimmed = sql.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String verb = trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+        Matcher table = TABLE.matcher(trimmed);
+        return table.find() ? verb + " " + table.group(1).toLowerCase(Locale.ROOT) : verb;
+    }
+}
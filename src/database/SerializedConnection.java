@@ -0,0 +1,137 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SerializedConnection - JDBC connection wrapper that lets one thread at a time use the shared connection
+ * Every call on the connection and on the statements it creates runs under one lock. A
+ * transaction holds the lock from setAutoCommit(false) until setAutoCommit(true), so
+ * statements of other threads wait instead of running inside it, and commit or rollback
+ * only ever ends the calling thread's own work. Result sets are not wrapped: the driver
+ * reads a result completely when the statement executes (no streaming or cursor fetch is
+ * configured), so reading rows does not touch the connection.
+ */
+final class SerializedConnection {
+
+    private SerializedConnection() {
+    }
+
+    /**
+     * Wrap a connection (null stays null)
+     * @param lock lock shared by every wrapper of the database, so a reconnect keeps serializing
+     */
+    static Connection wrap(Connection connection, ReentrantLock lock) {
+        if (connection == null) {
+            return null;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection, lock));
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final ReentrantLock lock;
+        // Thread with an open transaction; it keeps one extra hold on the lock until the transaction ends
+        private Thread transactionOwner;
+
+        ConnectionHandler(Connection target, ReentrantLock lock) {
+            this.target = target;
+            this.lock = lock;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("setAutoCommit")) {
+                setAutoCommit((Boolean) args[0]);
+                return null;
+            }
+
+            lock.lock();
+            try {
+                Object result = call(target, method, args);
+                if (result instanceof Statement) {
+                    Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {type},
+                        new StatementHandler((Statement) result, lock));
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Start or end a transaction of the calling thread
+         */
+        private void setAutoCommit(boolean autoCommit) throws SQLException {
+            lock.lock();
+            try {
+                if (!autoCommit && transactionOwner == null) {
+                    target.setAutoCommit(false);
+                    transactionOwner = Thread.currentThread();
+                    // Keep the hold taken above until the transaction ends
+                    lock.lock();
+                } else if (autoCommit && transactionOwner == Thread.currentThread()) {
+                    transactionOwner = null;
+                    lock.unlock();
+                    target.setAutoCommit(true);
+                } else {
+                    target.setAutoCommit(autoCommit);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final ReentrantLock lock;
+
+        StatementHandler(Statement target, ReentrantLock lock) {
+            this.target = target;
+            this.lock = lock;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            lock.lock();
+            try {
+                return call(target, method, args);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
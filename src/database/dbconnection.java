@@ -3,15 +3,23 @@ package database;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * DBConnection - Singleton database connection manager
+ * The connection is wrapped in a MeteredConnection, so statement latencies are recorded.
+ * DAOs on background threads, the schedulers and the daemon all share it, so it is also
+ * wrapped in a SerializedConnection: one thread uses it at a time, and a transaction keeps
+ * it for its whole duration.
  */
 public class DBConnection {
     private static DBConnection instance;
     private Connection connection;
+    // Serializes the connection across reconnects
+    private final ReentrantLock lock = new ReentrantLock();
     
-    private static final String URL = "jdbc:mysql://localhost:3306/aws_governance_db";
+    // rewriteBatchedStatements sends a JDBC batch in one round trip instead of one per row
+    private static final String URL = "jdbc:mysql://localhost:3306/aws_governance_db?rewriteBatchedStatements=true";
     private static final String USER = "root";
     private static final String PASSWORD = ""; // XAMPP default - UPDATE THIS WITH YOUR MYSQL PASSWORD
 
@@ -19,7 +27,7 @@ public class DBConnection {
     private DBConnection() {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
-            this.connection = DriverManager.getConnection(URL, USER, PASSWORD);
+            this.connection = open();
             System.out.println("Database connection established successfully");
         } catch (ClassNotFoundException e) {
             System.err.println("MySQL JDBC Driver not found");
@@ -30,6 +38,14 @@ public class DBConnection {
         }
     }
 
+    private DBConnection(Connection connection) {
+        this.connection = connection;
+    }
+
+    private Connection open() throws SQLException {
+        return SerializedConnection.wrap(MeteredConnection.wrap(DriverManager.getConnection(URL, USER, PASSWORD)), lock);
+    }
+
     /**
      * Get Singleton instance
      */
@@ -40,6 +56,14 @@ public class DBConnection {
         return instance;
     }
 
+    /**
+     * Use the given connection instead of connecting to MySQL (e.g. an in-memory stand-in
+     * in the benchmarks); it is used as is, without metering or serialization
+     */
+    public static synchronized void useConnection(Connection connection) {
+        instance = new DBConnection(connection);
+    }
+
     /**
      * Get database connection
      */
@@ -47,7 +71,7 @@ public class DBConnection {
         try {
             // Check if connection is valid, reconnect if needed
             if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
+                connection = open();
             }
         } catch (SQLException e) {
             System.err.println("Error getting connection");
@@ -0,0 +1,39 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * AwsCallEvent - JFR event for one AWS API call, retries included
+ */
+@Name("governance.AwsCall")
+@Label("AWS API Call")
+@Category({"AWS Governance", "AWS"})
+@Description("An AWS SDK call made through a client from AWSClientFactory")
+public class AwsCallEvent extends jdk.jfr.Event {
+    @Label("Service")
+    public String service;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Attempts")
+    @Description("HTTP requests sent, retries included")
+    public int attempts;
+
+    @Label("Request Size")
+    @Description("Request bodies sent, summed over attempts")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Size")
+    @Description("Response bodies received (by Content-Length), summed over attempts")
+    @DataAmount
+    public long responseBytes;
+}
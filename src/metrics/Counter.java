@@ -0,0 +1,26 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter - Monotonically increasing count
+ * Backed by a LongAdder, so threads incrementing at once do not contend on one value.
+ */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void inc() {
+        value.increment();
+    }
+
+    public void inc(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
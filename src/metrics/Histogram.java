@@ -0,0 +1,61 @@
+package metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram - Distribution of observed values (usually latencies in seconds) over fixed buckets
+ * Each bucket counts the observations up to its bound that are above the previous one;
+ * the cumulative counts Prometheus expects are summed when the histogram is read, so an
+ * observation costs one bucket search and two adder updates.
+ */
+public final class Histogram {
+    private final double[] bounds;
+    private final LongAdder[] buckets;
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(double[] bounds) {
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value > bounds[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sum.add(value);
+    }
+
+    /**
+     * Observe a duration measured with System.nanoTime(), in seconds
+     */
+    public void observeNanos(long nanos) {
+        observe(nanos / 1e9);
+    }
+
+    double[] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Cumulative counts, one per bound plus the +Inf bucket (the total count)
+     */
+    long[] getCumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            counts[i] = total;
+        }
+        return counts;
+    }
+
+    double getSum() {
+        return sum.sum();
+    }
+}
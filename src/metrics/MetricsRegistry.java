@@ -0,0 +1,229 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * MetricsRegistry - Counters, gauges and histograms exposed in the Prometheus text format
+ * Singleton. A metric is a family (name, help, type) with one child per set of label
+ * values; children are created on first use and live as long as the process. Recording
+ * is lock-free: a child is found with a ConcurrentHashMap read and updated through
+ * LongAdder / DoubleAdder cells, and the values are only summed when scraped. Callers on
+ * hot paths can keep the returned Counter or Histogram instead of looking it up per call.
+ *
+ * Labels are passed as name, value pairs. Label values must come from a small set
+ * (resource types, API operations, statements), never from ids.
+ */
+public final class MetricsRegistry {
+    private static MetricsRegistry instance;
+
+    /**
+     * Latency buckets in seconds, from 5 ms to 5 minutes
+     */
+    public static final double[] LATENCY_BUCKETS = {
+        0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 300
+    };
+
+    private enum Type {
+        COUNTER("counter"), GAUGE("gauge"), HISTOGRAM("histogram");
+
+        private final String text;
+
+        Type(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * All children of one metric name, keyed by their rendered labels ({a="x",b="y"})
+     */
+    private static final class Family {
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final Map<String, Object> children = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private MetricsRegistry() {
+        Runtime runtime = Runtime.getRuntime();
+        gauge("governance_jvm_heap_used_bytes", "Heap in use", () -> runtime.totalMemory() - runtime.freeMemory());
+        gauge("governance_jvm_heap_max_bytes", "Maximum heap size", runtime::maxMemory);
+        gauge("governance_jvm_threads", "Live threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        gauge("governance_uptime_seconds", "Time since the JVM started",
+            () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Counter with the given label values, created on first use
+     * The name is given without the _total suffix, which is added when scraped.
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) child(name, help, Type.COUNTER, labels, null);
+    }
+
+    /**
+     * Latency histogram (LATENCY_BUCKETS, in seconds) with the given label values
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        return histogram(name, help, LATENCY_BUCKETS, labels);
+    }
+
+    /**
+     * Histogram with the given bucket bounds (ascending) and label values
+     */
+    public Histogram histogram(String name, String help, double[] bounds, String... labels) {
+        return (Histogram) child(name, help, Type.HISTOGRAM, labels, bounds);
+    }
+
+    /**
+     * Gauge read from the supplier when scraped; registering the same name and labels
+     * again replaces the supplier
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).children.put(renderLabels(labels), value);
+    }
+
+    /**
+     * Every metric in the Prometheus text exposition format (version 0.0.4)
+     */
+    public String scrape() {
+        List<Family> sorted = new ArrayList<>(families.values());
+        sorted.sort((a, b) -> a.name.compareTo(b.name));
+
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : sorted) {
+            out.append("# HELP ").append(family.name).append(' ').append(escapeHelp(family.help)).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type.text).append('\n');
+            List<String> labelSets = new ArrayList<>(family.children.keySet());
+            labelSets.sort(null);
+            for (String labels : labelSets) {
+                Object child = family.children.get(labels);
+                if (child instanceof Counter) {
+                    sample(out, family.name + "_total", labels, ((Counter) child).get());
+                } else if (child instanceof Histogram) {
+                    writeHistogram(out, family.name, labels, (Histogram) child);
+                } else if (child instanceof DoubleSupplier) {
+                    try {
+                        sample(out, family.name, labels, ((DoubleSupplier) child).getAsDouble());
+                    } catch (RuntimeException e) {
+                        // A gauge whose source is gone is left out of this scrape
+                    }
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private Object child(String name, String help, Type type, String[] labels, double[] bounds) {
+        Family family = family(name, help, type);
+        String key = renderLabels(labels);
+        Object child = family.children.get(key);
+        if (child == null) {
+            Object created = type == Type.COUNTER ? new Counter() : new Histogram(bounds.clone());
+            child = family.children.putIfAbsent(key, created);
+            if (child == null) {
+                child = created;
+            }
+        }
+        return child;
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.get(name);
+        if (family == null) {
+            family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        }
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type.text);
+        }
+        return family;
+    }
+
+    private static void writeHistogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        double[] bounds = histogram.getBounds();
+        long[] counts = histogram.getCumulativeCounts();
+        // The le label goes after the histogram's own labels
+        String prefix = labels.isEmpty() ? "{" : labels.substring(0, labels.length() - 1) + ",";
+        for (int i = 0; i < bounds.length; i++) {
+            sample(out, name + "_bucket", prefix + "le=\"" + formatValue(bounds[i]) + "\"}", counts[i]);
+        }
+        sample(out, name + "_bucket", prefix + "le=\"+Inf\"}", counts[bounds.length]);
+        sample(out, name + "_sum", labels, histogram.getSum());
+        sample(out, name + "_count", labels, counts[bounds.length]);
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append(labels).append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String renderLabels(String[] labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name, value pairs");
+        }
+        StringBuilder rendered = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                rendered.append(',');
+            }
+            rendered.append(labels[i]).append("=\"");
+            String value = labels[i + 1] != null ? labels[i + 1] : "";
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                if (ch == '\\' || ch == '"') {
+                    rendered.append('\\').append(ch);
+                } else if (ch == '\n') {
+                    rendered.append("\\n");
+                } else {
+                    rendered.append(ch);
+                }
+            }
+            rendered.append('"');
+        }
+        return rendered.append('}').toString();
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,93 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * MetricsServer - Serves the metrics registry on GET /metrics for Prometheus to scrape
+ * Uses the JDK's built-in HTTP server on one daemon thread; a scrape only sums the
+ * registry's counters, so it never waits on the code being measured.
+ */
+public class MetricsServer {
+    private final String host;
+    private final int port;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param host address to bind (e.g. 127.0.0.1 to only accept local scrapes)
+     * @param port port to listen on
+     */
+    public MetricsServer(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Start listening
+     * @return false if the port could not be bound
+     */
+    public synchronized boolean start() {
+        if (server != null) {
+            return true;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        } catch (IOException e) {
+            System.err.println("Error starting metrics endpoint on " + host + ":" + port + ": " + e.getMessage());
+            return false;
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+        System.out.println("Metrics endpoint listening on http://" + host + ":" + port + "/metrics");
+        return true;
+    }
+
+    /**
+     * Stop listening
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = MetricsRegistry.getInstance().scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * RuleEvaluationEvent - JFR event for one rule evaluated against all resources of its type
+ */
+@Name("governance.RuleEvaluation")
+@Label("Rule Evaluation")
+@Category({"AWS Governance", "Rules"})
+@Description("A rule evaluated against every resource of its type")
+public class RuleEvaluationEvent extends jdk.jfr.Event {
+    @Label("Rule Id")
+    public int ruleId;
+
+    @Label("Rule Name")
+    public String ruleName;
+
+    @Label("Resource Type")
+    public String resourceType;
+
+    @Label("Resources")
+    @Description("Resources the rule was checked against")
+    public int resources;
+
+    @Label("Matches")
+    public int matches;
+}
@@ -0,0 +1,32 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SqlStatementEvent - JFR event for one statement execution on the shared connection
+ */
+@Name("governance.SqlStatement")
+@Label("SQL Statement")
+@Category({"AWS Governance", "Database"})
+@Description("A JDBC execute call (reading the result set afterwards is not included)")
+public class SqlStatementEvent extends jdk.jfr.Event {
+    @Label("Statement")
+    @Description("Verb and main table, e.g. SELECT ec2_instances")
+    public String statement;
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Rows")
+    @Description("Rows inserted, updated or deleted; -1 for queries")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,25 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SyncStageEvent - JFR event for one stage of an account sync (e.g. the EC2 sync)
+ */
+@Name("governance.SyncStage")
+@Label("Sync Stage")
+@Category({"AWS Governance", "Sync"})
+@Description("One stage of syncing an account's resources from AWS")
+public class SyncStageEvent extends jdk.jfr.Event {
+    @Label("Stage")
+    public String stage;
+
+    @Label("User Id")
+    public int userId;
+
+    @Label("Resources")
+    @Description("Resources synced (or rule checks run) by the stage, -1 on failure")
+    public int resources;
+}
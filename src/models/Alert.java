@@ -14,6 +14,7 @@ public class Alert {
     private String severity;
     private String message;
     private int ruleId;
+    private int userId;
     private boolean isResolved;
     private LocalDateTime createdAt;
     private LocalDateTime resolvedAt;
@@ -87,6 +88,14 @@ public class Alert {
         this.ruleId = ruleId;
     }
     
+    public int getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+    
     public boolean isResolved() {
         return isResolved;
     }
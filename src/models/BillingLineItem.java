@@ -0,0 +1,113 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * BillingLineItem model class
+ * Represents Cost and Usage Report line items aggregated by
+ * service, resource id, usage type and day
+ */
+public class BillingLineItem {
+    private int userId;
+    private String sourceFile;
+    private LocalDate usageDate;
+    private String serviceName;
+    private String resourceId;
+    private String usageType;
+    private double usageAmount;
+    private double costAmount;
+    
+    // Constructors
+    public BillingLineItem() {}
+    
+    public BillingLineItem(LocalDate usageDate, String serviceName, String resourceId, String usageType) {
+        this.usageDate = usageDate;
+        this.serviceName = serviceName;
+        this.resourceId = resourceId;
+        this.usageType = usageType;
+    }
+    
+    /**
+     * Add another line item's usage and cost to this aggregate
+     */
+    public void add(double usageAmount, double costAmount) {
+        this.usageAmount += usageAmount;
+        this.costAmount += costAmount;
+    }
+    
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+    
+    public String getSourceFile() {
+        return sourceFile;
+    }
+    
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+    
+    public LocalDate getUsageDate() {
+        return usageDate;
+    }
+    
+    public void setUsageDate(LocalDate usageDate) {
+        this.usageDate = usageDate;
+    }
+    
+    public String getServiceName() {
+        return serviceName;
+    }
+    
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+    
+    public String getResourceId() {
+        return resourceId;
+    }
+    
+    public void setResourceId(String resourceId) {
+        this.resourceId = resourceId;
+    }
+    
+    public String getUsageType() {
+        return usageType;
+    }
+    
+    public void setUsageType(String usageType) {
+        this.usageType = usageType;
+    }
+    
+    public double getUsageAmount() {
+        return usageAmount;
+    }
+    
+    public void setUsageAmount(double usageAmount) {
+        this.usageAmount = usageAmount;
+    }
+    
+    public double getCostAmount() {
+        return costAmount;
+    }
+    
+    public void setCostAmount(double costAmount) {
+        this.costAmount = costAmount;
+    }
+    
+    @Override
+    public String toString() {
+        return "BillingLineItem{" +
+                "usageDate=" + usageDate +
+                ", serviceName='" + serviceName + '\'' +
+                ", resourceId='" + resourceId + '\'' +
+                ", usageType='" + usageType + '\'' +
+                ", costAmount=" + costAmount +
+                '}';
+    }
+}
@@ -0,0 +1,89 @@
+package models;
+
+/**
+ * CURCheckpoint model class
+ * Records how far a Cost and Usage Report file has been ingested
+ */
+public class CURCheckpoint {
+    private int userId;
+    private String filePath;
+    private long fileSize;
+    private long lastModified;
+    private long byteOffset;
+    private boolean completed;
+    
+    // Constructors
+    public CURCheckpoint() {}
+    
+    public CURCheckpoint(int userId, String filePath, long fileSize, long lastModified) {
+        this.userId = userId;
+        this.filePath = filePath;
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+    }
+    
+    /**
+     * Check whether this checkpoint was taken for the same version of the file
+     */
+    public boolean matches(long fileSize, long lastModified) {
+        return this.fileSize == fileSize && this.lastModified == lastModified;
+    }
+    
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+    
+    public String getFilePath() {
+        return filePath;
+    }
+    
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+    
+    public long getFileSize() {
+        return fileSize;
+    }
+    
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+    
+    public long getLastModified() {
+        return lastModified;
+    }
+    
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+    
+    public long getByteOffset() {
+        return byteOffset;
+    }
+    
+    public void setByteOffset(long byteOffset) {
+        this.byteOffset = byteOffset;
+    }
+    
+    public boolean isCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+    
+    @Override
+    public String toString() {
+        return "CURCheckpoint{" +
+                "filePath='" + filePath + '\'' +
+                ", byteOffset=" + byteOffset +
+                ", completed=" + completed +
+                '}';
+    }
+}
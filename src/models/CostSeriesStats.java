@@ -0,0 +1,105 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * CostSeriesStats model class
+ * Streaming statistics of the daily cost of one service, used for anomaly detection
+ */
+public class CostSeriesStats {
+    private int userId;
+    private String serviceName;
+    private LocalDate lastDay;
+    private int observations;
+    private double mean;
+    private double variance;
+
+    // Constructors
+    public CostSeriesStats() {}
+
+    public CostSeriesStats(int userId, String serviceName) {
+        this.userId = userId;
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Fold one daily cost into the exponentially weighted mean and variance
+     */
+    public void update(LocalDate day, double cost, double alpha) {
+        if (observations == 0) {
+            mean = cost;
+            variance = 0.0;
+        } else {
+            double diff = cost - mean;
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+        observations++;
+        lastDay = day;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(Math.max(variance, 0.0));
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public LocalDate getLastDay() {
+        return lastDay;
+    }
+
+    public void setLastDay(LocalDate lastDay) {
+        this.lastDay = lastDay;
+    }
+
+    public int getObservations() {
+        return observations;
+    }
+
+    public void setObservations(int observations) {
+        this.observations = observations;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+
+    public double getVariance() {
+        return variance;
+    }
+
+    public void setVariance(double variance) {
+        this.variance = variance;
+    }
+
+    @Override
+    public String toString() {
+        return "CostSeriesStats{" +
+                "serviceName='" + serviceName + '\'' +
+                ", lastDay=" + lastDay +
+                ", observations=" + observations +
+                ", mean=" + mean +
+                ", stdDev=" + getStandardDeviation() +
+                '}';
+    }
+}
@@ -0,0 +1,144 @@
+package models;
+
+import java.time.LocalDateTime;
+
+/**
+ * DashboardSummary model class
+ * Per-user counts shown in the dashboard header: resources, idle resources and
+ * open alerts by severity
+ */
+public class DashboardSummary {
+    private int userId;
+    private int ec2Count;
+    private int ec2IdleCount;
+    private int rdsCount;
+    private int rdsIdleCount;
+    private int ecsCount;
+    private int ecsIdleCount;
+    private int sageMakerCount;
+    private int sageMakerIdleCount;
+    private int openAlertsHigh;
+    private int openAlertsMedium;
+    private int openAlertsLow;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public DashboardSummary() {}
+
+    public DashboardSummary(int userId) {
+        this.userId = userId;
+    }
+
+    public int getOpenAlertCount() {
+        return openAlertsHigh + openAlertsMedium + openAlertsLow;
+    }
+
+    public int getIdleResourceCount() {
+        return ec2IdleCount + rdsIdleCount + ecsIdleCount + sageMakerIdleCount;
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getEc2Count() {
+        return ec2Count;
+    }
+
+    public void setEc2Count(int ec2Count) {
+        this.ec2Count = ec2Count;
+    }
+
+    public int getEc2IdleCount() {
+        return ec2IdleCount;
+    }
+
+    public void setEc2IdleCount(int ec2IdleCount) {
+        this.ec2IdleCount = ec2IdleCount;
+    }
+
+    public int getRdsCount() {
+        return rdsCount;
+    }
+
+    public void setRdsCount(int rdsCount) {
+        this.rdsCount = rdsCount;
+    }
+
+    public int getRdsIdleCount() {
+        return rdsIdleCount;
+    }
+
+    public void setRdsIdleCount(int rdsIdleCount) {
+        this.rdsIdleCount = rdsIdleCount;
+    }
+
+    public int getEcsCount() {
+        return ecsCount;
+    }
+
+    public void setEcsCount(int ecsCount) {
+        this.ecsCount = ecsCount;
+    }
+
+    public int getEcsIdleCount() {
+        return ecsIdleCount;
+    }
+
+    public void setEcsIdleCount(int ecsIdleCount) {
+        this.ecsIdleCount = ecsIdleCount;
+    }
+
+    public int getSageMakerCount() {
+        return sageMakerCount;
+    }
+
+    public void setSageMakerCount(int sageMakerCount) {
+        this.sageMakerCount = sageMakerCount;
+    }
+
+    public int getSageMakerIdleCount() {
+        return sageMakerIdleCount;
+    }
+
+    public void setSageMakerIdleCount(int sageMakerIdleCount) {
+        this.sageMakerIdleCount = sageMakerIdleCount;
+    }
+
+    public int getOpenAlertsHigh() {
+        return openAlertsHigh;
+    }
+
+    public void setOpenAlertsHigh(int openAlertsHigh) {
+        this.openAlertsHigh = openAlertsHigh;
+    }
+
+    public int getOpenAlertsMedium() {
+        return openAlertsMedium;
+    }
+
+    public void setOpenAlertsMedium(int openAlertsMedium) {
+        this.openAlertsMedium = openAlertsMedium;
+    }
+
+    public int getOpenAlertsLow() {
+        return openAlertsLow;
+    }
+
+    public void setOpenAlertsLow(int openAlertsLow) {
+        this.openAlertsLow = openAlertsLow;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,134 @@
+package models;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ResourceSchedule model class
+ * Stops and starts resources of one type on cron schedules (e.g. dev instances off at night)
+ */
+public class ResourceSchedule {
+    private int scheduleId;
+    private String scheduleName;
+    private String resourceType;
+    private String stopCron;
+    private String startCron;
+    private String timeZone = "UTC";
+    private boolean isActive;
+    private int createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<ScheduleTarget> targets = new ArrayList<>();
+    
+    // Constructors
+    public ResourceSchedule() {}
+    
+    public ResourceSchedule(String scheduleName, String resourceType, String stopCron, String startCron) {
+        this.scheduleName = scheduleName;
+        this.resourceType = resourceType;
+        this.stopCron = stopCron;
+        this.startCron = startCron;
+        this.isActive = true;
+    }
+    
+    // Getters and Setters
+    public int getScheduleId() {
+        return scheduleId;
+    }
+    
+    public void setScheduleId(int scheduleId) {
+        this.scheduleId = scheduleId;
+    }
+    
+    public String getScheduleName() {
+        return scheduleName;
+    }
+    
+    public void setScheduleName(String scheduleName) {
+        this.scheduleName = scheduleName;
+    }
+    
+    public String getResourceType() {
+        return resourceType;
+    }
+    
+    public void setResourceType(String resourceType) {
+        this.resourceType = resourceType;
+    }
+    
+    /**
+     * When resources are stopped (cron), or null if the schedule never stops them
+     */
+    public String getStopCron() {
+        return stopCron;
+    }
+    
+    public void setStopCron(String stopCron) {
+        this.stopCron = stopCron;
+    }
+    
+    /**
+     * When resources are started (cron), or null if the schedule never starts them
+     */
+    public String getStartCron() {
+        return startCron;
+    }
+    
+    public void setStartCron(String startCron) {
+        this.startCron = startCron;
+    }
+    
+    public String getTimeZone() {
+        return timeZone;
+    }
+    
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+    
+    public boolean isActive() {
+        return isActive;
+    }
+    
+    public void setActive(boolean active) {
+        isActive = active;
+    }
+    
+    public int getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(int createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public List<ScheduleTarget> getTargets() {
+        return targets;
+    }
+    
+    public void setTargets(List<ScheduleTarget> targets) {
+        this.targets = targets;
+    }
+    
+    @Override
+    public String toString() {
+        return scheduleName + " (" + resourceType + ")";
+    }
+}
@@ -16,6 +16,9 @@ public class Rule {
     private double conditionValue;
     private int conditionDuration;
     private String durationUnit;
+    private String conditionExpression;
+    private int evaluationIntervalMinutes = 15;
+    private int jitterPercent = 10;
     private String actionType;
     private boolean isActive;
     private int createdBy;
@@ -106,6 +109,30 @@ public class Rule {
         this.durationUnit = durationUnit;
     }
     
+    public String getConditionExpression() {
+        return conditionExpression;
+    }
+    
+    public void setConditionExpression(String conditionExpression) {
+        this.conditionExpression = conditionExpression;
+    }
+    
+    public int getEvaluationIntervalMinutes() {
+        return evaluationIntervalMinutes;
+    }
+    
+    public void setEvaluationIntervalMinutes(int evaluationIntervalMinutes) {
+        this.evaluationIntervalMinutes = evaluationIntervalMinutes;
+    }
+    
+    public int getJitterPercent() {
+        return jitterPercent;
+    }
+    
+    public void setJitterPercent(int jitterPercent) {
+        this.jitterPercent = jitterPercent;
+    }
+    
     public String getActionType() {
         return actionType;
     }
@@ -0,0 +1,88 @@
+package models;
+
+/**
+ * ScheduleTarget model class
+ * One thing a resource schedule applies to: a single resource, or every resource with a tag
+ */
+public class ScheduleTarget {
+    private int targetId;
+    private int scheduleId;
+    private String resourceId;
+    private String tagKey;
+    private String tagValue;
+    
+    // Constructors
+    public ScheduleTarget() {}
+    
+    /**
+     * Target for one resource (EC2 instance id, RDS identifier, or "cluster/service" for ECS)
+     */
+    public static ScheduleTarget forResource(String resourceId) {
+        ScheduleTarget target = new ScheduleTarget();
+        target.setResourceId(resourceId);
+        return target;
+    }
+    
+    /**
+     * Target for every resource with the tag (any value when tagValue is null)
+     */
+    public static ScheduleTarget forTag(String tagKey, String tagValue) {
+        ScheduleTarget target = new ScheduleTarget();
+        target.setTagKey(tagKey);
+        target.setTagValue(tagValue);
+        return target;
+    }
+    
+    public boolean isTagSelector() {
+        return tagKey != null;
+    }
+    
+    // Getters and Setters
+    public int getTargetId() {
+        return targetId;
+    }
+    
+    public void setTargetId(int targetId) {
+        this.targetId = targetId;
+    }
+    
+    public int getScheduleId() {
+        return scheduleId;
+    }
+    
+    public void setScheduleId(int scheduleId) {
+        this.scheduleId = scheduleId;
+    }
+    
+    public String getResourceId() {
+        return resourceId;
+    }
+    
+    public void setResourceId(String resourceId) {
+        this.resourceId = resourceId;
+    }
+    
+    public String getTagKey() {
+        return tagKey;
+    }
+    
+    public void setTagKey(String tagKey) {
+        this.tagKey = tagKey;
+    }
+    
+    public String getTagValue() {
+        return tagValue;
+    }
+    
+    public void setTagValue(String tagValue) {
+        this.tagValue = tagValue;
+    }
+    
+    @Override
+    public String toString() {
+        if (isTagSelector()) {
+            return "tag " + tagKey + (tagValue != null ? "=" + tagValue : "");
+        }
+        return resourceId;
+    }
+}
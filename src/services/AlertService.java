@@ -2,17 +2,21 @@ package services;
 
 import models.Alert;
 import dao.AlertDAO;
-import java.util.ArrayList;
+import dao.Page;
+import dao.PageRequest;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * AlertService - Observer Pattern implementation for alert management
  * Singleton service that manages alerts and notifies observers
+ * Alerts are created from the UI, the rule scheduler, background workers and the daemon,
+ * so observers may register and be notified on any thread.
  */
 public class AlertService {
     private static AlertService instance;
     private final AlertDAO alertDAO;
-    private final List<AlertObserver> observers;
+    private final CopyOnWriteArrayList<AlertObserver> observers;
     private final EmailService emailService;
     private final String notificationEmail = "mahadmalik1090@gmail.com"; // Default notification email
     
@@ -21,7 +25,7 @@ public class AlertService {
      */
     private AlertService() {
         this.alertDAO = new AlertDAO();
-        this.observers = new ArrayList<>();
+        this.observers = new CopyOnWriteArrayList<>();
         this.emailService = EmailService.getInstance();
     }
     
@@ -39,8 +43,7 @@ public class AlertService {
      * Register an observer (Observer Pattern)
      */
     public void registerObserver(AlertObserver observer) {
-        if (!observers.contains(observer)) {
-            observers.add(observer);
+        if (observers.addIfAbsent(observer)) {
             System.out.println("Observer registered: " + observer.getClass().getSimpleName());
         }
     }
@@ -55,9 +58,20 @@ public class AlertService {
     
     /**
      * Create an alert and notify observers
+     * Scheduled evaluations find a resource that keeps matching on every run, so an alert
+     * already open for the same rule, alert type, resource and user is not created (or
+     * emailed) again; the call still returns true, as the alert is open.
      */
     public boolean createAlert(Alert alert) {
-        boolean success = alertDAO.createAlert(alert);
+        boolean success;
+        // Check and insert together, so concurrent evaluations cannot both create the alert
+        synchronized (alertDAO) {
+            if (!alert.isResolved() && alertDAO.hasOpenAlert(alert)) {
+                System.out.println("Alert already open: " + alert.getMessage());
+                return true;
+            }
+            success = alertDAO.createAlert(alert);
+        }
         
         if (success) {
             System.out.println("Alert created: " + alert.getMessage());
@@ -111,6 +125,13 @@ public class AlertService {
         return alertDAO.getAllAlerts();
     }
     
+    /**
+     * Get one page of alerts for a paged table view
+     */
+    public Page<Alert> getAlertPage(boolean unresolvedOnly, PageRequest request) {
+        return alertDAO.getAlertPage(unresolvedOnly, request);
+    }
+    
     /**
      * Get alerts by resource type
      */
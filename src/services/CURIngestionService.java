@@ -0,0 +1,708 @@
+package services;
+
+import dao.BillingLineItemDAO;
+import models.BillingLineItem;
+import models.CURCheckpoint;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * CURIngestionService - Streaming ingestion of local AWS Cost and Usage Report files
+ *
+ * Plain CSV files are memory-mapped block by block; CSV.gz files are decompressed as a
+ * stream and cut into blocks. Blocks are split on record boundaries (line breaks outside
+ * quoted fields) and parsed on a worker pool, and only the columns needed for aggregation
+ * are decoded. Line items are summed by service, resource id, usage type and day, then
+ * committed together with a byte-offset checkpoint so an interrupted ingestion resumes
+ * where it stopped.
+ *
+ * A file is identified by its path relative to the CUR root directory (e.g.
+ * "report/20250101-20250201/report-00001.csv.gz"): CUR reuses file names in every
+ * billing-period folder, so the bare file name would mix up months. The same key is used
+ * for the checkpoint, the line items' source_file and their item hash.
+ *
+ * Memory stays bounded by the number of blocks in flight plus the distinct line items of
+ * one commit window; the whole file is never materialized.
+ */
+public class CURIngestionService {
+    private static final int MAPPED_BLOCK_SIZE = 32 * 1024 * 1024;
+    private static final int STREAM_BLOCK_SIZE = 4 * 1024 * 1024;
+    private static final long COMMIT_BYTES = 256L * 1024 * 1024;
+    private static final int SCAN_WINDOW = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 1024 * 1024;
+
+    private static final byte[][] USAGE_LINE_ITEM_TYPES = {
+        "Usage".getBytes(StandardCharsets.US_ASCII),
+        "DiscountedUsage".getBytes(StandardCharsets.US_ASCII),
+        "SavingsPlanCoveredUsage".getBytes(StandardCharsets.US_ASCII)
+    };
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+        1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private final BillingLineItemDAO lineItemDAO;
+    private final int threadCount;
+
+    public CURIngestionService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public CURIngestionService(int threadCount) {
+        this.lineItemDAO = new BillingLineItemDAO();
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /**
+     * Ingest every .csv and .csv.gz report file in a directory (recursively)
+     * @return number of line items read
+     */
+    public long ingestDirectory(String directory, int userId) {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(Paths.get(directory))) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(p -> {
+                        String name = p.getFileName().toString().toLowerCase(Locale.ROOT);
+                        return name.endsWith(".csv") || name.endsWith(".csv.gz");
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("Error listing CUR directory: " + e.getMessage());
+            return 0;
+        }
+
+        System.out.println("Found " + files.size() + " CUR files in " + directory);
+
+        Path root = Paths.get(directory);
+        long total = 0;
+        for (Path file : files) {
+            total += ingestFile(root, file, userId);
+        }
+        return total;
+    }
+
+    /**
+     * Ingest a single report file outside of a CUR directory, keyed by its absolute path
+     * @return number of line items read in this run
+     */
+    public long ingestFile(Path file, int userId) {
+        return ingestFile(null, file, userId);
+    }
+
+    /**
+     * Ingest a single report file, resuming from its checkpoint if one exists
+     * @param root CUR root directory the file is keyed relative to (null: absolute path)
+     * @return number of line items read in this run
+     */
+    public long ingestFile(Path root, Path file, int userId) {
+        String sourceFile = sourceKey(root, file);
+
+        try {
+            long fileSize = Files.size(file);
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+            CURCheckpoint checkpoint = lineItemDAO.getCheckpoint(userId, sourceFile);
+            if (checkpoint != null && checkpoint.matches(fileSize, lastModified)) {
+                if (checkpoint.isCompleted()) {
+                    System.out.println("Skipping already ingested CUR file: " + sourceFile);
+                    return 0;
+                }
+                System.out.println("Resuming CUR file " + sourceFile + " at byte " + checkpoint.getByteOffset());
+            } else {
+                // New file, or a restated version of one we already ingested
+                checkpoint = new CURCheckpoint(userId, sourceFile, fileSize, lastModified);
+                if (!lineItemDAO.resetFile(checkpoint)) {
+                    return 0;
+                }
+                System.out.println("Ingesting CUR file " + sourceFile + " (" + (fileSize / (1024 * 1024)) + " MB)");
+            }
+
+            long started = System.nanoTime();
+            ExecutorService pool = Executors.newFixedThreadPool(threadCount, runnable -> {
+                Thread thread = new Thread(runnable, "cur-parser");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            try {
+                IngestionRun run = new IngestionRun(checkpoint, sourceFile, pool);
+                if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+                    ingestCompressed(file, run);
+                } else {
+                    ingestMapped(file, run);
+                }
+                run.finish();
+                lineItemDAO.markCompleted(checkpoint);
+
+                double seconds = (System.nanoTime() - started) / 1e9;
+                System.out.println(String.format("Ingested %d line items from %s in %.1fs",
+                    run.lineCount, sourceFile, seconds));
+                return run.lineCount;
+            } finally {
+                pool.shutdownNow();
+            }
+        } catch (IOException e) {
+            System.err.println("Error ingesting CUR file " + sourceFile + ": " + e.getMessage());
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("CUR ingestion interrupted: " + sourceFile);
+        }
+        return 0;
+    }
+
+    /**
+     * Key of a report file: its path relative to the root with '/' separators, or its
+     * absolute path without a root
+     */
+    private static String sourceKey(Path root, Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        if (root == null) {
+            return absolute.toString();
+        }
+        return root.toAbsolutePath().normalize().relativize(absolute).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Feed a plain CSV file to the run as memory-mapped blocks
+     */
+    private void ingestMapped(Path file, IngestionRun run) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            ByteBuffer headerWindow = ByteBuffer.allocate((int) Math.min(MAX_HEADER_BYTES, size));
+            channel.read(headerWindow, 0);
+            int headerLength = indexOf(headerWindow, 0, headerWindow.position(), (byte) '\n');
+            if (headerLength < 0) {
+                throw new IOException("CUR header line not found");
+            }
+            run.setLayout(ColumnLayout.fromHeader(decode(headerWindow, 0, headerLength)));
+
+            long position = Math.max(run.checkpoint.getByteOffset(), headerLength + 1L);
+            while (position < size) {
+                long end = findBlockEnd(channel, position, size);
+                ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+                run.submit(block, (int) (end - position), end);
+                position = end;
+            }
+        }
+    }
+
+    /**
+     * Feed a gzip-compressed CSV file to the run as heap blocks
+     * Offsets refer to the decompressed stream.
+     */
+    private void ingestCompressed(Path file, IngestionRun run) throws IOException, InterruptedException {
+        try (InputStream in = new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), 64 * 1024), 64 * 1024)) {
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1 && b != '\n') {
+                header.write(b);
+                if (header.size() > MAX_HEADER_BYTES) {
+                    throw new IOException("CUR header line not found");
+                }
+            }
+            byte[] headerBytes = header.toByteArray();
+            run.setLayout(ColumnLayout.fromHeader(decode(ByteBuffer.wrap(headerBytes), 0, headerBytes.length)));
+
+            long position = headerBytes.length + 1L;
+            long resumeAt = run.checkpoint.getByteOffset();
+            if (resumeAt > position) {
+                in.skipNBytes(resumeAt - position);
+                position = resumeAt;
+            }
+
+            byte[] carry = new byte[0];
+            while (true) {
+                byte[] buffer = new byte[Math.max(STREAM_BLOCK_SIZE, carry.length * 2)];
+                System.arraycopy(carry, 0, buffer, 0, carry.length);
+                int length = carry.length;
+                int read;
+                while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) != -1) {
+                    length += read;
+                }
+
+                boolean endOfStream = length < buffer.length;
+                if (length == 0) {
+                    break;
+                }
+
+                int blockLength = endOfStream ? length : lastRecordEnd(buffer, length);
+                if (blockLength == 0) {
+                    // A single record longer than the buffer; grow and keep reading
+                    carry = java.util.Arrays.copyOf(buffer, length);
+                    continue;
+                }
+
+                carry = java.util.Arrays.copyOfRange(buffer, blockLength, length);
+                position += blockLength;
+                run.submit(ByteBuffer.wrap(buffer), blockLength, position);
+
+                if (endOfStream) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the end (exclusive) of the block starting at position, aligned to the end of a
+     * record: a line break outside quotes, since a quoted field may contain line breaks.
+     * Blocks start on a record boundary, so the quote state is tracked from position.
+     */
+    private long findBlockEnd(FileChannel channel, long position, long size) throws IOException {
+        long scan = position + MAPPED_BLOCK_SIZE;
+        if (scan >= size) {
+            return size;
+        }
+
+        ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position, MAPPED_BLOCK_SIZE);
+        boolean inQuotes = false;
+        for (int i = 0; i < MAPPED_BLOCK_SIZE; i++) {
+            if (block.get(i) == '"') {
+                inQuotes = !inQuotes;
+            }
+        }
+
+        ByteBuffer window = ByteBuffer.allocate(SCAN_WINDOW);
+        while (scan < size) {
+            window.clear();
+            int read = channel.read(window, scan);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = window.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    return scan + i + 1;
+                }
+            }
+            scan += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parse one block into line item aggregates (runs on a worker thread)
+     */
+    private static BlockResult parseBlock(ByteBuffer block, int length, long endOffset, ColumnLayout layout) {
+        BlockResult result = new BlockResult(endOffset);
+        int[] fieldStart = new int[layout.maxIndex + 1];
+        int[] fieldEnd = new int[layout.maxIndex + 1];
+        byte[] keyBuffer = new byte[512];
+
+        int position = 0;
+        while (position < length) {
+            // Scan one line, remembering the bounds of the columns we need
+            int field = 0;
+            int start = position;
+            boolean inQuotes = false;
+            while (position < length) {
+                byte b = block.get(position);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (!inQuotes && (b == ',' || b == '\n')) {
+                    if (field <= layout.maxIndex) {
+                        fieldStart[field] = start;
+                        fieldEnd[field] = position;
+                    }
+                    field++;
+                    start = position + 1;
+                    if (b == '\n') {
+                        break;
+                    }
+                }
+                position++;
+            }
+            if (position >= length && start < length) {
+                // Last line of the block without a trailing newline
+                if (field <= layout.maxIndex) {
+                    fieldStart[field] = start;
+                    fieldEnd[field] = length;
+                }
+                field++;
+            }
+            position++;
+
+            if (field <= layout.maxIndex) {
+                continue; // blank or truncated line
+            }
+
+            result.lineCount++;
+            if (layout.lineItemType >= 0 && !isUsageLineItem(block, fieldStart[layout.lineItemType], fieldEnd[layout.lineItemType])) {
+                continue;
+            }
+
+            double cost = parseNumber(block, fieldStart[layout.cost], fieldEnd[layout.cost]);
+            double usage = layout.usageAmount >= 0
+                ? parseNumber(block, fieldStart[layout.usageAmount], fieldEnd[layout.usageAmount]) : 0.0;
+
+            // Build "date \t service \t resource \t usageType" in one buffer and decode once
+            int keyLength = 0;
+            keyBuffer = ensureCapacity(keyBuffer, 16);
+            keyLength = appendField(block, fieldStart[layout.usageStart], Math.min(fieldEnd[layout.usageStart],
+                unquotedStart(block, fieldStart[layout.usageStart], fieldEnd[layout.usageStart]) + 10), keyBuffer, keyLength);
+            keyBuffer[keyLength++] = '\t';
+            keyBuffer = ensureCapacity(keyBuffer, keyLength + fieldEnd[layout.service] - fieldStart[layout.service] + 1);
+            keyLength = appendField(block, fieldStart[layout.service], fieldEnd[layout.service], keyBuffer, keyLength);
+            keyBuffer[keyLength++] = '\t';
+            if (layout.resourceId >= 0) {
+                keyBuffer = ensureCapacity(keyBuffer, keyLength + fieldEnd[layout.resourceId] - fieldStart[layout.resourceId] + 1);
+                keyLength = appendField(block, fieldStart[layout.resourceId], fieldEnd[layout.resourceId], keyBuffer, keyLength);
+            }
+            keyBuffer[keyLength++] = '\t';
+            if (layout.usageType >= 0) {
+                keyBuffer = ensureCapacity(keyBuffer, keyLength + fieldEnd[layout.usageType] - fieldStart[layout.usageType]);
+                keyLength = appendField(block, fieldStart[layout.usageType], fieldEnd[layout.usageType], keyBuffer, keyLength);
+            }
+
+            String key = new String(keyBuffer, 0, keyLength, StandardCharsets.UTF_8);
+            BillingLineItem item = result.items.get(key);
+            if (item == null) {
+                item = newLineItem(key);
+                if (item == null) {
+                    continue; // unparseable usage date
+                }
+                result.items.put(key, item);
+            }
+            item.add(usage, cost);
+        }
+        return result;
+    }
+
+    private static BillingLineItem newLineItem(String key) {
+        String[] parts = key.split("\t", -1);
+        try {
+            return new BillingLineItem(LocalDate.parse(parts[0]), parts[1], parts[2], parts[3]);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check the line item type column against the usage types we count
+     * (credits, refunds, taxes and fees are excluded like in BillingService)
+     */
+    private static boolean isUsageLineItem(ByteBuffer block, int start, int end) {
+        start = unquotedStart(block, start, end);
+        end = unquotedEnd(block, start, end);
+        for (byte[] type : USAGE_LINE_ITEM_TYPES) {
+            if (end - start == type.length) {
+                boolean same = true;
+                for (int i = 0; i < type.length && same; i++) {
+                    same = block.get(start + i) == type[i];
+                }
+                if (same) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a plain decimal number without allocating; falls back to Double.parseDouble
+     * for exponents and very long mantissas
+     */
+    private static double parseNumber(ByteBuffer block, int start, int end) {
+        start = unquotedStart(block, start, end);
+        end = unquotedEnd(block, start, end);
+        if (start >= end) {
+            return 0.0;
+        }
+
+        boolean negative = false;
+        int i = start;
+        byte first = block.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            byte b = block.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                digits = Integer.MAX_VALUE; // exponent or unexpected character
+                break;
+            }
+        }
+
+        if (digits > 18 || (scale >= POWERS_OF_TEN.length)) {
+            try {
+                return Double.parseDouble(decode(block, start, end - start).trim());
+            } catch (NumberFormatException e) {
+                return 0.0;
+            }
+        }
+
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static int appendField(ByteBuffer block, int start, int end, byte[] target, int offset) {
+        int from = unquotedStart(block, start, end);
+        int to = unquotedEnd(block, from, end);
+        if (to > from) {
+            block.get(from, target, offset, to - from);
+            return offset + to - from;
+        }
+        return offset;
+    }
+
+    private static int unquotedStart(ByteBuffer block, int start, int end) {
+        return start < end && block.get(start) == '"' ? start + 1 : start;
+    }
+
+    private static int unquotedEnd(ByteBuffer block, int start, int end) {
+        while (end > start && (block.get(end - 1) == '\r' || block.get(end - 1) == '"')) {
+            end--;
+        }
+        return end;
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int required) {
+        return required + 4 <= buffer.length ? buffer : java.util.Arrays.copyOf(buffer, (required + 4) * 2);
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i - from;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * End (exclusive) of the last complete record in buffer[0, length), or 0 if there is
+     * none; the buffer starts on a record boundary, and line breaks inside quotes are data
+     */
+    private static int lastRecordEnd(byte[] buffer, int length) {
+        int end = 0;
+        boolean inQuotes = false;
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] == '"') {
+                inQuotes = !inQuotes;
+            } else if (buffer[i] == '\n' && !inQuotes) {
+                end = i + 1;
+            }
+        }
+        return end;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * State of one file ingestion: ordered in-flight blocks, the pending commit window
+     * and the checkpoint
+     */
+    private class IngestionRun {
+        private final CURCheckpoint checkpoint;
+        private final String sourceFile;
+        private final ExecutorService pool;
+        private final Deque<Future<BlockResult>> inFlight = new ArrayDeque<>();
+        private final Map<String, BillingLineItem> pending = new HashMap<>();
+        private ColumnLayout layout;
+        private long pendingOffset;
+        private long pendingBytes;
+        private long lineCount;
+
+        IngestionRun(CURCheckpoint checkpoint, String sourceFile, ExecutorService pool) {
+            this.checkpoint = checkpoint;
+            this.sourceFile = sourceFile;
+            this.pool = pool;
+        }
+
+        void setLayout(ColumnLayout layout) {
+            this.layout = layout;
+        }
+
+        void submit(ByteBuffer block, int length, long endOffset) throws IOException, InterruptedException {
+            ColumnLayout columns = layout;
+            inFlight.addLast(pool.submit(() -> parseBlock(block, length, endOffset, columns)));
+            pendingBytes += length;
+
+            // Backpressure: never hold more than two blocks per worker
+            while (inFlight.size() >= threadCount * 2) {
+                collectOldest();
+            }
+            if (pendingBytes >= COMMIT_BYTES) {
+                while (!inFlight.isEmpty()) {
+                    collectOldest();
+                }
+                commit();
+            }
+        }
+
+        void finish() throws IOException, InterruptedException {
+            while (!inFlight.isEmpty()) {
+                collectOldest();
+            }
+            commit();
+        }
+
+        /**
+         * Merge the oldest block; blocks are merged in file order so the checkpoint
+         * offset always covers a contiguous prefix of the file
+         */
+        private void collectOldest() throws IOException, InterruptedException {
+            BlockResult result;
+            try {
+                result = inFlight.removeFirst().get();
+            } catch (ExecutionException e) {
+                throw new IOException("Error parsing CUR block", e.getCause());
+            }
+
+            for (Map.Entry<String, BillingLineItem> entry : result.items.entrySet()) {
+                BillingLineItem item = entry.getValue();
+                BillingLineItem existing = pending.putIfAbsent(entry.getKey(), item);
+                if (existing != null) {
+                    existing.add(item.getUsageAmount(), item.getCostAmount());
+                }
+            }
+            lineCount += result.lineCount;
+            pendingOffset = result.endOffset;
+        }
+
+        private void commit() throws IOException {
+            if (pendingOffset <= checkpoint.getByteOffset()) {
+                return;
+            }
+
+            for (BillingLineItem item : pending.values()) {
+                item.setUserId(checkpoint.getUserId());
+                item.setSourceFile(sourceFile);
+            }
+
+            long previousOffset = checkpoint.getByteOffset();
+            checkpoint.setByteOffset(pendingOffset);
+            if (!lineItemDAO.commitBatch(pending.values(), checkpoint)) {
+                checkpoint.setByteOffset(previousOffset);
+                throw new IOException("Failed to commit CUR line items; ingestion will resume from byte " + previousOffset);
+            }
+
+            System.out.println("  " + sourceFile + ": committed " + pending.size() + " aggregates up to byte " +
+                              pendingOffset + " of " + checkpoint.getFileSize());
+            pending.clear();
+            pendingBytes = 0;
+        }
+    }
+
+    /**
+     * Line item aggregates parsed from one block
+     */
+    private static class BlockResult {
+        private final Map<String, BillingLineItem> items = new HashMap<>();
+        private final long endOffset;
+        private long lineCount;
+
+        BlockResult(long endOffset) {
+            this.endOffset = endOffset;
+        }
+    }
+
+    /**
+     * Positions of the report columns used for aggregation
+     * Accepts both legacy CUR headers (lineItem/ProductCode) and CUR 2.0 headers
+     * (line_item_product_code) by comparing normalized names.
+     */
+    private static class ColumnLayout {
+        private int service = -1;
+        private int resourceId = -1;
+        private int usageType = -1;
+        private int usageStart = -1;
+        private int cost = -1;
+        private int usageAmount = -1;
+        private int lineItemType = -1;
+        private int maxIndex;
+
+        static ColumnLayout fromHeader(String header) throws IOException {
+            ColumnLayout layout = new ColumnLayout();
+            List<String> columns = new ArrayList<>(List.of(header.split(",", -1)));
+
+            for (int i = 0; i < columns.size(); i++) {
+                String name = columns.get(i).replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT);
+                switch (name) {
+                    case "lineitemproductcode":
+                        layout.service = i;
+                        break;
+                    case "lineitemresourceid":
+                        layout.resourceId = i;
+                        break;
+                    case "lineitemusagetype":
+                        layout.usageType = i;
+                        break;
+                    case "lineitemusagestartdate":
+                        layout.usageStart = i;
+                        break;
+                    case "lineitemunblendedcost":
+                        layout.cost = i;
+                        break;
+                    case "lineitemusageamount":
+                        layout.usageAmount = i;
+                        break;
+                    case "lineitemlineitemtype":
+                        layout.lineItemType = i;
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            if (layout.service < 0 || layout.usageStart < 0 || layout.cost < 0) {
+                throw new IOException("Not a Cost and Usage Report: missing product code, usage start date or unblended cost column");
+            }
+
+            layout.maxIndex = Math.max(Math.max(Math.max(layout.service, layout.resourceId), Math.max(layout.usageType, layout.usageStart)),
+                Math.max(Math.max(layout.cost, layout.usageAmount), layout.lineItemType));
+            return layout;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ChangeDrivenRuleEvaluator - Re-evaluates rules only for resources that changed
+ * Singleton listener on the ResourceEventBus. Changes are collected (several changes to
+ * the same resource are merged into one) until evaluatePending() is called after a sync
+ * or metric collection pass, which then evaluates just the affected (rule, resource) pairs.
+ */
+public class ChangeDrivenRuleEvaluator implements ResourceChangeListener {
+    private static ChangeDrivenRuleEvaluator instance;
+    private final Map<String, ResourceChangeEvent> pending;
+    
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private ChangeDrivenRuleEvaluator() {
+        this.pending = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Get singleton instance
+     */
+    public static synchronized ChangeDrivenRuleEvaluator getInstance() {
+        if (instance == null) {
+            instance = new ChangeDrivenRuleEvaluator();
+        }
+        return instance;
+    }
+    
+    @Override
+    public void onResourceChanged(ResourceChangeEvent event) {
+        pending.merge(event.getKey(), event, ResourceChangeEvent::merge);
+    }
+    
+    /**
+     * Evaluate the rules affected by the changes collected so far
+     * Uses the AWS credentials currently held by the client factory, so call it right after
+     * the pass that produced the changes.
+     * @return number of (rule, resource) pairs evaluated
+     */
+    public int evaluatePending() {
+        List<ResourceChangeEvent> changes = new ArrayList<>();
+        for (String key : new ArrayList<>(pending.keySet())) {
+            ResourceChangeEvent change = pending.remove(key);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        return new RuleEvaluationService().evaluateChanges(changes);
+    }
+    
+    /**
+     * Number of resources with changes waiting to be evaluated
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,127 @@
+package services;
+
+import models.Rule;
+
+/**
+ * CompiledRule - A rule prepared for evaluation by RuleCompiler
+ * Immutable: the condition, the metrics it reads, the CloudWatch window and the alert
+ * severity are all resolved once, so checking a resource only fills a value array and
+ * tests the condition against it.
+ */
+public final class CompiledRule {
+    private final Rule rule;
+    private final String severity;
+    private final int windowDays;
+    private final String durationText;
+    private final String expressionText;
+    private final RuleExpression.Condition condition;
+    private final RuleMetric[] metrics;
+
+    CompiledRule(Rule rule, String severity, int windowDays, String durationText, String expressionText,
+                 RuleExpression.Condition condition, RuleMetric[] metrics) {
+        this.rule = rule;
+        this.severity = severity;
+        this.windowDays = windowDays;
+        this.durationText = durationText;
+        this.expressionText = expressionText;
+        this.condition = condition;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Whether the condition holds for the metric values (indexed by RuleMetric.slot())
+     */
+    public boolean matches(double[] values) {
+        return condition.test(values);
+    }
+
+    /**
+     * Value array large enough for every metric; reuse it across resources
+     */
+    public double[] newValueBuffer() {
+        return new double[RuleMetric.COUNT];
+    }
+
+    /**
+     * Metric values read by the condition, for alert messages (e.g. "CPU=3.20, NetworkIn=120.00")
+     */
+    public String describe(double[] values) {
+        StringBuilder text = new StringBuilder();
+        for (RuleMetric metric : metrics) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(metric.getName()).append('=').append(String.format("%.2f", values[metric.slot()]));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Whether the condition reads the metric (case-insensitive name)
+     */
+    public boolean usesMetric(String metricName) {
+        for (RuleMetric metric : metrics) {
+            if (metric.getName().equalsIgnoreCase(metricName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Rule getRule() {
+        return rule;
+    }
+
+    public int getRuleId() {
+        return rule.getRuleId();
+    }
+
+    public String getRuleName() {
+        return rule.getRuleName();
+    }
+
+    public String getRuleType() {
+        return rule.getRuleType();
+    }
+
+    public String getResourceType() {
+        return rule.getResourceType();
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Days of CloudWatch data the condition is checked over (at least 1)
+     */
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    /**
+     * Duration as configured on the rule (e.g. "7 days")
+     */
+    public String getDurationText() {
+        return durationText;
+    }
+
+    public String getExpressionText() {
+        return expressionText;
+    }
+
+    /**
+     * Metrics read by the condition, each once
+     */
+    public RuleMetric[] getMetrics() {
+        return metrics.clone();
+    }
+
+    int metricCount() {
+        return metrics.length;
+    }
+
+    RuleMetric metricAt(int index) {
+        return metrics[index];
+    }
+}
@@ -0,0 +1,74 @@
+package services;
+
+/**
+ * ConditionOperator - Comparison operators of rule conditions
+ */
+public enum ConditionOperator {
+    LESS_THAN("<"),
+    LESS_OR_EQUAL("<="),
+    GREATER_THAN(">"),
+    GREATER_OR_EQUAL(">="),
+    EQUAL("="),
+    NOT_EQUAL("!=");
+
+    // Values this close are treated as equal
+    static final double EQUALITY_TOLERANCE = 0.01;
+
+    private final String symbol;
+
+    ConditionOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Compare a value against a threshold
+     */
+    public boolean test(double actual, double threshold) {
+        switch (this) {
+            case LESS_THAN:
+                return actual < threshold;
+            case LESS_OR_EQUAL:
+                return actual <= threshold;
+            case GREATER_THAN:
+                return actual > threshold;
+            case GREATER_OR_EQUAL:
+                return actual >= threshold;
+            case EQUAL:
+                return Math.abs(actual - threshold) < EQUALITY_TOLERANCE;
+            default:
+                return !(Math.abs(actual - threshold) < EQUALITY_TOLERANCE);
+        }
+    }
+
+    /**
+     * Operator for a symbol as stored in the rules table ("==" and "<>" are accepted too)
+     * @throws IllegalArgumentException if the symbol is unknown
+     */
+    public static ConditionOperator fromSymbol(String symbol) {
+        if (symbol != null) {
+            switch (symbol.trim()) {
+                case "<":
+                    return LESS_THAN;
+                case "<=":
+                    return LESS_OR_EQUAL;
+                case ">":
+                    return GREATER_THAN;
+                case ">=":
+                    return GREATER_OR_EQUAL;
+                case "=":
+                case "==":
+                    return EQUAL;
+                case "!=":
+                case "<>":
+                    return NOT_EQUAL;
+                default:
+                    break;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operator: " + symbol);
+    }
+}
@@ -0,0 +1,205 @@
+package services;
+
+import dao.CostSeriesStatsDAO;
+import models.Alert;
+import models.BillingRecord;
+import models.CostSeriesStats;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CostAnomalyDetector - Streaming anomaly detection over daily service costs
+ * Singleton that keeps an exponentially weighted mean and variance per (user, service)
+ * series. Each new daily cost is checked against the current baseline and then folded
+ * into it in O(1); history is never rescanned. Statistics are persisted so the
+ * baseline survives restarts.
+ *
+ * A day is consumed once, when it is first seen after the series' last day. Days that
+ * have not ended yet are left for a later sync because Cost Explorer still revises them.
+ */
+public class CostAnomalyDetector {
+    private static CostAnomalyDetector instance;
+
+    private final CostSeriesStatsDAO statsDAO;
+    private final AlertService alertService;
+    private final Map<Integer, Map<String, CostSeriesStats>> statsByUser = new HashMap<>();
+
+    private double sigmaThreshold = 3.0;       // alert when cost > mean + sigma * stdDev
+    private double smoothingFactor = 0.1;      // EWMA alpha (~ 10 day memory)
+    private int warmupDays = 14;               // observations needed before alerting
+    private double minimumIncrease = 1.0;      // ignore spikes smaller than this (USD)
+    private double relativeDeviationFloor = 0.1; // stdDev never below 10% of the mean
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private CostAnomalyDetector() {
+        this.statsDAO = new CostSeriesStatsDAO();
+        this.alertService = AlertService.getInstance();
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized CostAnomalyDetector getInstance() {
+        if (instance == null) {
+            instance = new CostAnomalyDetector();
+        }
+        return instance;
+    }
+
+    /**
+     * Feed the daily cost records of a sync window into the per-service statistics
+     * Services absent on a day within the window are counted as zero cost that day.
+     * @return number of anomalies raised
+     */
+    public synchronized int observeDailyCosts(int userId, LocalDate windowStart, LocalDate windowEnd,
+                                              List<BillingRecord> dailyRecords) {
+        LocalDate lastCompleteDay = LocalDate.now().minusDays(1);
+        LocalDate end = windowEnd.isAfter(lastCompleteDay) ? lastCompleteDay : windowEnd;
+        if (end.isBefore(windowStart)) {
+            return 0;
+        }
+
+        // Index the window's costs by service and day offset
+        int days = (int) (end.toEpochDay() - windowStart.toEpochDay() + 1);
+        Map<String, double[]> costs = new HashMap<>();
+        for (BillingRecord record : dailyRecords) {
+            long offset = record.getStartDate().toEpochDay() - windowStart.toEpochDay();
+            if (offset >= 0 && offset < days) {
+                costs.computeIfAbsent(record.getServiceName(), s -> new double[days])[(int) offset]
+                    += record.getCostAmount();
+            }
+        }
+
+        Map<String, CostSeriesStats> userStats = statsByUser.computeIfAbsent(userId, statsDAO::getStatsByUser);
+        List<CostSeriesStats> changed = new ArrayList<>();
+        int anomalies = 0;
+
+        for (Map.Entry<String, double[]> entry : costs.entrySet()) {
+            userStats.computeIfAbsent(entry.getKey(), s -> new CostSeriesStats(userId, s));
+        }
+
+        for (CostSeriesStats stats : userStats.values()) {
+            double[] series = costs.get(stats.getServiceName());
+            int first = firstUnseenOffset(stats, windowStart, series);
+            if (first >= days) {
+                continue;
+            }
+
+            for (int i = first; i < days; i++) {
+                LocalDate day = windowStart.plusDays(i);
+                double cost = series != null ? series[i] : 0.0;
+                if (observe(stats, day, cost)) {
+                    anomalies++;
+                }
+            }
+            changed.add(stats);
+        }
+
+        if (!changed.isEmpty()) {
+            statsDAO.saveAll(changed);
+        }
+
+        System.out.println("Cost anomaly detection: " + changed.size() + " series updated, " +
+                          anomalies + " anomalies");
+        return anomalies;
+    }
+
+    /**
+     * Check one datapoint against the baseline, then update the baseline
+     * @return true if the datapoint was anomalous
+     */
+    private boolean observe(CostSeriesStats stats, LocalDate day, double cost) {
+        double mean = stats.getMean();
+        // A flat series (e.g. weeks at $0) has no variance; the floor keeps the threshold and
+        // the reported sigma finite, at least minimumIncrease above the mean
+        double deviation = Math.max(Math.max(stats.getStandardDeviation(), relativeDeviationFloor * Math.abs(mean)),
+            minimumIncrease / sigmaThreshold);
+        double threshold = mean + sigmaThreshold * deviation;
+
+        boolean anomalous = stats.getObservations() >= warmupDays
+            && cost > threshold
+            && cost - mean >= minimumIncrease;
+
+        if (anomalous) {
+            raiseAlert(stats, day, cost, deviation);
+            // Fold the spike in at the threshold so one outlier does not inflate the baseline
+            stats.update(day, threshold, smoothingFactor);
+        } else {
+            stats.update(day, cost, smoothingFactor);
+        }
+        return anomalous;
+    }
+
+    /**
+     * Index of the first day in the window not yet folded into the series
+     * A new series starts at its first day with a cost, not at the window start.
+     */
+    private int firstUnseenOffset(CostSeriesStats stats, LocalDate windowStart, double[] series) {
+        if (stats.getLastDay() != null) {
+            return (int) Math.max(stats.getLastDay().toEpochDay() + 1 - windowStart.toEpochDay(), 0);
+        }
+        if (series != null) {
+            for (int i = 0; i < series.length; i++) {
+                if (series[i] != 0.0) {
+                    return i;
+                }
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Raise a cost anomaly alert through AlertService
+     */
+    private void raiseAlert(CostSeriesStats stats, LocalDate day, double cost, double deviation) {
+        double zScore = (cost - stats.getMean()) / deviation;
+
+        Alert alert = new Alert();
+        alert.setResourceId(stats.getServiceName());
+        alert.setResourceType("Billing");
+        alert.setAlertType("COST_ANOMALY");
+        alert.setUserId(stats.getUserId());
+        alert.setSeverity(zScore >= 2 * sigmaThreshold ? "HIGH" : "MEDIUM");
+        alert.setMessage(String.format("Cost spike for %s on %s: $%.2f vs expected $%.2f (%.1f sigma)",
+            stats.getServiceName(), day, cost, stats.getMean(), zScore));
+        alert.setResolved(false);
+        alert.setCreatedAt(LocalDateTime.now());
+
+        alertService.createAlert(alert);
+    }
+
+    /**
+     * Drop cached statistics of a user (they are reloaded from the database on next use)
+     */
+    public synchronized void evict(int userId) {
+        statsByUser.remove(userId);
+    }
+
+    // Configuration
+    public synchronized void setSigmaThreshold(double sigmaThreshold) {
+        this.sigmaThreshold = sigmaThreshold;
+    }
+
+    public synchronized void setSmoothingFactor(double smoothingFactor) {
+        this.smoothingFactor = smoothingFactor;
+    }
+
+    public synchronized void setWarmupDays(int warmupDays) {
+        this.warmupDays = warmupDays;
+    }
+
+    public synchronized void setMinimumIncrease(double minimumIncrease) {
+        this.minimumIncrease = minimumIncrease;
+    }
+
+    public synchronized void setRelativeDeviationFloor(double relativeDeviationFloor) {
+        this.relativeDeviationFloor = relativeDeviationFloor;
+    }
+}
@@ -0,0 +1,397 @@
+package services;
+
+import dao.BillingDAO;
+import metrics.MetricsRegistry;
+import models.BillingRecord;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CostCube - In-memory service x day cost cube for billing reports
+ * Singleton loaded once per user session from billing_records and updated
+ * incrementally on sync, so billing slices are answered without touching MySQL.
+ *
+ * Costs are held in one primitive double[] row per service, indexed by day offset
+ * from an origin date. Range sums use per-service prefix arrays that are rebuilt
+ * lazily after a row changes.
+ *
+ * Daily records take precedence over period-level (e.g. monthly) records of the same
+ * service, but only on the days they cover: a period record is spread over its days that
+ * have no daily data, so older months keep their period totals.
+ */
+public class CostCube {
+    private static CostCube instance;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int userId = -1;
+    private boolean loaded;
+
+    private long originDay;          // epoch day stored in column 0
+    private int capacity;            // columns allocated per row
+    private final Map<String, Integer> serviceIndex = new HashMap<>();
+    private final List<String> serviceNames = new ArrayList<>();
+    private double[][] dailyCost = new double[0][];
+    private double[][] prefixSums = new double[0][];
+    private boolean[] prefixDirty = new boolean[0];
+    // Days of each service row that have daily records (period records are not spread there)
+    private boolean[][] dailyCoverage = new boolean[0][];
+    // Last day covered by any applied record, i.e. how far billing data has been synced
+    private long lastDataDay = Long.MIN_VALUE;
+
+    // Cost currently applied to the cube for each billing record key, so an upsert
+    // of an existing record replaces its contribution instead of adding to it
+    private final Map<String, BillingRecord> appliedRecords = new HashMap<>();
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private CostCube() {}
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized CostCube getInstance() {
+        if (instance == null) {
+            instance = new CostCube();
+        }
+        return instance;
+    }
+
+    /**
+     * Load the cube for a user if it is not already loaded for that user
+     */
+    public synchronized void ensureLoaded(int userId) {
+        boolean hit = loaded && this.userId == userId;
+        MetricsRegistry.getInstance().counter("governance_cache_requests", "Cache lookups by result",
+            "cache", "cost_cube", "result", hit ? "hit" : "miss").inc();
+        if (hit) {
+            return;
+        }
+
+        clear();
+        this.userId = userId;
+
+        List<BillingRecord> records = new BillingDAO().getBillingRecordsByUser(userId);
+        for (BillingRecord record : records) {
+            applyRecord(record);
+        }
+
+        loaded = true;
+        System.out.println("Cost cube loaded: " + records.size() + " billing records, " +
+                          serviceNames.size() + " services, " + capacity + " days");
+    }
+
+    /**
+     * Drop all cached data (e.g. on logout or user switch)
+     */
+    public synchronized void clear() {
+        loaded = false;
+        userId = -1;
+        originDay = 0;
+        capacity = 0;
+        serviceIndex.clear();
+        serviceNames.clear();
+        appliedRecords.clear();
+        dailyCost = new double[0][];
+        prefixSums = new double[0][];
+        prefixDirty = new boolean[0];
+        dailyCoverage = new boolean[0][];
+        lastDataDay = Long.MIN_VALUE;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized boolean isEmpty() {
+        return serviceNames.isEmpty();
+    }
+
+    /**
+     * Apply an inserted or updated billing record to the cube
+     * Records for a user other than the loaded one are ignored. The result does not
+     * depend on the order records are applied in.
+     */
+    public synchronized void applyRecord(BillingRecord record) {
+        if (record.getUserId() != userId || record.getStartDate() == null || record.getEndDate() == null) {
+            return;
+        }
+
+        int service = serviceSlot(record.getServiceName());
+        String key = recordKey(record);
+        BillingRecord previous = appliedRecords.put(key, copyOf(record));
+        if (previous != null) {
+            spread(service, previous, -1.0);
+        }
+        if (isDaily(record)) {
+            cover(service, record);
+        }
+        spread(service, record, 1.0);
+        lastDataDay = Math.max(lastDataDay, record.getEndDate().toEpochDay());
+    }
+
+    /**
+     * Last day covered by the billing data, or null if there is none
+     * Days after it have not been synced yet, so their zero cost is unknown rather than real.
+     */
+    public synchronized LocalDate getLastDataDay() {
+        return lastDataDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(lastDataDay);
+    }
+
+    /**
+     * Get cost by service for a date range (inclusive), highest cost first
+     */
+    public synchronized Map<String, Double> getCostByService(LocalDate startDate, LocalDate endDate) {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>();
+        for (int s = 0; s < serviceNames.size(); s++) {
+            double cost = rangeSum(s, startDate, endDate);
+            if (cost != 0.0) {
+                entries.add(Map.entry(serviceNames.get(s), cost));
+            }
+        }
+        entries.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+
+        Map<String, Double> costMap = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : entries) {
+            costMap.put(entry.getKey(), entry.getValue());
+        }
+        return costMap;
+    }
+
+    /**
+     * Get per-service billing records for a date range, highest cost first
+     */
+    public synchronized List<BillingRecord> getServiceRecords(LocalDate startDate, LocalDate endDate) {
+        List<BillingRecord> records = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : getCostByService(startDate, endDate).entrySet()) {
+            records.add(new BillingRecord(userId, entry.getKey(), entry.getValue(), startDate, endDate));
+        }
+        return records;
+    }
+
+    /**
+     * Get total cost for a date range (inclusive)
+     */
+    public synchronized double getTotalCost(LocalDate startDate, LocalDate endDate) {
+        double total = 0.0;
+        for (int s = 0; s < serviceNames.size(); s++) {
+            total += rangeSum(s, startDate, endDate);
+        }
+        return total;
+    }
+
+    /**
+     * Get monthly cost trend (last N months), one record per service per month
+     */
+    public synchronized List<BillingRecord> getMonthlyCostTrend(int months) {
+        List<BillingRecord> records = new ArrayList<>();
+        YearMonth current = YearMonth.now();
+
+        for (int m = 0; m < months; m++) {
+            YearMonth month = current.minusMonths(m);
+            LocalDate start = month.atDay(1);
+            LocalDate end = month.atEndOfMonth();
+
+            for (int s = 0; s < serviceNames.size(); s++) {
+                double cost = rangeSum(s, start, end);
+                if (cost != 0.0) {
+                    records.add(new BillingRecord(userId, serviceNames.get(s), cost, start, end));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Get the daily cost series of one service for a date range (inclusive)
+     * Days without data are returned as 0.
+     */
+    public synchronized double[] getDailySeries(String serviceName, LocalDate startDate, LocalDate endDate) {
+        int length = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        double[] series = new double[Math.max(length, 0)];
+        Integer service = serviceIndex.get(serviceName);
+        if (service == null) {
+            return series;
+        }
+
+        for (int i = 0; i < series.length; i++) {
+            long column = startDate.toEpochDay() + i - originDay;
+            if (column >= 0 && column < capacity) {
+                series[i] = dailyCost[service][(int) column];
+            }
+        }
+        return series;
+    }
+
+    /**
+     * Get the names of all services present in the cube
+     */
+    public synchronized List<String> getServiceNames() {
+        return new ArrayList<>(serviceNames);
+    }
+
+    /**
+     * Sum one service row over a date range using its prefix array
+     */
+    private double rangeSum(int service, LocalDate startDate, LocalDate endDate) {
+        long from = Math.max(startDate.toEpochDay() - originDay, 0);
+        long to = Math.min(endDate.toEpochDay() - originDay, capacity - 1L);
+        if (from > to) {
+            return 0.0;
+        }
+
+        if (prefixDirty[service]) {
+            double[] row = dailyCost[service];
+            double[] prefix = prefixSums[service];
+            for (int i = 0; i < capacity; i++) {
+                prefix[i + 1] = prefix[i] + row[i];
+            }
+            prefixDirty[service] = false;
+        }
+        return prefixSums[service][(int) to + 1] - prefixSums[service][(int) from];
+    }
+
+    /**
+     * Add (sign = 1) or remove (sign = -1) a record's cost, spread evenly over its days
+     * A period-level record only contributes on days without daily coverage.
+     */
+    private void spread(int service, BillingRecord record, double sign) {
+        long first = record.getStartDate().toEpochDay();
+        long last = Math.max(record.getEndDate().toEpochDay(), first);
+        ensureRange(first, last);
+
+        boolean daily = isDaily(record);
+        double perDay = sign * record.getCostAmount() / (last - first + 1);
+        double[] row = dailyCost[service];
+        boolean[] covered = dailyCoverage[service];
+        for (long day = first; day <= last; day++) {
+            int column = (int) (day - originDay);
+            if (daily || !covered[column]) {
+                row[column] += perDay;
+            }
+        }
+        prefixDirty[service] = true;
+    }
+
+    /**
+     * Mark the days of a daily record as covered, taking the share of the service's
+     * period-level records off each newly covered day
+     */
+    private void cover(int service, BillingRecord record) {
+        long first = record.getStartDate().toEpochDay();
+        long last = Math.max(record.getEndDate().toEpochDay(), first);
+        ensureRange(first, last);
+
+        double[] row = dailyCost[service];
+        boolean[] covered = dailyCoverage[service];
+        List<BillingRecord> periods = null;
+        for (long day = first; day <= last; day++) {
+            int column = (int) (day - originDay);
+            if (covered[column]) {
+                continue;
+            }
+            covered[column] = true;
+            if (periods == null) {
+                periods = periodRecords(record.getServiceName());
+            }
+            for (BillingRecord period : periods) {
+                long periodFirst = period.getStartDate().toEpochDay();
+                long periodLast = Math.max(period.getEndDate().toEpochDay(), periodFirst);
+                if (day >= periodFirst && day <= periodLast) {
+                    row[column] -= period.getCostAmount() / (periodLast - periodFirst + 1);
+                }
+            }
+        }
+        prefixDirty[service] = true;
+    }
+
+    /**
+     * Get the applied period-level records of a service
+     */
+    private List<BillingRecord> periodRecords(String serviceName) {
+        List<BillingRecord> periods = new ArrayList<>();
+        for (BillingRecord applied : appliedRecords.values()) {
+            if (applied.getServiceName().equals(serviceName) && !isDaily(applied)) {
+                periods.add(applied);
+            }
+        }
+        return periods;
+    }
+
+    /**
+     * Get (or allocate) the row index of a service
+     */
+    private int serviceSlot(String serviceName) {
+        Integer existing = serviceIndex.get(serviceName);
+        if (existing != null) {
+            return existing;
+        }
+
+        int slot = serviceNames.size();
+        serviceNames.add(serviceName);
+        serviceIndex.put(serviceName, slot);
+
+        dailyCost = Arrays.copyOf(dailyCost, slot + 1);
+        prefixSums = Arrays.copyOf(prefixSums, slot + 1);
+        prefixDirty = Arrays.copyOf(prefixDirty, slot + 1);
+        dailyCoverage = Arrays.copyOf(dailyCoverage, slot + 1);
+        dailyCost[slot] = new double[capacity];
+        dailyCoverage[slot] = new boolean[capacity];
+        prefixSums[slot] = new double[capacity + 1];
+        return slot;
+    }
+
+    /**
+     * Grow the day axis so that [first, last] fits, moving the origin if needed
+     */
+    private void ensureRange(long first, long last) {
+        if (capacity == 0) {
+            originDay = first;
+        }
+        if (first >= originDay && last < originDay + capacity) {
+            return;
+        }
+
+        long newOrigin = Math.min(originDay, first);
+        long newEnd = Math.max(originDay + capacity - 1, last);
+        int newCapacity = Math.max(INITIAL_CAPACITY, (int) (newEnd - newOrigin + 1));
+        // Leave headroom for upcoming days so daily syncs rarely reallocate
+        newCapacity += newCapacity / 2;
+        int shift = (int) (originDay - newOrigin);
+
+        for (int s = 0; s < dailyCost.length; s++) {
+            double[] row = new double[newCapacity];
+            System.arraycopy(dailyCost[s], 0, row, shift, capacity);
+            dailyCost[s] = row;
+            boolean[] covered = new boolean[newCapacity];
+            System.arraycopy(dailyCoverage[s], 0, covered, shift, capacity);
+            dailyCoverage[s] = covered;
+            prefixSums[s] = new double[newCapacity + 1];
+            prefixDirty[s] = true;
+        }
+        originDay = newOrigin;
+        capacity = newCapacity;
+    }
+
+    private static boolean isDaily(BillingRecord record) {
+        return "daily".equalsIgnoreCase(record.getRecordType());
+    }
+
+    private static String recordKey(BillingRecord record) {
+        return record.getServiceName() + "|" + record.getStartDate() + "|" + record.getEndDate();
+    }
+
+    private static BillingRecord copyOf(BillingRecord record) {
+        BillingRecord copy = new BillingRecord(record.getUserId(), record.getServiceName(),
+            record.getCostAmount(), record.getStartDate(), record.getEndDate());
+        copy.setRecordType(record.getRecordType());
+        return copy;
+    }
+}
@@ -0,0 +1,277 @@
+package services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CostForecastService - Local cost forecasting over the daily billing series
+ * Singleton that fits one damped Holt-Winters model (additive, weekly seasonality) per
+ * service from the CostCube daily series. Models are fitted once, cached, and advanced
+ * one day at a time on each billing sync, so forecasts are served from memory without
+ * calling the Cost Explorer forecast API.
+ *
+ * Only completed days (before today) that billing data has been synced for are fed to
+ * the models. Later days are forecast like future ones: read as zero cost they would be
+ * folded in for good, since a model is never rewound when a sync fills them in.
+ */
+public class CostForecastService {
+    private static CostForecastService instance;
+
+    private static final int SEASON_LENGTH = 7;
+    private static final int HISTORY_DAYS = 180;
+
+    private double levelSmoothing = 0.3;   // alpha
+    private double trendSmoothing = 0.05;  // beta
+    private double seasonSmoothing = 0.2;  // gamma
+    private double trendDamping = 0.98;    // phi
+
+    private final CostCube costCube;
+    private final Map<String, ServiceModel> models = new HashMap<>();
+    private int userId = -1;
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private CostForecastService() {
+        this.costCube = CostCube.getInstance();
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized CostForecastService getInstance() {
+        if (instance == null) {
+            instance = new CostForecastService();
+        }
+        return instance;
+    }
+
+    /**
+     * Bring all service models up to date with the cost cube
+     * New services are fitted over their history; known services only fold in the
+     * days completed since their last update.
+     */
+    public synchronized void update(int userId) {
+        costCube.ensureLoaded(userId);
+        if (this.userId != userId) {
+            models.clear();
+            this.userId = userId;
+        }
+
+        LocalDate lastCompleteDay = lastObservedDay();
+        int fitted = 0;
+        int advanced = 0;
+
+        for (String service : costCube.getServiceNames()) {
+            ServiceModel model = models.get(service);
+            if (model == null) {
+                model = fit(service, lastCompleteDay);
+                if (model != null) {
+                    models.put(service, model);
+                    fitted++;
+                }
+            } else if (model.lastDay.isBefore(lastCompleteDay)) {
+                double[] series = costCube.getDailySeries(service, model.lastDay.plusDays(1), lastCompleteDay);
+                LocalDate day = model.lastDay;
+                for (double cost : series) {
+                    day = day.plusDays(1);
+                    model.observe(day, cost);
+                }
+                advanced++;
+            }
+        }
+
+        if (fitted + advanced > 0) {
+            System.out.println("Cost forecast models: " + fitted + " fitted, " + advanced + " advanced");
+        }
+    }
+
+    /**
+     * Projected total cost for the current month: actual month-to-date cost plus
+     * the forecast for the remaining days
+     */
+    public synchronized double getProjectedMonthEnd(int userId) {
+        update(userId);
+
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate monthEnd = today.withDayOfMonth(today.lengthOfMonth());
+        LocalDate observedThrough = lastObservedDay();
+        LocalDate forecastFrom = observedThrough.isBefore(monthStart) ? monthStart : observedThrough.plusDays(1);
+
+        double actual = observedThrough.isBefore(monthStart) ? 0.0 : costCube.getTotalCost(monthStart, observedThrough);
+        double remaining = 0.0;
+        for (ServiceModel model : models.values()) {
+            remaining += model.forecastSum(forecastFrom, monthEnd);
+        }
+        return actual + remaining;
+    }
+
+    /**
+     * Forecast total cost per service for the next N days (starting today), highest first
+     */
+    public synchronized Map<String, Double> getServiceForecasts(int userId, int days) {
+        update(userId);
+
+        LocalDate today = LocalDate.now();
+        LocalDate end = today.plusDays(days - 1L);
+
+        List<Map.Entry<String, Double>> entries = new ArrayList<>();
+        for (Map.Entry<String, ServiceModel> entry : models.entrySet()) {
+            entries.add(Map.entry(entry.getKey(), entry.getValue().forecastSum(today, end)));
+        }
+        entries.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+
+        Map<String, Double> forecasts = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : entries) {
+            forecasts.put(entry.getKey(), entry.getValue());
+        }
+        return forecasts;
+    }
+
+    /**
+     * Forecast total cost across all services for the next N days (starting today)
+     */
+    public synchronized double getTotalForecast(int userId, int days) {
+        double total = 0.0;
+        for (double cost : getServiceForecasts(userId, days).values()) {
+            total += cost;
+        }
+        return total;
+    }
+
+    /**
+     * Drop all fitted models (e.g. on logout or user switch)
+     */
+    public synchronized void clear() {
+        models.clear();
+        userId = -1;
+    }
+
+    /**
+     * Last completed day with synced billing data (yesterday once billing is up to date)
+     */
+    private LocalDate lastObservedDay() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate lastDataDay = costCube.getLastDataDay();
+        return lastDataDay != null && lastDataDay.isBefore(yesterday) ? lastDataDay : yesterday;
+    }
+
+    /**
+     * Fit a model over a service's recent history, starting at its first day with cost
+     */
+    private ServiceModel fit(String service, LocalDate lastCompleteDay) {
+        LocalDate historyStart = lastCompleteDay.minusDays(HISTORY_DAYS - 1L);
+        double[] series = costCube.getDailySeries(service, historyStart, lastCompleteDay);
+
+        int first = 0;
+        while (first < series.length && series[first] == 0.0) {
+            first++;
+        }
+        if (first == series.length) {
+            return null;
+        }
+
+        ServiceModel model = new ServiceModel();
+        model.initialize(series, first, historyStart.plusDays(first));
+
+        LocalDate day = historyStart.plusDays(first);
+        for (int i = first; i < series.length; i++) {
+            model.observe(day, series[i]);
+            day = day.plusDays(1);
+        }
+        return model;
+    }
+
+    /**
+     * Damped additive Holt-Winters state of one service
+     */
+    private class ServiceModel {
+        private double level;
+        private double trend;
+        private final double[] season = new double[SEASON_LENGTH];
+        private LocalDate lastDay;
+
+        /**
+         * Initial level, trend and seasonal indices from the first one or two weeks
+         */
+        void initialize(double[] series, int first, LocalDate firstDay) {
+            int available = series.length - first;
+            int weekOne = Math.min(SEASON_LENGTH, available);
+
+            level = mean(series, first, weekOne);
+            if (available >= 2 * SEASON_LENGTH) {
+                trend = (mean(series, first + SEASON_LENGTH, SEASON_LENGTH) - level) / SEASON_LENGTH;
+            }
+            if (available >= SEASON_LENGTH) {
+                for (int i = 0; i < SEASON_LENGTH; i++) {
+                    season[seasonIndex(firstDay.plusDays(i))] = series[first + i] - level;
+                }
+            }
+            lastDay = firstDay.minusDays(1);
+        }
+
+        /**
+         * Fold one day's cost into the model
+         */
+        void observe(LocalDate day, double cost) {
+            int index = seasonIndex(day);
+            double previousLevel = level;
+
+            level = levelSmoothing * (cost - season[index]) + (1 - levelSmoothing) * (level + trendDamping * trend);
+            trend = trendSmoothing * (level - previousLevel) + (1 - trendSmoothing) * trendDamping * trend;
+            season[index] = seasonSmoothing * (cost - level) + (1 - seasonSmoothing) * season[index];
+            lastDay = day;
+        }
+
+        /**
+         * Sum of daily forecasts over [from, to]; negative daily forecasts count as zero
+         */
+        double forecastSum(LocalDate from, LocalDate to) {
+            double sum = 0.0;
+            double dampedTrend = 0.0;
+            double damping = 1.0;
+            for (LocalDate day = lastDay.plusDays(1); !day.isAfter(to); day = day.plusDays(1)) {
+                damping *= trendDamping;
+                dampedTrend += damping;
+                if (!day.isBefore(from)) {
+                    sum += Math.max(level + dampedTrend * trend + season[seasonIndex(day)], 0.0);
+                }
+            }
+            return sum;
+        }
+
+        private double mean(double[] series, int from, int count) {
+            double sum = 0.0;
+            for (int i = from; i < from + count; i++) {
+                sum += series[i];
+            }
+            return count > 0 ? sum / count : 0.0;
+        }
+
+        private int seasonIndex(LocalDate day) {
+            return Math.floorMod(day.toEpochDay(), SEASON_LENGTH);
+        }
+    }
+
+    // Configuration (applies to models fitted afterwards and to further updates)
+    public synchronized void setLevelSmoothing(double levelSmoothing) {
+        this.levelSmoothing = levelSmoothing;
+    }
+
+    public synchronized void setTrendSmoothing(double trendSmoothing) {
+        this.trendSmoothing = trendSmoothing;
+    }
+
+    public synchronized void setSeasonSmoothing(double seasonSmoothing) {
+        this.seasonSmoothing = seasonSmoothing;
+    }
+
+    public synchronized void setTrendDamping(double trendDamping) {
+        this.trendDamping = trendDamping;
+    }
+}
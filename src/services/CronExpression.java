@@ -0,0 +1,187 @@
+package services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * CronExpression - Five-field cron schedule: minute hour day-of-month month day-of-week
+ * Fields accept *, numbers, ranges (1-5), lists (1,3,5) and steps (star/15, 0-30/10);
+ * months and weekdays also accept names (JAN, MON-FRI), and Sunday is 0 or 7. As in
+ * classic cron, when both day fields are restricted a day matching either one matches.
+ *
+ * Each field is a bit mask, so next() skips whole months, days and hours that cannot
+ * match instead of stepping minute by minute.
+ */
+public final class CronExpression {
+    private static final String[] MONTH_NAMES = {
+        "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"
+    };
+    private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    // Searching further than this means the expression never matches (e.g. 30 February)
+    private static final int MAX_SEARCH_YEARS = 5;
+
+    private final String expression;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    private final boolean dayOfMonthRestricted;
+    private final boolean dayOfWeekRestricted;
+
+    private CronExpression(String expression, String[] fields) {
+        this.expression = expression;
+        this.minutes = parseField(fields[0], 0, 59, null, "minute");
+        this.hours = parseField(fields[1], 0, 23, null, "hour");
+        this.daysOfMonth = parseField(fields[2], 1, 31, null, "day of month");
+        this.months = parseField(fields[3], 1, 12, MONTH_NAMES, "month");
+        long days = parseField(fields[4], 0, 7, DAY_NAMES, "day of week");
+        // 7 is Sunday as well
+        this.daysOfWeek = (days & (1L << 7)) != 0 ? (days | 1L) & ~(1L << 7) : days;
+        this.dayOfMonthRestricted = !fields[2].startsWith("*");
+        this.dayOfWeekRestricted = !fields[4].startsWith("*");
+    }
+
+    /**
+     * Parse an expression such as "0 20 * * MON-FRI"
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public static CronExpression parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Cron expression is empty");
+        }
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Cron expression needs 5 fields (minute hour day month weekday): " + expression);
+        }
+        return new CronExpression(expression.trim(), fields);
+    }
+
+    /**
+     * First time strictly after the given one that matches, in the time's zone
+     * Local times skipped by a daylight saving change fire at the shifted time.
+     * @return the next match, or null if the expression never matches
+     */
+    public ZonedDateTime next(ZonedDateTime after) {
+        ZoneId zone = after.getZone();
+        LocalDateTime time = after.toLocalDateTime().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        LocalDateTime limit = time.plusYears(MAX_SEARCH_YEARS);
+
+        while (time.isBefore(limit)) {
+            if (!isSet(months, time.getMonthValue())) {
+                time = time.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+                continue;
+            }
+            if (!matchesDay(time.toLocalDate())) {
+                time = time.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            }
+            int hour = nextSet(hours, time.getHour());
+            if (hour < 0) {
+                time = time.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            }
+            if (hour != time.getHour()) {
+                time = time.toLocalDate().atTime(hour, 0);
+            }
+            int minute = nextSet(minutes, time.getMinute());
+            if (minute < 0) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                continue;
+            }
+            time = time.withMinute(minute);
+
+            ZonedDateTime candidate = time.atZone(zone);
+            if (candidate.isAfter(after)) {
+                return candidate;
+            }
+            time = time.plusMinutes(1);
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private boolean matchesDay(LocalDate date) {
+        boolean dayOfMonth = isSet(daysOfMonth, date.getDayOfMonth());
+        boolean dayOfWeek = isSet(daysOfWeek, date.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : date.getDayOfWeek().getValue());
+        if (dayOfMonthRestricted && dayOfWeekRestricted) {
+            return dayOfMonth || dayOfWeek;
+        }
+        return dayOfMonth && dayOfWeek;
+    }
+
+    private static boolean isSet(long mask, int value) {
+        return (mask & (1L << value)) != 0;
+    }
+
+    /**
+     * Smallest set value at or above from, or -1
+     */
+    private static int nextSet(long mask, int from) {
+        long remaining = mask & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static long parseField(String field, int min, int max, String[] names, String fieldName) {
+        long mask = 0;
+        for (String part : field.split(",")) {
+            int step = 1;
+            String range = part;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = parseNumber(part.substring(slash + 1), null, 0, fieldName);
+                range = part.substring(0, slash);
+                if (step < 1) {
+                    throw new IllegalArgumentException("Invalid step in " + fieldName + ": " + part);
+                }
+            }
+
+            int from;
+            int to;
+            if (range.equals("*")) {
+                from = min;
+                to = max;
+            } else {
+                int dash = range.indexOf('-');
+                if (dash > 0) {
+                    from = parseNumber(range.substring(0, dash), names, min, fieldName);
+                    to = parseNumber(range.substring(dash + 1), names, min, fieldName);
+                } else {
+                    from = parseNumber(range, names, min, fieldName);
+                    // "5/15" means from 5 to the end of the field
+                    to = slash >= 0 ? max : from;
+                }
+            }
+            if (from < min || to > max || from > to) {
+                throw new IllegalArgumentException("Invalid " + fieldName + " range: " + part);
+            }
+            for (int value = from; value <= to; value += step) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+
+    private static int parseNumber(String text, String[] names, int firstNameValue, String fieldName) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equalsIgnoreCase(text)) {
+                    return firstNameValue + i;
+                }
+            }
+        }
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + fieldName + ": " + text);
+        }
+    }
+}
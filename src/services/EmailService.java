@@ -1,5 +1,6 @@
 package services;
 
+import metrics.MetricsRegistry;
 import models.Alert;
 
 import javax.mail.*;
@@ -27,6 +28,7 @@ public class EmailService {
      * Send alert notification email
      */
     public boolean sendAlertNotification(String toEmail, Alert alert) {
+        long start = System.nanoTime();
         try {
             // Set up mail server properties
             Properties props = new Properties();
@@ -64,15 +66,24 @@ public class EmailService {
             Transport.send(message);
             
             System.out.println("Alert email sent successfully to: " + toEmail);
+            recordDelivery("success", start);
             return true;
             
         } catch (MessagingException e) {
             System.err.println("Failed to send alert email: " + e.getMessage());
             e.printStackTrace();
+            recordDelivery("error", start);
             return false;
         }
     }
     
+    private static void recordDelivery(String outcome, long startNanos) {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.counter("governance_email_deliveries", "Alert emails by outcome", "outcome", outcome).inc();
+        registry.histogram("governance_email_delivery_duration_seconds", "Time to send an alert email over SMTP")
+            .observeNanos(System.nanoTime() - startNanos);
+    }
+    
     /**
      * Build HTML email body
      */
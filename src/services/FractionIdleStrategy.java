@@ -0,0 +1,75 @@
+package services;
+
+/**
+ * FractionIdleStrategy - Idle when most hours of the window were idle
+ * Datapoints are grouped into hours by timestamp; an hour is idle when its average CPU is
+ * below the threshold, and the resource is idle when at least the configured fraction of
+ * hours with data were idle. A nightly batch job therefore keeps an instance busy, while
+ * a few short spikes do not. One pass over the series, no allocation.
+ */
+public class FractionIdleStrategy implements IdleDetectionStrategy {
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    private final double minIdleFraction;
+
+    public FractionIdleStrategy() {
+        this(0.95);
+    }
+
+    /**
+     * @param minIdleFraction fraction of hours (0-1] that must be idle
+     */
+    public FractionIdleStrategy(double minIdleFraction) {
+        if (minIdleFraction <= 0 || minIdleFraction > 1) {
+            throw new IllegalArgumentException("Idle fraction must be in (0, 1]: " + minIdleFraction);
+        }
+        this.minIdleFraction = minIdleFraction;
+    }
+
+    @Override
+    public boolean isIdle(double cpuUtilization, double networkActivity, double threshold) {
+        return cpuUtilization < threshold;
+    }
+
+    @Override
+    public boolean isIdle(MetricSeries cpuUtilization, MetricSeries networkActivity, double threshold) {
+        int size = cpuUtilization.size();
+        if (size == 0) {
+            return false; // no datapoints, nothing to judge
+        }
+        long[] timestamps = cpuUtilization.timestamps();
+        double[] values = cpuUtilization.values();
+
+        int hours = 0;
+        int idleHours = 0;
+        long currentHour = Math.floorDiv(timestamps[0], HOUR_MILLIS);
+        double sum = 0;
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            long hour = Math.floorDiv(timestamps[i], HOUR_MILLIS);
+            if (hour != currentHour) {
+                hours++;
+                if (sum < threshold * count) {
+                    idleHours++;
+                }
+                currentHour = hour;
+                sum = 0;
+                count = 0;
+            }
+            sum += values[i];
+            count++;
+        }
+        hours++;
+        if (sum < threshold * count) {
+            idleHours++;
+        }
+
+        return idleHours >= minIdleFraction * hours;
+    }
+
+    @Override
+    public boolean usesSeries() {
+        return true;
+    }
+}
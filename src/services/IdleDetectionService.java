@@ -4,27 +4,47 @@ import models.*;
 import dao.*;
 import aws.*;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 /**
  * IdleDetectionService - Service for detecting idle resources
  * Uses Strategy Pattern for different detection algorithms
  */
 public class IdleDetectionService {
+    private static final int DAY_SECONDS = 86400;
+    private static final int COMPLETE_DETECTION_DAYS = 7;
+    private static final double EC2_CPU_THRESHOLD = 5.0;
+    private static final int RDS_CONNECTION_THRESHOLD = 2;
+    private static final double RDS_CPU_THRESHOLD = 10.0;
+    private static final int SAGEMAKER_INVOCATION_THRESHOLD = 10;
+    private static final double ECS_CPU_THRESHOLD = 5.0;
+    
     private IdleDetectionStrategy strategy;
     private final CloudWatchService cloudWatchService;
     private final EC2DAO ec2DAO;
     private final RDSDAO rdsDAO;
+    private final ECSDAO ecsDAO;
     private final SageMakerDAO sageMakerDAO;
+    private final DashboardSummaryDAO summaryDAO;
     private final AlertService alertService;
+    private final ResourceEventBus eventBus;
     
     public IdleDetectionService() {
         this.strategy = new CPUBasedIdleStrategy(); // Default strategy
         this.cloudWatchService = new CloudWatchService();
         this.ec2DAO = new EC2DAO();
         this.rdsDAO = new RDSDAO();
+        this.ecsDAO = new ECSDAO();
         this.sageMakerDAO = new SageMakerDAO();
+        this.summaryDAO = new DashboardSummaryDAO();
         this.alertService = AlertService.getInstance();
+        this.eventBus = ResourceEventBus.getInstance();
     }
     
     /**
@@ -42,27 +62,55 @@ public class IdleDetectionService {
         System.out.println("Detecting idle EC2 instances...");
         
         List<EC2Instance> instances = ec2DAO.getAllEC2Instances();
+        Set<Integer> owners = new LinkedHashSet<>();
+        boolean useSeries = strategy.usesSeries();
+        // Reused for every instance of the pass
+        MetricSeries cpuSeries = new MetricSeries(daysBack * 288);
+        MetricSeries networkSeries = new MetricSeries(daysBack * 288);
         
         for (EC2Instance instance : instances) {
             if ("running".equalsIgnoreCase(instance.getInstanceState())) {
-                // Get metrics from CloudWatch
-                double cpuUtilization = cloudWatchService.getEC2CPUUtilization(
-                    instance.getInstanceId(), daysBack
-                );
-                double networkIn = cloudWatchService.getEC2NetworkIn(
-                    instance.getInstanceId(), daysBack
-                );
+                owners.add(instance.getUserId());
+                // Get metrics from CloudWatch: datapoints for series strategies, else averages
+                double cpuUtilization;
+                double networkIn;
+                if (useSeries) {
+                    cloudWatchService.getEC2CPUSeries(instance.getInstanceId(), daysBack, cpuSeries);
+                    cloudWatchService.getEC2NetworkInSeries(instance.getInstanceId(), daysBack, networkSeries);
+                    cpuUtilization = cpuSeries.mean();
+                    networkIn = networkSeries.mean();
+                } else {
+                    cpuUtilization = cloudWatchService.getEC2CPUUtilization(
+                        instance.getInstanceId(), daysBack
+                    );
+                    networkIn = cloudWatchService.getEC2NetworkIn(
+                        instance.getInstanceId(), daysBack
+                    );
+                }
+                
+                Set<String> changedMetrics = new HashSet<>();
+                if (instance.getCpuUtilization() != cpuUtilization) {
+                    changedMetrics.add("CPU");
+                }
+                if (instance.getNetworkIn() != networkIn) {
+                    changedMetrics.add("NetworkIn");
+                }
                 
                 // Update instance with metrics
                 instance.setCpuUtilization(cpuUtilization);
                 instance.setNetworkIn(networkIn);
                 
                 // Check if idle using strategy
-                boolean isIdle = strategy.isIdle(cpuUtilization, networkIn, cpuThreshold);
+                boolean isIdle = useSeries
+                    ? strategy.isIdle(cpuSeries, networkSeries, cpuThreshold)
+                    : strategy.isIdle(cpuUtilization, networkIn, cpuThreshold);
                 instance.setIdle(isIdle);
                 
                 // Update database
-                ec2DAO.saveOrUpdateEC2Instance(instance);
+                if (ec2DAO.saveOrUpdateEC2Instance(instance) && !changedMetrics.isEmpty()) {
+                    eventBus.publish(ResourceChangeEvent.metricsUpdated("EC2", instance.getInstanceId(),
+                        instance.getUserId(), instance, changedMetrics));
+                }
                 
                 // Create alert if idle
                 if (isIdle) {
@@ -78,12 +126,16 @@ public class IdleDetectionService {
                         "medium",
                         message
                     );
+                    alert.setUserId(instance.getUserId());
                     
                     alertService.createAlert(alert);
                 }
             }
         }
         
+        refreshSummaries(owners);
+        // Re-check the rules on the metrics that moved
+        ChangeDrivenRuleEvaluator.getInstance().evaluatePending();
         System.out.println("Idle EC2 detection completed.");
     }
     
@@ -94,9 +146,11 @@ public class IdleDetectionService {
         System.out.println("Detecting idle RDS instances...");
         
         List<RDSInstance> instances = rdsDAO.getAllRDSInstances();
+        Set<Integer> owners = new LinkedHashSet<>();
         
         for (RDSInstance instance : instances) {
             if ("available".equalsIgnoreCase(instance.getDbInstanceStatus())) {
+                owners.add(instance.getUserId());
                 // Get metrics from CloudWatch
                 double cpuUtilization = cloudWatchService.getRDSCPUUtilization(
                     instance.getDbInstanceIdentifier(), daysBack
@@ -105,6 +159,14 @@ public class IdleDetectionService {
                     instance.getDbInstanceIdentifier(), daysBack
                 );
                 
+                Set<String> changedMetrics = new HashSet<>();
+                if (instance.getCpuUtilization() != cpuUtilization) {
+                    changedMetrics.add("CPU");
+                }
+                if (instance.getDatabaseConnections() != connections) {
+                    changedMetrics.add("Connections");
+                }
+                
                 // Update instance with metrics
                 instance.setCpuUtilization(cpuUtilization);
                 instance.setDatabaseConnections(connections);
@@ -114,7 +176,10 @@ public class IdleDetectionService {
                 instance.setIdle(isIdle);
                 
                 // Update database
-                rdsDAO.saveOrUpdateRDSInstance(instance);
+                if (rdsDAO.saveOrUpdateRDSInstance(instance) && !changedMetrics.isEmpty()) {
+                    eventBus.publish(ResourceChangeEvent.metricsUpdated("RDS", instance.getDbInstanceIdentifier(),
+                        instance.getUserId(), instance, changedMetrics));
+                }
                 
                 // Create alert if idle
                 if (isIdle) {
@@ -130,12 +195,16 @@ public class IdleDetectionService {
                         "high",
                         message
                     );
+                    alert.setUserId(instance.getUserId());
                     
                     alertService.createAlert(alert);
                 }
             }
         }
         
+        refreshSummaries(owners);
+        // Re-check the rules on the metrics that moved
+        ChangeDrivenRuleEvaluator.getInstance().evaluatePending();
         System.out.println("Idle RDS detection completed.");
     }
     
@@ -146,14 +215,18 @@ public class IdleDetectionService {
         System.out.println("Detecting idle SageMaker endpoints...");
         
         List<SageMakerEndpoint> endpoints = sageMakerDAO.getAllEndpoints();
+        Set<Integer> owners = new LinkedHashSet<>();
         
         for (SageMakerEndpoint endpoint : endpoints) {
             if ("InService".equalsIgnoreCase(endpoint.getEndpointStatus())) {
+                owners.add(endpoint.getUserId());
                 // Get metrics from CloudWatch
                 int invocations = cloudWatchService.getSageMakerInvocations(
                     endpoint.getEndpointName(), daysBack
                 );
                 
+                boolean invocationsChanged = endpoint.getInvocations() != invocations;
+                
                 // Update endpoint with metrics
                 endpoint.setInvocations(invocations);
                 
@@ -162,7 +235,10 @@ public class IdleDetectionService {
                 endpoint.setIdle(isIdle);
                 
                 // Update database
-                sageMakerDAO.saveOrUpdateEndpoint(endpoint);
+                if (sageMakerDAO.saveOrUpdateEndpoint(endpoint) && invocationsChanged) {
+                    eventBus.publish(ResourceChangeEvent.metricsUpdated("SageMaker", endpoint.getEndpointName(),
+                        endpoint.getUserId(), endpoint, Set.of("Invocations")));
+                }
                 
                 // Create alert if idle
                 if (isIdle) {
@@ -178,25 +254,242 @@ public class IdleDetectionService {
                         "high",
                         message
                     );
+                    alert.setUserId(endpoint.getUserId());
                     
                     alertService.createAlert(alert);
                 }
             }
         }
         
+        refreshSummaries(owners);
+        // Re-check the rules on the metrics that moved
+        ChangeDrivenRuleEvaluator.getInstance().evaluatePending();
         System.out.println("Idle SageMaker detection completed.");
     }
     
     /**
-     * Run complete idle detection for all resources
+     * Recount the idle resources of each owner touched by a detection pass
      */
-    public void runCompleteIdleDetection() {
-        System.out.println("Running complete idle detection across all resources...");
+    private void refreshSummaries(Set<Integer> owners) {
+        for (int userId : owners) {
+            if (userId > 0) {
+                summaryDAO.refreshResourceCounts(userId);
+            }
+        }
+    }
+    
+    /**
+     * Run complete idle detection for all resources of one user
+     * The metrics are fetched with the credentials the AWS client factory holds, which must
+     * be that user's. One fused pass over EC2, RDS, SageMaker and ECS: the metrics of every
+     * candidate are fetched together in batched CloudWatch requests, the resources are judged
+     * in parallel (so the strategy must be thread-safe, as the built-in ones are), and metrics
+     * and idle flags are written back with one batched update per resource type.
+     */
+    public void runCompleteIdleDetection(int userId) {
+        System.out.println("Running complete idle detection across all resources of user " + userId + "...");
+        long start = System.currentTimeMillis();
+        IdleDetectionStrategy activeStrategy = strategy;
+        // Strategies that judge datapoints get 5-minute series; averages only need daily values
+        int period = activeStrategy.usesSeries() ? CloudWatchService.SERIES_PERIOD_SECONDS : DAY_SECONDS;
+        
+        List<EC2Instance> ec2Instances = new ArrayList<>();
+        for (EC2Instance instance : ec2DAO.getEC2InstancesByUser(userId)) {
+            if ("running".equalsIgnoreCase(instance.getInstanceState())) {
+                ec2Instances.add(instance);
+            }
+        }
+        List<RDSInstance> rdsInstances = new ArrayList<>();
+        for (RDSInstance instance : rdsDAO.getRDSInstancesByUser(userId)) {
+            if ("available".equalsIgnoreCase(instance.getDbInstanceStatus())) {
+                rdsInstances.add(instance);
+            }
+        }
+        List<SageMakerEndpoint> endpoints = new ArrayList<>();
+        for (SageMakerEndpoint endpoint : sageMakerDAO.getEndpointsByUser(userId)) {
+            if ("InService".equalsIgnoreCase(endpoint.getEndpointStatus())) {
+                endpoints.add(endpoint);
+            }
+        }
+        List<ECSService> ecsServices = new ArrayList<>();
+        for (ECSService service : ecsDAO.getECSServicesByUser(userId)) {
+            // Services without running tasks cost nothing to keep
+            if ("ACTIVE".equalsIgnoreCase(service.getStatus()) && service.getRunningCount() > 0) {
+                ecsServices.add(service);
+            }
+        }
         
-        detectIdleEC2Instances(7, 5.0);
-        detectIdleRDSInstances(7, 2);
-        detectIdleSageMakerEndpoints(7, 10);
+        // Every metric of every candidate in one batched request set
+        List<CloudWatchService.SeriesQuery> queries = new ArrayList<>();
+        MetricSeries[] ec2Cpu = addQueries(queries, ec2Instances.size(), i -> new CloudWatchService.SeriesQuery(
+            "AWS/EC2", "CPUUtilization", "Average", period, new MetricSeries(), "InstanceId", ec2Instances.get(i).getInstanceId()));
+        MetricSeries[] ec2Network = addQueries(queries, ec2Instances.size(), i -> new CloudWatchService.SeriesQuery(
+            "AWS/EC2", "NetworkIn", "Average", period, new MetricSeries(), "InstanceId", ec2Instances.get(i).getInstanceId()));
+        MetricSeries[] rdsCpu = addQueries(queries, rdsInstances.size(), i -> new CloudWatchService.SeriesQuery(
+            "AWS/RDS", "CPUUtilization", "Average", DAY_SECONDS, new MetricSeries(),
+            "DBInstanceIdentifier", rdsInstances.get(i).getDbInstanceIdentifier()));
+        MetricSeries[] rdsConnections = addQueries(queries, rdsInstances.size(), i -> new CloudWatchService.SeriesQuery(
+            "AWS/RDS", "DatabaseConnections", "Average", DAY_SECONDS, new MetricSeries(),
+            "DBInstanceIdentifier", rdsInstances.get(i).getDbInstanceIdentifier()));
+        MetricSeries[] invocations = addQueries(queries, endpoints.size(), i -> new CloudWatchService.SeriesQuery(
+            "AWS/SageMaker", "Invocations", "Sum", DAY_SECONDS, new MetricSeries(),
+            "EndpointName", endpoints.get(i).getEndpointName()));
+        MetricSeries[] ecsCpu = addQueries(queries, ecsServices.size(), i -> new CloudWatchService.SeriesQuery(
+            "AWS/ECS", "CPUUtilization", "Average", period, new MetricSeries(),
+            "ClusterName", ecsServices.get(i).getClusterName(), "ServiceName", ecsServices.get(i).getServiceName()));
+        MetricSeries[] ecsMemory = addQueries(queries, ecsServices.size(), i -> new CloudWatchService.SeriesQuery(
+            "AWS/ECS", "MemoryUtilization", "Average", DAY_SECONDS, new MetricSeries(),
+            "ClusterName", ecsServices.get(i).getClusterName(), "ServiceName", ecsServices.get(i).getServiceName()));
         
-        System.out.println("Complete idle detection finished.");
+        int requests = cloudWatchService.getMetricSeries(queries, COMPLETE_DETECTION_DAYS);
+        
+        // Judge every resource in parallel; each task writes only its own slot
+        MetricSeries noData = new MetricSeries(1);
+        boolean[] ec2Idle = new boolean[ec2Instances.size()];
+        boolean[] rdsIdle = new boolean[rdsInstances.size()];
+        boolean[] endpointIdle = new boolean[endpoints.size()];
+        boolean[] ecsIdle = new boolean[ecsServices.size()];
+        IntStream.range(0, ec2Idle.length).parallel().forEach(i ->
+            ec2Idle[i] = activeStrategy.isIdle(ec2Cpu[i], ec2Network[i], EC2_CPU_THRESHOLD));
+        IntStream.range(0, rdsIdle.length).parallel().forEach(i ->
+            rdsIdle[i] = rdsConnections[i].mean() < RDS_CONNECTION_THRESHOLD && rdsCpu[i].mean() < RDS_CPU_THRESHOLD);
+        IntStream.range(0, endpointIdle.length).parallel().forEach(i ->
+            endpointIdle[i] = invocations[i].sum() < SAGEMAKER_INVOCATION_THRESHOLD);
+        IntStream.range(0, ecsIdle.length).parallel().forEach(i ->
+            ecsIdle[i] = activeStrategy.isIdle(ecsCpu[i], noData, ECS_CPU_THRESHOLD));
+        
+        Set<Integer> owners = new LinkedHashSet<>();
+        
+        for (int i = 0; i < ec2Idle.length; i++) {
+            EC2Instance instance = ec2Instances.get(i);
+            double cpuUtilization = ec2Cpu[i].mean();
+            double networkIn = ec2Network[i].mean();
+            Set<String> changedMetrics = new HashSet<>();
+            if (instance.getCpuUtilization() != cpuUtilization) {
+                changedMetrics.add("CPU");
+            }
+            if (instance.getNetworkIn() != networkIn) {
+                changedMetrics.add("NetworkIn");
+            }
+            instance.setCpuUtilization(cpuUtilization);
+            instance.setNetworkIn(networkIn);
+            instance.setIdle(ec2Idle[i]);
+            owners.add(instance.getUserId());
+            publishMetricChanges("EC2", instance.getInstanceId(), instance.getUserId(), instance, changedMetrics);
+            if (ec2Idle[i]) {
+                createIdleAlert(instance.getInstanceId(), "EC2", "medium", instance.getUserId(), String.format(
+                    "EC2 instance %s is idle (CPU: %.2f%%, Network In: %.2f bytes)",
+                    instance.getInstanceId(), cpuUtilization, networkIn));
+            }
+        }
+        
+        for (int i = 0; i < rdsIdle.length; i++) {
+            RDSInstance instance = rdsInstances.get(i);
+            double cpuUtilization = rdsCpu[i].mean();
+            int connections = (int) rdsConnections[i].mean();
+            Set<String> changedMetrics = new HashSet<>();
+            if (instance.getCpuUtilization() != cpuUtilization) {
+                changedMetrics.add("CPU");
+            }
+            if (instance.getDatabaseConnections() != connections) {
+                changedMetrics.add("Connections");
+            }
+            instance.setCpuUtilization(cpuUtilization);
+            instance.setDatabaseConnections(connections);
+            instance.setIdle(rdsIdle[i]);
+            owners.add(instance.getUserId());
+            publishMetricChanges("RDS", instance.getDbInstanceIdentifier(), instance.getUserId(), instance, changedMetrics);
+            if (rdsIdle[i]) {
+                createIdleAlert(instance.getDbInstanceIdentifier(), "RDS", "high", instance.getUserId(), String.format(
+                    "RDS instance %s is idle (Connections: %d, CPU: %.2f%%)",
+                    instance.getDbInstanceIdentifier(), connections, cpuUtilization));
+            }
+        }
+        
+        for (int i = 0; i < endpointIdle.length; i++) {
+            SageMakerEndpoint endpoint = endpoints.get(i);
+            int count = (int) invocations[i].sum();
+            Set<String> changedMetrics = endpoint.getInvocations() != count ? Set.of("Invocations") : Set.of();
+            endpoint.setInvocations(count);
+            endpoint.setIdle(endpointIdle[i]);
+            owners.add(endpoint.getUserId());
+            publishMetricChanges("SageMaker", endpoint.getEndpointName(), endpoint.getUserId(), endpoint, changedMetrics);
+            if (endpointIdle[i]) {
+                createIdleAlert(endpoint.getEndpointName(), "SageMaker", "high", endpoint.getUserId(), String.format(
+                    "SageMaker endpoint %s is idle (Invocations: %d in last %d days)",
+                    endpoint.getEndpointName(), count, COMPLETE_DETECTION_DAYS));
+            }
+        }
+        
+        List<ECSService> judgedServices = new ArrayList<>();
+        for (int i = 0; i < ecsIdle.length; i++) {
+            ECSService service = ecsServices.get(i);
+            if (ecsCpu[i].isEmpty()) {
+                continue; // no metrics published for the service, nothing to judge
+            }
+            double cpuUtilization = ecsCpu[i].mean();
+            double memoryUtilization = ecsMemory[i].mean();
+            Set<String> changedMetrics = new HashSet<>();
+            if (service.getCpuUtilization() != cpuUtilization) {
+                changedMetrics.add("CPU");
+            }
+            if (service.getMemoryUtilization() != memoryUtilization) {
+                changedMetrics.add("Memory");
+            }
+            service.setCpuUtilization(cpuUtilization);
+            service.setMemoryUtilization(memoryUtilization);
+            service.setIdle(ecsIdle[i]);
+            judgedServices.add(service);
+            owners.add(service.getUserId());
+            publishMetricChanges("ECS", service.getServiceName(), service.getUserId(), service, changedMetrics);
+            if (ecsIdle[i]) {
+                createIdleAlert(service.getServiceName(), "ECS", "medium", service.getUserId(), String.format(
+                    "ECS service %s/%s is idle (CPU: %.2f%%, Memory: %.2f%%, %d running tasks)",
+                    service.getClusterName(), service.getServiceName(), cpuUtilization, memoryUtilization,
+                    service.getRunningCount()));
+            }
+        }
+        
+        ec2DAO.updateIdleResults(ec2Instances);
+        rdsDAO.updateIdleResults(rdsInstances);
+        sageMakerDAO.updateIdleResults(endpoints);
+        ecsDAO.updateIdleResults(judgedServices);
+        
+        refreshSummaries(owners);
+        // Re-check the rules on the metrics that moved
+        ChangeDrivenRuleEvaluator.getInstance().evaluatePending();
+        
+        System.out.println("Complete idle detection finished: " + ec2Instances.size() + " EC2, " + rdsInstances.size()
+            + " RDS, " + endpoints.size() + " SageMaker, " + judgedServices.size() + " ECS checked with "
+            + (requests >= 0 ? requests + " CloudWatch requests" : "CloudWatch errors") + " in "
+            + (System.currentTimeMillis() - start) + " ms");
+    }
+    
+    /**
+     * Append one series query per resource and return the series they fill
+     */
+    private static MetricSeries[] addQueries(List<CloudWatchService.SeriesQuery> queries, int count,
+                                             IntFunction<CloudWatchService.SeriesQuery> queryFor) {
+        MetricSeries[] series = new MetricSeries[count];
+        for (int i = 0; i < count; i++) {
+            CloudWatchService.SeriesQuery query = queryFor.apply(i);
+            series[i] = query.getSeries();
+            queries.add(query);
+        }
+        return series;
+    }
+    
+    private void publishMetricChanges(String resourceType, String resourceId, int userId, Object resource,
+                                      Set<String> changedMetrics) {
+        if (!changedMetrics.isEmpty()) {
+            eventBus.publish(ResourceChangeEvent.metricsUpdated(resourceType, resourceId, userId, resource,
+                changedMetrics));
+        }
+    }
+    
+    private void createIdleAlert(String resourceId, String resourceType, String severity, int userId, String message) {
+        Alert alert = new Alert(resourceId, resourceType, "IDLE_RESOURCE", severity, message);
+        alert.setUserId(userId);
+        alertService.createAlert(alert);
     }
 }
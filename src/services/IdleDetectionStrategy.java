@@ -13,4 +13,25 @@ public interface IdleDetectionStrategy {
      * @return true if resource is considered idle
      */
     boolean isIdle(double cpuUtilization, double networkActivity, double threshold);
+
+    /**
+     * Check if a resource is idle based on the full metric series
+     * By default the series are reduced to their averages and passed to
+     * isIdle(double, double, double).
+     * @param cpuUtilization CPU utilization datapoints (percent), ascending in time
+     * @param networkActivity network (or other metric) datapoints, ascending in time
+     * @param threshold Threshold value for comparison
+     * @return true if resource is considered idle
+     */
+    default boolean isIdle(MetricSeries cpuUtilization, MetricSeries networkActivity, double threshold) {
+        return isIdle(cpuUtilization.mean(), networkActivity.mean(), threshold);
+    }
+
+    /**
+     * Whether the strategy looks at the datapoints rather than averages; the detection
+     * service then fetches the full series from CloudWatch
+     */
+    default boolean usesSeries() {
+        return false;
+    }
 }
@@ -0,0 +1,53 @@
+package services;
+
+/**
+ * MaxOverWindowIdleStrategy - Idle when CPU never reached the threshold in the window
+ * The strictest check: a single busy datapoint in the most recent window keeps the
+ * resource active. The window is measured back from the newest datapoint; a window of 0
+ * covers the whole series. Scans from the newest datapoint and stops at the window start.
+ */
+public class MaxOverWindowIdleStrategy implements IdleDetectionStrategy {
+    private final long windowMillis;
+
+    public MaxOverWindowIdleStrategy() {
+        this(0);
+    }
+
+    /**
+     * @param windowHours hours of the most recent data to look at (0 for the whole series)
+     */
+    public MaxOverWindowIdleStrategy(int windowHours) {
+        if (windowHours < 0) {
+            throw new IllegalArgumentException("Window must not be negative: " + windowHours);
+        }
+        this.windowMillis = windowHours * 3_600_000L;
+    }
+
+    @Override
+    public boolean isIdle(double cpuUtilization, double networkActivity, double threshold) {
+        return cpuUtilization < threshold;
+    }
+
+    @Override
+    public boolean isIdle(MetricSeries cpuUtilization, MetricSeries networkActivity, double threshold) {
+        int size = cpuUtilization.size();
+        if (size == 0) {
+            return false; // no datapoints, nothing to judge
+        }
+        long[] timestamps = cpuUtilization.timestamps();
+        double[] values = cpuUtilization.values();
+        long windowStart = windowMillis > 0 ? timestamps[size - 1] - windowMillis : Long.MIN_VALUE;
+
+        for (int i = size - 1; i >= 0 && timestamps[i] >= windowStart; i--) {
+            if (values[i] >= threshold) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean usesSeries() {
+        return true;
+    }
+}
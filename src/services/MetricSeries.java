@@ -0,0 +1,103 @@
+package services;
+
+import java.util.Arrays;
+
+/**
+ * MetricSeries - Datapoints of one metric as primitive arrays
+ * Timestamps (epoch milliseconds) and values are kept in parallel arrays in ascending time
+ * order. Only the first size() entries are valid; the arrays are reused across resources
+ * (clear() and refill), so a detection pass does not allocate per datapoint.
+ */
+public class MetricSeries {
+    private long[] timestamps;
+    private double[] values;
+    private int size;
+
+    public MetricSeries() {
+        this(64);
+    }
+
+    public MetricSeries(int capacity) {
+        this.timestamps = new long[Math.max(1, capacity)];
+        this.values = new double[Math.max(1, capacity)];
+    }
+
+    /**
+     * Series over existing arrays (not copied); timestamps must be ascending
+     */
+    public static MetricSeries of(long[] timestamps, double[] values) {
+        if (timestamps.length != values.length) {
+            throw new IllegalArgumentException("Timestamps and values differ in length");
+        }
+        MetricSeries series = new MetricSeries(0);
+        series.timestamps = timestamps;
+        series.values = values;
+        series.size = values.length;
+        return series;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Append a datapoint; must not be older than the last one
+     */
+    public void add(long timestamp, double value) {
+        if (size == values.length) {
+            int capacity = values.length * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        timestamps[size] = timestamp;
+        values[size] = value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Backing timestamp array; entries from size() on are stale
+     */
+    public long[] timestamps() {
+        return timestamps;
+    }
+
+    /**
+     * Backing value array; entries from size() on are stale
+     */
+    public double[] values() {
+        return values;
+    }
+
+    /**
+     * Total of the values (for count metrics such as invocations)
+     */
+    public double sum() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Average of the values, or 0 for an empty series (as the single-average CloudWatch lookups)
+     */
+    public double mean() {
+        if (size == 0) {
+            return 0.0;
+        }
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum / size;
+    }
+}
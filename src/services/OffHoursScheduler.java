@@ -0,0 +1,292 @@
+package services;
+
+import dao.ScheduleDAO;
+import models.ResourceSchedule;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * OffHoursScheduler - Starts and stops resources on their schedules
+ * Singleton. Each active schedule has exactly one pending transition (its next start or
+ * stop) in a priority queue ordered by due time. One thread sleeps until the head is due,
+ * takes every transition due at that moment and hands them to a worker as one batch, so
+ * schedules firing together share their API calls; each schedule's following transition
+ * is then computed from its cron and queued. Firing a transition costs O(log n) in the
+ * number of schedules; resources are never scanned between transitions.
+ *
+ * Schedules are reloaded (and the queue rebuilt) only when the schedule tables change,
+ * which is checked every 30 seconds. Transitions found overdue by more than 15 minutes
+ * (e.g. after the host was suspended) are skipped rather than run late; transitions
+ * missed while the scheduler was not running are not caught up.
+ */
+public class OffHoursScheduler {
+    private static OffHoursScheduler instance;
+    private static final long RELOAD_CHECK_MILLIS = 30_000;
+    private static final long MISFIRE_GRACE_MILLIS = 15 * 60_000;
+
+    /**
+     * A loaded schedule with its parsed cron expressions
+     */
+    private static class ScheduledEntry {
+        private final ResourceSchedule schedule;
+        private final CronExpression stopCron;
+        private final CronExpression startCron;
+        private final ZoneId zone;
+
+        ScheduledEntry(ResourceSchedule schedule) {
+            this.schedule = schedule;
+            this.stopCron = schedule.getStopCron() != null && !schedule.getStopCron().isBlank()
+                ? CronExpression.parse(schedule.getStopCron()) : null;
+            this.startCron = schedule.getStartCron() != null && !schedule.getStartCron().isBlank()
+                ? CronExpression.parse(schedule.getStartCron()) : null;
+            this.zone = ZoneId.of(schedule.getTimeZone() != null ? schedule.getTimeZone() : "UTC");
+        }
+
+        /**
+         * First start or stop strictly after the time, or null if the schedule never fires
+         */
+        ScheduleTransition nextAfter(long afterMillis) {
+            ZonedDateTime after = Instant.ofEpochMilli(afterMillis).atZone(zone);
+            ZonedDateTime stop = stopCron != null ? stopCron.next(after) : null;
+            ZonedDateTime start = startCron != null ? startCron.next(after) : null;
+            if (stop == null && start == null) {
+                return null;
+            }
+            // Stop wins a tie: a schedule must not leave resources running by accident
+            if (start == null || (stop != null && !stop.isAfter(start))) {
+                return new ScheduleTransition(schedule, ScheduleTransition.Action.STOP, stop.toInstant().toEpochMilli());
+            }
+            return new ScheduleTransition(schedule, ScheduleTransition.Action.START, start.toInstant().toEpochMilli());
+        }
+    }
+
+    // The queue holds the pending transition of every schedule; guarded by itself
+    private final PriorityQueue<ScheduleTransition> queue =
+        new PriorityQueue<>(Comparator.comparingLong(ScheduleTransition::getDueAt));
+    private final Map<Integer, ScheduledEntry> entries = new HashMap<>();
+
+    private Consumer<List<ScheduleTransition>> runner;
+    private ExecutorService worker;
+    private Thread loop;
+    private volatile boolean started;
+
+    // Owned by the scheduler thread
+    private String appliedFingerprint;
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private OffHoursScheduler() {
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized OffHoursScheduler getInstance() {
+        if (instance == null) {
+            instance = new OffHoursScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Start running schedules with ScheduleExecutor
+     */
+    public void start() {
+        start(transitions -> new ScheduleExecutor().execute(transitions));
+    }
+
+    /**
+     * Start running schedules (does nothing if already started)
+     * @param runner executes a batch of transitions that are due together, on a worker thread
+     */
+    public synchronized void start(Consumer<List<ScheduleTransition>> runner) {
+        if (started) {
+            return;
+        }
+        this.runner = runner;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "off-hours-executor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.appliedFingerprint = null;
+        this.started = true;
+
+        loop = new Thread(this::runLoop, "off-hours-scheduler");
+        loop.setDaemon(true);
+        loop.start();
+        System.out.println("Off-hours scheduler started");
+    }
+
+    /**
+     * Stop scheduling and wait for a running batch to finish
+     */
+    public void stop(long timeoutSeconds) {
+        ExecutorService runningWorker;
+        Thread runningLoop;
+        synchronized (this) {
+            if (!started) {
+                return;
+            }
+            started = false;
+            runningLoop = loop;
+            runningWorker = worker;
+        }
+
+        runningLoop.interrupt();
+        runningWorker.shutdown();
+        try {
+            runningLoop.join(1000);
+            if (!runningWorker.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                runningWorker.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            runningWorker.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (queue) {
+            queue.clear();
+            entries.clear();
+        }
+        System.out.println("Off-hours scheduler stopped");
+    }
+
+    /**
+     * Pending transitions in due order, at most limit of them
+     */
+    public List<ScheduleTransition> getUpcoming(int limit) {
+        List<ScheduleTransition> upcoming;
+        synchronized (queue) {
+            upcoming = new ArrayList<>(queue);
+        }
+        upcoming.sort(Comparator.comparingLong(ScheduleTransition::getDueAt));
+        return upcoming.subList(0, Math.min(limit, upcoming.size()));
+    }
+
+    private void runLoop() {
+        long nextReloadAt = 0;
+        while (started) {
+            long now = System.currentTimeMillis();
+            if (now >= nextReloadAt) {
+                nextReloadAt = now + RELOAD_CHECK_MILLIS;
+                reloadIfChanged(now);
+            }
+
+            List<ScheduleTransition> due = takeDue(now);
+            if (!due.isEmpty()) {
+                dispatch(due);
+            }
+
+            long wakeAt = nextReloadAt;
+            synchronized (queue) {
+                ScheduleTransition head = queue.peek();
+                if (head != null) {
+                    wakeAt = Math.min(wakeAt, head.getDueAt());
+                }
+            }
+            long sleepMillis = wakeAt - System.currentTimeMillis();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the transitions due by now and queue each schedule's following one
+     */
+    private List<ScheduleTransition> takeDue(long now) {
+        List<ScheduleTransition> due = new ArrayList<>();
+        synchronized (queue) {
+            ScheduleTransition head;
+            while ((head = queue.peek()) != null && head.getDueAt() <= now) {
+                queue.poll();
+                if (now - head.getDueAt() > MISFIRE_GRACE_MILLIS) {
+                    System.err.println("Skipping overdue off-hours transition: " + head);
+                } else {
+                    due.add(head);
+                }
+                ScheduleTransition next = entries.get(head.getSchedule().getScheduleId())
+                    .nextAfter(Math.max(head.getDueAt(), now));
+                if (next != null) {
+                    queue.add(next);
+                }
+            }
+        }
+        return due;
+    }
+
+    private void dispatch(List<ScheduleTransition> due) {
+        for (ScheduleTransition transition : due) {
+            System.out.println("Off-hours transition due: " + transition);
+        }
+        try {
+            worker.execute(() -> {
+                try {
+                    runner.accept(due);
+                } catch (Exception e) {
+                    System.err.println("Error running off-hours transitions: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            });
+        } catch (RuntimeException e) {
+            // Rejected while stopping
+        }
+    }
+
+    /**
+     * Reload the schedules and rebuild the queue if the schedule tables changed
+     */
+    private void reloadIfChanged(long now) {
+        ScheduleDAO scheduleDAO = new ScheduleDAO();
+        String fingerprint = scheduleDAO.getSchedulesFingerprint();
+        if (fingerprint == null || fingerprint.equals(appliedFingerprint)) {
+            return;
+        }
+        List<ResourceSchedule> schedules = scheduleDAO.getActiveSchedules();
+
+        List<ScheduledEntry> loaded = new ArrayList<>();
+        for (ResourceSchedule schedule : schedules) {
+            try {
+                loaded.add(new ScheduledEntry(schedule));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                System.err.println("Skipping schedule '" + schedule.getScheduleName() + "': " + e.getMessage());
+            }
+        }
+
+        int pending;
+        synchronized (queue) {
+            entries.clear();
+            queue.clear();
+            // A pending transition is the first one after now, so rebuilding keeps unchanged schedules as they were
+            for (ScheduledEntry entry : loaded) {
+                entries.put(entry.schedule.getScheduleId(), entry);
+                ScheduleTransition next = entry.nextAfter(now);
+                if (next != null) {
+                    queue.add(next);
+                }
+            }
+            pending = queue.size();
+        }
+        appliedFingerprint = fingerprint;
+        System.out.println("Loaded " + loaded.size() + " off-hours schedules, " + pending + " transitions pending");
+    }
+}
@@ -0,0 +1,56 @@
+package services;
+
+/**
+ * PercentileIdleStrategy - Idle when a high percentile of CPU stays below the threshold
+ * Unlike an average, a p95 below 5% means the instance spent 95% of the time idle, so
+ * occasional bursts do not hide an idle instance and a bursty busy one is not called idle.
+ * The nearest-rank percentile is below the threshold exactly when at least rank values
+ * are, so the check is one counting pass over the series: no sorting, copying or allocation.
+ */
+public class PercentileIdleStrategy implements IdleDetectionStrategy {
+    private final double percentile;
+
+    public PercentileIdleStrategy() {
+        this(95.0);
+    }
+
+    /**
+     * @param percentile percentile of the CPU datapoints compared to the threshold (0-100]
+     */
+    public PercentileIdleStrategy(double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+        this.percentile = percentile;
+    }
+
+    @Override
+    public boolean isIdle(double cpuUtilization, double networkActivity, double threshold) {
+        // A single average is its own percentile
+        return cpuUtilization < threshold;
+    }
+
+    @Override
+    public boolean isIdle(MetricSeries cpuUtilization, MetricSeries networkActivity, double threshold) {
+        int size = cpuUtilization.size();
+        if (size == 0) {
+            return false; // no datapoints, nothing to judge
+        }
+        double[] values = cpuUtilization.values();
+        int rank = Math.max(1, (int) Math.ceil(percentile / 100.0 * size));
+        // Once more than size - rank values reached the threshold, the percentile did too
+        int allowedBusy = size - rank;
+        int busy = 0;
+        for (int i = 0; i < size; i++) {
+            if (!(values[i] < threshold) && ++busy > allowedBusy) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean usesSeries() {
+        return true;
+    }
+}
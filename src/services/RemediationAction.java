@@ -0,0 +1,53 @@
+package services;
+
+/**
+ * RemediationAction - Rule action types that change resources
+ * ALERT and NOTIFY only raise alerts and have no remediation action.
+ */
+public enum RemediationAction {
+    STOP,
+    TERMINATE;
+
+    /**
+     * Action for a rule's action_type, or null when the rule only alerts
+     */
+    public static RemediationAction fromActionType(String actionType) {
+        if (actionType == null) {
+            return null;
+        }
+        switch (actionType.trim().toUpperCase()) {
+            case "STOP":
+                return STOP;
+            case "TERMINATE":
+                return TERMINATE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Whether the action can be taken on a resource of the type
+     * SageMaker endpoints cannot be stopped, only deleted, so a STOP rule never deletes one.
+     */
+    public boolean supports(String resourceType) {
+        return this == TERMINATE || !"SageMaker".equals(resourceType);
+    }
+
+    /**
+     * What the action does to a resource of the type (e.g. "scale to 0" for an ECS STOP)
+     * Deleting a SageMaker endpoint keeps its endpoint configuration and model, so it can be
+     * redeployed from them.
+     */
+    public String describeFor(String resourceType) {
+        switch (resourceType) {
+            case "RDS":
+                return this == STOP ? "stop" : "delete (keeping a final snapshot)";
+            case "ECS":
+                return this == STOP ? "scale to 0 tasks" : "delete";
+            case "SageMaker":
+                return this == STOP ? "none (endpoints cannot be stopped)" : "delete endpoint";
+            default:
+                return this == STOP ? "stop" : "terminate";
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package services;
+
+import models.EC2Instance;
+import models.ECSService;
+import models.RDSInstance;
+import models.SageMakerEndpoint;
+
+/**
+ * RemediationFinding - A resource a STOP or TERMINATE rule matched
+ * Immutable. Findings are keyed by resource, so several rules matching the same resource
+ * produce one action; merge() keeps the stronger one (TERMINATE over STOP).
+ */
+public final class RemediationFinding {
+    private final String resourceType;
+    private final String resourceId;
+    private final String clusterName;
+    private final int userId;
+    private final RemediationAction action;
+    private final int ruleId;
+    private final String ruleName;
+
+    private RemediationFinding(String resourceType, String resourceId, String clusterName, int userId,
+                               RemediationAction action, int ruleId, String ruleName) {
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.clusterName = clusterName;
+        this.userId = userId;
+        this.action = action;
+        this.ruleId = ruleId;
+        this.ruleName = ruleName;
+    }
+
+    /**
+     * Finding for a resource the rule matched, or null when the rule only alerts or the
+     * resource is not in a state the action applies to (e.g. stopping a stopped instance)
+     */
+    public static RemediationFinding of(CompiledRule rule, Object resource) {
+        RemediationAction action = RemediationAction.fromActionType(rule.getRule().getActionType());
+        if (action == null) {
+            return null;
+        }
+        boolean stop = action == RemediationAction.STOP;
+
+        if (resource instanceof EC2Instance) {
+            EC2Instance instance = (EC2Instance) resource;
+            String state = instance.getInstanceState();
+            if ("running".equalsIgnoreCase(state) || (!stop && "stopped".equalsIgnoreCase(state))) {
+                return new RemediationFinding("EC2", instance.getInstanceId(), null, instance.getUserId(),
+                    action, rule.getRuleId(), rule.getRuleName());
+            }
+        } else if (resource instanceof RDSInstance) {
+            RDSInstance instance = (RDSInstance) resource;
+            String status = instance.getDbInstanceStatus();
+            if ("available".equalsIgnoreCase(status) || (!stop && "stopped".equalsIgnoreCase(status))) {
+                return new RemediationFinding("RDS", instance.getDbInstanceIdentifier(), null, instance.getUserId(),
+                    action, rule.getRuleId(), rule.getRuleName());
+            }
+        } else if (resource instanceof SageMakerEndpoint) {
+            SageMakerEndpoint endpoint = (SageMakerEndpoint) resource;
+            if ("InService".equalsIgnoreCase(endpoint.getEndpointStatus())) {
+                return new RemediationFinding("SageMaker", endpoint.getEndpointName(), null, endpoint.getUserId(),
+                    action, rule.getRuleId(), rule.getRuleName());
+            }
+        } else if (resource instanceof ECSService) {
+            ECSService service = (ECSService) resource;
+            if ("ACTIVE".equalsIgnoreCase(service.getStatus()) && (!stop || service.getDesiredCount() > 0)) {
+                return new RemediationFinding("ECS", service.getServiceName(), service.getClusterName(),
+                    service.getUserId(), action, rule.getRuleId(), rule.getRuleName());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Combine two findings for the same resource, keeping the stronger action
+     */
+    public static RemediationFinding merge(RemediationFinding first, RemediationFinding second) {
+        return second.action.compareTo(first.action) > 0 ? second : first;
+    }
+
+    /**
+     * Identity of the resource (e.g. "EC2:i-0abc", "ECS:cluster/service")
+     */
+    public String getKey() {
+        return resourceType + ":" + getResourceLabel();
+    }
+
+    /**
+     * Resource id as shown in reports; ECS services are prefixed with their cluster
+     */
+    public String getResourceLabel() {
+        return clusterName != null ? clusterName + "/" + resourceId : resourceId;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    /**
+     * Cluster of an ECS service, null for other resource types
+     */
+    public String getClusterName() {
+        return clusterName;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public RemediationAction getAction() {
+        return action;
+    }
+
+    public int getRuleId() {
+        return ruleId;
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    @Override
+    public String toString() {
+        return action.describeFor(resourceType) + " " + resourceType + " " + getResourceLabel()
+            + " (rule '" + ruleName + "')";
+    }
+}
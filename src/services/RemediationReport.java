@@ -0,0 +1,143 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RemediationReport - Outcome of one remediation run
+ * One outcome per finding. Outcomes and API calls are recorded from the worker threads of
+ * the run, so both are thread-safe.
+ */
+public class RemediationReport {
+
+    public enum Status {
+        SUCCEEDED,
+        FAILED,
+        DRY_RUN,
+        SKIPPED
+    }
+
+    /**
+     * What happened to one finding
+     */
+    public static final class Outcome {
+        private final RemediationFinding finding;
+        private final Status status;
+        private final String detail;
+
+        Outcome(RemediationFinding finding, Status status, String detail) {
+            this.finding = finding;
+            this.status = status;
+            this.detail = detail;
+        }
+
+        public RemediationFinding getFinding() {
+            return finding;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        @Override
+        public String toString() {
+            return status + " " + finding + (detail != null ? ": " + detail : "");
+        }
+    }
+
+    private final boolean dryRun;
+    private final long startedAt;
+    private final List<Outcome> outcomes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger apiCalls = new AtomicInteger();
+    private volatile long durationMillis;
+
+    RemediationReport(boolean dryRun) {
+        this.dryRun = dryRun;
+        this.startedAt = System.currentTimeMillis();
+    }
+
+    void add(RemediationFinding finding, Status status, String detail) {
+        outcomes.add(new Outcome(finding, status, detail));
+    }
+
+    void countApiCall() {
+        apiCalls.incrementAndGet();
+    }
+
+    void finish() {
+        durationMillis = System.currentTimeMillis() - startedAt;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public boolean isEmpty() {
+        return outcomes.isEmpty();
+    }
+
+    public List<Outcome> getOutcomes() {
+        synchronized (outcomes) {
+            return new ArrayList<>(outcomes);
+        }
+    }
+
+    public int count(Status status) {
+        int count = 0;
+        synchronized (outcomes) {
+            for (Outcome outcome : outcomes) {
+                if (outcome.status == status) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public int getApiCalls() {
+        return apiCalls.get();
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * One-line summary, e.g. "Remediation: 300 findings, 50 succeeded, 0 failed, 250 skipped, 4 API calls in 1.2s"
+     */
+    public String summary() {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, count(status));
+        }
+        StringBuilder text = new StringBuilder(dryRun ? "Remediation (dry run): " : "Remediation: ");
+        text.append(outcomes.size()).append(" findings, ");
+        if (dryRun) {
+            text.append(counts.get(Status.DRY_RUN)).append(" would be acted on, ");
+        } else {
+            text.append(counts.get(Status.SUCCEEDED)).append(" succeeded, ")
+                .append(counts.get(Status.FAILED)).append(" failed, ");
+        }
+        text.append(counts.get(Status.SKIPPED)).append(" skipped, ")
+            .append(apiCalls.get()).append(" API calls in ")
+            .append(String.format("%.1fs", durationMillis / 1000.0));
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(summary());
+        for (Outcome outcome : getOutcomes()) {
+            text.append(System.lineSeparator()).append("  ").append(outcome);
+        }
+        return text.toString();
+    }
+}
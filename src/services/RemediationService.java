@@ -0,0 +1,339 @@
+package services;
+
+import aws.EC2Service;
+import aws.ECSAWSService;
+import aws.RDSService;
+import aws.SageMakerAWSService;
+import models.Alert;
+import utils.RateLimiter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RemediationService - Executes the STOP / TERMINATE actions of matching rules
+ * Singleton. Rule evaluation submits a finding for each matched resource in an actionable
+ * state; executePending() then acts on the collected findings in one run:
+ *   - EC2 instances are stopped or terminated with one StopInstances / TerminateInstances
+ *     call per batch of ids (a rejected batch is retried one id at a time)
+ *   - RDS, SageMaker and ECS have no batch APIs, so their calls run concurrently
+ * SageMaker endpoints can only be deleted (TERMINATE); STOP findings for them are skipped
+ * and reported as unsupported.
+ * All calls share a rate limiter, and each run is capped (blast radius): findings over the
+ * caps are skipped and reported, and are picked up again by a later evaluation.
+ *
+ * Runs are dry by default: the report lists what would be done and nothing is changed.
+ * Settings (system properties):
+ *   remediation.dry.run            only report, do not act (default true)
+ *   remediation.max.actions        actions per run (default 50)
+ *   remediation.max.terminations   TERMINATE actions per run (default 5)
+ *   remediation.calls.per.second   AWS API call rate (default 5)
+ *   remediation.threads            concurrent API calls (default 4)
+ */
+public class RemediationService {
+    private static RemediationService instance;
+    // Instance ids per StopInstances / TerminateInstances call
+    static final int EC2_BATCH_SIZE = 100;
+
+    private final boolean dryRun;
+    private final int maxActions;
+    private final int maxTerminations;
+    private final double callsPerSecond;
+    private final int threads;
+    private final Map<String, RemediationFinding> pending;
+    private final AlertService alertService;
+    private volatile RemediationReport lastReport;
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private RemediationService() {
+        this.dryRun = Boolean.parseBoolean(System.getProperty("remediation.dry.run", "true"));
+        this.maxActions = Math.max(0, Integer.getInteger("remediation.max.actions", 50));
+        this.maxTerminations = Math.max(0, Integer.getInteger("remediation.max.terminations", 5));
+        this.callsPerSecond = parseRate(System.getProperty("remediation.calls.per.second"), 5.0);
+        this.threads = Math.max(1, Integer.getInteger("remediation.threads", 4));
+        this.pending = new ConcurrentHashMap<>();
+        this.alertService = AlertService.getInstance();
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized RemediationService getInstance() {
+        if (instance == null) {
+            instance = new RemediationService();
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a finding for the next run; a resource already queued keeps the stronger action
+     */
+    public void submit(RemediationFinding finding) {
+        pending.merge(finding.getKey(), finding, RemediationFinding::merge);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * Report of the most recent run with findings, or null if there was none
+     */
+    public RemediationReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Act on the findings collected so far
+     * Uses the AWS credentials currently held by the client factory, so call it right after
+     * the evaluation that produced the findings.
+     * @return report of the run (empty if there were no findings)
+     */
+    public RemediationReport executePending() {
+        RemediationReport report = new RemediationReport(dryRun);
+        List<RemediationFinding> findings = new ArrayList<>();
+        for (String key : new ArrayList<>(pending.keySet())) {
+            RemediationFinding finding = pending.remove(key);
+            if (finding != null) {
+                findings.add(finding);
+            }
+        }
+        if (findings.isEmpty()) {
+            report.finish();
+            return report;
+        }
+        findings.sort(Comparator.comparing(RemediationFinding::getKey));
+
+        List<RemediationFinding> selected = applyCaps(findings, report);
+        if (dryRun) {
+            for (RemediationFinding finding : selected) {
+                report.add(finding, RemediationReport.Status.DRY_RUN, null);
+            }
+        } else if (!selected.isEmpty()) {
+            execute(selected, report);
+            // Alerts (and their emails) after the API calls, so they do not slow the run down
+            for (RemediationReport.Outcome outcome : report.getOutcomes()) {
+                if (outcome.getStatus() == RemediationReport.Status.SUCCEEDED) {
+                    createRemediationAlert(outcome.getFinding());
+                }
+            }
+        }
+
+        report.finish();
+        lastReport = report;
+        System.out.println(report);
+        return report;
+    }
+
+    /**
+     * Blast-radius caps: keep findings up to the per-run limits, skip the rest (and those
+     * whose action the resource type does not support)
+     */
+    private List<RemediationFinding> applyCaps(List<RemediationFinding> findings, RemediationReport report) {
+        List<RemediationFinding> selected = new ArrayList<>();
+        int terminations = 0;
+        for (RemediationFinding finding : findings) {
+            if (!finding.getAction().supports(finding.getResourceType())) {
+                report.add(finding, RemediationReport.Status.SKIPPED, unsupported(finding));
+                continue;
+            }
+            if (selected.size() >= maxActions) {
+                report.add(finding, RemediationReport.Status.SKIPPED, "over the limit of " + maxActions + " actions per run");
+                continue;
+            }
+            if (finding.getAction() == RemediationAction.TERMINATE) {
+                if (terminations >= maxTerminations) {
+                    report.add(finding, RemediationReport.Status.SKIPPED,
+                        "over the limit of " + maxTerminations + " terminations per run");
+                    continue;
+                }
+                terminations++;
+            }
+            selected.add(finding);
+        }
+        return selected;
+    }
+
+    private void execute(List<RemediationFinding> findings, RemediationReport report) {
+        EC2Service ec2Service = new EC2Service();
+        RDSService rdsService = new RDSService();
+        SageMakerAWSService sageMakerService = new SageMakerAWSService();
+        ECSAWSService ecsService = new ECSAWSService();
+        RateLimiter limiter = new RateLimiter(callsPerSecond);
+
+        List<RemediationFinding> ec2Stops = new ArrayList<>();
+        List<RemediationFinding> ec2Terminations = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for (RemediationFinding finding : findings) {
+            if ("EC2".equals(finding.getResourceType())) {
+                (finding.getAction() == RemediationAction.STOP ? ec2Stops : ec2Terminations).add(finding);
+            } else {
+                tasks.add(() -> runSingle(finding, limiter, report, ec2Service, rdsService, sageMakerService, ecsService));
+            }
+        }
+        for (List<RemediationFinding> group : List.of(ec2Stops, ec2Terminations)) {
+            for (int from = 0; from < group.size(); from += EC2_BATCH_SIZE) {
+                List<RemediationFinding> batch = group.subList(from, Math.min(group.size(), from + EC2_BATCH_SIZE));
+                tasks.add(() -> runEC2Batch(batch, limiter, report, ec2Service));
+            }
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "remediation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Remediation run interrupted");
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error in remediation run: " + e.getCause().getMessage());
+            e.printStackTrace();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Stop or terminate a batch of EC2 instances (all with the same action) in one call
+     */
+    private void runEC2Batch(List<RemediationFinding> batch, RateLimiter limiter, RemediationReport report,
+                             EC2Service ec2Service) {
+        RemediationAction action = batch.get(0).getAction();
+        List<String> ids = new ArrayList<>(batch.size());
+        for (RemediationFinding finding : batch) {
+            ids.add(finding.getResourceId());
+        }
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (RemediationFinding finding : batch) {
+                report.add(finding, RemediationReport.Status.FAILED, "interrupted");
+            }
+            return;
+        }
+        report.countApiCall();
+        Set<String> accepted = action == RemediationAction.STOP
+            ? ec2Service.stopInstances(ids)
+            : ec2Service.terminateInstances(ids);
+
+        if (accepted.isEmpty() && batch.size() > 1) {
+            // The whole call was rejected, usually because of one bad id: isolate it
+            for (RemediationFinding finding : batch) {
+                runSingle(finding, limiter, report, ec2Service, null, null, null);
+            }
+            return;
+        }
+        for (RemediationFinding finding : batch) {
+            if (accepted.contains(finding.getResourceId())) {
+                report.add(finding, RemediationReport.Status.SUCCEEDED, null);
+            } else {
+                report.add(finding, RemediationReport.Status.FAILED, "not accepted by EC2");
+            }
+        }
+    }
+
+    private void runSingle(RemediationFinding finding, RateLimiter limiter, RemediationReport report,
+                           EC2Service ec2Service, RDSService rdsService,
+                           SageMakerAWSService sageMakerService, ECSAWSService ecsService) {
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.add(finding, RemediationReport.Status.FAILED, "interrupted");
+            return;
+        }
+        report.countApiCall();
+        boolean stop = finding.getAction() == RemediationAction.STOP;
+        String id = finding.getResourceId();
+        boolean done;
+        switch (finding.getResourceType()) {
+            case "EC2":
+                done = stop ? ec2Service.stopInstance(id) : ec2Service.terminateInstance(id);
+                break;
+            case "RDS":
+                done = stop ? rdsService.stopDBInstance(id) : rdsService.deleteDBInstance(id, false);
+                break;
+            case "SageMaker":
+                if (stop) {
+                    // Never reached through applyCaps; deleting must not happen for a STOP rule
+                    report.add(finding, RemediationReport.Status.SKIPPED, unsupported(finding));
+                    return;
+                }
+                done = sageMakerService.deleteEndpoint(id);
+                break;
+            case "ECS":
+                done = stop
+                    ? ecsService.stopService(finding.getClusterName(), id)
+                    : ecsService.deleteService(finding.getClusterName(), id);
+                break;
+            default:
+                report.add(finding, RemediationReport.Status.SKIPPED, "unsupported resource type");
+                return;
+        }
+        if (done) {
+            report.add(finding, RemediationReport.Status.SUCCEEDED, null);
+        } else {
+            report.add(finding, RemediationReport.Status.FAILED, "AWS call failed (see log)");
+        }
+    }
+
+    private static String unsupported(RemediationFinding finding) {
+        return "unsupported: " + finding.getAction() + " is not possible for " + finding.getResourceType() + " resources";
+    }
+
+    /**
+     * Leave an alert for a completed action so the change is visible in the client
+     */
+    private void createRemediationAlert(RemediationFinding finding) {
+        Alert alert = new Alert(finding.getResourceId(), finding.getResourceType(), "REMEDIATION", "medium",
+            "Remediation: " + finding);
+        alert.setRuleId(finding.getRuleId());
+        alert.setUserId(finding.getUserId());
+        alert.setResolved(false);
+        alert.setCreatedAt(LocalDateTime.now());
+        if (!alertService.createAlert(alert)) {
+            System.err.println("✗ Failed to create remediation alert for resource: " + finding.getResourceLabel());
+        }
+    }
+
+    private static double parseRate(String value, double defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            double rate = Double.parseDouble(value.trim());
+            return rate > 0 ? rate : defaultValue;
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for remediation.calls.per.second: " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package services;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * ResourceChangeEvent - A change to a monitored resource seen by sync or metric collection
+ * Carries a snapshot of the resource (EC2Instance, RDSInstance, ECSService or
+ * SageMakerEndpoint) as it was saved, so rules can be evaluated without reading it back.
+ */
+public class ResourceChangeEvent {
+
+    /**
+     * Kinds of change, strongest first
+     */
+    public enum Type {
+        CREATED,
+        STATE_CHANGED,
+        METRICS_UPDATED
+    }
+
+    private final Type type;
+    private final String resourceType;
+    private final String resourceId;
+    private final int userId;
+    private final Object resource;
+    private final Set<String> metrics;
+    private final LocalDateTime occurredAt;
+
+    private ResourceChangeEvent(Type type, String resourceType, String resourceId, int userId, Object resource,
+                                Set<String> metrics) {
+        this.type = type;
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.userId = userId;
+        this.resource = resource;
+        this.metrics = metrics;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public static ResourceChangeEvent created(String resourceType, String resourceId, int userId, Object resource) {
+        return new ResourceChangeEvent(Type.CREATED, resourceType, resourceId, userId, resource, Collections.emptySet());
+    }
+
+    public static ResourceChangeEvent stateChanged(String resourceType, String resourceId, int userId, Object resource) {
+        return new ResourceChangeEvent(Type.STATE_CHANGED, resourceType, resourceId, userId, resource,
+            Collections.emptySet());
+    }
+
+    /**
+     * @param metrics names of the changed metrics, as used by rules (e.g. "CPU", "Connections")
+     */
+    public static ResourceChangeEvent metricsUpdated(String resourceType, String resourceId, int userId,
+                                                     Object resource, Set<String> metrics) {
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        names.addAll(metrics);
+        return new ResourceChangeEvent(Type.METRICS_UPDATED, resourceType, resourceId, userId, resource,
+            Collections.unmodifiableSet(names));
+    }
+
+    /**
+     * The change from a stored resource to its newly collected values
+     * @param existed whether the resource was stored before
+     * @param changedMetrics metrics whose value differs from the stored one
+     * @return the event, or null if nothing a rule looks at has changed
+     */
+    public static ResourceChangeEvent between(String resourceType, String resourceId, int userId, Object resource,
+                                              boolean existed, String previousState, String state,
+                                              Set<String> changedMetrics) {
+        if (!existed) {
+            return created(resourceType, resourceId, userId, resource);
+        }
+        if (!Objects.equals(previousState, state)) {
+            return stateChanged(resourceType, resourceId, userId, resource);
+        }
+        if (!changedMetrics.isEmpty()) {
+            return metricsUpdated(resourceType, resourceId, userId, resource, changedMetrics);
+        }
+        return null;
+    }
+
+    /**
+     * Whether the rule has to be re-evaluated for this resource
+     * New resources and state changes affect every rule of the resource type; metric
+     * updates only affect rules on one of the changed metrics.
+     */
+    public boolean affects(CompiledRule rule) {
+        if (!resourceType.equalsIgnoreCase(rule.getResourceType())) {
+            return false;
+        }
+        if (type != Type.METRICS_UPDATED) {
+            return true;
+        }
+        for (String metric : metrics) {
+            if (rule.usesMetric(metric)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Combine with a later change of the same resource: the stronger type and the union of
+     * the changed metrics are kept, with the later snapshot
+     */
+    public ResourceChangeEvent merge(ResourceChangeEvent later) {
+        Type mergedType = type.compareTo(later.type) <= 0 ? type : later.type;
+        if (mergedType != Type.METRICS_UPDATED) {
+            return new ResourceChangeEvent(mergedType, resourceType, resourceId, later.userId, later.resource,
+                Collections.emptySet());
+        }
+        Set<String> mergedMetrics = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        mergedMetrics.addAll(metrics);
+        mergedMetrics.addAll(later.metrics);
+        return metricsUpdated(resourceType, resourceId, later.userId, later.resource, mergedMetrics);
+    }
+
+    /**
+     * Key identifying the resource across events
+     */
+    public String getKey() {
+        return resourceType + ":" + resourceId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public Object getResource() {
+        return resource;
+    }
+
+    public Set<String> getMetrics() {
+        return metrics;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + resourceType + " " + resourceId + (metrics.isEmpty() ? "" : " " + metrics);
+    }
+}
@@ -0,0 +1,13 @@
+package services;
+
+/**
+ * ResourceChangeListener - Observer Pattern Interface
+ * Listeners are notified of changes to monitored resources
+ */
+public interface ResourceChangeListener {
+    /**
+     * Called on the thread that detected the change; implementations should return quickly
+     * @param event The change
+     */
+    void onResourceChanged(ResourceChangeEvent event);
+}
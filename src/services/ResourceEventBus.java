@@ -0,0 +1,64 @@
+package services;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ResourceEventBus - Publishes resource change events to registered listeners
+ * Singleton; events are delivered synchronously on the publishing thread.
+ */
+public class ResourceEventBus {
+    private static ResourceEventBus instance;
+    private final List<ResourceChangeListener> listeners;
+    
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private ResourceEventBus() {
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+    
+    /**
+     * Get singleton instance
+     */
+    public static synchronized ResourceEventBus getInstance() {
+        if (instance == null) {
+            instance = new ResourceEventBus();
+        }
+        return instance;
+    }
+    
+    /**
+     * Register a listener
+     */
+    public void subscribe(ResourceChangeListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+            System.out.println("Resource change listener registered: " + listener.getClass().getSimpleName());
+        }
+    }
+    
+    /**
+     * Unregister a listener
+     */
+    public void unsubscribe(ResourceChangeListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Deliver an event to every listener (a failing listener does not stop the others)
+     */
+    public void publish(ResourceChangeEvent event) {
+        if (event == null) {
+            return;
+        }
+        for (ResourceChangeListener listener : listeners) {
+            try {
+                listener.onResourceChanged(event);
+            } catch (Exception e) {
+                System.err.println("Error delivering resource change " + event + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package services;
+
+import models.Rule;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RuleCompiler - Turns stored rules into CompiledRule objects
+ * A rule's condition is its condition_expression when set, otherwise the single comparison
+ * "condition_metric condition_operator condition_value". Expressions support metrics,
+ * numbers, + - * / and parentheses on either side of a comparison (< <= > >= = !=), and
+ * comparisons combined with AND, OR and NOT, for example:
+ *   CPU < 5 AND NetworkIn < 1000000
+ *   Connections = 0 OR NOT (CPU > 2)
+ */
+public final class RuleCompiler {
+
+    private RuleCompiler() {
+    }
+
+    /**
+     * Compile a rule
+     * @throws IllegalArgumentException if the condition cannot be parsed, or reads a metric
+     *         that is not collected for the rule's resource type
+     */
+    public static CompiledRule compile(Rule rule) {
+        String expression = rule.getConditionExpression();
+        if (expression == null || expression.isBlank()) {
+            if (rule.getConditionMetric() == null || rule.getConditionOperator() == null) {
+                throw new IllegalArgumentException("Rule has no condition");
+            }
+            expression = rule.getConditionMetric() + " " + rule.getConditionOperator() + " "
+                + formatNumber(rule.getConditionValue());
+        }
+
+        Parser parser = new Parser(tokenize(expression), rule.getResourceType());
+        RuleExpression.Condition condition = parser.parseCondition();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.peek() + "' in condition: " + expression);
+        }
+
+        return new CompiledRule(rule, severityFor(rule.getRuleType()),
+            windowDays(rule.getConditionDuration(), rule.getDurationUnit()),
+            rule.getConditionDuration() + " " + (rule.getDurationUnit() != null ? rule.getDurationUnit() : "hours"),
+            expression.trim(), condition, parser.metrics.toArray(new RuleMetric[0]));
+    }
+
+    /**
+     * Whole days of metrics covering the duration, at least 1
+     */
+    static int windowDays(int duration, String unit) {
+        int hours;
+        if (unit == null || "hours".equalsIgnoreCase(unit)) {
+            hours = duration;
+        } else if ("days".equalsIgnoreCase(unit)) {
+            hours = duration * 24;
+        } else if ("minutes".equalsIgnoreCase(unit)) {
+            hours = (duration + 59) / 60;
+        } else {
+            hours = duration; // default to hours
+        }
+        return Math.max(1, (hours + 23) / 24);
+    }
+
+    /**
+     * Alert severity for a rule type
+     */
+    static String severityFor(String ruleType) {
+        if ("security".equals(ruleType)) {
+            return "HIGH";
+        }
+        if ("cost_optimization".equals(ruleType) || "performance".equals(ruleType)) {
+            return "MEDIUM";
+        }
+        return "LOW";
+    }
+
+    private static String formatNumber(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value)
+            ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isDigit(c) || c == '.') {
+                int start = i;
+                while (i < expression.length()
+                    && (Character.isDigit(expression.charAt(i)) || expression.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(expression.substring(start, i));
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < expression.length()
+                    && (Character.isLetterOrDigit(expression.charAt(i)) || expression.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(expression.substring(start, i));
+            } else if (i + 1 < expression.length() && isTwoCharOperator(expression.substring(i, i + 2))) {
+                tokens.add(expression.substring(i, i + 2));
+                i += 2;
+            } else if ("<>=!+-*/()".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' in condition: " + expression);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isTwoCharOperator(String text) {
+        switch (text) {
+            case "<=":
+            case ">=":
+            case "!=":
+            case "<>":
+            case "==":
+            case "&&":
+            case "||":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Recursive-descent parser; precedence from loosest: OR, AND, NOT, comparison, + -, * /
+     */
+    private static final class Parser {
+        private final List<String> tokens;
+        private final String resourceType;
+        private final Set<RuleMetric> metrics = new LinkedHashSet<>();
+        private int position;
+
+        Parser(List<String> tokens, String resourceType) {
+            this.tokens = tokens;
+            this.resourceType = resourceType;
+        }
+
+        boolean atEnd() {
+            return position >= tokens.size();
+        }
+
+        String peek() {
+            return atEnd() ? null : tokens.get(position);
+        }
+
+        private boolean accept(String... options) {
+            String token = peek();
+            for (String option : options) {
+                if (option.equalsIgnoreCase(token)) {
+                    position++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw new IllegalArgumentException("Expected '" + token + "' but found "
+                    + (atEnd() ? "end of condition" : "'" + peek() + "'"));
+            }
+        }
+
+        RuleExpression.Condition parseCondition() {
+            RuleExpression.Condition condition = parseAnd();
+            while (accept("OR", "||")) {
+                condition = RuleExpression.or(condition, parseAnd());
+            }
+            return condition;
+        }
+
+        private RuleExpression.Condition parseAnd() {
+            RuleExpression.Condition condition = parseNot();
+            while (accept("AND", "&&")) {
+                condition = RuleExpression.and(condition, parseNot());
+            }
+            return condition;
+        }
+
+        private RuleExpression.Condition parseNot() {
+            if (accept("NOT", "!")) {
+                return RuleExpression.not(parseNot());
+            }
+            return parseComparison();
+        }
+
+        private RuleExpression.Condition parseComparison() {
+            // "(" opens either a nested condition or an arithmetic group such as "(CPU + 1) > 2"
+            if ("(".equals(peek())) {
+                int start = position;
+                Set<RuleMetric> seen = new LinkedHashSet<>(metrics);
+                try {
+                    position++;
+                    RuleExpression.Condition nested = parseCondition();
+                    expect(")");
+                    return nested;
+                } catch (IllegalArgumentException e) {
+                    // Not a nested condition: parse the group again as arithmetic
+                    position = start;
+                    metrics.clear();
+                    metrics.addAll(seen);
+                }
+            }
+
+            RuleExpression.Value left = parseSum();
+            String symbol = peek();
+            if (symbol == null) {
+                throw new IllegalArgumentException("Expected a comparison operator at end of condition");
+            }
+            ConditionOperator operator = ConditionOperator.fromSymbol(symbol);
+            position++;
+            return RuleExpression.compare(left, operator, parseSum());
+        }
+
+        private RuleExpression.Value parseSum() {
+            RuleExpression.Value value = parseTerm();
+            while (true) {
+                if (accept("+")) {
+                    value = RuleExpression.arithmetic('+', value, parseTerm());
+                } else if (accept("-")) {
+                    value = RuleExpression.arithmetic('-', value, parseTerm());
+                } else {
+                    return value;
+                }
+            }
+        }
+
+        private RuleExpression.Value parseTerm() {
+            RuleExpression.Value value = parseFactor();
+            while (true) {
+                if (accept("*")) {
+                    value = RuleExpression.arithmetic('*', value, parseFactor());
+                } else if (accept("/")) {
+                    value = RuleExpression.arithmetic('/', value, parseFactor());
+                } else {
+                    return value;
+                }
+            }
+        }
+
+        private RuleExpression.Value parseFactor() {
+            if (accept("-")) {
+                return RuleExpression.negate(parseFactor());
+            }
+            if (accept("(")) {
+                RuleExpression.Value value = parseSum();
+                expect(")");
+                return value;
+            }
+            String token = peek();
+            if (token == null) {
+                throw new IllegalArgumentException("Expected a metric or number at end of condition");
+            }
+            position++;
+            if (Character.isDigit(token.charAt(0)) || token.charAt(0) == '.') {
+                try {
+                    return RuleExpression.constant(Double.parseDouble(token));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid number: " + token);
+                }
+            }
+            RuleMetric metric = RuleMetric.fromName(token);
+            if (metric == null) {
+                throw new IllegalArgumentException("Unknown metric: " + token);
+            }
+            if (!metric.isAvailableFor(resourceType)) {
+                throw new IllegalArgumentException("Metric " + metric.getName() + " is not collected for "
+                    + resourceType + " resources");
+            }
+            metrics.add(metric);
+            return RuleExpression.metric(metric);
+        }
+    }
+}
@@ -8,72 +8,168 @@ import models.ECSService;
 import models.SageMakerEndpoint;
 import dao.*;
 import aws.CloudWatchService;
+import metrics.MetricsRegistry;
+import metrics.RuleEvaluationEvent;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * RuleEvaluationService - Evaluates rules and generates alerts
+ * Metrics are fetched and actions taken with the credentials the AWS client factory holds,
+ * so callers evaluating for one account pass its user id to check only that user's resources.
  */
 public class RuleEvaluationService {
-    private final RuleDAO ruleDAO;
+    // User id that evaluates the resources of every user
+    private static final int ALL_USERS = 0;
+    
+    private final RuleRepository ruleRepository;
     private final AlertService alertService;
     private final EC2DAO ec2DAO;
     private final RDSDAO rdsDAO;
     private final ECSDAO ecsDAO;
     private final SageMakerDAO sageMakerDAO;
     private final CloudWatchService cloudWatchService;
+    private final RemediationService remediationService;
     
     public RuleEvaluationService() {
-        this.ruleDAO = new RuleDAO();
+        this.ruleRepository = RuleRepository.getInstance();
         this.alertService = AlertService.getInstance();
         this.ec2DAO = new EC2DAO();
         this.rdsDAO = new RDSDAO();
         this.ecsDAO = new ECSDAO();
         this.sageMakerDAO = new SageMakerDAO();
         this.cloudWatchService = new CloudWatchService();
+        this.remediationService = RemediationService.getInstance();
     }
     
     /**
      * Evaluate all active rules and generate alerts
      */
     public void evaluateAllRules() {
+        evaluateAllRules(ALL_USERS);
+    }
+    
+    /**
+     * Evaluate all active rules against the resources of one user
+     */
+    public void evaluateAllRules(int userId) {
         System.out.println("Starting rule evaluation...");
-        List<Rule> activeRules = ruleDAO.getAllActiveRules();
+        List<CompiledRule> activeRules = ruleRepository.getCompiledRules();
         System.out.println("Found " + activeRules.size() + " active rules to evaluate");
         
-        for (Rule rule : activeRules) {
+        for (CompiledRule rule : activeRules) {
             try {
-                evaluateRule(rule);
+                evaluateRule(rule, userId);
             } catch (Exception e) {
                 System.err.println("Error evaluating rule " + rule.getRuleName() + ": " + e.getMessage());
                 e.printStackTrace();
             }
         }
         
+        remediationService.executePending();
         System.out.println("Rule evaluation completed");
     }
     
     /**
      * Evaluate a single rule
      */
-    private void evaluateRule(Rule rule) {
+    public void evaluateRule(Rule rule) {
+        evaluateRule(rule, ALL_USERS);
+    }
+    
+    /**
+     * Evaluate a single rule against the resources of one user
+     */
+    public void evaluateRule(Rule rule, int userId) {
+        CompiledRule compiled;
+        try {
+            compiled = ruleRepository.getCompiledRule(rule);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Skipping rule " + rule.getRuleName() + ": " + e.getMessage());
+            return;
+        }
+        evaluateRule(compiled, userId);
+        remediationService.executePending();
+    }
+    
+    private void evaluateRule(CompiledRule rule, int userId) {
+        RuleEvaluationEvent event = new RuleEvaluationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            evaluateResources(rule, userId, event);
+        } finally {
+            MetricsRegistry.getInstance().histogram("governance_rule_evaluation_duration_seconds",
+                "Time to evaluate one rule against all resources of its type", "resource_type", rule.getResourceType())
+                .observeNanos(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.ruleId = rule.getRuleId();
+                event.ruleName = rule.getRuleName();
+                event.resourceType = rule.getResourceType();
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Evaluate the rule against every resource of its type (of one user, or of all users
+     * for ALL_USERS), counting resources and matches in the event
+     */
+    private void evaluateResources(CompiledRule rule, int userId, RuleEvaluationEvent event) {
         System.out.println("Evaluating rule: " + rule.getRuleName());
         
         String resourceType = rule.getResourceType();
+        double[] values = rule.newValueBuffer();
         
         switch (resourceType) {
             case "EC2":
-                evaluateEC2Rules(rule);
+                List<EC2Instance> instances = userId == ALL_USERS
+                    ? ec2DAO.getAllEC2Instances() : ec2DAO.getEC2InstancesByUser(userId);
+                System.out.println("Evaluating " + instances.size() + " EC2 instances for rule: " + rule.getRuleName());
+                event.resources = instances.size();
+                for (EC2Instance instance : instances) {
+                    if (evaluateResource(rule, values, instance.getUserId(), instance.getInstanceId())) {
+                        submitFinding(rule, instance);
+                        event.matches++;
+                    }
+                }
                 break;
             case "RDS":
-                evaluateRDSRules(rule);
+                List<RDSInstance> databases = userId == ALL_USERS
+                    ? rdsDAO.getAllRDSInstances() : rdsDAO.getRDSInstancesByUser(userId);
+                System.out.println("Evaluating " + databases.size() + " RDS instances for rule: " + rule.getRuleName());
+                event.resources = databases.size();
+                for (RDSInstance instance : databases) {
+                    if (evaluateResource(rule, values, instance.getUserId(), instance.getDbInstanceIdentifier())) {
+                        submitFinding(rule, instance);
+                        event.matches++;
+                    }
+                }
                 break;
             case "ECS":
-                evaluateECSRules(rule);
+                List<ECSService> services = userId == ALL_USERS
+                    ? ecsDAO.getAllECSServices() : ecsDAO.getECSServicesByUser(userId);
+                System.out.println("Evaluating " + services.size() + " ECS services for rule: " + rule.getRuleName());
+                event.resources = services.size();
+                event.matches = evaluateECSServices(rule, services, values);
                 break;
             case "SageMaker":
-                evaluateSageMakerRules(rule);
+                List<SageMakerEndpoint> endpoints = userId == ALL_USERS
+                    ? sageMakerDAO.getAllEndpoints() : sageMakerDAO.getEndpointsByUser(userId);
+                System.out.println("Evaluating " + endpoints.size() + " SageMaker endpoints for rule: " + rule.getRuleName());
+                event.resources = endpoints.size();
+                for (SageMakerEndpoint endpoint : endpoints) {
+                    if (evaluateResource(rule, values, endpoint.getUserId(), endpoint.getEndpointName())) {
+                        submitFinding(rule, endpoint);
+                        event.matches++;
+                    }
+                }
                 break;
             default:
                 System.out.println("Unknown resource type: " + resourceType);
@@ -81,217 +177,191 @@ public class RuleEvaluationService {
     }
     
     /**
-     * Evaluate rules for EC2 instances
+     * Fetch the metrics the rule reads into the value buffer and alert if the condition holds
+     * @return whether the condition held
      */
-    private void evaluateEC2Rules(Rule rule) {
-        List<EC2Instance> instances = ec2DAO.getAllEC2Instances();
-        System.out.println("Evaluating " + instances.size() + " EC2 instances for rule: " + rule.getRuleName());
-        
-        for (EC2Instance instance : instances) {
-            try {
-                boolean conditionMet = false;
-                String metric = rule.getConditionMetric();
-                double threshold = rule.getConditionValue();
-                int duration = rule.getConditionDuration();
-                String unit = rule.getDurationUnit();
-                
-                // Convert duration to hours for CloudWatch API
-                int durationInHours = convertToHours(duration, unit);
-                
-                if ("CPU".equalsIgnoreCase(metric)) {
-                    double cpuUtilization = cloudWatchService.getEC2CPUUtilization(
-                        instance.getInstanceId(), 
-                        durationInHours
-                    );
-                    
-                    conditionMet = evaluateCondition(cpuUtilization, rule.getConditionOperator(), threshold);
-                    
-                    if (conditionMet) {
-                        createAlert(
-                            rule,
-                            instance.getInstanceId(),
-                            "EC2",
-                            String.format("EC2 instance %s has CPU utilization %.2f%% %s %.2f%% for %d %s",
-                                instance.getInstanceId(), cpuUtilization, rule.getConditionOperator(), threshold, duration, unit)
-                        );
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error evaluating EC2 instance " + instance.getInstanceId() + ": " + e.getMessage());
+    private boolean evaluateResource(CompiledRule rule, double[] values, int userId, String resourceId) {
+        try {
+            String resourceType = rule.getResourceType();
+            for (int i = 0; i < rule.metricCount(); i++) {
+                RuleMetric metric = rule.metricAt(i);
+                values[metric.slot()] = fetchMetric(metric, resourceType, resourceId, rule.getWindowDays());
             }
+            
+            return alertIfMatches(rule, values, userId, resourceId);
+        } catch (Exception e) {
+            System.err.println("Error evaluating " + rule.getResourceType() + " resource " + resourceId + ": " + e.getMessage());
         }
+        return false;
     }
     
     /**
-     * Evaluate rules for RDS instances
+     * Evaluate a rule for ECS services; the metrics of all of them are fetched in batched
+     * CloudWatch requests, and services without metrics are skipped
+     * @return number of services that matched
      */
-    private void evaluateRDSRules(Rule rule) {
-        List<RDSInstance> instances = rdsDAO.getAllRDSInstances();
-        System.out.println("Evaluating " + instances.size() + " RDS instances for rule: " + rule.getRuleName());
-        
-        for (RDSInstance instance : instances) {
+    private int evaluateECSServices(CompiledRule rule, List<ECSService> services, double[] values) {
+        int matches = 0;
+        if (services.isEmpty()) {
+            return matches;
+        }
+        Map<ECSService, double[]> utilization = cloudWatchService.getECSServiceUtilization(services, rule.getWindowDays());
+        for (ECSService service : services) {
+            double[] metrics = utilization.get(service);
+            if (metrics == null) {
+                continue;
+            }
+            values[RuleMetric.CPU.slot()] = metrics[0];
+            values[RuleMetric.MEMORY.slot()] = metrics[1];
             try {
-                boolean conditionMet = false;
-                String metric = rule.getConditionMetric();
-                double threshold = rule.getConditionValue();
-                int duration = rule.getConditionDuration();
-                String unit = rule.getDurationUnit();
-                
-                // Convert duration to hours for CloudWatch API
-                int durationInHours = convertToHours(duration, unit);
-                
-                if ("CPU".equalsIgnoreCase(metric)) {
-                    double cpuUtilization = cloudWatchService.getRDSCPUUtilization(
-                        instance.getDbInstanceIdentifier(), 
-                        durationInHours
-                    );
-                    
-                    conditionMet = evaluateCondition(cpuUtilization, rule.getConditionOperator(), threshold);
-                    
-                    if (conditionMet) {
-                        createAlert(
-                            rule,
-                            instance.getDbInstanceIdentifier(),
-                            "RDS",
-                            String.format("RDS instance %s has CPU utilization %.2f%% %s %.2f%% for %d %s",
-                                instance.getDbInstanceIdentifier(), cpuUtilization, rule.getConditionOperator(), threshold, duration, unit)
-                        );
-                    }
+                if (alertIfMatches(rule, values, service.getUserId(), service.getServiceName())) {
+                    submitFinding(rule, service);
+                    matches++;
                 }
             } catch (Exception e) {
-                System.err.println("Error evaluating RDS instance " + instance.getDbInstanceIdentifier() + ": " + e.getMessage());
+                System.err.println("Error evaluating ECS service " + service.getServiceName() + ": " + e.getMessage());
             }
         }
+        return matches;
     }
     
-    /**
-     * Evaluate rules for ECS services
-     */
-    private void evaluateECSRules(Rule rule) {
-        List<ECSService> services = ecsDAO.getAllECSServices();
-        System.out.println("Evaluating " + services.size() + " ECS services for rule: " + rule.getRuleName());
-        
-        // ECS evaluation logic can be added here
-        // For now, just log that we checked them
-        System.out.println("ECS rule evaluation not yet implemented");
+    private boolean alertIfMatches(CompiledRule rule, double[] values, int userId, String resourceId) {
+        boolean matched = rule.matches(values);
+        MetricsRegistry.getInstance().counter("governance_rule_checks", "Rule conditions checked against a resource",
+            "resource_type", rule.getResourceType(), "result", matched ? "match" : "no_match").inc();
+        if (matched) {
+            createAlert(
+                rule,
+                userId,
+                resourceId,
+                String.format("%s %s matches %s for %s (%s)",
+                    describeResource(rule.getResourceType()), resourceId, rule.getExpressionText(),
+                    rule.getDurationText(), rule.describe(values))
+            );
+        }
+        return matched;
     }
     
     /**
-     * Evaluate rules for SageMaker endpoints
+     * Queue the rule's STOP / TERMINATE action for a matched resource (rules that only
+     * alert, and resources the action does not apply to, are ignored)
      */
-    private void evaluateSageMakerRules(Rule rule) {
-        List<SageMakerEndpoint> endpoints = sageMakerDAO.getAllEndpoints();
-        System.out.println("Evaluating " + endpoints.size() + " SageMaker endpoints for rule: " + rule.getRuleName());
-        
-        for (SageMakerEndpoint endpoint : endpoints) {
-            try {
-                boolean conditionMet = false;
-                String metric = rule.getConditionMetric();
-                double threshold = rule.getConditionValue();
-                int duration = rule.getConditionDuration();
-                String unit = rule.getDurationUnit();
-                
-                // Convert duration to hours for CloudWatch API
-                int durationInHours = convertToHours(duration, unit);
-                
-                if ("Invocations".equalsIgnoreCase(metric)) {
-                    int invocations = cloudWatchService.getSageMakerInvocations(
-                        endpoint.getEndpointName(), 
-                        durationInHours
-                    );
-                    
-                    conditionMet = evaluateCondition(invocations, rule.getConditionOperator(), threshold);
-                    
-                    if (conditionMet) {
-                        createAlert(
-                            rule,
-                            endpoint.getEndpointName(),
-                            "SageMaker",
-                            String.format("SageMaker endpoint %s has %d invocations %s %.0f for %d %s",
-                                endpoint.getEndpointName(), invocations, rule.getConditionOperator(), threshold, duration, unit)
-                        );
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error evaluating SageMaker endpoint " + endpoint.getEndpointName() + ": " + e.getMessage());
-            }
+    private void submitFinding(CompiledRule rule, Object resource) {
+        RemediationFinding finding = RemediationFinding.of(rule, resource);
+        if (finding != null) {
+            remediationService.submit(finding);
         }
     }
     
     /**
-     * Convert duration to hours based on unit
+     * Average (or total, for counts) of a metric over the window from CloudWatch
      */
-    private int convertToHours(int duration, String unit) {
-        if (unit == null || "hours".equalsIgnoreCase(unit)) {
-            return duration;
-        } else if ("days".equalsIgnoreCase(unit)) {
-            return duration * 24;
-        } else if ("minutes".equalsIgnoreCase(unit)) {
-            // Convert minutes to hours, minimum 1 hour
-            int hours = duration / 60;
-            return hours > 0 ? hours : 1;
+    private double fetchMetric(RuleMetric metric, String resourceType, String resourceId, int windowDays) {
+        switch (metric) {
+            case CPU:
+                return "RDS".equals(resourceType)
+                    ? cloudWatchService.getRDSCPUUtilization(resourceId, windowDays)
+                    : cloudWatchService.getEC2CPUUtilization(resourceId, windowDays);
+            case NETWORK_IN:
+                return cloudWatchService.getEC2NetworkIn(resourceId, windowDays);
+            case CONNECTIONS:
+                return cloudWatchService.getRDSDatabaseConnections(resourceId, windowDays);
+            case INVOCATIONS:
+                return cloudWatchService.getSageMakerInvocations(resourceId, windowDays);
+            default:
+                throw new IllegalArgumentException("No CloudWatch source for metric " + metric.getName());
+        }
+    }
+    
+    private static String describeResource(String resourceType) {
+        switch (resourceType) {
+            case "EC2":
+                return "EC2 instance";
+            case "RDS":
+                return "RDS instance";
+            case "ECS":
+                return "ECS service";
+            case "SageMaker":
+                return "SageMaker endpoint";
+            default:
+                return resourceType + " resource";
         }
-        return duration; // default to hours
     }
     
     /**
-     * Evaluate a condition based on operator
+     * Evaluate only the (rule, resource) pairs affected by resource changes
+     * Each change is checked against the active rules of its resource type; a metric update
+     * only re-evaluates rules that read one of the updated metrics.
+     * @return number of (rule, resource) pairs evaluated
      */
-    private boolean evaluateCondition(double actualValue, String operator, double threshold) {
-        switch (operator) {
-            case "<":
-                return actualValue < threshold;
-            case ">":
-                return actualValue > threshold;
-            case "=":
-                return Math.abs(actualValue - threshold) < 0.01; // Allow small difference for double comparison
-            case "<=":
-                return actualValue <= threshold;
-            case ">=":
-                return actualValue >= threshold;
-            default:
-                System.err.println("Unknown operator: " + operator);
-                return false;
+    public int evaluateChanges(Collection<ResourceChangeEvent> changes) {
+        if (changes.isEmpty()) {
+            return 0;
         }
+        List<CompiledRule> activeRules = ruleRepository.getCompiledRules();
+        double[] values = new double[RuleMetric.COUNT];
+        // ECS services are collected per rule and fetched together at the end
+        Map<CompiledRule, List<ECSService>> changedServices = new LinkedHashMap<>();
+        int evaluated = 0;
+        
+        for (ResourceChangeEvent change : changes) {
+            for (CompiledRule rule : activeRules) {
+                if (!change.affects(rule)) {
+                    continue;
+                }
+                Object resource = change.getResource();
+                if (resource instanceof EC2Instance) {
+                    EC2Instance instance = (EC2Instance) resource;
+                    if (evaluateResource(rule, values, instance.getUserId(), instance.getInstanceId())) {
+                        submitFinding(rule, instance);
+                    }
+                } else if (resource instanceof RDSInstance) {
+                    RDSInstance instance = (RDSInstance) resource;
+                    if (evaluateResource(rule, values, instance.getUserId(), instance.getDbInstanceIdentifier())) {
+                        submitFinding(rule, instance);
+                    }
+                } else if (resource instanceof SageMakerEndpoint) {
+                    SageMakerEndpoint endpoint = (SageMakerEndpoint) resource;
+                    if (evaluateResource(rule, values, endpoint.getUserId(), endpoint.getEndpointName())) {
+                        submitFinding(rule, endpoint);
+                    }
+                } else if (resource instanceof ECSService) {
+                    changedServices.computeIfAbsent(rule, key -> new ArrayList<>()).add((ECSService) resource);
+                } else {
+                    continue;
+                }
+                evaluated++;
+            }
+        }
+        
+        for (Map.Entry<CompiledRule, List<ECSService>> entry : changedServices.entrySet()) {
+            evaluateECSServices(entry.getKey(), entry.getValue(), values);
+        }
+        remediationService.executePending();
+        
+        System.out.println("Incremental rule evaluation: " + changes.size() + " changed resources, "
+            + evaluated + " (rule, resource) pairs evaluated");
+        return evaluated;
     }
     
     /**
      * Create an alert based on rule evaluation
      */
-    private void createAlert(Rule rule, String resourceId, String resourceType, String message) {
+    private void createAlert(CompiledRule rule, int userId, String resourceId, String message) {
         Alert alert = new Alert();
         alert.setResourceId(resourceId);
-        alert.setResourceType(resourceType);
+        alert.setResourceType(rule.getResourceType());
         alert.setAlertType(rule.getRuleType());
-        alert.setSeverity(determineSeverity(rule));
+        alert.setSeverity(rule.getSeverity());
         alert.setMessage(message);
         alert.setRuleId(rule.getRuleId());
+        alert.setUserId(userId);
         alert.setResolved(false);
         alert.setCreatedAt(LocalDateTime.now());
         
-        boolean created = alertService.createAlert(alert);
-        if (created) {
-            System.out.println("✓ Alert created: " + message);
-        } else {
+        // An alert still open from an earlier run is not repeated
+        if (!alertService.createAlert(alert)) {
             System.err.println("✗ Failed to create alert for resource: " + resourceId);
         }
     }
-    
-    /**
-     * Determine alert severity based on rule type
-     */
-    private String determineSeverity(Rule rule) {
-        switch (rule.getRuleType()) {
-            case "security":
-                return "HIGH";
-            case "cost_optimization":
-                return "MEDIUM";
-            case "performance":
-                return "MEDIUM";
-            case "resource_optimization":
-                return "LOW";
-            default:
-                return "LOW";
-        }
-    }
 }
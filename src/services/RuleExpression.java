@@ -0,0 +1,184 @@
+package services;
+
+/**
+ * RuleExpression - Nodes of compiled rule conditions
+ * Built once by RuleCompiler. Every node is immutable and evaluates against the metric
+ * value array without allocating. Operators are resolved when a node is built, so
+ * evaluation never switches on them. Comparisons against a constant and direct metric
+ * reads get their own nodes; a simple rule such as "CPU < 5" becomes a single array
+ * read and compare.
+ */
+final class RuleExpression {
+
+    private RuleExpression() {
+    }
+
+    /**
+     * Numeric expression over metric values
+     */
+    @FunctionalInterface
+    interface Value {
+        double eval(double[] metrics);
+    }
+
+    /**
+     * Boolean expression over metric values
+     */
+    @FunctionalInterface
+    interface Condition {
+        boolean test(double[] metrics);
+    }
+
+    private static final class Constant implements Value {
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double eval(double[] metrics) {
+            return value;
+        }
+    }
+
+    private static final class MetricRead implements Value {
+        private final int slot;
+
+        MetricRead(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public double eval(double[] metrics) {
+            return metrics[slot];
+        }
+    }
+
+    static Value constant(double value) {
+        return new Constant(value);
+    }
+
+    static Value metric(RuleMetric metric) {
+        return new MetricRead(metric.slot());
+    }
+
+    /**
+     * Arithmetic between two values (+, -, *, /); constant operands are folded
+     */
+    static Value arithmetic(char operator, Value left, Value right) {
+        if (left instanceof Constant && right instanceof Constant) {
+            return constant(apply(operator, ((Constant) left).value, ((Constant) right).value));
+        }
+        switch (operator) {
+            case '+':
+                return metrics -> left.eval(metrics) + right.eval(metrics);
+            case '-':
+                return metrics -> left.eval(metrics) - right.eval(metrics);
+            case '*':
+                return metrics -> left.eval(metrics) * right.eval(metrics);
+            case '/':
+                return metrics -> left.eval(metrics) / right.eval(metrics);
+            default:
+                throw new IllegalArgumentException("Unknown arithmetic operator: " + operator);
+        }
+    }
+
+    static Value negate(Value value) {
+        if (value instanceof Constant) {
+            return constant(-((Constant) value).value);
+        }
+        return metrics -> -value.eval(metrics);
+    }
+
+    private static double apply(char operator, double left, double right) {
+        switch (operator) {
+            case '+':
+                return left + right;
+            case '-':
+                return left - right;
+            case '*':
+                return left * right;
+            case '/':
+                return left / right;
+            default:
+                throw new IllegalArgumentException("Unknown arithmetic operator: " + operator);
+        }
+    }
+
+    /**
+     * Comparison of two values, specialized for a metric or expression against a constant
+     */
+    static Condition compare(Value left, ConditionOperator operator, Value right) {
+        if (right instanceof Constant) {
+            double threshold = ((Constant) right).value;
+            if (left instanceof MetricRead) {
+                return compareSlot(((MetricRead) left).slot, operator, threshold);
+            }
+            return compareConstant(left, operator, threshold);
+        }
+        double tolerance = ConditionOperator.EQUALITY_TOLERANCE;
+        switch (operator) {
+            case LESS_THAN:
+                return metrics -> left.eval(metrics) < right.eval(metrics);
+            case LESS_OR_EQUAL:
+                return metrics -> left.eval(metrics) <= right.eval(metrics);
+            case GREATER_THAN:
+                return metrics -> left.eval(metrics) > right.eval(metrics);
+            case GREATER_OR_EQUAL:
+                return metrics -> left.eval(metrics) >= right.eval(metrics);
+            case EQUAL:
+                return metrics -> Math.abs(left.eval(metrics) - right.eval(metrics)) < tolerance;
+            default:
+                return metrics -> !(Math.abs(left.eval(metrics) - right.eval(metrics)) < tolerance);
+        }
+    }
+
+    private static Condition compareSlot(int slot, ConditionOperator operator, double threshold) {
+        double tolerance = ConditionOperator.EQUALITY_TOLERANCE;
+        switch (operator) {
+            case LESS_THAN:
+                return metrics -> metrics[slot] < threshold;
+            case LESS_OR_EQUAL:
+                return metrics -> metrics[slot] <= threshold;
+            case GREATER_THAN:
+                return metrics -> metrics[slot] > threshold;
+            case GREATER_OR_EQUAL:
+                return metrics -> metrics[slot] >= threshold;
+            case EQUAL:
+                return metrics -> Math.abs(metrics[slot] - threshold) < tolerance;
+            default:
+                return metrics -> !(Math.abs(metrics[slot] - threshold) < tolerance);
+        }
+    }
+
+    private static Condition compareConstant(Value left, ConditionOperator operator, double threshold) {
+        double tolerance = ConditionOperator.EQUALITY_TOLERANCE;
+        switch (operator) {
+            case LESS_THAN:
+                return metrics -> left.eval(metrics) < threshold;
+            case LESS_OR_EQUAL:
+                return metrics -> left.eval(metrics) <= threshold;
+            case GREATER_THAN:
+                return metrics -> left.eval(metrics) > threshold;
+            case GREATER_OR_EQUAL:
+                return metrics -> left.eval(metrics) >= threshold;
+            case EQUAL:
+                return metrics -> Math.abs(left.eval(metrics) - threshold) < tolerance;
+            default:
+                return metrics -> !(Math.abs(left.eval(metrics) - threshold) < tolerance);
+        }
+    }
+
+    static Condition and(Condition left, Condition right) {
+        return metrics -> left.test(metrics) && right.test(metrics);
+    }
+
+    static Condition or(Condition left, Condition right) {
+        return metrics -> left.test(metrics) || right.test(metrics);
+    }
+
+    static Condition not(Condition condition) {
+        return metrics -> !condition.test(metrics);
+    }
+}
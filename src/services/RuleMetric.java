@@ -0,0 +1,61 @@
+package services;
+
+/**
+ * RuleMetric - Metrics that rule conditions can refer to
+ * Each metric has a fixed slot in the value array passed to a compiled rule.
+ */
+public enum RuleMetric {
+    CPU("CPU", "EC2", "RDS", "ECS"),
+    MEMORY("Memory", "ECS"),
+    NETWORK_IN("NetworkIn", "EC2"),
+    CONNECTIONS("Connections", "RDS"),
+    INVOCATIONS("Invocations", "SageMaker");
+
+    /**
+     * Size of a value array holding every metric
+     */
+    public static final int COUNT = values().length;
+
+    private final String name;
+    private final String[] resourceTypes;
+
+    RuleMetric(String name, String... resourceTypes) {
+        this.name = name;
+        this.resourceTypes = resourceTypes;
+    }
+
+    /**
+     * Name used in rule conditions (e.g. "CPU")
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int slot() {
+        return ordinal();
+    }
+
+    /**
+     * Whether the metric is collected for the resource type
+     */
+    public boolean isAvailableFor(String resourceType) {
+        for (String type : resourceTypes) {
+            if (type.equalsIgnoreCase(resourceType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Metric with the given name (case-insensitive), or null
+     */
+    public static RuleMetric fromName(String name) {
+        for (RuleMetric metric : values()) {
+            if (metric.name.equalsIgnoreCase(name) || metric.name().equalsIgnoreCase(name)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,171 @@
+package services;
+
+import dao.RuleDAO;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import models.Rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RuleRepository - In-memory copy of the active rules
+ * Singleton shared by rule evaluation and the rule scheduler. The rules are read and
+ * compiled once per version of the rules table (see RuleDAO.getRulesVersion()); callers
+ * get the cached copy, and the version row is polled at most every couple of seconds to
+ * pick up changes made here or by another node (the desktop client or the daemon).
+ * Without the version row, rules are re-read once a minute.
+ *
+ * The returned lists and rules are shared: treat them as read-only.
+ */
+public class RuleRepository {
+    private static RuleRepository instance;
+    private static final long VERSION_POLL_MILLIS = Long.getLong("rules.version.poll.millis", 2_000);
+    private static final long UNVERSIONED_RELOAD_MILLIS = 60_000;
+
+    /**
+     * Rules as of one version of the rules table
+     */
+    private static class Snapshot {
+        private final long version;
+        private final long loadedAt;
+        private final List<Rule> rules;
+        private final List<CompiledRule> compiled;
+        private final Map<Integer, CompiledRule> compiledById;
+
+        Snapshot(long version, long loadedAt, List<Rule> rules, List<CompiledRule> compiled) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.rules = rules;
+            this.compiled = compiled;
+            this.compiledById = new HashMap<>();
+            for (CompiledRule rule : compiled) {
+                compiledById.put(rule.getRuleId(), rule);
+            }
+        }
+    }
+
+    private final RuleDAO ruleDAO;
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
+    private final Counter compiledHits;
+    private final Counter compiledMisses;
+    private volatile Snapshot snapshot;
+    private volatile long lastPollAt;
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private RuleRepository() {
+        this.ruleDAO = new RuleDAO();
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        this.snapshotHits = registry.counter("governance_cache_requests", "Cache lookups by result",
+            "cache", "rules", "result", "hit");
+        this.snapshotMisses = registry.counter("governance_cache_requests", "Cache lookups by result",
+            "cache", "rules", "result", "miss");
+        this.compiledHits = registry.counter("governance_cache_requests", "Cache lookups by result",
+            "cache", "compiled_rule", "result", "hit");
+        this.compiledMisses = registry.counter("governance_cache_requests", "Cache lookups by result",
+            "cache", "compiled_rule", "result", "miss");
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized RuleRepository getInstance() {
+        if (instance == null) {
+            instance = new RuleRepository();
+        }
+        return instance;
+    }
+
+    /**
+     * Active rules; the same list instance is returned until the rules change
+     */
+    public List<Rule> getActiveRules() {
+        return current().rules;
+    }
+
+    /**
+     * Active rules that compile, in the same order as getActiveRules()
+     */
+    public List<CompiledRule> getCompiledRules() {
+        return current().compiled;
+    }
+
+    /**
+     * Compiled form of a rule, reusing the cached one when the rule came from this repository
+     * @throws IllegalArgumentException if the rule does not compile
+     */
+    public CompiledRule getCompiledRule(Rule rule) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            CompiledRule compiled = current.compiledById.get(rule.getRuleId());
+            if (compiled != null && compiled.getRule() == rule) {
+                compiledHits.inc();
+                return compiled;
+            }
+        }
+        compiledMisses.inc();
+        return RuleCompiler.compile(rule);
+    }
+
+    /**
+     * Version of the cached rules (-1 when the rules table has no version row)
+     */
+    public long getVersion() {
+        return current().version;
+    }
+
+    /**
+     * Make the next access check the version row instead of waiting for the poll interval
+     */
+    public void invalidate() {
+        lastPollAt = 0;
+    }
+
+    /**
+     * Re-read the rules if the version row changed since they were loaded
+     * @return true if the rules were re-read
+     */
+    public synchronized boolean refreshIfChanged() {
+        long now = System.currentTimeMillis();
+        lastPollAt = now;
+        long version = ruleDAO.getRulesVersion();
+        Snapshot current = snapshot;
+        if (current != null) {
+            boolean unchanged = version >= 0
+                ? version == current.version
+                : current.version < 0 && now - current.loadedAt < UNVERSIONED_RELOAD_MILLIS;
+            if (unchanged) {
+                return false;
+            }
+        }
+
+        // The version is read before the rules, so a write in between only causes one extra reload
+        List<Rule> rules = Collections.unmodifiableList(ruleDAO.getAllActiveRules());
+        List<CompiledRule> compiled = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            try {
+                compiled.add(RuleCompiler.compile(rule));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Skipping rule " + rule.getRuleName() + ": " + e.getMessage());
+            }
+        }
+        snapshot = new Snapshot(version, now, rules, Collections.unmodifiableList(compiled));
+        System.out.println("Loaded " + rules.size() + " active rules (version " + version + ")");
+        return true;
+    }
+
+    private Snapshot current() {
+        boolean reloaded = false;
+        if (snapshot == null || System.currentTimeMillis() - lastPollAt >= VERSION_POLL_MILLIS) {
+            reloaded = refreshIfChanged();
+        }
+        (reloaded ? snapshotMisses : snapshotHits).inc();
+        return snapshot;
+    }
+}
@@ -0,0 +1,496 @@
+package services;
+
+import models.Rule;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * RuleScheduler - Evaluates each active rule on its own cadence
+ * Singleton built on a hashed timing wheel: one ticker thread advances the wheel once a
+ * second and hands due rules to a small worker pool, so scheduling cost does not grow
+ * with the number of rules. Each run is spread by the rule's jitter, and first runs are
+ * spread over a whole interval, so rules with the same cadence do not all call CloudWatch
+ * at once. A rule whose previous run is still queued or running is skipped for that turn.
+ *
+ * Active rules come from the RuleRepository, which is checked every few seconds; new,
+ * changed and deactivated rules are picked up without a restart, and the schedule is only
+ * rebuilt when the rules actually changed. Per-rule lag (start time minus due time) and run durations are kept
+ * for getStats().
+ */
+public class RuleScheduler {
+    private static RuleScheduler instance;
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512; // power of two; one turn is about 8.5 minutes
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final long RULE_CHECK_INTERVAL_MILLIS = 5_000;
+
+    /**
+     * A pending run of a rule, parked in a wheel bucket
+     */
+    private static class Timeout {
+        private final ScheduledRule owner;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        Timeout(ScheduledRule owner, long deadline) {
+            this.owner = owner;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Schedule state and statistics of one rule
+     */
+    private static class ScheduledRule {
+        private volatile Rule rule;
+        private volatile Timeout timeout;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicLong runCount = new AtomicLong();
+        private final AtomicLong skippedCount = new AtomicLong();
+        private final AtomicLong failureCount = new AtomicLong();
+        private volatile long lastRunAt;
+        private volatile long lastLagMillis = -1;
+        private volatile long lastDurationMillis = -1;
+
+        ScheduledRule(Rule rule) {
+            this.rule = rule;
+        }
+    }
+
+    /**
+     * Snapshot of the schedule and last run of one rule
+     */
+    public static class RuleRunStats {
+        private final int ruleId;
+        private final String ruleName;
+        private final int intervalMinutes;
+        private final LocalDateTime nextRunAt;
+        private final LocalDateTime lastRunAt;
+        private final long lastLagMillis;
+        private final long lastDurationMillis;
+        private final long runCount;
+        private final long skippedCount;
+        private final long failureCount;
+        private final boolean running;
+
+        private RuleRunStats(ScheduledRule scheduled) {
+            Rule rule = scheduled.rule;
+            Timeout timeout = scheduled.timeout;
+            this.ruleId = rule.getRuleId();
+            this.ruleName = rule.getRuleName();
+            this.intervalMinutes = rule.getEvaluationIntervalMinutes();
+            this.nextRunAt = timeout != null ? toDateTime(timeout.deadline) : null;
+            this.lastRunAt = scheduled.lastRunAt > 0 ? toDateTime(scheduled.lastRunAt) : null;
+            this.lastLagMillis = scheduled.lastLagMillis;
+            this.lastDurationMillis = scheduled.lastDurationMillis;
+            this.runCount = scheduled.runCount.get();
+            this.skippedCount = scheduled.skippedCount.get();
+            this.failureCount = scheduled.failureCount.get();
+            this.running = scheduled.running.get();
+        }
+
+        private static LocalDateTime toDateTime(long millis) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        }
+
+        public int getRuleId() {
+            return ruleId;
+        }
+
+        public String getRuleName() {
+            return ruleName;
+        }
+
+        public int getIntervalMinutes() {
+            return intervalMinutes;
+        }
+
+        public LocalDateTime getNextRunAt() {
+            return nextRunAt;
+        }
+
+        public LocalDateTime getLastRunAt() {
+            return lastRunAt;
+        }
+
+        /**
+         * Milliseconds between the last run's due time and its start (-1 before the first run)
+         */
+        public long getLastLagMillis() {
+            return lastLagMillis;
+        }
+
+        /**
+         * Duration of the last run in milliseconds (-1 before the first run)
+         */
+        public long getLastDurationMillis() {
+            return lastDurationMillis;
+        }
+
+        public long getRunCount() {
+            return runCount;
+        }
+
+        public long getSkippedCount() {
+            return skippedCount;
+        }
+
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public String toString() {
+            return "Rule " + ruleId + " '" + ruleName + "': every " + intervalMinutes + " min, runs=" + runCount
+                + ", skipped=" + skippedCount + ", failures=" + failureCount + ", last lag=" + lastLagMillis
+                + " ms, last duration=" + lastDurationMillis + " ms, next=" + nextRunAt;
+        }
+    }
+
+    private final Map<Integer, ScheduledRule> rules = new ConcurrentHashMap<>();
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final List<ArrayDeque<Timeout>> wheel = new ArrayList<>(WHEEL_SIZE);
+
+    private Consumer<Rule> evaluator;
+    private ExecutorService workers;
+    private Thread ticker;
+    private volatile boolean started;
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+    // The rule list the schedule was built from; reloadRules() runs on one worker at a time
+    private volatile List<Rule> appliedRules;
+
+    // Owned by the ticker thread
+    private long startTime;
+    private long tick;
+    private long nextReloadAt;
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private RuleScheduler() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized RuleScheduler getInstance() {
+        if (instance == null) {
+            instance = new RuleScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Start evaluating rules with RuleEvaluationService on one worker thread, against the
+     * resources of one user (the one whose credentials the AWS client factory holds)
+     * Stop the scheduler before the factory switches to another user's credentials.
+     */
+    public void start(int userId) {
+        start(rule -> new RuleEvaluationService().evaluateRule(rule, userId), 1);
+    }
+
+    /**
+     * Start evaluating rules (does nothing if already started)
+     * @param evaluator evaluates one rule, on a worker thread
+     * @param workerThreads number of rules evaluated at the same time; keep this at 1
+     *                      unless the evaluator can share the database connection safely
+     */
+    public synchronized void start(Consumer<Rule> evaluator, int workerThreads) {
+        if (started) {
+            return;
+        }
+        this.evaluator = evaluator;
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "rule-evaluation-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.startTime = System.currentTimeMillis();
+        this.tick = 0;
+        this.nextReloadAt = startTime;
+        this.appliedRules = null;
+        this.reloadQueued.set(false);
+        this.started = true;
+
+        ticker = new Thread(this::runTicker, "rule-scheduler");
+        ticker.setDaemon(true);
+        ticker.start();
+        System.out.println("Rule scheduler started");
+    }
+
+    /**
+     * Stop scheduling and wait for running evaluations to finish
+     */
+    public void stop(long timeoutSeconds) {
+        ExecutorService runningWorkers;
+        Thread runningTicker;
+        synchronized (this) {
+            if (!started) {
+                return;
+            }
+            started = false;
+            runningTicker = ticker;
+            runningWorkers = workers;
+        }
+
+        runningTicker.interrupt();
+        runningWorkers.shutdown();
+        try {
+            runningTicker.join(TICK_MILLIS);
+            if (!runningWorkers.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                runningWorkers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            runningWorkers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        for (ScheduledRule scheduled : rules.values()) {
+            cancel(scheduled);
+        }
+        rules.clear();
+        pending.clear();
+        wheel.forEach(ArrayDeque::clear);
+        System.out.println("Rule scheduler stopped");
+    }
+
+    /**
+     * Schedule state and last run statistics of every scheduled rule
+     */
+    public List<RuleRunStats> getStats() {
+        List<RuleRunStats> stats = new ArrayList<>();
+        for (ScheduledRule scheduled : rules.values()) {
+            stats.add(new RuleRunStats(scheduled));
+        }
+        stats.sort(Comparator.comparingInt(RuleRunStats::getRuleId));
+        return stats;
+    }
+
+    private void runTicker() {
+        while (started) {
+            long tickDeadline = startTime + (tick + 1) * TICK_MILLIS;
+            long sleepMillis = tickDeadline - System.currentTimeMillis();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            transferPending();
+            expireBucket(wheel.get((int) (tick & WHEEL_MASK)), now);
+            tick++;
+
+            if (now >= nextReloadAt) {
+                nextReloadAt = now + RULE_CHECK_INTERVAL_MILLIS;
+                // At most one check waits in the queue behind long evaluations
+                if (reloadQueued.compareAndSet(false, true) && !submit(this::reloadRules)) {
+                    reloadQueued.set(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Place newly scheduled runs into their buckets (ticker thread)
+     */
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long dueTick = (timeout.deadline - startTime) / TICK_MILLIS;
+            timeout.remainingRounds = Math.max(0, (dueTick - tick) / WHEEL_SIZE);
+            // Runs already overdue go in the current bucket and fire on this tick
+            long bucketTick = Math.max(dueTick, tick);
+            wheel.get((int) (bucketTick & WHEEL_MASK)).add(timeout);
+        }
+    }
+
+    private void expireBucket(ArrayDeque<Timeout> bucket, long now) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                fire(timeout, now);
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Schedule the rule's next run and evaluate it unless its previous run is not done
+     */
+    private void fire(Timeout timeout, long now) {
+        ScheduledRule scheduled = timeout.owner;
+        if (scheduled.timeout != timeout) {
+            return; // rescheduled in the meantime
+        }
+
+        // Anchored on the due time so runs do not drift; a late run does not cause a burst
+        long next = timeout.deadline + nextDelay(scheduled.rule);
+        if (next <= now) {
+            next = now + nextDelay(scheduled.rule);
+        }
+        schedule(scheduled, next);
+
+        if (!scheduled.running.compareAndSet(false, true)) {
+            scheduled.skippedCount.incrementAndGet();
+            System.out.println("Skipping rule '" + scheduled.rule.getRuleName() + "': previous run not finished");
+            return;
+        }
+        if (!submit(() -> evaluate(scheduled, timeout.deadline))) {
+            scheduled.running.set(false);
+        }
+    }
+
+    private void evaluate(ScheduledRule scheduled, long dueAt) {
+        Rule rule = scheduled.rule;
+        long start = System.currentTimeMillis();
+        scheduled.lastRunAt = start;
+        scheduled.lastLagMillis = Math.max(0, start - dueAt);
+        try {
+            evaluator.accept(rule);
+            scheduled.runCount.incrementAndGet();
+        } catch (Exception e) {
+            scheduled.failureCount.incrementAndGet();
+            System.err.println("Error evaluating rule " + rule.getRuleName() + ": " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            scheduled.lastDurationMillis = System.currentTimeMillis() - start;
+            scheduled.running.set(false);
+        }
+        System.out.println("Rule '" + rule.getRuleName() + "' evaluated in " + scheduled.lastDurationMillis
+            + " ms (lag " + scheduled.lastLagMillis + " ms)");
+    }
+
+    /**
+     * Bring the schedule in line with the active rules if they changed (worker thread)
+     */
+    private void reloadRules() {
+        try {
+            List<Rule> activeRules = RuleRepository.getInstance().getActiveRules();
+            // The repository hands out the same list until the rules change
+            if (activeRules != appliedRules) {
+                appliedRules = activeRules;
+                applyRules(activeRules);
+            }
+        } finally {
+            reloadQueued.set(false);
+        }
+    }
+
+    private void applyRules(List<Rule> activeRules) {
+        long now = System.currentTimeMillis();
+        Set<Integer> activeIds = new HashSet<>();
+
+        for (Rule rule : activeRules) {
+            activeIds.add(rule.getRuleId());
+            ScheduledRule scheduled = rules.get(rule.getRuleId());
+
+            if (scheduled == null) {
+                // First run at a random point of the first interval
+                scheduled = new ScheduledRule(rule);
+                rules.put(rule.getRuleId(), scheduled);
+                schedule(scheduled, now + ThreadLocalRandom.current().nextLong(intervalMillis(rule)));
+                continue;
+            }
+
+            Rule previous = scheduled.rule;
+            scheduled.rule = rule;
+            if (previous.getEvaluationIntervalMinutes() != rule.getEvaluationIntervalMinutes()
+                    || previous.getJitterPercent() != rule.getJitterPercent()) {
+                schedule(scheduled, now + nextDelay(rule));
+            }
+        }
+
+        rules.entrySet().removeIf(entry -> {
+            if (activeIds.contains(entry.getKey())) {
+                return false;
+            }
+            cancel(entry.getValue());
+            return true;
+        });
+    }
+
+    /**
+     * Replace the rule's pending run with one due at deadline
+     */
+    private void schedule(ScheduledRule scheduled, long deadline) {
+        cancel(scheduled);
+        Timeout timeout = new Timeout(scheduled, deadline);
+        scheduled.timeout = timeout;
+        pending.add(timeout);
+    }
+
+    private void cancel(ScheduledRule scheduled) {
+        Timeout timeout = scheduled.timeout;
+        if (timeout != null) {
+            timeout.cancelled = true;
+        }
+    }
+
+    private boolean submit(Runnable work) {
+        try {
+            workers.execute(work);
+            return true;
+        } catch (RuntimeException e) {
+            // Rejected while stopping
+            return false;
+        }
+    }
+
+    /**
+     * The rule's interval spread by up to +/- its jitter percentage
+     */
+    private static long nextDelay(Rule rule) {
+        long interval = intervalMillis(rule);
+        int jitterPercent = Math.min(Math.max(rule.getJitterPercent(), 0), 100);
+        long jitter = interval * jitterPercent / 100;
+        long delay = interval + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0);
+        return Math.max(delay, TICK_MILLIS);
+    }
+
+    private static long intervalMillis(Rule rule) {
+        return TimeUnit.MINUTES.toMillis(Math.max(rule.getEvaluationIntervalMinutes(), 1));
+    }
+}
@@ -0,0 +1,282 @@
+package services;
+
+import aws.EC2Service;
+import aws.ECSAWSService;
+import aws.RDSService;
+import dao.ScheduleDAO;
+import models.ECSService;
+import models.ResourceSchedule;
+import models.ScheduleTarget;
+import utils.RateLimiter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ScheduleExecutor - Runs a batch of off-hours transitions that are due together
+ * Targets are resolved when the transitions fire (tag selectors through the describe
+ * APIs, so newly tagged resources are included without a sync). The resolved resources
+ * of all transitions are merged per resource type and action, then:
+ *   - EC2 instances are started or stopped with one StartInstances / StopInstances call
+ *     per 100 ids (a rejected batch is retried one id at a time)
+ *   - RDS instances and ECS services have no batch APIs; their calls run concurrently
+ *     on a few threads under a shared rate limit
+ * ECS services are stopped by scaling to 0; their desired count is saved and restored
+ * on start. A resource both started and stopped by the same batch is left alone.
+ * Uses the AWS credentials currently held by the client factory.
+ */
+public class ScheduleExecutor {
+    static final int EC2_BATCH_SIZE = 100;
+    private static final double CALLS_PER_SECOND = 5.0;
+    private static final int THREADS = 4;
+
+    private final ScheduleDAO scheduleDAO;
+
+    public ScheduleExecutor() {
+        this.scheduleDAO = new ScheduleDAO();
+    }
+
+    /**
+     * Resolve and execute the transitions
+     */
+    public void execute(List<ScheduleTransition> transitions) {
+        EC2Service ec2Service = new EC2Service();
+        RDSService rdsService = new RDSService();
+        ECSAWSService ecsService = new ECSAWSService();
+
+        Map<ScheduleTransition.Action, Set<String>> instances = new EnumMap<>(ScheduleTransition.Action.class);
+        Map<ScheduleTransition.Action, Set<String>> databases = new EnumMap<>(ScheduleTransition.Action.class);
+        Map<ScheduleTransition.Action, Map<String, ECSService>> services = new EnumMap<>(ScheduleTransition.Action.class);
+        for (ScheduleTransition.Action action : ScheduleTransition.Action.values()) {
+            instances.put(action, new LinkedHashSet<>());
+            databases.put(action, new LinkedHashSet<>());
+            services.put(action, new LinkedHashMap<>());
+        }
+
+        for (ScheduleTransition transition : transitions) {
+            ResourceSchedule schedule = transition.getSchedule();
+            ScheduleTransition.Action action = transition.getAction();
+            boolean stop = action == ScheduleTransition.Action.STOP;
+            switch (schedule.getResourceType()) {
+                case "EC2":
+                    for (ScheduleTarget target : schedule.getTargets()) {
+                        if (target.isTagSelector()) {
+                            instances.get(action).addAll(ec2Service.findInstanceIdsByTag(
+                                target.getTagKey(), target.getTagValue(), stop ? "running" : "stopped"));
+                        } else {
+                            instances.get(action).add(target.getResourceId());
+                        }
+                    }
+                    break;
+                case "RDS":
+                    for (ScheduleTarget target : schedule.getTargets()) {
+                        if (target.isTagSelector()) {
+                            databases.get(action).addAll(rdsService.findDBInstanceIdsByTag(
+                                target.getTagKey(), target.getTagValue(), stop ? "available" : "stopped"));
+                        } else {
+                            databases.get(action).add(target.getResourceId());
+                        }
+                    }
+                    break;
+                case "ECS":
+                    List<String> serviceKeys = new ArrayList<>();
+                    List<ECSService> resolved = new ArrayList<>();
+                    for (ScheduleTarget target : schedule.getTargets()) {
+                        if (target.isTagSelector()) {
+                            resolved.addAll(ecsService.findServicesByTag(target.getTagKey(), target.getTagValue()));
+                        } else {
+                            serviceKeys.add(target.getResourceId());
+                        }
+                    }
+                    resolved.addAll(ecsService.getServices(serviceKeys));
+                    for (ECSService service : resolved) {
+                        // Stop services that have tasks; start the ones scaled to 0
+                        if ("ACTIVE".equals(service.getStatus()) && (service.getDesiredCount() > 0) == stop) {
+                            services.get(action).put(service.getClusterName() + "/" + service.getServiceName(), service);
+                        }
+                    }
+                    break;
+                default:
+                    System.err.println("Schedule '" + schedule.getScheduleName() + "' has unsupported resource type "
+                        + schedule.getResourceType());
+            }
+        }
+
+        dropConflicts(instances, "EC2 instance");
+        dropConflicts(databases, "RDS instance");
+        dropConflicts(services.get(ScheduleTransition.Action.STOP).keySet(),
+            services.get(ScheduleTransition.Action.START).keySet(), "ECS service");
+
+        Map<String, int[]> tally = new LinkedHashMap<>();
+        List<ECSService> startedServices = Collections.synchronizedList(new ArrayList<>());
+        RateLimiter limiter = new RateLimiter(CALLS_PER_SECOND);
+        runEC2(ec2Service, instances, limiter, tally);
+        runConcurrently(buildTasks(rdsService, ecsService, databases, services, limiter, tally, startedServices));
+        // Saved counts are only dropped once the service runs again
+        scheduleDAO.deleteECSDesiredCounts(startedServices);
+
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : tally.entrySet()) {
+            parts.add(entry.getKey() + " " + entry.getValue()[0] + "/" + entry.getValue()[1]);
+        }
+        System.out.println("Off-hours schedules: " + (parts.isEmpty() ? "nothing to change" : String.join(", ", parts))
+            + " (succeeded/attempted)");
+    }
+
+    private static void dropConflicts(Map<ScheduleTransition.Action, Set<String>> ids, String description) {
+        dropConflicts(ids.get(ScheduleTransition.Action.STOP), ids.get(ScheduleTransition.Action.START), description);
+    }
+
+    private static void dropConflicts(Set<String> stops, Set<String> starts, String description) {
+        Set<String> both = new LinkedHashSet<>(stops);
+        both.retainAll(starts);
+        for (String id : both) {
+            System.err.println("Off-hours schedules both start and stop " + description + " " + id + "; leaving it as is");
+        }
+        stops.removeAll(both);
+        starts.removeAll(both);
+    }
+
+    /**
+     * Batched StopInstances / StartInstances calls, one per 100 instance ids
+     */
+    private void runEC2(EC2Service ec2Service, Map<ScheduleTransition.Action, Set<String>> instances,
+                        RateLimiter limiter, Map<String, int[]> tally) {
+        for (Map.Entry<ScheduleTransition.Action, Set<String>> entry : instances.entrySet()) {
+            boolean stop = entry.getKey() == ScheduleTransition.Action.STOP;
+            List<String> ids = new ArrayList<>(entry.getValue());
+            for (int from = 0; from < ids.size(); from += EC2_BATCH_SIZE) {
+                List<String> batch = ids.subList(from, Math.min(ids.size(), from + EC2_BATCH_SIZE));
+                if (!acquire(limiter)) {
+                    return;
+                }
+                Set<String> accepted = stop ? ec2Service.stopInstances(batch) : ec2Service.startInstances(batch);
+                if (accepted.isEmpty() && batch.size() > 1) {
+                    // The whole call was rejected, usually because of one bad id: isolate it
+                    accepted = new LinkedHashSet<>();
+                    for (String id : batch) {
+                        if (!acquire(limiter)) {
+                            return;
+                        }
+                        if (stop ? ec2Service.stopInstance(id) : ec2Service.startInstance(id)) {
+                            accepted.add(id);
+                        }
+                    }
+                }
+                count(tally, entry.getKey() + " EC2", accepted.size(), batch.size());
+            }
+        }
+    }
+
+    private List<Runnable> buildTasks(RDSService rdsService, ECSAWSService ecsService,
+                                      Map<ScheduleTransition.Action, Set<String>> databases,
+                                      Map<ScheduleTransition.Action, Map<String, ECSService>> services,
+                                      RateLimiter limiter, Map<String, int[]> tally,
+                                      List<ECSService> startedServices) {
+        List<Runnable> tasks = new ArrayList<>();
+        for (String id : databases.get(ScheduleTransition.Action.STOP)) {
+            tasks.add(task(limiter, tally, "STOP RDS", () -> rdsService.stopDBInstance(id)));
+        }
+        for (String id : databases.get(ScheduleTransition.Action.START)) {
+            tasks.add(task(limiter, tally, "START RDS", () -> rdsService.startDBInstance(id)));
+        }
+
+        List<ECSService> stopping = new ArrayList<>(services.get(ScheduleTransition.Action.STOP).values());
+        if (!stopping.isEmpty() && !scheduleDAO.saveECSDesiredCounts(stopping)) {
+            // Without the saved counts the services could not be restored to their size
+            System.err.println("Not stopping " + stopping.size() + " ECS services: desired counts could not be saved");
+            stopping.clear();
+        }
+        for (ECSService service : stopping) {
+            tasks.add(task(limiter, tally, "STOP ECS",
+                () -> ecsService.stopService(service.getClusterName(), service.getServiceName())));
+        }
+
+        Collection<ECSService> starting = services.get(ScheduleTransition.Action.START).values();
+        if (!starting.isEmpty()) {
+            Map<String, Integer> savedCounts = scheduleDAO.getECSDesiredCounts();
+            for (ECSService service : starting) {
+                int desiredCount = savedCounts.getOrDefault(service.getClusterName() + "/" + service.getServiceName(), 1);
+                tasks.add(task(limiter, tally, "START ECS", () -> {
+                    boolean started = ecsService.startService(service.getClusterName(), service.getServiceName(), desiredCount);
+                    if (started) {
+                        startedServices.add(service);
+                    }
+                    return started;
+                }));
+            }
+        }
+        return tasks;
+    }
+
+    private Runnable task(RateLimiter limiter, Map<String, int[]> tally, String label, Supplier<Boolean> call) {
+        return () -> {
+            if (acquire(limiter)) {
+                count(tally, label, call.get() ? 1 : 0, 1);
+            }
+        };
+    }
+
+    private void runConcurrently(List<Runnable> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(THREADS, tasks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "off-hours-call-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error running off-hours transition: " + e.getCause().getMessage());
+            e.printStackTrace();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static boolean acquire(RateLimiter limiter) {
+        try {
+            limiter.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Add succeeded and attempted calls to the tally (from several threads)
+     */
+    private static void count(Map<String, int[]> tally, String label, int succeeded, int attempted) {
+        synchronized (tally) {
+            int[] counts = tally.computeIfAbsent(label, key -> new int[2]);
+            counts[0] += succeeded;
+            counts[1] += attempted;
+        }
+    }
+}
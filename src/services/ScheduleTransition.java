@@ -0,0 +1,53 @@
+package services;
+
+import models.ResourceSchedule;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * ScheduleTransition - The next start or stop of a resource schedule
+ * Immutable; ordered by due time in the OffHoursScheduler queue.
+ */
+public final class ScheduleTransition {
+
+    public enum Action {
+        STOP,
+        START
+    }
+
+    private final ResourceSchedule schedule;
+    private final Action action;
+    private final long dueAt;
+
+    ScheduleTransition(ResourceSchedule schedule, Action action, long dueAt) {
+        this.schedule = schedule;
+        this.action = action;
+        this.dueAt = dueAt;
+    }
+
+    public ResourceSchedule getSchedule() {
+        return schedule;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * Due time in epoch milliseconds
+     */
+    public long getDueAt() {
+        return dueAt;
+    }
+
+    public LocalDateTime getDueDateTime() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(dueAt), ZoneId.systemDefault());
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + schedule + " at " + getDueDateTime();
+    }
+}
@@ -0,0 +1,168 @@
+package services;
+
+import aws.AWSClientFactory;
+import aws.EC2Service;
+import aws.ECSAWSService;
+import aws.RDSService;
+import aws.SageMakerAWSService;
+import dao.AWSCredentialDAO;
+import metrics.MetricsRegistry;
+import metrics.SyncStageEvent;
+import models.AWSCredential;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * SyncOrchestrator - Collects the resources of every user with active AWS credentials
+ * Accounts are synced one after another: the AWS client factory holds the credentials
+ * of one account at a time, so it is re-initialized for each user and the AWS services
+ * (which take their client when created) are created after it. Other jobs that call AWS
+ * (idle detection, rule evaluation, schedules) run per account the same way, through
+ * forEachAccount / runAsAccount, and only touch that account's resources.
+ */
+public class SyncOrchestrator {
+    private final AWSCredentialDAO credentialDAO;
+
+    public SyncOrchestrator() {
+        this.credentialDAO = new AWSCredentialDAO();
+    }
+
+    /**
+     * Sync the resources of every account
+     * @return number of accounts synced
+     */
+    public int syncAllAccounts() {
+        List<AWSCredential> accounts = credentialDAO.getAllActiveCredentials();
+        System.out.println("Syncing " + accounts.size() + " AWS accounts...");
+
+        int synced = 0;
+        for (AWSCredential credentials : accounts) {
+            if (Thread.currentThread().isInterrupted()) {
+                System.out.println("Sync interrupted after " + synced + " accounts");
+                break;
+            }
+            if (syncAccount(credentials)) {
+                synced++;
+            }
+        }
+
+        System.out.println("Synced " + synced + " of " + accounts.size() + " AWS accounts");
+        return synced;
+    }
+
+    /**
+     * Run a job once for every account, with that account's credentials loaded
+     * @param job receives the user id of the account; it must only touch that user's resources
+     * @return number of accounts the job ran for without error
+     */
+    public int forEachAccount(IntConsumer job) {
+        int ran = 0;
+        for (AWSCredential credentials : credentialDAO.getAllActiveCredentials()) {
+            if (Thread.currentThread().isInterrupted()) {
+                System.out.println("Job interrupted after " + ran + " accounts");
+                break;
+            }
+            if (runAsAccount(credentials, job)) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Run a job for one user with their account's credentials loaded
+     * @return whether the user has active credentials and the job ran without error
+     */
+    public boolean runAsAccount(int userId, IntConsumer job) {
+        AWSCredential credentials = credentialDAO.getActiveCredentials(userId);
+        if (credentials == null) {
+            System.err.println("No active AWS credentials for user " + userId);
+            return false;
+        }
+        return runAsAccount(credentials, job);
+    }
+
+    private boolean runAsAccount(AWSCredential credentials, IntConsumer job) {
+        int userId = credentials.getUserId();
+        try {
+            useCredentials(credentials);
+            job.accept(userId);
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error running job for user " + userId + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Load an account's credentials into the AWS client factory, unless it already holds them
+     */
+    private static void useCredentials(AWSCredential credentials) {
+        AWSClientFactory factory = AWSClientFactory.getInstance();
+        if (!factory.hasCredentials(credentials.getAccessKey(), credentials.getSecretKey(), credentials.getRegion())) {
+            factory.initializeCredentials(credentials.getAccessKey(), credentials.getSecretKey(),
+                credentials.getRegion());
+        }
+    }
+
+    /**
+     * Sync the EC2, RDS, ECS and SageMaker resources of one account
+     */
+    public boolean syncAccount(AWSCredential credentials) {
+        int userId = credentials.getUserId();
+        try {
+            useCredentials(credentials);
+            if (!AWSClientFactory.getInstance().validateCredentials()) {
+                System.err.println("Skipping sync of user " + userId + ": AWS credentials could not be validated");
+                return false;
+            }
+
+            runStage("ec2", userId, () -> new EC2Service().syncFromAWS(userId));
+            runStage("rds", userId, () -> new RDSService().syncFromAWS(userId));
+            runStage("ecs", userId, () -> new ECSAWSService().syncFromAWS(userId));
+            runStage("sagemaker", userId, () -> new SageMakerAWSService().syncFromAWS(userId));
+
+            // Only the resources that changed in this sync are re-checked, with this account's credentials
+            runStage("rules", userId, () -> ChangeDrivenRuleEvaluator.getInstance().evaluatePending());
+            countAccount("success");
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error syncing resources of user " + userId + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        countAccount("error");
+        return false;
+    }
+
+    /**
+     * Run one stage of a sync, recording its duration and a SyncStageEvent
+     * @param run runs the stage and returns the number of resources it handled
+     */
+    private static void runStage(String stage, int userId, IntSupplier run) {
+        SyncStageEvent event = new SyncStageEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int resources = -1;
+        try {
+            resources = run.getAsInt();
+        } finally {
+            MetricsRegistry.getInstance().histogram("governance_sync_stage_duration_seconds",
+                "Time spent in each stage of an account sync", "stage", stage).observeNanos(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage;
+                event.userId = userId;
+                event.resources = resources;
+                event.commit();
+            }
+        }
+    }
+
+    private static void countAccount(String outcome) {
+        MetricsRegistry.getInstance().counter("governance_sync_accounts", "Account syncs by outcome",
+            "outcome", outcome).inc();
+    }
+}
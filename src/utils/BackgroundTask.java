@@ -0,0 +1,51 @@
+package utils;
+
+import javafx.concurrent.Task;
+
+/**
+ * BackgroundTask - JavaFX Task wrapping a unit of blocking work
+ * The work receives the task itself so it can report progress and check for cancellation.
+ */
+public class BackgroundTask<T> extends Task<T> {
+
+    /**
+     * Blocking work executed off the JavaFX Application Thread
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(BackgroundTask<?> task) throws Exception;
+    }
+
+    private final String name;
+    private final Work<T> work;
+
+    BackgroundTask(String name, Work<T> work) {
+        this.name = name;
+        this.work = work;
+        updateTitle(name);
+    }
+
+    @Override
+    protected T call() throws Exception {
+        updateMessage(name + "...");
+        return work.run(this);
+    }
+
+    /**
+     * Report progress (safe to call from the worker thread)
+     */
+    public void reportProgress(long done, long total) {
+        updateProgress(done, total);
+    }
+
+    /**
+     * Report a status message (safe to call from the worker thread)
+     */
+    public void reportMessage(String message) {
+        updateMessage(message);
+    }
+
+    public String getName() {
+        return name;
+    }
+}
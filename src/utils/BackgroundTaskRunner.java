@@ -0,0 +1,213 @@
+package utils;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * BackgroundTaskRunner - Runs blocking work (AWS calls, database access) off the
+ * JavaFX Application Thread
+ * Singleton over a managed pool of daemon threads. Success and failure callbacks are
+ * delivered on the FX thread, so controllers can update their views directly.
+ * The state of the most recent running task is exposed as properties for a status bar.
+ */
+public class BackgroundTaskRunner {
+    private static BackgroundTaskRunner instance;
+    private static final int POOL_SIZE = 8;
+
+    private final ExecutorService executor;
+    private final Set<BackgroundTask<?>> activeTasks = new LinkedHashSet<>();
+    private final ReadOnlyIntegerWrapper activeTaskCount = new ReadOnlyIntegerWrapper(0);
+    private final ReadOnlyStringWrapper statusMessage = new ReadOnlyStringWrapper("");
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0.0);
+
+    /**
+     * Private constructor for Singleton pattern
+     */
+    private BackgroundTaskRunner() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "background-task-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newFixedThreadPool(POOL_SIZE, threadFactory);
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized BackgroundTaskRunner getInstance() {
+        if (instance == null) {
+            instance = new BackgroundTaskRunner();
+        }
+        return instance;
+    }
+
+    /**
+     * Run work in the background
+     * @param name short description shown in the status bar and logs
+     * @param work blocking work, executed on a pool thread
+     * @param onSuccess called on the FX thread with the result (may be null)
+     * @param onFailure called on the FX thread with the error (may be null)
+     * @return the task, which can be used to cancel it or bind to its progress
+     */
+    public <T> BackgroundTask<T> submit(String name, BackgroundTask.Work<T> work,
+                                       Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        BackgroundTask<T> task = new BackgroundTask<>(name, work);
+
+        task.setOnSucceeded(event -> {
+            untrack(task);
+            if (onSuccess != null) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+
+        task.setOnFailed(event -> {
+            untrack(task);
+            Throwable error = task.getException();
+            System.err.println("Background task failed (" + name + "): " + error.getMessage());
+            error.printStackTrace();
+            if (onFailure != null) {
+                onFailure.accept(error);
+            }
+        });
+
+        task.setOnCancelled(event -> {
+            untrack(task);
+            System.out.println("Background task cancelled: " + name);
+        });
+
+        runOnFxThread(() -> track(task));
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Run work that produces no result in the background
+     */
+    public BackgroundTask<Object> submit(String name, Runnable work, Runnable onSuccess,
+                                         Consumer<Throwable> onFailure) {
+        return submit(name, task -> {
+            work.run();
+            return null;
+        }, result -> {
+            if (onSuccess != null) {
+                onSuccess.run();
+            }
+        }, onFailure);
+    }
+
+    /**
+     * Cancel all running and queued tasks
+     */
+    public void cancelAll() {
+        List<BackgroundTask<?>> tasks;
+        synchronized (activeTasks) {
+            tasks = new ArrayList<>(activeTasks);
+        }
+        for (BackgroundTask<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Cancel outstanding work and stop the pool (called on application exit)
+     */
+    public void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("Background tasks did not finish within 5 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Executor of the pool, for work composed with CompletableFuture
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public ReadOnlyIntegerProperty activeTaskCountProperty() {
+        return activeTaskCount.getReadOnlyProperty();
+    }
+
+    public ReadOnlyStringProperty statusMessageProperty() {
+        return statusMessage.getReadOnlyProperty();
+    }
+
+    public ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    private void track(BackgroundTask<?> task) {
+        if (task.isDone()) {
+            return; // finished before it could be tracked
+        }
+        synchronized (activeTasks) {
+            activeTasks.add(task);
+        }
+        updateStatus();
+    }
+
+    private void untrack(BackgroundTask<?> task) {
+        synchronized (activeTasks) {
+            activeTasks.remove(task);
+        }
+        updateStatus();
+    }
+
+    /**
+     * Show the most recently started task in the status properties (FX thread only)
+     */
+    private void updateStatus() {
+        BackgroundTask<?> latest = null;
+        int count;
+        synchronized (activeTasks) {
+            for (BackgroundTask<?> task : activeTasks) {
+                latest = task;
+            }
+            count = activeTasks.size();
+        }
+
+        activeTaskCount.set(count);
+        statusMessage.unbind();
+        progress.unbind();
+        if (latest == null) {
+            statusMessage.set("");
+            progress.set(0.0);
+        } else {
+            statusMessage.bind(latest.messageProperty());
+            progress.bind(latest.progressProperty());
+        }
+    }
+
+    private void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * ListDiff - Brings a list in line with fresh results using keyed, minimal changes
+ * Rows are matched by key. Rows whose version is unchanged are left in place (same
+ * object, so a bound TableView keeps their cells, selection and scroll position);
+ * changed rows are replaced in place, and missing or new rows are removed or inserted
+ * as contiguous ranges, so each run becomes a single list change event.
+ */
+public final class ListDiff {
+
+    private ListDiff() {
+    }
+
+    /**
+     * Counts of the changes applied by one diff
+     */
+    public static class Result {
+        private int inserted;
+        private int updated;
+        private int removed;
+        private int moved;
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+
+        public int getMoved() {
+            return moved;
+        }
+
+        public boolean isEmpty() {
+            return inserted + updated + removed + moved == 0;
+        }
+
+        @Override
+        public String toString() {
+            return inserted + " inserted, " + updated + " updated, " + removed + " removed, " + moved + " moved";
+        }
+    }
+
+    /**
+     * Apply the difference between target and fresh to target, so that it ends up
+     * with the rows of fresh in the same order
+     * @param keyOf identity of a row (e.g. its record id)
+     * @param versionOf value that changes whenever the row's content changes (e.g. last update time)
+     */
+    public static <T, K> Result apply(List<T> target, List<T> fresh, Function<T, K> keyOf,
+                                      Function<T, ?> versionOf) {
+        Result result = new Result();
+
+        Set<K> freshKeys = new HashSet<>();
+        for (T item : fresh) {
+            freshKeys.add(keyOf.apply(item));
+        }
+
+        // Removals, as contiguous ranges from the end so earlier indices stay valid
+        int end = target.size();
+        while (end > 0) {
+            if (freshKeys.contains(keyOf.apply(target.get(end - 1)))) {
+                end--;
+                continue;
+            }
+            int start = end - 1;
+            while (start > 0 && !freshKeys.contains(keyOf.apply(target.get(start - 1)))) {
+                start--;
+            }
+            target.subList(start, end).clear();
+            result.removed += end - start;
+            end = start;
+        }
+
+        // Every remaining row is in fresh; index them by key
+        Map<K, T> current = new HashMap<>();
+        for (T item : target) {
+            current.put(keyOf.apply(item), item);
+        }
+
+        int i = 0;
+        while (i < fresh.size()) {
+            T item = fresh.get(i);
+            K key = keyOf.apply(item);
+
+            if (i < target.size() && key.equals(keyOf.apply(target.get(i)))) {
+                if (!Objects.equals(versionOf.apply(target.get(i)), versionOf.apply(item))) {
+                    target.set(i, item);
+                    result.updated++;
+                }
+                i++;
+                continue;
+            }
+
+            if (current.containsKey(key)) {
+                // Moved (its sort value changed): take it out of its old position
+                target.remove(current.get(key));
+                target.add(i, item);
+                result.moved++;
+                i++;
+                continue;
+            }
+
+            // A run of new rows is inserted at once
+            int runEnd = i + 1;
+            while (runEnd < fresh.size() && !current.containsKey(keyOf.apply(fresh.get(runEnd)))) {
+                runEnd++;
+            }
+            target.addAll(i, new ArrayList<>(fresh.subList(i, runEnd)));
+            result.inserted += runEnd - i;
+            i = runEnd;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,254 @@
+package utils;
+
+import dao.Page;
+import dao.PageRequest;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * PagedTableLoader - Feeds a TableView from a keyset-paginated query
+ * Pages are fetched in the background as rows near the end of the loaded data are
+ * rendered, so only the pages the user has scrolled through are ever loaded. Clicking
+ * a column header re-queries the database with that sort instead of sorting in memory;
+ * columns without a server-side sort key are not sortable.
+ *
+ * Refreshing re-reads the rows already loaded and applies only the differences
+ * (see ListDiff), so the table keeps its selection and scroll position.
+ */
+public class PagedTableLoader<T> {
+
+    /**
+     * Fetches one page (runs on a background thread)
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        Page<T> fetch(PageRequest request);
+    }
+
+    private static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_ROWS = 20;
+
+    private final TableView<T> table;
+    private final String name;
+    private final PageSource<T> source;
+    private final Map<TableColumn<T, ?>, String> sortKeys = new HashMap<>();
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final BackgroundTaskRunner taskRunner = BackgroundTaskRunner.getInstance();
+
+    private Function<T, ?> keyOf;
+    private Function<T, ?> versionOf;
+    private Timeline autoRefresh;
+
+    private String sortKey;
+    private boolean ascending;
+    private String filter;
+    private PageRequest nextRequest;
+    private boolean loading;
+    private int generation;
+
+    /**
+     * @param name description of the loaded rows, shown in the status bar
+     * @param defaultSortKey sort key used while no column is sorted
+     */
+    public PagedTableLoader(TableView<T> table, String name, String defaultSortKey, boolean defaultAscending,
+                            PageSource<T> source) {
+        this.table = table;
+        this.name = name;
+        this.source = source;
+        this.sortKey = defaultSortKey;
+        this.ascending = defaultAscending;
+    }
+
+    /**
+     * Sort the column on the server by the given key
+     */
+    public PagedTableLoader<T> sortable(TableColumn<T, ?> column, String key) {
+        sortKeys.put(column, key);
+        return this;
+    }
+
+    /**
+     * Identify rows by key and detect changed rows by version, enabling diff-based refresh
+     */
+    public PagedTableLoader<T> keyedBy(Function<T, ?> keyOf, Function<T, ?> versionOf) {
+        this.keyOf = keyOf;
+        this.versionOf = versionOf;
+        return this;
+    }
+
+    /**
+     * Refresh the table periodically while it is shown
+     */
+    public PagedTableLoader<T> autoRefresh(Duration interval) {
+        autoRefresh = new Timeline(new KeyFrame(interval, event -> refresh(null)));
+        autoRefresh.setCycleCount(Animation.INDEFINITE);
+        table.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null) {
+                autoRefresh.play();
+            } else {
+                autoRefresh.stop();
+            }
+        });
+        if (table.getScene() != null) {
+            autoRefresh.play();
+        }
+        return this;
+    }
+
+    /**
+     * Attach to the table (call once, after the columns are set up)
+     */
+    public void install() {
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(sortKeys.containsKey(column));
+        }
+
+        String defaultSortKey = sortKey;
+        boolean defaultAscending = ascending;
+        table.setSortPolicy(view -> {
+            TableColumn<T, ?> column = view.getSortOrder().isEmpty() ? null : view.getSortOrder().get(0);
+            String key = column != null ? sortKeys.get(column) : defaultSortKey;
+            boolean asc = column != null ? column.getSortType() == TableColumn.SortType.ASCENDING : defaultAscending;
+            if (!key.equals(sortKey) || asc != ascending) {
+                sortKey = key;
+                ascending = asc;
+                reload(null);
+            }
+            return true;
+        });
+
+        // Rows are virtualized: only rendered rows are updated, so this follows the scroll position
+        table.setRowFactory(view -> new TableRow<T>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0 && index >= items.size() - PREFETCH_ROWS && nextRequest != null && !loading) {
+                    Platform.runLater(() -> loadNextPage(null));
+                }
+            }
+        });
+
+        table.setItems(items);
+    }
+
+    /**
+     * Match rows whose identifier starts with the given text (null or blank for all rows)
+     */
+    public void setFilter(String filter, Runnable onLoaded) {
+        this.filter = filter;
+        reload(onLoaded);
+    }
+
+    /**
+     * Drop the loaded rows and fetch the first page again
+     */
+    public void reload(Runnable onLoaded) {
+        generation++;
+        loading = false;
+        items.clear();
+        nextRequest = PageRequest.first(sortKey, ascending, filter, PAGE_SIZE);
+        loadNextPage(onLoaded);
+    }
+
+    /**
+     * Re-read the loaded rows (at least one page) and apply only what changed
+     * Falls back to a full reload if rows are not keyed.
+     */
+    public void refresh(Runnable onLoaded) {
+        if (keyOf == null || items.isEmpty()) {
+            reload(onLoaded);
+            return;
+        }
+        int rowCount = Math.max(items.size(), PAGE_SIZE);
+        PageRequest firstRequest = PageRequest.first(sortKey, ascending, filter, PAGE_SIZE);
+        int requestGeneration = ++generation;
+        loading = true;
+
+        taskRunner.submit("Refreshing " + name,
+            task -> fetchRows(firstRequest, rowCount),
+            rows -> {
+                if (requestGeneration != generation) {
+                    return; // superseded by a reload
+                }
+                loading = false;
+                ListDiff.Result result = ListDiff.apply(items, rows.items, keyOf, versionOf);
+                if (!result.isEmpty()) {
+                    System.out.println("Refreshed " + name + ": " + result);
+                }
+                nextRequest = rows.next;
+                if (onLoaded != null) {
+                    onLoaded.run();
+                }
+            },
+            error -> {
+                if (requestGeneration == generation) {
+                    loading = false;
+                }
+            });
+    }
+
+    /**
+     * Fetch pages until at least rowCount rows are read or the table ends (background thread)
+     */
+    private Rows<T> fetchRows(PageRequest request, int rowCount) {
+        Rows<T> rows = new Rows<>();
+        while (request != null && rows.items.size() < rowCount) {
+            Page<T> page = source.fetch(request);
+            rows.items.addAll(page.getItems());
+            request = page.hasMore() ? request.after(page) : null;
+        }
+        rows.next = request;
+        return rows;
+    }
+
+    private void loadNextPage(Runnable onLoaded) {
+        if (nextRequest == null || loading) {
+            return;
+        }
+        PageRequest request = nextRequest;
+        int requestGeneration = generation;
+        loading = true;
+
+        taskRunner.submit("Loading " + name,
+            task -> source.fetch(request),
+            page -> {
+                if (requestGeneration != generation) {
+                    return; // superseded by a reload
+                }
+                loading = false;
+                items.addAll(page.getItems());
+                nextRequest = page.hasMore() ? request.after(page) : null;
+                if (onLoaded != null) {
+                    onLoaded.run();
+                }
+            },
+            error -> {
+                if (requestGeneration == generation) {
+                    loading = false;
+                }
+            });
+    }
+
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    private static class Rows<T> {
+        private final List<T> items = new ArrayList<>();
+        private PageRequest next;
+    }
+}
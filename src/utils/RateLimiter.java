@@ -0,0 +1,42 @@
+package utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimiter - Spaces calls evenly to stay under an API request rate
+ * Each acquire() reserves the next free slot and sleeps until it arrives, so concurrent
+ * callers are served one interval apart. Slots are only reserved by waiting callers, so
+ * an idle limiter grants the next call immediately (no burst credit is saved up).
+ */
+public final class RateLimiter {
+    private final long intervalNanos;
+    private long nextFreeAt;
+
+    /**
+     * @param permitsPerSecond calls allowed per second (greater than 0)
+     */
+    public RateLimiter(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextFreeAt = System.nanoTime();
+    }
+
+    /**
+     * Wait for the next call slot
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextFreeAt);
+        nextFreeAt = slot + intervalNanos;
+        return slot - now;
+    }
+}
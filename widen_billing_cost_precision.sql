@@ -0,0 +1,7 @@
+-- Store billing record costs with sub-cent precision
+USE aws_governance_db;
+
+-- Per-service daily costs from Cost Explorer are often below one cent; with two
+-- decimals they were stored as 0.00 and the cost cube disagreed with the values
+-- shown right after a sync. Same precision as billing_line_items.cost_amount.
+ALTER TABLE billing_records MODIFY COLUMN cost_amount DECIMAL(16, 6);